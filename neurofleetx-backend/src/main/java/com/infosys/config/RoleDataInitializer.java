@@ -4,9 +4,11 @@ import com.infosys.model.Role;
 import com.infosys.model.User;
 import com.infosys.repository.RoleRepository;
 import com.infosys.repository.UserRepository;
+import com.infosys.service.Reference.ReferenceDataRegistry;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.util.*;
@@ -15,12 +17,13 @@ import java.util.*;
 public class RoleDataInitializer {
 
     @Bean
+    @Order(2)
     CommandLineRunner initRoles(RoleRepository roleRepository,
                                 UserRepository userRepository,
                                 PasswordEncoder encoder) {
         return args -> {
-            List<String> roles = List.of("ADMIN", "MANAGER", "DRIVER", "CUSTOMER");
-            for (String r : roles) {
+            for (ReferenceDataRegistry.RoleName role : ReferenceDataRegistry.RoleName.values()) {
+                String r = role.name();
                 roleRepository.findByName(r).orElseGet(() -> roleRepository.save(new Role(null, r)));
             }
 
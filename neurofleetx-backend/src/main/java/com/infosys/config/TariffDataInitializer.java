@@ -0,0 +1,35 @@
+package com.infosys.config;
+
+import com.infosys.model.Booking.Tariff;
+import com.infosys.repository.TariffRepository;
+import com.infosys.service.Booking.PricingEngine;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Configuration
+public class TariffDataInitializer {
+
+    // hourly rates the booking service used to hardcode
+    private static final Map<String, Double> DEFAULT_RATES = new LinkedHashMap<>();
+
+    static {
+        DEFAULT_RATES.put(PricingEngine.DEFAULT_TARIFF, 10.0);
+        DEFAULT_RATES.put("SUV", 15.0);
+        DEFAULT_RATES.put("VAN", 12.0);
+        DEFAULT_RATES.put("TRUCK", 18.0);
+        DEFAULT_RATES.put("PREMIUM", 25.0);
+        DEFAULT_RATES.put("BIKE", 5.0);
+    }
+
+    @Bean
+    @Order(1)
+    CommandLineRunner initTariffs(TariffRepository tariffRepo) {
+        return args -> DEFAULT_RATES.forEach((type, rate) ->
+                tariffRepo.findByVehicleType(type).orElseGet(() -> tariffRepo.save(new Tariff(null, type, rate, 2.0, 1))));
+    }
+}
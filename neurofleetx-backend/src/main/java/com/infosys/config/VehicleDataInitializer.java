@@ -4,25 +4,26 @@ import com.infosys.model.VehicleStatus;
 import com.infosys.model.VehicleType;
 import com.infosys.repository.VehicleStatusRepository;
 import com.infosys.repository.VehicleTypeRepository;
+import com.infosys.service.Reference.ReferenceDataRegistry;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-
-import java.util.List;
+import org.springframework.core.annotation.Order;
 
 @Configuration
 public class VehicleDataInitializer {
 
     @Bean
+    @Order(1)
     CommandLineRunner initVehicleData(VehicleTypeRepository typeRepo, VehicleStatusRepository statusRepo) {
         return args -> {
-            List<String> types = List.of("Car", "Van", "Truck", "EV", "Bike");
-            for (String t : types) {
+            for (ReferenceDataRegistry.Type type : ReferenceDataRegistry.Type.values()) {
+                String t = type.label;
                 typeRepo.findByName(t).orElseGet(() -> typeRepo.save(new VehicleType(null, t)));
             }
 
-            List<String> statuses = List.of("Available", "In Use", "Needs Maintenance", "Offline");
-            for (String s : statuses) {
+            for (ReferenceDataRegistry.Status status : ReferenceDataRegistry.Status.values()) {
+                String s = status.label;
                 statusRepo.findByName(s).orElseGet(() -> statusRepo.save(new VehicleStatus(null, s)));
             }
         };
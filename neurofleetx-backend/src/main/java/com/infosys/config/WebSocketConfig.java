@@ -1,8 +1,10 @@
 package com.infosys.config;
 
 import com.infosys.security.ws.AuthHandshakeInterceptor;
+import com.infosys.security.ws.StompAuthChannelInterceptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.*;
 
@@ -13,6 +15,9 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Autowired
     private AuthHandshakeInterceptor authHandshakeInterceptor;
 
+    @Autowired
+    private StompAuthChannelInterceptor stompAuthChannelInterceptor;
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         // Telemetry WebSocket (existing)
@@ -37,8 +42,15 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         // Prefix for sending messages from server to client
+        // /topic also carries /topic/telemetry/frames and the tile-scoped /topic/telemetry/tile/{z}/{x}/{y}
         registry.enableSimpleBroker("/topic", "/queue"); // Added /queue
         // Prefix for messages sent from client to server
         registry.setApplicationDestinationPrefixes("/app");
     }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // JWT on CONNECT, ADMIN / MANAGER on /app/replay/**
+        registration.interceptors(stompAuthChannelInterceptor);
+    }
 }
@@ -3,14 +3,15 @@ package com.infosys.controller;
 import com.infosys.dto.MessageResponse;
 import com.infosys.model.Role;
 import com.infosys.model.User;
-import com.infosys.repository.RoleRepository;
 import com.infosys.repository.UserRepository;
+import com.infosys.service.Reference.ReferenceDataRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -20,7 +21,7 @@ public class AdminController {
     @Autowired
     private UserRepository userRepository;
     @Autowired
-    private RoleRepository roleRepository;
+    private ReferenceDataRegistry referenceData;
 
     // list all users
     @GetMapping("/users")
@@ -33,12 +34,19 @@ public class AdminController {
     @PostMapping("/users/{id}/role")
     public ResponseEntity<?> changeUserRole(@PathVariable Long id, @RequestBody RoleChangeRequest req) {
         User user = userRepository.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
-        Role r = roleRepository.findByName(req.roleName).orElseThrow(() -> new RuntimeException("Role not found"));
+        Role r = referenceData.roleByName(req.roleName).orElseThrow(() -> new RuntimeException("Role not found"));
         user.setRoles(java.util.Set.of(r));
         userRepository.save(user);
         return ResponseEntity.ok(new MessageResponse("Role updated"));
     }
 
+    // reload statuses, types and roles after the reference tables were changed
+    @PostMapping("/reference-data/refresh")
+    public ResponseEntity<Map<String, Object>> refreshReferenceData() {
+        referenceData.refresh();
+        return ResponseEntity.ok(referenceData.summary());
+    }
+
     public static class RoleChangeRequest {
         public String roleName;
     }
@@ -1,14 +1,27 @@
 package com.infosys.controller.Booking;
 
+import com.infosys.dto.BulkBookingResult;
 import com.infosys.dto.CreateBookingRequest;
+import com.infosys.dto.PendingBookingChanges;
 import com.infosys.dto.RejectBookingRequest;
+import com.infosys.exception.BookingConflictException;
 import com.infosys.model.Booking.Booking;
+import com.infosys.service.Booking.AutoDispatchEngine;
+import com.infosys.service.Booking.BookingAcceptanceArbiter;
+import com.infosys.service.Booking.BookingAvailabilityIndex;
 import com.infosys.service.Booking.BookingService;
+import com.infosys.service.Booking.BulkBookingImporter;
+import com.infosys.service.Booking.PendingBookingQueues;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -28,6 +41,21 @@ public class BookingController {
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private BookingAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private PendingBookingQueues pendingQueues;
+
+    @Autowired
+    private BookingAcceptanceArbiter acceptanceArbiter;
+
+    @Autowired
+    private AutoDispatchEngine dispatchEngine;
+
+    @Autowired
+    private BulkBookingImporter bulkImporter;
+
     // ==================== CUSTOMER ENDPOINTS ====================
 
     // Customer creates booking → status: PENDING
@@ -39,6 +67,20 @@ public class BookingController {
         return ResponseEntity.ok(b);
     }
 
+    // Bulk creation: a JSON array or NDJSON records, read as a stream; one result per item
+    @PostMapping(value = "/bulk", consumes = {"application/json", "application/x-ndjson"})
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<BulkBookingResult> createBookingsBulk(InputStream body) throws IOException {
+        return ResponseEntity.ok(bulkImporter.importJson(body));
+    }
+
+    // Bulk creation from CSV: header row of CreateBookingRequest field names, times as ISO date-time
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<BulkBookingResult> createBookingsBulkCsv(InputStream body) throws IOException {
+        return ResponseEntity.ok(bulkImporter.importCsv(body));
+    }
+
     // Customer cancels own booking
     @PutMapping("/cancel/{bookingId}")
     @PreAuthorize("hasRole('CUSTOMER')")
@@ -79,6 +121,21 @@ public class BookingController {
         return ResponseEntity.ok(b);
     }
 
+    // Manager sees which vehicles are free for a time window (from the availability index)
+    @GetMapping("/manager/availability")
+    @PreAuthorize("hasRole('MANAGER') or hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getFreeVehicles(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
+        long[] free = bookingService.getFreeVehicles(start, end);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("start", start);
+        body.put("end", end);
+        body.put("free", free.length);
+        body.put("vehicleIds", free);
+        return ResponseEntity.ok(body);
+    }
+
     // ==================== DRIVER ENDPOINTS ====================
 
     // Driver gets bookings for their assigned vehicle types (PENDING only, not rejected by manager)
@@ -89,6 +146,15 @@ public class BookingController {
         return ResponseEntity.ok(bookings);
     }
 
+    // Delta of the driver's pending queue since a version returned by the previous poll
+    @GetMapping("/driver/{driverId}/pending/changes")
+    @PreAuthorize("hasRole('DRIVER')")
+    public ResponseEntity<PendingBookingChanges> getDriverPendingChanges(
+            @PathVariable Long driverId,
+            @RequestParam(required = false) Long since) {
+        return ResponseEntity.ok(bookingService.getPendingBookingChangesForDriver(driverId, since));
+    }
+
     // Driver ACCEPTS booking → status: CONFIRMED, assigns driver
     @PutMapping("/driver/{bookingId}/accept")
     @PreAuthorize("hasRole('DRIVER')")
@@ -123,6 +189,59 @@ public class BookingController {
         return ResponseEntity.ok(bookingService.getAllBookings());
     }
 
+    // Availability index counters and drift check against the database
+    @GetMapping("/admin/availability/metrics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getAvailabilityMetrics() {
+        return ResponseEntity.ok(availabilityIndex.getMetrics());
+    }
+
+    @PostMapping("/admin/availability/reconcile")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> reconcileAvailability() {
+        int drifted = availabilityIndex.reconcile();
+        Map<String, Object> body = new LinkedHashMap<>(availabilityIndex.getMetrics());
+        body.put("drifted", drifted);
+        return ResponseEntity.ok(body);
+    }
+
+    // Pending queue sizes per vehicle type and the current change version
+    @GetMapping("/admin/pending/metrics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getPendingQueueMetrics() {
+        return ResponseEntity.ok(pendingQueues.getMetrics());
+    }
+
+    // Driver accept races: attempts, winners, fast rejections and version conflicts
+    @GetMapping("/admin/accept/metrics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getAcceptMetrics() {
+        return ResponseEntity.ok(acceptanceArbiter.getMetrics());
+    }
+
+    // Bulk uploads: items created / failed and chunks rolled back
+    @GetMapping("/admin/bulk/metrics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getBulkMetrics() {
+        return ResponseEntity.ok(bulkImporter.getMetrics());
+    }
+
+    // Auto-dispatch: last matching round (sizes, timings, confirmed bookings)
+    @GetMapping("/admin/dispatch/metrics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getDispatchMetrics() {
+        return ResponseEntity.ok(dispatchEngine.getMetrics());
+    }
+
+    // Runs one dispatch round now (also when the scheduled mode is disabled)
+    @PostMapping("/admin/dispatch/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> runDispatch() {
+        Map<String, Object> result = dispatchEngine.dispatch();
+        if (result == null) throw new BookingConflictException("A dispatch round is already running");
+        return ResponseEntity.ok(result);
+    }
+
     // ==================== AI RECOMMENDATION ENDPOINT ====================
 
     // AI-powered vehicle recommendations for customer
@@ -0,0 +1,51 @@
+package com.infosys.controller.Booking;
+
+import com.infosys.dto.PriceQuote;
+import com.infosys.service.Booking.PricingEngine;
+import com.infosys.service.Fleet.GeoPoint;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/pricing")
+@CrossOrigin(origins = "*")
+public class PricingController {
+
+    @Autowired
+    private PricingEngine pricing;
+
+    // Price of a prospective booking from in-memory tariffs and surge; pass quoteId when creating it
+    @GetMapping("/quote")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('MANAGER') or hasRole('ADMIN')")
+    public PriceQuote quote(
+            @RequestParam String vehicleType,
+            @RequestParam(required = false) Boolean isEv,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) Double pickupLat,
+            @RequestParam(required = false) Double pickupLon,
+            @RequestParam(required = false) String pickupLocation
+    ) {
+        return pricing.quote(vehicleType, isEv, start, end, GeoPoint.of(pickupLat, pickupLon, pickupLocation));
+    }
+
+    // Tariff version, surging zones and quote counters
+    @GetMapping("/admin/metrics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        return ResponseEntity.ok(pricing.getMetrics());
+    }
+
+    // reload the tariffs table after it was changed
+    @PostMapping("/admin/tariffs/refresh")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> refreshTariffs() {
+        return ResponseEntity.ok(pricing.refreshTariffs());
+    }
+}
@@ -1,5 +1,6 @@
 package com.infosys.controller.Booking;
 
+import com.infosys.dto.NearbyVehicle;
 import com.infosys.model.Vehicle;
 import com.infosys.service.Booking.RecommendationService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -26,8 +27,24 @@ public class RecommendationController {
             @RequestParam(required = false) Boolean isEv,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) Double pickupLat,
+            @RequestParam(required = false) Double pickupLon,
             @RequestParam(defaultValue = "5") int limit
     ) {
-        return recommendationService.recommendVehicles(customerId, vehicleType, isEv, start, end, limit);
+        return recommendationService.recommendVehicles(customerId, vehicleType, isEv, start, end, pickupLat, pickupLon, limit);
+    }
+
+    // k nearest vehicles in status Available around a point, from the in-memory spatial index
+    @GetMapping("/nearby")
+    @PreAuthorize("hasRole('CUSTOMER') or hasRole('MANAGER') or hasRole('ADMIN')")
+    public List<NearbyVehicle> nearby(
+            @RequestParam double lat,
+            @RequestParam double lon,
+            @RequestParam(required = false) String vehicleType,
+            @RequestParam(required = false) Boolean isEv,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(defaultValue = "10") int k
+    ) {
+        return recommendationService.nearestAvailableVehicles(lat, lon, vehicleType, isEv, radiusKm, k);
     }
 }
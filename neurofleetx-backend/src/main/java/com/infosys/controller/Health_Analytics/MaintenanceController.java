@@ -1,22 +1,34 @@
 package com.infosys.controller.Health_Analytics;
 
+import com.infosys.dto.FleetHealthScores;
+import com.infosys.dto.HealthHistoryResponse;
+import com.infosys.dto.HealthScore;
+import com.infosys.dto.MaintenanceTicketPage;
 import com.infosys.dto.ReportRequest;
 import com.infosys.dto.StatusUpdate;
 import com.infosys.model.Health_Analytics.HealthReading;
+import com.infosys.model.Health_Analytics.MaintenancePrediction;
 import com.infosys.model.Health_Analytics.MaintenanceTicket;
 import com.infosys.model.User;
 import com.infosys.repository.UserRepository;
+import com.infosys.service.Health_Analytics.HealthAnomalyDetector;
+import com.infosys.service.Health_Analytics.HealthRollupService;
 import com.infosys.service.Health_Analytics.HealthService;
+import com.infosys.service.Health_Analytics.MaintenancePredictionCache;
 import com.infosys.service.Health_Analytics.MaintenanceService;
+import com.infosys.service.Health_Analytics.RulEvaluator;
 import com.infosys.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/maintenance")
@@ -29,6 +41,18 @@ public class MaintenanceController {
     @Autowired
     private HealthService healthService;
 
+    @Autowired
+    private HealthRollupService healthRollupService;
+
+    @Autowired
+    private HealthAnomalyDetector anomalyDetector;
+
+    @Autowired
+    private MaintenancePredictionCache predictionCache;
+
+    @Autowired
+    private RulEvaluator rulEvaluator;
+
     @Autowired
     private UserRepository userRepository;  // ✅ ADD THIS
 
@@ -85,6 +109,82 @@ public class MaintenanceController {
         return healthService.getRecentReadings(vehicleId, 50);
     }
 
+    // reading history; resolution (raw / 1-minute / 1-hour rollups) follows the requested range
+    @GetMapping("/readings/{vehicleId}/history")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public HealthHistoryResponse getReadingHistory(
+            @PathVariable Long vehicleId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return healthService.getHistory(vehicleId, from, to);
+    }
+
+    @GetMapping("/readings/rollups/metrics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Object> getRollupMetrics() {
+        return healthRollupService.getMetrics();
+    }
+
+    // predictions (served from the in-memory prediction cache)
+    @GetMapping("/predictions/due")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public List<MaintenancePrediction> getPredictionsDue(
+            @RequestParam(defaultValue = "7") double days,
+            @RequestParam(defaultValue = "100") int limit) {
+        return maintenanceService.getPredictionsDueWithin(days, Math.max(1, Math.min(limit, 1000)));
+    }
+
+    @GetMapping("/predictions/metrics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Object> getPredictionMetrics() {
+        return predictionCache.getMetrics();
+    }
+
+    @GetMapping("/predictions/{vehicleId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('DRIVER')")
+    public List<MaintenancePrediction> getLatestPredictions(@PathVariable Long vehicleId) {
+        return maintenanceService.getLatestPredictions(vehicleId);
+    }
+
+    // fleet health scores (recomputed on a schedule; POST to recompute now)
+    @GetMapping("/health-scores")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public FleetHealthScores getHealthScores(@RequestParam(defaultValue = "100") int worst) {
+        return maintenanceService.getWorstHealthScores(Math.max(1, Math.min(worst, 10000)));
+    }
+
+    @GetMapping("/health-scores/{vehicleId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('DRIVER')")
+    public HealthScore getHealthScore(@PathVariable Long vehicleId) {
+        return maintenanceService.getHealthScore(vehicleId);
+    }
+
+    @PostMapping("/health-scores/recompute")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public FleetHealthScores recomputeHealthScores() {
+        return maintenanceService.recomputeHealthScores();
+    }
+
+    // remaining-useful-life model: status / coefficients, and offline retraining from stored readings
+    @GetMapping("/rul-model")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public Map<String, Object> getRulModel() {
+        return rulEvaluator.getStatus();
+    }
+
+    @PostMapping("/rul-model/train")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> trainRulModel() {
+        if (!rulEvaluator.train()) throw new RuntimeException("RUL model training already running");
+        return ResponseEntity.accepted().body(rulEvaluator.getStatus());
+    }
+
+    @GetMapping("/anomalies/metrics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public Map<String, Object> getAnomalyMetrics() {
+        return anomalyDetector.getMetrics();
+    }
+
     // tickets
     @GetMapping("/tickets")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
@@ -92,6 +192,23 @@ public class MaintenanceController {
         return maintenanceService.getOpenTickets();
     }
 
+    // work queue: unresolved tickets by severity, days to service and age (keyset-paged)
+    @GetMapping("/queue")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public MaintenanceTicketPage getWorkQueue(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return maintenanceService.getWorkQueue(cursor, Math.max(1, Math.min(limit, 500)));
+    }
+
+    @GetMapping("/tickets/history")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public MaintenanceTicketPage getTicketHistory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return maintenanceService.getTicketHistory(cursor, Math.max(1, Math.min(limit, 500)));
+    }
+
     @GetMapping("/tickets/vehicle/{vehicleId}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('DRIVER')")
     public List<MaintenanceTicket> getTicketsForVehicle(@PathVariable Long vehicleId) {
@@ -0,0 +1,37 @@
+package com.infosys.controller.LoadTest;
+
+import com.infosys.dto.LoadTestRequest;
+import com.infosys.service.LoadTest.FleetLoadGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/loadtest")
+@CrossOrigin(origins = "*")
+@PreAuthorize("hasRole('ADMIN')")
+public class LoadTestController {
+
+    @Autowired
+    private FleetLoadGenerator loadGenerator;
+
+    // Start an in-process load test with virtual vehicles; only one runs at a time
+    @PostMapping("/start")
+    public ResponseEntity<Map<String, Object>> start(@RequestBody LoadTestRequest req) {
+        return ResponseEntity.ok(loadGenerator.start(req));
+    }
+
+    @PostMapping("/stop")
+    public ResponseEntity<Map<String, Object>> stop() {
+        return ResponseEntity.ok(loadGenerator.stop());
+    }
+
+    // Achieved throughput and latency percentiles of the current (or last) run
+    @GetMapping("/status")
+    public ResponseEntity<Map<String, Object>> status() {
+        return ResponseEntity.ok(loadGenerator.status());
+    }
+}
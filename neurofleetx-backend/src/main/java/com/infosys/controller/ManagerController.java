@@ -99,6 +99,12 @@ public class ManagerController {
         return ResponseEntity.ok(bookingService.getBookingStatistics());
     }
 
+    // Booking statistics per vehicle type and per creation day
+    @GetMapping("/bookings/stats/breakdown")
+    public ResponseEntity<Map<String, Object>> getBookingStatsBreakdown() {
+        return ResponseEntity.ok(bookingService.getBookingStatisticsBreakdown());
+    }
+
     // Export reports (placeholder)
     @GetMapping("/reports/export")
     public ResponseEntity<?> exportPlaceholder() {
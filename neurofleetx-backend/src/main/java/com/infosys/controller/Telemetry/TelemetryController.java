@@ -0,0 +1,188 @@
+package com.infosys.controller.Telemetry;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infosys.dto.ReplayControl;
+import com.infosys.dto.ReplayRequest;
+import com.infosys.dto.ReplayStatus;
+import com.infosys.dto.TelemetryFrame;
+import com.infosys.dto.TelemetryIngestResponse;
+import com.infosys.dto.VehicleResponse;
+import com.infosys.model.VehicleTelemetry;
+import com.infosys.service.Telemetry.TelemetryDeadBand;
+import com.infosys.service.Telemetry.TelemetryFramePublisher;
+import com.infosys.service.Telemetry.TelemetryHistoryStore;
+import com.infosys.service.Telemetry.TelemetryIngestionService;
+import com.infosys.service.Telemetry.TelemetryReplayService;
+import com.infosys.service.Telemetry.TelemetryTileRouter;
+import com.infosys.service.Telemetry.TelemetryWriteBehind;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/telemetry")
+@CrossOrigin(origins = "*")
+public class TelemetryController {
+
+    @Autowired
+    private TelemetryWriteBehind telemetryWriteBehind;
+
+    @Autowired
+    private TelemetryFramePublisher framePublisher;
+
+    @Autowired
+    private TelemetryTileRouter tileRouter;
+
+    @Autowired
+    private TelemetryIngestionService ingestionService;
+
+    @Autowired
+    private TelemetryDeadBand deadBand;
+
+    @Autowired
+    private TelemetryHistoryStore historyStore;
+
+    @Autowired
+    private TelemetryReplayService replayService;
+
+    @Value("${telemetry.replay.maxDurationMs:3600000}")
+    private long replayTimeoutMs;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Bulk device ingestion: a JSON array / single object, or newline-delimited JSON records.
+    // The body is parsed as a stream; when the ingestion buffer fills up the rest is rejected with 429.
+    // Devices authenticate as DEVICE users.
+    @PostMapping(value = "/ingest", consumes = {"application/json", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN') or hasRole('DEVICE')")
+    public ResponseEntity<TelemetryIngestResponse> ingest(InputStream body) throws IOException {
+        long accepted = 0;
+        long rejected = 0;
+        try (MappingIterator<VehicleTelemetry> readings =
+                     objectMapper.readerFor(VehicleTelemetry.class).readValues(body)) {
+            while (readings.hasNextValue()) {
+                VehicleTelemetry t = readings.nextValue();
+                if (rejected == 0 && ingestionService.submit(t)) {
+                    accepted++;
+                } else {
+                    rejected++; // once full, count the rest without queueing so order is kept for the retry
+                }
+            }
+        }
+
+        if (rejected > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new TelemetryIngestResponse(accepted, rejected,
+                            "Ingestion buffer full, retry the last " + rejected + " readings"));
+        }
+        return ResponseEntity.accepted().body(new TelemetryIngestResponse(accepted, 0, "Accepted"));
+    }
+
+    // History of one vehicle between from and to (epoch millis, inclusive); defaults to the last hour
+    @GetMapping("/history/{vehicleId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<List<VehicleTelemetry>> history(@PathVariable Long vehicleId,
+                                                          @RequestParam(required = false) Long from,
+                                                          @RequestParam(required = false) Long to,
+                                                          @RequestParam(defaultValue = "10000") int limit) {
+        long end = to != null ? to : System.currentTimeMillis();
+        long start = from != null ? from : end - 3_600_000L;
+        if (start > end) throw new RuntimeException("'from' must not be after 'to'");
+        return ResponseEntity.ok(historyStore.query(vehicleId, start, end, Math.max(1, Math.min(limit, 100_000))));
+    }
+
+    /*
+     Replay as Server-Sent Events: a "replay" event with the replay id first, then one "telemetry" event
+     per point (VehicleResponse payload, event id = replay timestamp), and an "end" event.
+     Control it with POST /api/telemetry/replay/{replayId}/control.
+    */
+    @GetMapping(value = "/replay", produces = "text/event-stream")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public SseEmitter replay(@RequestParam(required = false) List<Long> vehicleIds,
+                             @RequestParam(required = false) Long from,
+                             @RequestParam(required = false) Long to,
+                             @RequestParam(defaultValue = "1") double speed) throws IOException {
+        ReplayRequest req = new ReplayRequest();
+        req.setVehicleIds(vehicleIds);
+        req.setFrom(from);
+        req.setTo(to);
+        req.setSpeed(speed);
+        TelemetryReplayService.ReplaySession session = replayService.create(req);
+
+        SseEmitter emitter = new SseEmitter(replayTimeoutMs);
+        emitter.onCompletion(() -> replayService.stop(session.id()));
+        emitter.onTimeout(() -> replayService.stop(session.id()));
+        emitter.onError(e -> replayService.stop(session.id()));
+        emitter.send(SseEmitter.event().name("replay").data(session.status()));
+
+        replayService.start(session, new TelemetryReplayService.ReplaySink() {
+            @Override
+            public boolean emit(long timestamp, VehicleResponse frame) {
+                try {
+                    emitter.send(SseEmitter.event().id(Long.toString(timestamp)).name("telemetry").data(frame));
+                    return true;
+                } catch (IOException | IllegalStateException e) {
+                    return false; // client went away
+                }
+            }
+
+            @Override
+            public void finished(ReplayStatus status) {
+                try {
+                    emitter.send(SseEmitter.event().name("end").data(status));
+                    emitter.complete();
+                } catch (IOException | IllegalStateException ignored) {
+                    // already closed
+                }
+            }
+        }, false);
+        return emitter;
+    }
+
+    // PAUSE, RESUME, SEEK (timestamp), SPEED (speed) or STOP
+    @PostMapping("/replay/{replayId}/control")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<ReplayStatus> controlReplay(@PathVariable String replayId, @RequestBody ReplayControl control) {
+        return ResponseEntity.ok(replayService.control(replayId, control));
+    }
+
+    @GetMapping("/replay/{replayId}")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<ReplayStatus> replayStatus(@PathVariable String replayId) {
+        return ResponseEntity.ok(replayService.status(replayId));
+    }
+
+    // Pipeline health: write-behind queue depth, flush lag and dropped updates
+    @GetMapping("/metrics")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        Map<String, Object> metrics = new HashMap<>();
+        metrics.put("ingestion", ingestionService.getMetrics());
+        metrics.put("deadBand", deadBand.getMetrics());
+        metrics.put("history", historyStore.getMetrics());
+        metrics.put("writeBehind", telemetryWriteBehind.getMetrics());
+        metrics.put("frames", framePublisher.getMetrics());
+        metrics.put("tiles", tileRouter.getMetrics());
+        return ResponseEntity.ok(metrics);
+    }
+
+    // Full frame for clients that just subscribed to /topic/telemetry/frames or missed a seq
+    @GetMapping("/frames/keyframe")
+    public ResponseEntity<TelemetryFrame> getKeyframe() {
+        return ResponseEntity.ok(framePublisher.currentKeyframe());
+    }
+}
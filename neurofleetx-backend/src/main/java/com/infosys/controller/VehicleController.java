@@ -57,11 +57,7 @@ public class VehicleController {
     @PreAuthorize("hasRole('CUSTOMER')")
     @GetMapping("/available")
     public ResponseEntity<List<VehicleResponse>> getAvailableVehicles() {
-        List<VehicleResponse> available = vehicleService.listVehicles()
-                .stream()
-                .filter(v -> "Available".equalsIgnoreCase(v.getStatus()))
-                .toList();
-        return ResponseEntity.ok(available);
+        return ResponseEntity.ok(vehicleService.listAvailableVehicles());
     }
 
 }
@@ -1,17 +1,91 @@
 package com.infosys.controller.ws;
 
+import com.infosys.dto.ReplayControl;
+import com.infosys.dto.ReplayRequest;
+import com.infosys.dto.ReplayStatus;
+import com.infosys.dto.TelemetryIngestResponse;
+import com.infosys.dto.VehicleResponse;
 import com.infosys.model.VehicleTelemetry;
+import com.infosys.service.Telemetry.TelemetryIngestionService;
+import com.infosys.service.Telemetry.TelemetryReplayService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.stereotype.Controller;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.Map;
 
 @Controller
 public class TelemetryWebSocketController {
 
+    @Autowired
+    private TelemetryIngestionService ingestionService;
+
+    @Autowired
+    private TelemetryReplayService replayService;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    // Devices publish readings to /app/telemetry; accepted readings are broadcast on /topic/telemetry
+    // once processed. Only a full ingestion buffer is answered, on /user/queue/telemetry/ack.
     @MessageMapping("/telemetry")
-    @SendTo("/topic/telemetry")
-    public VehicleTelemetry broadcastTelemetry(VehicleTelemetry telemetry) {
-        return telemetry;
+    @SendToUser(destinations = "/queue/telemetry/ack", broadcast = false)
+    public TelemetryIngestResponse ingestTelemetry(VehicleTelemetry telemetry) {
+        if (ingestionService.submit(telemetry)) {
+            return null; // nothing to send back
+        }
+        return new TelemetryIngestResponse(0, 1, "Ingestion buffer full, retry later");
     }
-}
 
+    /*
+     Replay mode: /app/replay/start answers on /user/queue/replay with the replay id and its topic.
+     The replay starts paused - subscribe to /topic/replay/{id} (frames in the /topic/telemetry shape,
+     replay timestamp in the "replay-ts" header) and /topic/replay/{id}/status, then send RESUME
+     to /app/replay/{id}/control. ADMIN / MANAGER only (StompAuthChannelInterceptor); the replay
+     stops when this STOMP session disconnects.
+    */
+    @MessageMapping("/replay/start")
+    @SendToUser(destinations = "/queue/replay", broadcast = false)
+    public ReplayStatus startReplay(ReplayRequest request, @Header("simpSessionId") String sessionId) {
+        TelemetryReplayService.ReplaySession session = replayService.create(request, sessionId);
+        String topic = "/topic/replay/" + session.id();
+
+        replayService.start(session, new TelemetryReplayService.ReplaySink() {
+            @Override
+            public boolean emit(long timestamp, VehicleResponse frame) {
+                messagingTemplate.convertAndSend(topic, frame, Map.of("replay-ts", timestamp));
+                return true;
+            }
+
+            @Override
+            public void finished(ReplayStatus status) {
+                status.setTopic(topic);
+                messagingTemplate.convertAndSend(topic + "/status", status);
+            }
+        }, true);
+
+        ReplayStatus status = session.status();
+        status.setTopic(topic);
+        return status;
+    }
+
+    @MessageMapping("/replay/{replayId}/control")
+    @SendToUser(destinations = "/queue/replay", broadcast = false)
+    public ReplayStatus controlReplay(@DestinationVariable String replayId, ReplayControl control) {
+        ReplayStatus status = replayService.control(replayId, control);
+        status.setTopic("/topic/replay/" + replayId);
+        messagingTemplate.convertAndSend(status.getTopic() + "/status", status);
+        return status;
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        replayService.stopOwnedBy(event.getSessionId());
+    }
+}
@@ -0,0 +1,18 @@
+package com.infosys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ Purpose: Outcome of one item of a bulk booking upload (index = position in the upload, from 0)
+*/
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkBookingItem {
+    private int index;
+    private Long bookingId;    // null when the item was not created
+    private Double price;
+    private String error;      // why the item was not created
+}
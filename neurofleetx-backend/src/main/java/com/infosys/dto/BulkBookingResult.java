@@ -0,0 +1,23 @@
+package com.infosys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+ Purpose: Response of POST /api/bookings/bulk: totals plus one entry per item read
+*/
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkBookingResult {
+    private int received;
+    private int created;
+    private int failed;
+    private boolean truncated;     // items beyond booking.bulk.maxItems were not read
+    private String error;          // the input could not be read to the end (items after the last one listed)
+    private List<BulkBookingItem> items = new ArrayList<>();
+}
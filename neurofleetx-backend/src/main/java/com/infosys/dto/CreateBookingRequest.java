@@ -1,5 +1,6 @@
 package com.infosys.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 import java.time.LocalDateTime;
 
@@ -16,5 +17,12 @@ public class CreateBookingRequest {
     private Integer seats;
     private String pickupLocation;
     private String dropoffLocation;
+    private Double pickupLat;      // optional; parsed from pickupLocation ("lat,lon") when missing
+    private Double pickupLon;
+    private Double dropoffLat;
+    private Double dropoffLon;
+    private String quoteId;        // optional; from /api/pricing/quote, keeps the quoted surge while valid (409 once it is not)
+    @JsonIgnore
+    private boolean loadTest;      // set by FleetLoadGenerator only, never bound from a request body
 }
 
@@ -0,0 +1,18 @@
+package com.infosys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FleetHealthScores {
+    private LocalDateTime computedAt;
+    private long durationMs;
+    private int vehicles;              // vehicles scored in the snapshot
+    private List<HealthScore> scores;  // worst first
+}
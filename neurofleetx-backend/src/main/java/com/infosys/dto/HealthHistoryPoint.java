@@ -0,0 +1,33 @@
+package com.infosys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/*
+ Purpose: One point of a health reading series. Raw points carry a single sample (min = avg = max),
+ rolled-up points the min/avg/max of all samples in their bucket.
+*/
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HealthHistoryPoint {
+    private LocalDateTime timestamp;   // reading time, or bucket start for rollups
+    private long samples;
+    private Stat engineTemp;
+    private Stat tireWear;
+    private Stat batteryLevel;
+    private Stat fuelLevel;
+    private Stat mileage;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Stat {
+        private Double min;
+        private Double avg;
+        private Double max;
+    }
+}
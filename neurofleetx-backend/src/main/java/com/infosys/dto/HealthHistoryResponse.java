@@ -0,0 +1,19 @@
+package com.infosys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HealthHistoryResponse {
+    private Long vehicleId;
+    private String resolution;   // RAW, MINUTE, HOUR
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private List<HealthHistoryPoint> points;
+}
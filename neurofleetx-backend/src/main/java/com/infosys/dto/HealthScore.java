@@ -0,0 +1,23 @@
+package com.infosys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+  Fleet health score of one vehicle: 0 (needs attention now) - 100 (healthy),
+  with the component scores it was combined from.
+*/
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HealthScore {
+    private Long vehicleId;
+    private String vehicleName;
+    private double score;
+    private double tireScore;       // wear level and wear trend
+    private double engineScore;     // engine temperature over the reading window
+    private double batteryScore;    // level and drain rate
+    private double mileageScore;    // total mileage and daily usage
+    private Double daysToTireService;   // null when tire wear is not increasing
+}
@@ -0,0 +1,32 @@
+package com.infosys.dto;
+
+import lombok.Data;
+
+/*
+ Purpose: Parameters of an in-process load test (POST /api/admin/loadtest/start).
+ motion mix: stationaryPct + circuitPct <= 100, the rest follow a random walk.
+ burstPattern: NONE, SPIKE (burstFactor x rate for burstSeconds every burstPeriodSeconds),
+ RAMP (rate grows linearly up to burstFactor x over the run) or SINE (rate oscillates between
+ 1x and burstFactor x with burstPeriodSeconds).
+*/
+@Data
+public class LoadTestRequest {
+    private int vehicles = 10_000;
+    private int partitions = 0;                 // 0 = one per available processor x 4
+    private double telemetryHzPerVehicle = 1.0;
+    private double healthReadingsPerSecond = 0;
+    private double bookingsPerMinute = 0;
+    private Long bookingCustomerId;             // required when bookingsPerMinute > 0
+    private int durationSeconds = 60;
+
+    private int stationaryPct = 30;
+    private int circuitPct = 30;
+    private double centerLatitude = 12.9716;
+    private double centerLongitude = 77.5946;
+    private double radiusKm = 25;
+
+    private String burstPattern = "NONE";
+    private double burstFactor = 3.0;
+    private int burstPeriodSeconds = 30;
+    private int burstSeconds = 5;
+}
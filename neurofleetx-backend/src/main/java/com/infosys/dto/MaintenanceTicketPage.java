@@ -0,0 +1,16 @@
+package com.infosys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MaintenanceTicketPage {
+    private List<MaintenanceTicketSummary> items;
+    private String nextCursor;   // pass back as ?cursor= for the next page; null on the last page
+    private long total;          // tickets in the queue (work queue pages only)
+}
@@ -0,0 +1,27 @@
+package com.infosys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/*
+  Flat ticket projection for the maintenance work queue and ticket pages
+  (no Vehicle / User entities, so no eager role loading).
+*/
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MaintenanceTicketSummary {
+    private Long id;
+    private Long vehicleId;
+    private String vehicleName;
+    private String issue;
+    private String severity;
+    private String status;
+    private Double predictedDaysToService;
+    private LocalDateTime createdAt;
+    private Long reportedById;
+    private String reportedByName;
+}
@@ -0,0 +1,21 @@
+package com.infosys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NearbyVehicle {
+    private Long vehicleId;
+    private String name;
+    private String type;
+    private boolean ev;
+    private double batteryLevel;
+    private double fuelLevel;
+    private double latitude;
+    private double longitude;
+    private double distanceKm;     // from the queried point
+    private Long driverId;         // null when no driver is assigned
+}
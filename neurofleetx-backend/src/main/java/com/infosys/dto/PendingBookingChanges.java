@@ -0,0 +1,19 @@
+package com.infosys.dto;
+
+import com.infosys.model.Booking.Booking;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingBookingChanges {
+    private String vehicleType;
+    private long version;          // pass back as ?since= on the next poll
+    private boolean full;          // true: added is the whole queue, replace the local copy
+    private List<Booking> added;   // new or changed pending bookings since the given version
+    private List<Long> removed;    // booking ids that left the queue (accepted, rejected, cancelled)
+}
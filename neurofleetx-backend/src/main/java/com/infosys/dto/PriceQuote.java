@@ -0,0 +1,28 @@
+package com.infosys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/*
+ Purpose: Price offered for a prospective booking. Passing quoteId when creating the booking keeps the
+ quoted surge until validUntil; a booking whose quote has expired or does not match is refused with 409.
+*/
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceQuote {
+    private String quoteId;
+    private String vehicleType;
+    private Boolean isEv;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private double hours;            // billed hours (at least the tariff's minimum)
+    private double hourlyRate;       // tariff rate including the EV surcharge
+    private double baseFare;         // hours x hourlyRate
+    private double surgeMultiplier;  // 1.0 = no surge
+    private double price;            // baseFare x surgeMultiplier
+    private LocalDateTime validUntil;
+}
@@ -7,5 +7,5 @@ public class RegisterRequest {
     private String fullName;
     private String email;
     private String password;
-    private String role; // ADMIN, MANAGER, DRIVER, CUSTOMER
+    private String role; // ADMIN, MANAGER, DRIVER, CUSTOMER, DEVICE
 }
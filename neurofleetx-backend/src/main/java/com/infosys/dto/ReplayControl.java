@@ -0,0 +1,14 @@
+package com.infosys.dto;
+
+import lombok.Data;
+
+/*
+ Purpose: Control a running replay.
+ action: PAUSE, RESUME, SEEK (timestamp required), SPEED (speed required) or STOP
+*/
+@Data
+public class ReplayControl {
+    private String action;
+    private Long timestamp;
+    private Double speed;
+}
@@ -0,0 +1,17 @@
+package com.infosys.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/*
+ Purpose: Start a telemetry replay. Empty vehicleIds replays every vehicle with history in the window.
+ from / to are epoch millis; speed is the playback multiplier (1x - 100x).
+*/
+@Data
+public class ReplayRequest {
+    private List<Long> vehicleIds;
+    private Long from;
+    private Long to;
+    private Double speed;
+}
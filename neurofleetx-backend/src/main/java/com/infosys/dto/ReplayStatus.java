@@ -0,0 +1,18 @@
+package com.infosys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReplayStatus {
+    private String replayId;
+    private String state;      // RUNNING, PAUSED, FINISHED, STOPPED
+    private long position;     // replay clock, epoch millis
+    private long from;
+    private long to;
+    private double speed;
+    private String topic;      // STOMP replays: where the frames are published
+}
@@ -0,0 +1,39 @@
+package com.infosys.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/*
+ Purpose: One coalesced telemetry message per tick on /topic/telemetry/frames.
+ data is a flat array of rows: vehicleId, fieldMask, then one value per set bit in this order:
+   LAT, LON (1e-5 degrees; deltas against the previous frame, absolute in keyframes and for
+   vehicles the client has not seen yet),
+   SPEED, BATTERY, FUEL (tenths), STATUS (code into statuses).
+ A row with only REMOVED set means the vehicle left the fleet.
+ Keyframes carry absolute values for every vehicle plus the status dictionary; clients that
+ detect a gap in seq should drop their state and wait for the next keyframe.
+*/
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TelemetryFrame {
+
+    public static final int LAT = 1;
+    public static final int LON = 1 << 1;
+    public static final int SPEED = 1 << 2;
+    public static final int BATTERY = 1 << 3;
+    public static final int FUEL = 1 << 4;
+    public static final int STATUS = 1 << 5;
+    public static final int REMOVED = 1 << 6;
+
+    private long seq;
+    private boolean keyframe;
+    private long timestamp;
+    private List<String> statuses;   // keyframes only, index = status code
+    private long[] data;
+}
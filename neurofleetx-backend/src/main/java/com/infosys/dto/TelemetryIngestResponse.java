@@ -0,0 +1,18 @@
+package com.infosys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ Purpose: Result of a telemetry ingestion request. When the ingestion buffer is full the
+ remaining readings are not queued: rejected > 0 and the client should retry them later.
+*/
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TelemetryIngestResponse {
+    private long accepted;
+    private long rejected;
+    private String message;
+}
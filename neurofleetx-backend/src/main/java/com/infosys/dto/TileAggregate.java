@@ -0,0 +1,23 @@
+package com.infosys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/*
+ Purpose: Vehicle counts for one map tile, published instead of individual vehicles
+ on /topic/telemetry/tile/{z}/{x}/{y} at low zoom levels.
+*/
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TileAggregate {
+    private int z;
+    private int x;
+    private int y;
+    private int count;
+    private Map<String, Integer> byStatus;
+    private long timestamp;
+}
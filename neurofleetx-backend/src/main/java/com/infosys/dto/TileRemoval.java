@@ -0,0 +1,23 @@
+package com.infosys.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/*
+ Purpose: Tells the subscribers of /topic/telemetry/tile/{z}/{x}/{y} to drop a vehicle they were shown,
+ because it moved into another tile (LEFT_TILE) or was deleted from the fleet (DELETED). PURGED drops
+ every vehicle with an id >= vehicleId at once (the synthetic vehicles of a finished load test).
+*/
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TileRemoval {
+    public static final String LEFT_TILE = "LEFT_TILE";
+    public static final String DELETED = "DELETED";
+    public static final String PURGED = "PURGED";
+
+    private long vehicleId;
+    private String reason;
+    private long timestamp;
+}
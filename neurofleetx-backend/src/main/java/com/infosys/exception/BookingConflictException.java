@@ -0,0 +1,12 @@
+package com.infosys.exception;
+
+/*
+ Purpose: A booking action lost a race (another driver accepted first, or the booking / vehicle
+ changed concurrently). Mapped to 409 so clients can tell it apart from invalid requests.
+*/
+public class BookingConflictException extends RuntimeException {
+
+    public BookingConflictException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,7 @@
 package com.infosys.exception;
 
 import com.infosys.dto.MessageResponse;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
 
@@ -11,4 +12,15 @@ public class GlobalExceptionHandler {
     public ResponseEntity<MessageResponse> handleRuntime(RuntimeException ex) {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new MessageResponse(ex.getMessage()));
     }
+
+    @ExceptionHandler(BookingConflictException.class)
+    public ResponseEntity<MessageResponse> handleBookingConflict(BookingConflictException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse(ex.getMessage()));
+    }
+
+    // @Version check failed: someone else updated the same row first
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<MessageResponse> handleOptimisticLock(OptimisticLockingFailureException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(new MessageResponse("Modified concurrently, please retry"));
+    }
 }
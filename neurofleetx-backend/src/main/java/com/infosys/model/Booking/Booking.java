@@ -37,11 +37,36 @@ public class Booking {
     @Column(name = "drop_location")
     private String dropoffLocation;
 
+    // coordinates of the locations above (null when the location text carries no position)
+    @Column(name = "pickup_lat")
+    private Double pickupLat;
+
+    @Column(name = "pickup_lon")
+    private Double pickupLon;
+
+    @Column(name = "drop_lat")
+    private Double dropoffLat;
+
+    @Column(name = "drop_lon")
+    private Double dropoffLon;
+
     private LocalDateTime startTime;
     private LocalDateTime endTime;
 
     private Double price;            // computed price for the slot
 
+    @Column(name = "base_fare")
+    private Double baseFare;         // tariff price before surge
+
+    @Column(name = "surge_multiplier")
+    private Double surgeMultiplier;  // 1.0 = no surge
+
+    @Column(name = "quote_id", length = 96)
+    private String quoteId;          // quote the price was taken from (see PricingEngine)
+
+    @Column(name = "load_test")
+    private Boolean loadTest;        // created by FleetLoadGenerator: not offered or shown to customers, deleted when the run ends
+
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
 
@@ -60,4 +85,8 @@ public class Booking {
 
     @Column(name = "reject_reason")
     private String rejectReason;
+
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;             // optimistic lock: concurrent accepts of one booking cannot both commit
 }
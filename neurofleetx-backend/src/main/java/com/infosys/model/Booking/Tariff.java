@@ -0,0 +1,32 @@
+package com.infosys.model.Booking;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/*
+ Purpose: Hourly tariff per vehicle type, read by PricingEngine. The row named DEFAULT prices every
+ type without a row of its own.
+*/
+@Entity
+@Table(name = "tariffs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Tariff {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "vehicle_type", unique = true, nullable = false)
+    private String vehicleType;      // matched case-insensitively against Booking.vehicleType
+
+    @Column(name = "hourly_rate", nullable = false)
+    private Double hourlyRate;
+
+    @Column(name = "ev_surcharge")
+    private Double evSurcharge;      // added to the hourly rate for EV bookings
+
+    @Column(name = "min_hours")
+    private Integer minHours;        // shortest billed period
+}
@@ -48,5 +48,9 @@ public class Vehicle {
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assigned_driver_id", insertable = false, updatable = false)
     private User assignedDriver;
+
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version;             // optimistic lock, bumped by every entity save (telemetry SQL updates leave it)
 }
 
@@ -16,6 +16,8 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     List<Booking> findByCustomerId(Long customerId);
 
+    List<Booking> findByLoadTestTrue();
+
     // Find bookings that overlap with a candidate time window for a given vehicle
     @Query("SELECT b FROM Booking b WHERE b.vehicleId = :vehicleId AND b.status = 'CONFIRMED' AND NOT (b.endTime <= :start OR b.startTime >= :end)")
     List<Booking> findOverlappingConfirmed(@Param("vehicleId") Long vehicleId,
@@ -26,6 +28,13 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     @Query("SELECT b FROM Booking b WHERE b.status = 'CONFIRMED' AND NOT (b.endTime <= :start OR b.startTime >= :end)")
     List<Booking> findOverlappingAny(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
+    // Availability index load: [id, vehicleId, startTime, endTime] of confirmed bookings ending after :since
+    @Query("SELECT b.id, b.vehicleId, b.startTime, b.endTime FROM Booking b WHERE b.status = 'CONFIRMED' AND b.vehicleId IS NOT NULL AND b.endTime > :since")
+    List<Object[]> findConfirmedIntervals(@Param("since") LocalDateTime since);
+
+    @Query("SELECT b.id, b.vehicleId, b.startTime, b.endTime FROM Booking b WHERE b.status = 'CONFIRMED' AND b.vehicleId = :vehicleId AND b.endTime > :since")
+    List<Object[]> findConfirmedIntervalsForVehicle(@Param("vehicleId") Long vehicleId, @Param("since") LocalDateTime since);
+
     @Query("SELECT v FROM Vehicle v WHERE v.assignedDriverId = :driverId")
     Optional<Vehicle> findByAssignedDriverId(@Param("driverId") Long driverId);
 
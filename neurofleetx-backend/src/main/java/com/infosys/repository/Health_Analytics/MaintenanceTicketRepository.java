@@ -1,12 +1,31 @@
 package com.infosys.repository.Health_Analytics;
 
+import com.infosys.dto.MaintenanceTicketSummary;
 import com.infosys.model.Health_Analytics.MaintenanceTicket;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface MaintenanceTicketRepository extends JpaRepository<MaintenanceTicket, Long> {
     List<MaintenanceTicket> findByStatus(String status);
     List<MaintenanceTicket> findByReportedById(Long userId);
     List<MaintenanceTicket> findByVehicleId(Long vehicleId);
+    List<MaintenanceTicket> findByStatusNotAndIssueIn(String status, Collection<String> issues);
+
+    // projections: no Vehicle / User entity loading
+    @Query("SELECT new com.infosys.dto.MaintenanceTicketSummary(t.id, v.id, v.name, t.issue, t.severity, t.status, " +
+           "t.predictedDaysToService, t.createdAt, u.id, u.fullName) " +
+           "FROM MaintenanceTicket t LEFT JOIN t.vehicle v LEFT JOIN t.reportedBy u " +
+           "WHERE t.status IS NULL OR t.status <> 'RESOLVED'")
+    List<MaintenanceTicketSummary> findUnresolvedSummaries();
+
+    @Query("SELECT new com.infosys.dto.MaintenanceTicketSummary(t.id, v.id, v.name, t.issue, t.severity, t.status, " +
+           "t.predictedDaysToService, t.createdAt, u.id, u.fullName) " +
+           "FROM MaintenanceTicket t LEFT JOIN t.vehicle v LEFT JOIN t.reportedBy u " +
+           "WHERE t.id < :beforeId ORDER BY t.id DESC")
+    List<MaintenanceTicketSummary> findSummariesBefore(@Param("beforeId") Long beforeId, Pageable pageable);
 }
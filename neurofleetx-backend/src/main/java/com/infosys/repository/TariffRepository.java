@@ -0,0 +1,9 @@
+package com.infosys.repository;
+
+import com.infosys.model.Booking.Tariff;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.Optional;
+
+public interface TariffRepository extends JpaRepository<Tariff, Long> {
+    Optional<Tariff> findByVehicleType(String vehicleType);
+}
@@ -3,7 +3,9 @@ package com.infosys.repository;
 import com.infosys.model.Vehicle;
 import com.infosys.model.VehicleStatus;
 import com.infosys.model.VehicleType;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -18,6 +20,12 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
     @Query("SELECT v FROM Vehicle v WHERE v.assignedDriverId = :driverId")
     Optional<Vehicle> findByAssignedDriverId(@Param("driverId") Long driverId);
 
+    // Booking acceptance: the vehicle's version is incremented at commit even if nothing else changed,
+    // so two transactions booking the same vehicle cannot both commit
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT v FROM Vehicle v WHERE v.assignedDriverId = :driverId")
+    Optional<Vehicle> findByAssignedDriverIdForBooking(@Param("driverId") Long driverId);
+
     @Query("SELECT v FROM Vehicle v WHERE v.assignedDriver.id = :driverId")
     Optional<Vehicle> findVehicleByAssignedDriverId(@Param("driverId") Long driverId);
 
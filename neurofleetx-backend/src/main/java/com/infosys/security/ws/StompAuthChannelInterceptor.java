@@ -0,0 +1,80 @@
+package com.infosys.security.ws;
+
+import com.infosys.security.jwt.JwtUtils;
+import com.infosys.security.services.UserDetailsServiceImpl;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.security.Principal;
+import java.util.Map;
+
+/*
+ Purpose: Authenticates STOMP sessions and guards the replay destinations.
+ Workflow:
+ 1. CONNECT: the JWT from the "Authorization: Bearer ..." STOMP header (or the user the handshake
+    interceptor accepted) is resolved to the user with its roles and becomes the session user
+ 2. SEND to /app/replay/**: only ADMIN and MANAGER, like the HTTP replay endpoints
+ 3. SEND to /app/telemetry: only ADMIN and DEVICE, like POST /api/telemetry/ingest
+*/
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private static final String REPLAY_PREFIX = "/app/replay/";
+    private static final String TELEMETRY_DESTINATION = "/app/telemetry";
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) return message;
+
+        if (StompCommand.CONNECT.equals(accessor.getCommand())) {
+            String username = username(accessor);
+            if (username == null) throw new AccessDeniedException("Missing or invalid token");
+            UserDetails user = userDetailsService.loadUserByUsername(username);
+            accessor.setUser(new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        } else if (StompCommand.SEND.equals(accessor.getCommand()) && accessor.getDestination() != null) {
+            String destination = accessor.getDestination();
+            if (destination.startsWith(REPLAY_PREFIX)
+                    && !hasRole(accessor.getUser(), "ROLE_ADMIN") && !hasRole(accessor.getUser(), "ROLE_MANAGER")) {
+                throw new AccessDeniedException("Replay requires ADMIN or MANAGER");
+            }
+            if (destination.equals(TELEMETRY_DESTINATION)
+                    && !hasRole(accessor.getUser(), "ROLE_ADMIN") && !hasRole(accessor.getUser(), "ROLE_DEVICE")) {
+                throw new AccessDeniedException("Telemetry ingestion requires ADMIN or DEVICE");
+            }
+        }
+        return message;
+    }
+
+    private String username(StompHeaderAccessor accessor) {
+        String header = accessor.getFirstNativeHeader("Authorization");
+        if (header != null && header.startsWith("Bearer ")) {
+            String token = header.substring(7);
+            return jwtUtils.validateJwtToken(token) ? jwtUtils.getUserNameFromJwt(token) : null;
+        }
+        Map<String, Object> attributes = accessor.getSessionAttributes();
+        Object principal = attributes != null ? attributes.get("principal") : null;
+        return principal instanceof Principal p ? p.getName() : null;
+    }
+
+    private static boolean hasRole(Principal user, String role) {
+        if (!(user instanceof Authentication auth)) return false;
+        return auth.getAuthorities().stream().anyMatch(a -> role.equals(a.getAuthority()));
+    }
+}
@@ -4,6 +4,8 @@ import com.infosys.model.Booking.Booking;
 import com.infosys.model.Vehicle;
 import com.infosys.repository.BookingRepository;
 import com.infosys.repository.VehicleRepository;
+import com.infosys.service.Fleet.FleetStateStore;
+import com.infosys.service.Reference.ReferenceDataRegistry;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,38 +23,38 @@ public class AnalyticsServiceImpl implements AnalyticsService {
 
     private final VehicleRepository vehicleRepository;
     private final BookingRepository bookingRepository;
+    private final FleetStateStore fleetState;
 
     @Autowired
     public AnalyticsServiceImpl(VehicleRepository vehicleRepository,
-                                BookingRepository bookingRepository) {
+                                BookingRepository bookingRepository,
+                                FleetStateStore fleetState) {
         this.vehicleRepository = vehicleRepository;
         this.bookingRepository = bookingRepository;
+        this.fleetState = fleetState;
     }
 
     // ==================== FLEET DISTRIBUTION ====================
 
     @Override
     public Map<String, Object> getFleetDistribution() {
-        List<Vehicle> vehicles = vehicleRepository.findAll();
-
         Map<String, Object> distribution = new HashMap<>();
 
-        // Group vehicles by location (latitude/longitude clusters)
-        List<Map<String, Object>> locationData = vehicles.stream()
-                .map(v -> {
-                    Map<String, Object> point = new HashMap<>();
-                    point.put("id", v.getId());
-                    point.put("name", v.getName());
-                    point.put("lat", v.getLatitude());
-                    point.put("lng", v.getLongitude());
-                    point.put("status", v.getStatus().getName());
-                    point.put("type", v.getType().getName());
-                    return point;
-                })
-                .collect(Collectors.toList());
+        // Group vehicles by location (latitude/longitude clusters) - scanned from the live fleet state
+        List<Map<String, Object>> locationData = new ArrayList<>(fleetState.size());
+        fleetState.forEach(slot -> {
+            Map<String, Object> point = new HashMap<>();
+            point.put("id", fleetState.vehicleId(slot));
+            point.put("name", fleetState.name(slot));
+            point.put("lat", fleetState.latitude(slot));
+            point.put("lng", fleetState.longitude(slot));
+            point.put("status", fleetState.statusName(slot));
+            point.put("type", fleetState.typeName(slot));
+            locationData.add(point);
+        });
 
         distribution.put("vehicles", locationData);
-        distribution.put("total", vehicles.size());
+        distribution.put("total", locationData.size());
         distribution.put("timestamp", LocalDateTime.now());
 
         return distribution;
@@ -97,10 +99,10 @@ public class AnalyticsServiceImpl implements AnalyticsService {
         // Fleet KPIs
         kpi.put("totalFleet", vehicles.size());
         kpi.put("activeVehicles", vehicles.stream()
-                .filter(v -> "In Use".equals(v.getStatus().getName()))
+                .filter(v -> ReferenceDataRegistry.Status.IN_USE.label.equals(v.getStatus().getName()))
                 .count());
         kpi.put("availableVehicles", vehicles.stream()
-                .filter(v -> "Available".equals(v.getStatus().getName()))
+                .filter(v -> ReferenceDataRegistry.Status.AVAILABLE.label.equals(v.getStatus().getName()))
                 .count());
 
         // Booking KPIs (Today)
@@ -0,0 +1,135 @@
+package com.infosys.service.Booking;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/*
+ Purpose: Sparse min-cost assignment of bidders (bookings) to objects (vehicles) with the auction
+ algorithm (Bertsekas), Jacobi variant.
+ - Arcs come in CSR form: bidder i may take objects col[rowStart[i] .. rowStart[i + 1]) at the matching cost
+ - Every bidder may also stay unassigned at unassignedCost, so a bidder whose arcs become too expensive
+   drops out instead of bidding forever
+ - Each round all unassigned bidders compute their bids in parallel against the current prices; every
+   object then goes to its highest bid and its previous owner bids again in the next round
+ - The result is within bidders * eps of the optimum. It is a single phase from zero prices: objects that
+   end up unowned must keep price zero for that bound, which epsilon scaling (prices carried over between
+   phases) does not guarantee when bidders may stay unassigned
+*/
+final class AuctionSolver {
+
+    private final ForkJoinPool pool;
+
+    // per round scratch, indexed by bidder
+    private int[] bidObject;
+    private float[] bidPrice;
+
+    private int rounds;
+
+    AuctionSolver(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    // Object index assigned to every bidder, -1 = stays unassigned
+    int[] solve(int bidders, int objects, int[] rowStart, int[] col, float[] cost,
+                float unassignedCost, float eps, int maxRounds) {
+        int[] assigned = new int[bidders];
+        int[] owner = new int[objects];
+        float[] price = new float[objects];
+        float[] bestBid = new float[objects];
+        int[] bestBidder = new int[objects];
+        int[] touched = new int[objects];
+        int[] queue = new int[bidders];
+        int[] next = new int[bidders];
+        bidObject = new int[bidders];
+        bidPrice = new float[bidders];
+        Arrays.fill(assigned, -1);
+        Arrays.fill(owner, -1);
+        Arrays.fill(bestBidder, -1);
+        rounds = 0;
+
+        int queued = 0;
+        for (int i = 0; i < bidders; i++) {
+            if (rowStart[i + 1] > rowStart[i]) queue[queued++] = i;
+        }
+
+        while (queued > 0 && rounds < maxRounds) {
+            rounds++;
+            bidAll(queue, queued, rowStart, col, cost, price, unassignedCost, eps);
+
+            // each object goes to its highest bid
+            int touchedCount = 0;
+            for (int k = 0; k < queued; k++) {
+                int i = queue[k];
+                int j = bidObject[i];
+                if (j < 0) continue; // staying unassigned is cheapest: drops out (prices only rise)
+                if (bestBidder[j] < 0) {
+                    touched[touchedCount++] = j;
+                    bestBidder[j] = i;
+                    bestBid[j] = bidPrice[i];
+                } else if (bidPrice[i] > bestBid[j]) {
+                    bestBidder[j] = i;
+                    bestBid[j] = bidPrice[i];
+                }
+            }
+            int nextCount = 0;
+            for (int t = 0; t < touchedCount; t++) {
+                int j = touched[t];
+                int previous = owner[j];
+                if (previous >= 0) {
+                    assigned[previous] = -1;
+                    next[nextCount++] = previous;
+                }
+                owner[j] = bestBidder[j];
+                assigned[bestBidder[j]] = j;
+                price[j] = bestBid[j];
+                bestBidder[j] = -1;
+            }
+            // outbid in this round: bid again
+            for (int k = 0; k < queued; k++) {
+                int i = queue[k];
+                if (bidObject[i] >= 0 && assigned[i] != bidObject[i]) next[nextCount++] = i;
+            }
+
+            int[] swap = queue;
+            queue = next;
+            next = swap;
+            queued = nextCount;
+        }
+
+        return assigned; // bidders still queued after maxRounds stay unassigned
+    }
+
+    int rounds() {
+        return rounds;
+    }
+
+    private void bidAll(int[] queue, int queued, int[] rowStart, int[] col, float[] cost, float[] price,
+                        float unassignedCost, float eps) {
+        if (queued < 512) {
+            for (int k = 0; k < queued; k++) bid(queue[k], rowStart, col, cost, price, unassignedCost, eps);
+            return;
+        }
+        pool.submit(() -> IntStream.range(0, queued).parallel()
+                .forEach(k -> bid(queue[k], rowStart, col, cost, price, unassignedCost, eps))).join();
+    }
+
+    // Best and second best value (cost + price) of bidder i, staying unassigned included
+    private void bid(int i, int[] rowStart, int[] col, float[] cost, float[] price, float unassignedCost, float eps) {
+        float best = unassignedCost;
+        float second = Float.MAX_VALUE;
+        int bestObject = -1;
+        for (int a = rowStart[i], end = rowStart[i + 1]; a < end; a++) {
+            float v = cost[a] + price[col[a]];
+            if (v < best) {
+                second = best;
+                best = v;
+                bestObject = col[a];
+            } else if (v < second) {
+                second = v;
+            }
+        }
+        bidObject[i] = bestObject;
+        if (bestObject >= 0) bidPrice[i] = price[bestObject] + (second - best) + eps;
+    }
+}
@@ -0,0 +1,659 @@
+package com.infosys.service.Booking;
+
+import com.infosys.model.Booking.Booking;
+import com.infosys.model.Booking.BookingStatus;
+import com.infosys.model.Vehicle;
+import com.infosys.model.VehicleStatus;
+import com.infosys.repository.BookingRepository;
+import com.infosys.repository.VehicleRepository;
+import com.infosys.service.Fleet.FleetStateStore;
+import com.infosys.service.Fleet.GeoPoint;
+import com.infosys.service.Reference.ReferenceDataRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+/*
+ Purpose: Auto-dispatch mode: every intervalMs all pending bookings are matched to the available
+ driver/vehicle pairs as one assignment problem, instead of waiting for a driver to accept.
+ Workflow:
+ 1. Input: offered bookings older than offerMs (younger ones are left to the drivers) and the vehicles of the
+    live fleet state that are Available and have a driver, copied into primitive columns
+ 2. Cost of a pair (0 = perfect, 100 = worst): distance from the vehicle to the pickup, battery / fuel level
+    and time fit (idle time the booking would leave around it in the vehicle's schedule). Type or EV
+    mismatch, a vehicle that is not free for the slot, or a cost above maxCost rule the pair out
+ 3. Every booking keeps its `candidates` cheapest vehicles and every vehicle its `candidates` cheapest
+    bookings (computed in parallel, bookings searching the spatial grid around their pickup); the resulting
+    sparse cost matrix is solved by the auction algorithm (AuctionSolver), staying unassigned costs maxCost
+ 4. The assignment is committed through BookingAcceptanceArbiter.acceptBatch: one transaction, every
+    pair re-checked against the database rows, bookings claimed by a driver meanwhile are skipped
+*/
+@Component
+public class AutoDispatchEngine {
+
+    private static final double DISTANCE_WEIGHT = 0.45;
+    private static final double ENERGY_WEIGHT = 0.25;
+    private static final double TIME_FIT_WEIGHT = 0.30;
+
+    private static final double MAX_DISTANCE_KM = 50.0;            // at or beyond = full distance cost
+    private static final float UNKNOWN_DISTANCE_COST = 50f;        // pickup or vehicle position unknown
+    private static final long TIME_FIT_CAP_MILLIS = 12 * 3_600_000L;
+
+    @Autowired
+    private PendingBookingQueues pendingQueues;
+
+    @Autowired
+    private FleetStateStore fleetState;
+
+    @Autowired
+    private BookingAvailabilityIndex availability;
+
+    @Autowired
+    private BookingAcceptanceArbiter acceptanceArbiter;
+
+    @Autowired
+    private BookingStatistics statistics;
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    @Autowired
+    private VehicleRepository vehicleRepo;
+
+    @Autowired
+    private ReferenceDataRegistry referenceData;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Value("${booking.dispatch.enabled:false}")
+    private boolean enabled;
+
+    @Value("${booking.dispatch.offerMs:30000}")
+    private long offerMs;
+
+    @Value("${booking.dispatch.candidates:32}")
+    private int candidates;
+
+    @Value("${booking.dispatch.maxCost:80}")
+    private float maxCost;
+
+    @Value("${booking.dispatch.epsilon:0.1}")
+    private float epsilon;
+
+    @Value("${booking.dispatch.maxRounds:1000000}")
+    private int maxRounds;
+
+    @Value("${booking.dispatch.parallelism:0}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    private synchronized ForkJoinPool pool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        }
+        return pool;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (pool != null) pool.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${booking.dispatch.intervalMs:5000}", initialDelayString = "${booking.dispatch.intervalMs:5000}")
+    public void scheduledDispatch() {
+        if (enabled) dispatch();
+    }
+
+    // One dispatch round; returns its metrics, or null when a round was already in progress
+    public Map<String, Object> dispatch() {
+        if (!running.compareAndSet(false, true)) return null;
+        try {
+            long started = System.currentTimeMillis();
+            Bookings bookings = bookings();
+            Vehicles vehicles = vehicles();
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("startedAt", LocalDateTime.now());
+            m.put("bookings", bookings.size);
+            m.put("vehicles", vehicles.size);
+
+            int[] assigned = new int[0];
+            Set<Long> confirmed = Set.of();
+            if (bookings.size > 0 && vehicles.size > 0) {
+                Arcs arcs = candidates(bookings, vehicles);
+                long solveStarted = System.currentTimeMillis();
+                m.put("arcs", arcs.rowStart[bookings.size]);
+                m.put("candidatesMs", solveStarted - started);
+
+                AuctionSolver solver = new AuctionSolver(pool());
+                assigned = solver.solve(bookings.size, vehicles.size, arcs.rowStart, arcs.col, arcs.cost,
+                        maxCost, epsilon, maxRounds);
+                long commitStarted = System.currentTimeMillis();
+                m.put("rounds", solver.rounds());
+                m.put("solveMs", commitStarted - solveStarted);
+
+                confirmed = commit(bookings, vehicles, assigned);
+                m.put("commitMs", System.currentTimeMillis() - commitStarted);
+            }
+            m.put("assigned", Arrays.stream(assigned).filter(j -> j >= 0).count());
+            m.put("confirmed", confirmed.size());
+            m.put("durationMs", System.currentTimeMillis() - started);
+            lastRun = m;
+            if (!confirmed.isEmpty()) {
+                System.out.println("Auto-dispatch confirmed " + confirmed.size() + " of " + bookings.size + " pending bookings");
+            }
+            return m;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", enabled);
+        m.put("running", running.get());
+        m.put("lastRun", lastRun);
+        return m;
+    }
+
+    // ====== INPUT ======
+
+    private Bookings bookings() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime offeredBefore = now.minus(Duration.ofMillis(offerMs));
+        List<Booking> eligible = new ArrayList<>();
+        for (Booking b : pendingQueues.allPending()) {
+            if (b.getStartTime() == null || b.getEndTime() == null) continue;
+            if (b.getCreatedAt() != null && b.getCreatedAt().isAfter(offeredBefore)) continue;
+            if (!b.getEndTime().isAfter(now)) continue;
+            eligible.add(b);
+        }
+
+        Bookings in = new Bookings(eligible.size());
+        for (int i = 0; i < in.size; i++) {
+            Booking b = eligible.get(i);
+            in.ids[i] = b.getId();
+            in.typeCodes[i] = fleetState.typeCodeOf(b.getVehicleType());
+            in.ev[i] = Boolean.TRUE.equals(b.getIsEv());
+            in.start[i] = BookingAvailabilityIndex.millis(b.getStartTime());
+            in.end[i] = BookingAvailabilityIndex.millis(b.getEndTime());
+            GeoPoint pickup = GeoPoint.of(b.getPickupLat(), b.getPickupLon(), b.getPickupLocation());
+            in.hasPickup[i] = pickup != null;
+            if (pickup != null) {
+                in.lat[i] = pickup.lat();
+                in.lon[i] = pickup.lon();
+                in.cosLat[i] = Math.cos(Math.toRadians(pickup.lat()));
+            }
+        }
+        return in;
+    }
+
+    private Vehicles vehicles() {
+        int available = fleetState.statusCodeOf(ReferenceDataRegistry.Status.AVAILABLE.label);
+        Set<Long> drivers = new HashSet<>();
+        Vehicles in = new Vehicles();
+        fleetState.forEach(slot -> {
+            long driverId = fleetState.driverId(slot);
+            if (driverId == 0 || fleetState.statusCode(slot) != available || fleetState.isSynthetic(slot)) return;
+            if (!drivers.add(driverId)) return; // a driver drives one vehicle at a time
+            in.add(slot, fleetState.vehicleId(slot), driverId, fleetState.typeCode(slot), fleetState.isEv(slot),
+                    fleetState.isEv(slot) ? fleetState.battery(slot) : fleetState.fuel(slot),
+                    fleetState.latitude(slot), fleetState.longitude(slot));
+        });
+        return in;
+    }
+
+    // ====== CANDIDATES ======
+
+    /*
+     Sparse cost matrix in CSR form. Every booking gets its `candidates` cheapest vehicles and every vehicle
+     its `candidates` cheapest bookings: booking-side lists alone would all name the same few fully charged
+     vehicles and leave most bookings without a reachable vehicle. Both passes run in parallel and prune:
+     a booking with a pickup searches the fleet state's spatial grid outwards from the pickup (plus the vehicles
+     without a position), other bookings scan their type in energy order; vehicles scan bookings in a latitude
+     sweep around the vehicle.
+    */
+    private Arcs candidates(Bookings bookings, Vehicles vehicles) {
+        int k = Math.max(1, candidates);
+        Map<Integer, int[]> vehiclesByType = groupByType(vehicles.typeCodes, vehicles.size,
+                Comparator.comparingDouble(j -> vehicles.energyCost[j]));
+        int[] unplacedTypeCodes = Arrays.copyOf(vehicles.typeCodes, vehicles.size);
+        for (int j = 0; j < vehicles.size; j++) {
+            if (vehicles.hasPosition[j]) unplacedTypeCodes[j] = FleetStateStore.UNKNOWN_CODE;
+        }
+        Map<Integer, int[]> unplacedByType = groupByType(unplacedTypeCodes, vehicles.size,
+                Comparator.comparingDouble(j -> vehicles.energyCost[j]));
+        int[] indexOfSlot = vehicles.indexOfSlot();
+        Map<Integer, int[]> bookingsByType = groupByType(bookings.typeCodes, bookings.size,
+                Comparator.comparingDouble(i -> bookings.hasPickup[i] ? bookings.lat[i] : Double.MAX_VALUE));
+
+        int[][] bookingCols = new int[bookings.size][];
+        float[][] bookingCosts = new float[bookings.size][];
+        int[][] vehicleRows = new int[vehicles.size][];
+        float[][] vehicleCosts = new float[vehicles.size][];
+        pool().submit(() -> {
+            IntStream.range(0, bookings.size).parallel().forEach(i -> {
+                TopK top = new TopK(k);
+                int[] sameType = vehiclesByType.get(bookings.typeCodes[i]);
+                if (sameType != null) {
+                    if (bookings.hasPickup[i]) {
+                        nearby(top, i, bookings, vehicles, indexOfSlot, vehicles.energyCost[sameType[0]]);
+                        scan(top, i, unplacedByType.get(bookings.typeCodes[i]), bookings, vehicles);
+                    } else {
+                        scan(top, i, sameType, bookings, vehicles);
+                    }
+                }
+                bookingCols[i] = top.indices();
+                bookingCosts[i] = top.costs();
+            });
+            IntStream.range(0, vehicles.size).parallel().forEach(j -> {
+                TopK top = new TopK(k);
+                int[] sameType = bookingsByType.get(vehicles.typeCodes[j]);
+                if (sameType != null) sweep(top, sameType, bookings, vehicles, j);
+                vehicleRows[j] = top.indices();
+                vehicleCosts[j] = top.costs();
+            });
+        }).join();
+        return merge(bookingCols, bookingCosts, vehicleRows, vehicleCosts);
+    }
+
+    /*
+     Vehicles around booking i's pickup, nearest first, from the fleet state's spatial grid. The search radius
+     shrinks to the distance whose cost plus the type's lowest energy cost still beats the k-th candidate.
+    */
+    private void nearby(TopK top, int i, Bookings bookings, Vehicles vehicles, int[] indexOfSlot, float minEnergyCost) {
+        int type = bookings.typeCodes[i];
+        fleetState.within(bookings.lat[i], bookings.lon[i], MAX_DISTANCE_KM, (slot, km) -> {
+            int j = slot < indexOfSlot.length ? indexOfSlot[slot] : -1;
+            if (j >= 0 && vehicles.typeCodes[j] == type) {
+                float c = cost(bookings, i, vehicles, j, top.limit(maxCost));
+                if (c >= 0) top.offer(j, c);
+            }
+            return reachKm(top.limit(maxCost) - minEnergyCost);
+        });
+    }
+
+    // Vehicles of the booking's type in energy order
+    private void scan(TopK top, int i, int[] byEnergy, Bookings bookings, Vehicles vehicles) {
+        if (byEnergy == null) return;
+        for (int j : byEnergy) {
+            if (vehicles.energyCost[j] > top.limit(maxCost)) break; // energy order: the rest is worse
+            float c = cost(bookings, i, vehicles, j, top.limit(maxCost));
+            if (c >= 0) top.offer(j, c);
+        }
+    }
+
+    /*
+     Bookings of the vehicle's type (sorted by pickup latitude, unknown pickups last) nearest latitude first:
+     the latitude difference alone bounds the distance cost, so the sweep stops once that bound loses.
+    */
+    private void sweep(TopK top, int[] byLat, Bookings bookings, Vehicles vehicles, int j) {
+        int placed = 0;
+        while (placed < byLat.length && bookings.hasPickup[byLat[placed]]) placed++;
+
+        if (vehicles.hasPosition[j]) {
+            double lat = vehicles.lat[j];
+            int hi = lowerBound(byLat, placed, bookings.lat, lat);
+            int lo = hi - 1;
+            while (lo >= 0 || hi < placed) {
+                int at = hi >= placed || (lo >= 0 && lat - bookings.lat[byLat[lo]] <= bookings.lat[byLat[hi]] - lat) ? lo-- : hi++;
+                int i = byLat[at];
+                double latKm = Math.abs(bookings.lat[i] - lat) * GeoPoint.KM_PER_DEGREE;
+                float bound = distanceCost(latKm) + vehicles.energyCost[j];
+                if (bound > top.limit(maxCost)) break;
+                float c = cost(bookings, i, vehicles, j, top.limit(maxCost));
+                if (c >= 0) top.offer(i, c);
+            }
+        } else {
+            for (int at = 0; at < placed; at++) {
+                float c = cost(bookings, byLat[at], vehicles, j, top.limit(maxCost));
+                if (c >= 0) top.offer(byLat[at], c);
+            }
+        }
+        for (int at = placed; at < byLat.length; at++) {
+            float c = cost(bookings, byLat[at], vehicles, j, top.limit(maxCost));
+            if (c >= 0) top.offer(byLat[at], c);
+        }
+    }
+
+    // Cost of booking i on vehicle j, -1 when the pair is infeasible or costs more than limit
+    private float cost(Bookings bookings, int i, Vehicles vehicles, int j, float limit) {
+        if (bookings.ev[i] && !vehicles.ev[j]) return -1;
+
+        float distance = (float) (DISTANCE_WEIGHT * UNKNOWN_DISTANCE_COST);
+        if (bookings.hasPickup[i] && vehicles.hasPosition[j]) {
+            distance = distanceCost(GeoPoint.distanceKm(bookings.lat[i], bookings.lon[i], bookings.cosLat[i], vehicles.lat[j], vehicles.lon[j]));
+        }
+        float partial = distance + vehicles.energyCost[j];
+        if (partial > limit) return -1; // time fit adds at least 0: skip the index lookup
+
+        long slack = availability.slack(vehicles.ids[j], bookings.start[i], bookings.end[i], TIME_FIT_CAP_MILLIS);
+        if (slack < 0) return -1;
+        float cost = partial + (float) (TIME_FIT_WEIGHT * 100.0 * slack / (2.0 * TIME_FIT_CAP_MILLIS));
+        return cost <= limit ? cost : -1;
+    }
+
+    // Weighted distance part of the cost
+    private static float distanceCost(double km) {
+        return (float) (DISTANCE_WEIGHT * Math.min(km, MAX_DISTANCE_KM) / MAX_DISTANCE_KM * 100.0);
+    }
+
+    // Largest distance whose weighted cost fits in `budget`, -1 when none does
+    private static double reachKm(float budget) {
+        if (budget < 0) return -1;
+        return Math.min(MAX_DISTANCE_KM, budget / (DISTANCE_WEIGHT * 100.0) * MAX_DISTANCE_KM);
+    }
+
+    // Union of both candidate lists per booking (a pair named from both sides is kept once)
+    private static Arcs merge(int[][] bookingCols, float[][] bookingCosts, int[][] vehicleRows, float[][] vehicleCosts) {
+        int bookingCount = bookingCols.length;
+        int[] extraStart = new int[bookingCount + 1];
+        for (int[] rows : vehicleRows) {
+            for (int i : rows) extraStart[i + 1]++;
+        }
+        for (int i = 0; i < bookingCount; i++) extraStart[i + 1] += extraStart[i];
+        int[] extraCol = new int[extraStart[bookingCount]];
+        float[] extraCost = new float[extraCol.length];
+        int[] fill = Arrays.copyOf(extraStart, bookingCount);
+        for (int j = 0; j < vehicleRows.length; j++) {
+            for (int t = 0; t < vehicleRows[j].length; t++) {
+                int at = fill[vehicleRows[j][t]]++;
+                extraCol[at] = j;
+                extraCost[at] = vehicleCosts[j][t];
+            }
+        }
+
+        int[] rowStart = new int[bookingCount + 1];
+        int arcs = extraCol.length;
+        for (int[] cols : bookingCols) arcs += cols.length;
+        int[] col = new int[arcs];
+        float[] cost = new float[arcs];
+        int n = 0;
+        for (int i = 0; i < bookingCount; i++) {
+            rowStart[i] = n;
+            System.arraycopy(bookingCols[i], 0, col, n, bookingCols[i].length);
+            System.arraycopy(bookingCosts[i], 0, cost, n, bookingCosts[i].length);
+            n += bookingCols[i].length;
+            next:
+            for (int a = extraStart[i]; a < extraStart[i + 1]; a++) {
+                for (int b = rowStart[i]; b < rowStart[i] + bookingCols[i].length; b++) {
+                    if (col[b] == extraCol[a]) continue next;
+                }
+                col[n] = extraCol[a];
+                cost[n++] = extraCost[a];
+            }
+        }
+        rowStart[bookingCount] = n;
+        return new Arcs(rowStart, col, cost);
+    }
+
+    // Indices [0, size) grouped by type code (unknown types left out), each group sorted by `order`
+    private static Map<Integer, int[]> groupByType(int[] typeCodes, int size, Comparator<Integer> order) {
+        Map<Integer, List<Integer>> groups = new HashMap<>();
+        for (int x = 0; x < size; x++) {
+            if (typeCodes[x] != FleetStateStore.UNKNOWN_CODE) groups.computeIfAbsent(typeCodes[x], t -> new ArrayList<>()).add(x);
+        }
+        Map<Integer, int[]> result = new HashMap<>();
+        groups.forEach((type, members) -> {
+            members.sort(order);
+            result.put(type, members.stream().mapToInt(Integer::intValue).toArray());
+        });
+        return result;
+    }
+
+    // First position in sorted[0, n) whose latitude is >= lat
+    private static int lowerBound(int[] sorted, int n, double[] lats, double lat) {
+        int lo = 0, hi = n;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (lats[sorted[mid]] < lat) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    // ====== COMMIT ======
+
+    private Set<Long> commit(Bookings bookings, Vehicles vehicles, int[] assigned) {
+        int pairCount = (int) Arrays.stream(assigned).filter(j -> j >= 0).count();
+        if (pairCount == 0) return Set.of();
+        long[] bookingIds = new long[pairCount];
+        long[] vehicleIds = new long[pairCount];
+        long[] driverIds = new long[pairCount];
+        for (int i = 0, p = 0; i < assigned.length; i++) {
+            int j = assigned[i];
+            if (j < 0) continue;
+            bookingIds[p] = bookings.ids[i];
+            vehicleIds[p] = vehicles.ids[j];
+            driverIds[p] = vehicles.driverIds[j];
+            p++;
+        }
+
+        try {
+            return acceptanceArbiter.acceptBatch(bookingIds, vehicleIds,
+                    pairs -> confirm(pairs, bookingIds, vehicleIds, driverIds));
+        } catch (RuntimeException e) {
+            System.err.println("Auto-dispatch batch of " + pairCount + " bookings failed: " + e.getMessage());
+            return Set.of();
+        }
+    }
+
+    // Runs inside the batch transaction; re-checks every pair against the current rows
+    private Set<Long> confirm(int[] pairs, long[] bookingIds, long[] vehicleIds, long[] driverIds) {
+        List<Long> bookingKeys = new ArrayList<>(pairs.length);
+        List<Long> vehicleKeys = new ArrayList<>(pairs.length);
+        for (int p : pairs) {
+            bookingKeys.add(bookingIds[p]);
+            vehicleKeys.add(vehicleIds[p]);
+        }
+        Map<Long, Booking> bookingById = new HashMap<>();
+        bookingRepo.findAllById(bookingKeys).forEach(b -> bookingById.put(b.getId(), b));
+        Map<Long, Vehicle> vehicleById = new HashMap<>();
+        vehicleRepo.findAllById(vehicleKeys).forEach(v -> vehicleById.put(v.getId(), v));
+
+        VehicleStatus inUse = referenceData.status(ReferenceDataRegistry.Status.IN_USE);
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> confirmedBookings = new ArrayList<>();
+        List<Vehicle> usedVehicles = new ArrayList<>();
+        for (int p : pairs) {
+            Booking b = bookingById.get(bookingIds[p]);
+            Vehicle v = vehicleById.get(vehicleIds[p]);
+            if (b == null || v == null) continue;
+            if (b.getStatus() != BookingStatus.PENDING || "MANAGER".equals(b.getRejectedBy())
+                    || b.getAssignedDriverId() != null) continue;
+            if (v.getAssignedDriverId() == null || v.getAssignedDriverId() != driverIds[p]) continue;
+            if (v.getStatus() == null || !ReferenceDataRegistry.Status.AVAILABLE.label.equalsIgnoreCase(v.getStatus().getName())) continue;
+            if (!availability.isFreeVerified(v.getId(), b.getStartTime(), b.getEndTime())) continue;
+
+            b.setStatus(BookingStatus.CONFIRMED);
+            b.setAssignedDriverId(driverIds[p]);
+            b.setVehicleId(v.getId());
+            b.setUpdatedAt(now);
+            v.setStatus(inUse);
+            confirmedBookings.add(b);
+            usedVehicles.add(v);
+        }
+        if (confirmedBookings.isEmpty()) return Set.of();
+
+        List<Vehicle> savedVehicles = vehicleRepo.saveAll(usedVehicles);
+        List<Booking> saved = bookingRepo.saveAll(confirmedBookings);
+        Set<Long> confirmed = new HashSet<>();
+        for (Booking b : saved) {
+            availability.update(b);
+            pendingQueues.update(b);
+            statistics.transition(b, BookingStatus.PENDING);
+            confirmed.add(b.getId());
+        }
+        AfterCommit.run(() -> {
+            savedVehicles.forEach(fleetState::upsertMetadata);
+            notifyDispatched(saved);
+        });
+        return confirmed;
+    }
+
+    // Customer, driver and manager get every booking; each type topic gets one message for the whole batch
+    private void notifyDispatched(List<Booking> saved) {
+        Map<String, List<Long>> byType = new TreeMap<>();
+        for (Booking b : saved) {
+            messagingTemplate.convertAndSend("/topic/bookings/customer/" + b.getCustomerId(), b);
+            messagingTemplate.convertAndSend("/topic/bookings/driver/" + b.getAssignedDriverId(), b);
+            messagingTemplate.convertAndSend("/topic/bookings/manager", b);
+            byType.computeIfAbsent(b.getVehicleType().toUpperCase(), t -> new ArrayList<>()).add(b.getId());
+        }
+        byType.forEach((type, ids) -> messagingTemplate.convertAndSend("/topic/bookings/requests/" + type, Map.of(
+                "action", "AUTO_DISPATCHED",
+                "bookingIds", ids
+        )));
+    }
+
+    // ====== PRIMITIVE INPUT COLUMNS ======
+
+    private static final class Bookings {
+        final int size;
+        final long[] ids;
+        final int[] typeCodes;
+        final boolean[] ev;
+        final long[] start;
+        final long[] end;
+        final boolean[] hasPickup;
+        final double[] lat;
+        final double[] lon;
+        final double[] cosLat;
+
+        Bookings(int size) {
+            this.size = size;
+            ids = new long[size];
+            typeCodes = new int[size];
+            ev = new boolean[size];
+            start = new long[size];
+            end = new long[size];
+            hasPickup = new boolean[size];
+            lat = new double[size];
+            lon = new double[size];
+            cosLat = new double[size];
+        }
+    }
+
+    private static final class Vehicles {
+        int size;
+        int[] slots = new int[64];            // fleet state slot the row was copied from
+        long[] ids = new long[64];
+        long[] driverIds = new long[64];
+        int[] typeCodes = new int[64];
+        boolean[] ev = new boolean[64];
+        float[] energyCost = new float[64];   // weighted energy part of the cost, from battery (EV) or fuel
+        boolean[] hasPosition = new boolean[64];
+        double[] lat = new double[64];
+        double[] lon = new double[64];
+
+        void add(int slot, long id, long driverId, int typeCode, boolean isEv, double energyLevel, double latitude, double longitude) {
+            if (size == ids.length) grow();
+            slots[size] = slot;
+            ids[size] = id;
+            driverIds[size] = driverId;
+            typeCodes[size] = typeCode;
+            ev[size] = isEv;
+            energyCost[size] = (float) (ENERGY_WEIGHT * (100.0 - Math.max(0.0, Math.min(100.0, energyLevel))));
+            hasPosition[size] = GeoPoint.isValid(latitude, longitude);   // the fleet state stores unknown as 0
+            lat[size] = latitude;
+            lon[size] = longitude;
+            size++;
+        }
+
+        private void grow() {
+            int n = ids.length * 2;
+            slots = Arrays.copyOf(slots, n);
+            ids = Arrays.copyOf(ids, n);
+            driverIds = Arrays.copyOf(driverIds, n);
+            typeCodes = Arrays.copyOf(typeCodes, n);
+            ev = Arrays.copyOf(ev, n);
+            energyCost = Arrays.copyOf(energyCost, n);
+            hasPosition = Arrays.copyOf(hasPosition, n);
+            lat = Arrays.copyOf(lat, n);
+            lon = Arrays.copyOf(lon, n);
+        }
+
+        // Row index by fleet state slot, -1 for slots that are not dispatch candidates
+        int[] indexOfSlot() {
+            int max = -1;
+            for (int j = 0; j < size; j++) max = Math.max(max, slots[j]);
+            int[] index = new int[max + 1];
+            Arrays.fill(index, -1);
+            for (int j = 0; j < size; j++) index[slots[j]] = j;
+            return index;
+        }
+    }
+
+    private record Arcs(int[] rowStart, int[] col, float[] cost) {
+    }
+
+    // The k cheapest (index, cost) pairs seen so far, as a max-heap on cost
+    private static final class TopK {
+        final int[] col;
+        final float[] cost;
+        int size;
+
+        TopK(int k) {
+            col = new int[k];
+            cost = new float[k];
+        }
+
+        boolean full() {
+            return size == col.length;
+        }
+
+        // Highest cost a new entry may have to still make the list
+        float limit(float maxCost) {
+            return size == col.length ? Math.nextDown(cost[0]) : maxCost;
+        }
+
+        int[] indices() {
+            return Arrays.copyOf(col, size);
+        }
+
+        float[] costs() {
+            return Arrays.copyOf(cost, size);
+        }
+
+        void offer(int j, float c) {
+            if (!full()) {
+                int at = size++;
+                while (at > 0) {
+                    int parent = (at - 1) >>> 1;
+                    if (cost[parent] >= c) break;
+                    col[at] = col[parent];
+                    cost[at] = cost[parent];
+                    at = parent;
+                }
+                col[at] = j;
+                cost[at] = c;
+            } else if (c < cost[0]) {
+                int at = 0;
+                while (true) {
+                    int child = 2 * at + 1;
+                    if (child >= size) break;
+                    if (child + 1 < size && cost[child + 1] > cost[child]) child++;
+                    if (cost[child] <= c) break;
+                    col[at] = col[child];
+                    cost[at] = cost[child];
+                    at = child;
+                }
+                col[at] = j;
+                cost[at] = c;
+            }
+        }
+    }
+}
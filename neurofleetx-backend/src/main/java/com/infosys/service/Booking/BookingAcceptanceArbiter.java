@@ -0,0 +1,205 @@
+package com.infosys.service.Booking;
+
+import com.infosys.exception.BookingConflictException;
+import com.infosys.service.Fleet.FleetStateStore;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/*
+ Purpose: Decides the race when several drivers accept the same booking (or bookings for the same vehicle).
+ Workflow:
+ 1. Booking claim: the first attempt puts a claim for the booking id; every other attempt finds the claim
+    and fails fast with a BookingConflictException, without a database round trip. Claims of accepted
+    bookings are kept until the booking leaves CONFIRMED (release) or for claimRetentionMs at most,
+    failed attempts release theirs
+ 2. Vehicle lock: the winner takes the striped lock of its vehicle (resolved from the driver through the
+    live fleet state) and holds it across its own transaction, so the availability check and the
+    after-commit index updates of one vehicle never interleave
+ 3. Batches (auto-dispatch): every booking of the batch that is not claimed right now is claimed, the
+    vehicle stripes are taken in ascending order and all pairs are committed in one transaction
+ 4. Safety net: Booking and Vehicle carry @Version, so any writer that bypasses the arbiter (or another
+    instance of the application) cannot commit a stale accept; that failure is reported as a conflict
+*/
+@Component
+public class BookingAcceptanceArbiter {
+
+    private static final int VEHICLE_STRIPES = 256;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private FleetStateStore fleetState;
+
+    @Value("${booking.accept.claimRetentionMs:600000}")
+    private long claimRetentionMs;
+
+    @Value("${booking.accept.vehicleLockTimeoutMs:2000}")
+    private long vehicleLockTimeoutMs;
+
+    private final ReentrantLock[] vehicleLocks = new ReentrantLock[VEHICLE_STRIPES];
+    private final ConcurrentHashMap<Long, Claim> claims = new ConcurrentHashMap<>();
+    private TransactionTemplate transaction;
+
+    // metrics
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder fastRejected = new LongAdder();
+    private final LongAdder versionConflicts = new LongAdder();
+    private final LongAdder lockTimeouts = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchAccepted = new LongAdder();
+
+    public BookingAcceptanceArbiter() {
+        for (int i = 0; i < VEHICLE_STRIPES; i++) vehicleLocks[i] = new ReentrantLock();
+    }
+
+    @PostConstruct
+    public void init() {
+        transaction = new TransactionTemplate(transactionManager);
+    }
+
+    /*
+     Runs `accept` (the database part of accepting bookingId) in its own transaction if this attempt wins
+     the booking. Losers get a BookingConflictException; exceptions thrown by `accept` pass through.
+    */
+    public <T> T accept(Long bookingId, Long driverId, Supplier<T> accept) {
+        attempts.increment();
+        Claim mine = new Claim();
+        Claim holder = claims.putIfAbsent(bookingId, mine);
+        if (holder != null) {
+            fastRejected.increment();
+            throw new BookingConflictException(holder.accepted
+                    ? "Booking was already accepted by another driver"
+                    : "Booking is being accepted by another driver");
+        }
+
+        boolean won = false;
+        ReentrantLock vehicleLock = vehicleLockFor(driverId);
+        try {
+            if (vehicleLock != null && !vehicleLock.tryLock(vehicleLockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                lockTimeouts.increment();
+                throw new BookingConflictException("Vehicle is busy with another booking, try again");
+            }
+            try {
+                T result = transaction.execute(status -> accept.get());
+                mine.accepted = true;
+                won = true;
+                accepted.increment();
+                return result;
+            } finally {
+                if (vehicleLock != null) vehicleLock.unlock();
+            }
+        } catch (OptimisticLockingFailureException e) {
+            versionConflicts.increment();
+            throw new BookingConflictException("Booking or vehicle was changed concurrently");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BookingConflictException("Interrupted while waiting for the vehicle");
+        } finally {
+            if (!won) claims.remove(bookingId, mine);
+        }
+    }
+
+    /*
+     Accepts a batch of (booking, vehicle) pairs. Pairs whose booking is claimed by someone else are left
+     out; `commit` gets the indices of the claimed pairs, runs inside one transaction and returns the ids
+     of the bookings it confirmed. Those claims are kept as accepted, all others are released.
+    */
+    public Set<Long> acceptBatch(long[] bookingIds, long[] vehicleIds, Function<int[], Set<Long>> commit) {
+        Claim mine = new Claim();
+        int[] claimed = new int[bookingIds.length];
+        int count = 0;
+        for (int p = 0; p < bookingIds.length; p++) {
+            if (claims.putIfAbsent(bookingIds[p], mine) == null) claimed[count++] = p;
+        }
+        int[] pairs = Arrays.copyOf(claimed, count);
+
+        Set<Long> confirmed = Set.of();
+        List<ReentrantLock> held = new ArrayList<>();
+        try {
+            if (pairs.length == 0) return confirmed;
+            int[] stripes = Arrays.stream(pairs).map(p -> stripe(vehicleIds[p])).distinct().sorted().toArray();
+            for (int stripe : stripes) {
+                ReentrantLock lock = vehicleLocks[stripe];
+                if (!lock.tryLock(vehicleLockTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    lockTimeouts.increment();
+                    throw new BookingConflictException("Vehicles are busy with other bookings, try again");
+                }
+                held.add(lock);
+            }
+            Set<Long> result = transaction.execute(status -> commit.apply(pairs));
+            confirmed = result != null ? result : Set.of();
+            batches.increment();
+            batchAccepted.add(confirmed.size());
+            return confirmed;
+        } catch (OptimisticLockingFailureException e) {
+            versionConflicts.increment();
+            throw new BookingConflictException("Bookings or vehicles were changed concurrently");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BookingConflictException("Interrupted while waiting for the vehicles");
+        } finally {
+            for (int i = held.size() - 1; i >= 0; i--) held.get(i).unlock();
+            mine.accepted = true;
+            for (int p : pairs) {
+                if (!confirmed.contains(bookingIds[p])) claims.remove(bookingIds[p], mine);
+            }
+        }
+    }
+
+    // The booking left CONFIRMED (cancelled, rejected): its accepted claim must not block new attempts.
+    // A claim of an attempt still in flight stays; the attempt's own transaction decides that race
+    public void release(Long bookingId) {
+        claims.computeIfPresent(bookingId, (k, c) -> c.accepted ? null : c);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.accept.claimRetentionMs:600000}")
+    public void expireClaims() {
+        long cutoff = System.currentTimeMillis() - claimRetentionMs;
+        claims.values().removeIf(c -> c.accepted && c.claimedAt < cutoff);
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("attempts", attempts.sum());
+        m.put("accepted", accepted.sum());
+        m.put("fastRejected", fastRejected.sum());
+        m.put("versionConflicts", versionConflicts.sum());
+        m.put("lockTimeouts", lockTimeouts.sum());
+        m.put("batches", batches.sum());
+        m.put("batchAccepted", batchAccepted.sum());
+        m.put("claims", claims.size());
+        return m;
+    }
+
+    // null when the driver has no vehicle in the fleet state (the accept itself will reject that)
+    private ReentrantLock vehicleLockFor(Long driverId) {
+        int slot = fleetState.slotOfDriver(driverId);
+        if (slot == FleetStateStore.NO_SLOT) return null;
+        return vehicleLocks[stripe(fleetState.vehicleId(slot))];
+    }
+
+    private static int stripe(long vehicleId) {
+        return Long.hashCode(vehicleId) & (VEHICLE_STRIPES - 1);
+    }
+
+    private static final class Claim {
+        final long claimedAt = System.currentTimeMillis();
+        volatile boolean accepted;
+    }
+}
@@ -0,0 +1,384 @@
+package com.infosys.service.Booking;
+
+import com.infosys.model.Booking.Booking;
+import com.infosys.model.Booking.BookingStatus;
+import com.infosys.repository.BookingRepository;
+import com.infosys.service.Fleet.FleetStateStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ Purpose: In-memory availability index of CONFIRMED bookings, so "is vehicle X free in [start, end)"
+ never needs a query.
+ Workflow:
+ 1. Per vehicle, the confirmed intervals are kept in sorted primitive arrays (by start) with a running
+    maximum of the end times; an overlap check is one binary search (O(log n) per vehicle)
+ 2. BookingServiceImpl calls update(booking) after every status change; the change is applied once the
+    transaction commits, confirmed bookings with a vehicle enter the index, everything else leaves it
+ 3. On startup the index is rebuilt with one projection query; bookings that ended more than
+    keepPastHours ago are left out
+ 4. With verifyWithDb, confirmations are cross-checked with findOverlappingConfirmed and a periodic
+    reconcile compares every vehicle with the database; drifted vehicles are reloaded and counted
+ Each vehicle's arrays are immutable and replaced atomically, so reads take no lock.
+*/
+@Component
+public class BookingAvailabilityIndex {
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    @Autowired
+    private FleetStateStore fleetState;
+
+    @Value("${booking.availability.verifyWithDb:false}")
+    private boolean verifyWithDb;
+
+    @Value("${booking.availability.keepPastHours:24}")
+    private long keepPastHours;
+
+    private final ConcurrentHashMap<Long, Intervals> byVehicle = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> vehicleOfBooking = new ConcurrentHashMap<>();
+
+    // metrics
+    private final LongAdder queries = new LongAdder(); // hot: one per vehicle in a fleet-wide search
+    private final AtomicLong updates = new AtomicLong();
+    private final AtomicLong dbChecks = new AtomicLong();
+    private final AtomicLong driftDetected = new AtomicLong();
+    private volatile LocalDateTime rebuiltAt;
+    private volatile long rebuildMs;
+    private volatile LocalDateTime reconciledAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        Map<Long, Intervals> fresh = load();
+        byVehicle.clear();
+        vehicleOfBooking.clear();
+        fresh.forEach((vehicleId, intervals) -> {
+            byVehicle.put(vehicleId, intervals);
+            for (long id : intervals.ids) vehicleOfBooking.put(id, vehicleId);
+        });
+        rebuiltAt = LocalDateTime.now();
+        rebuildMs = System.currentTimeMillis() - started;
+        System.out.println("Booking availability index rebuilt: " + vehicleOfBooking.size()
+                + " confirmed bookings on " + byVehicle.size() + " vehicles in " + rebuildMs + " ms");
+    }
+
+    // ====== MAINTENANCE ======
+
+    // Reflects the booking's current state once the surrounding transaction (if any) has committed
+    public void update(Booking b) {
+        if (b == null || b.getId() == null) return;
+        Long bookingId = b.getId();
+        boolean confirmed = b.getStatus() == BookingStatus.CONFIRMED && b.getVehicleId() != null
+                && b.getStartTime() != null && b.getEndTime() != null;
+        Long vehicleId = b.getVehicleId();
+        long start = confirmed ? millis(b.getStartTime()) : 0;
+        long end = confirmed ? millis(b.getEndTime()) : 0;
+
+        AfterCommit.run(() -> {
+            if (confirmed) {
+                put(bookingId, vehicleId, start, end);
+            } else {
+                remove(bookingId);
+            }
+        });
+    }
+
+    private void put(long bookingId, long vehicleId, long start, long end) {
+        Long previous = vehicleOfBooking.put(bookingId, vehicleId);
+        if (previous != null && previous != vehicleId) {
+            byVehicle.computeIfPresent(previous, (id, cur) -> cur.without(bookingId));
+        }
+        byVehicle.compute(vehicleId, (id, cur) -> (cur == null ? Intervals.EMPTY : cur).with(bookingId, start, end));
+        updates.incrementAndGet();
+    }
+
+    private void remove(long bookingId) {
+        Long vehicleId = vehicleOfBooking.remove(bookingId);
+        if (vehicleId != null) byVehicle.computeIfPresent(vehicleId, (id, cur) -> cur.without(bookingId));
+        updates.incrementAndGet();
+    }
+
+    // ====== QUERIES ======
+
+    public boolean isFree(Long vehicleId, LocalDateTime start, LocalDateTime end) {
+        return isFree(vehicleId, millis(start), millis(end));
+    }
+
+    public boolean isFree(long vehicleId, long startMillis, long endMillis) {
+        queries.increment();
+        Intervals intervals = byVehicle.get(vehicleId);
+        return intervals == null || !intervals.overlaps(startMillis, endMillis);
+    }
+
+    /*
+     Idle time the vehicle would have around [start, end): gap after its previous booking plus gap before
+     its next one, each capped at capMillis (no booking on a side counts as the cap). -1 when not free.
+    */
+    public long slack(long vehicleId, long startMillis, long endMillis, long capMillis) {
+        queries.increment();
+        Intervals intervals = byVehicle.get(vehicleId);
+        return intervals == null ? 2 * capMillis : intervals.slack(startMillis, endMillis, capMillis);
+    }
+
+    /*
+     Authoritative check for write paths: the index answer, cross-checked against the database when
+     verifyWithDb is on (a disagreement is counted as drift and the vehicle is reloaded).
+    */
+    public boolean isFreeVerified(Long vehicleId, LocalDateTime start, LocalDateTime end) {
+        boolean free = isFree(vehicleId, start, end);
+        if (!verifyWithDb) return free;
+        dbChecks.incrementAndGet();
+        boolean freeInDb = bookingRepo.findOverlappingConfirmed(vehicleId, start, end).isEmpty();
+        if (free != freeInDb) {
+            driftDetected.incrementAndGet();
+            System.err.println("Availability index drift on vehicle " + vehicleId + ": index says "
+                    + (free ? "free" : "booked") + " for " + start + " - " + end + ", reloading");
+            reload(vehicleId);
+        }
+        return freeInDb;
+    }
+
+    // Every vehicle of the live fleet that has no confirmed booking overlapping [start, end)
+    public long[] freeVehicles(LocalDateTime start, LocalDateTime end) {
+        long s = millis(start);
+        long e = millis(end);
+        long[] free = new long[fleetState.size()];
+        int[] count = {0};
+        fleetState.forEach(slot -> {
+            long vehicleId = fleetState.vehicleId(slot);
+            if (fleetState.isSynthetic(slot)) return; // load-test vehicle
+            if (count[0] < free.length && isFree(vehicleId, s, e)) free[count[0]++] = vehicleId;
+        });
+        return Arrays.copyOf(free, count[0]);
+    }
+
+    // ====== DRIFT CHECK ======
+
+    @Scheduled(fixedDelayString = "${booking.availability.reconcileMs:600000}", initialDelayString = "${booking.availability.reconcileMs:600000}")
+    public void scheduledReconcile() {
+        if (verifyWithDb) reconcile();
+    }
+
+    // Compares every vehicle with the database and reloads the ones that differ; returns the drifted count
+    public int reconcile() {
+        long since = cutoff();
+        Map<Long, Intervals> fresh = load();
+        Set<Long> vehicles = new HashSet<>(fresh.keySet());
+        vehicles.addAll(byVehicle.keySet());
+
+        int drifted = 0;
+        for (Long vehicleId : vehicles) {
+            Intervals expected = fresh.getOrDefault(vehicleId, Intervals.EMPTY);
+            Intervals actual = byVehicle.getOrDefault(vehicleId, Intervals.EMPTY).endingAfter(since);
+            if (expected.sameAs(actual)) continue;
+            // re-read the vehicle alone: it may simply have changed since the bulk load
+            if (reload(vehicleId)) drifted++;
+        }
+        driftDetected.addAndGet(drifted);
+        reconciledAt = LocalDateTime.now();
+        if (drifted > 0) System.err.println("Availability index reconcile: " + drifted + " vehicles drifted, reloaded");
+        return drifted;
+    }
+
+    // Replaces one vehicle's intervals with the database state; true if they differed
+    private boolean reload(Long vehicleId) {
+        long since = cutoff();
+        List<long[]> rows = new ArrayList<>();
+        for (Object[] r : bookingRepo.findConfirmedIntervalsForVehicle(vehicleId, localTime(since))) {
+            rows.add(new long[]{millis((LocalDateTime) r[2]), millis((LocalDateTime) r[3]), (Long) r[0]});
+        }
+        Intervals loaded = Intervals.of(rows);
+        boolean[] changed = {false};
+        byVehicle.compute(vehicleId, (id, cur) -> {
+            Intervals current = cur == null ? Intervals.EMPTY : cur;
+            changed[0] = !loaded.sameAs(current.endingAfter(since));
+            for (long bookingId : current.ids) vehicleOfBooking.remove(bookingId, vehicleId);
+            for (long bookingId : loaded.ids) vehicleOfBooking.put(bookingId, vehicleId);
+            return loaded.ids.length == 0 ? null : loaded;
+        });
+        return changed[0];
+    }
+
+    private Map<Long, Intervals> load() {
+        Map<Long, List<long[]>> rows = new HashMap<>();
+        for (Object[] r : bookingRepo.findConfirmedIntervals(localTime(cutoff()))) {
+            long bookingId = (Long) r[0];
+            long vehicleId = (Long) r[1];
+            rows.computeIfAbsent(vehicleId, k -> new ArrayList<>())
+                    .add(new long[]{millis((LocalDateTime) r[2]), millis((LocalDateTime) r[3]), bookingId});
+        }
+        Map<Long, Intervals> result = new HashMap<>(rows.size() * 2);
+        rows.forEach((vehicleId, list) -> result.put(vehicleId, Intervals.of(list)));
+        return result;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("vehicles", byVehicle.size());
+        m.put("confirmedBookings", vehicleOfBooking.size());
+        m.put("queries", queries.sum());
+        m.put("updates", updates.get());
+        m.put("verifyWithDb", verifyWithDb);
+        m.put("dbChecks", dbChecks.get());
+        m.put("driftDetected", driftDetected.get());
+        m.put("rebuiltAt", rebuiltAt);
+        m.put("rebuildMs", rebuildMs);
+        m.put("reconciledAt", reconciledAt);
+        return m;
+    }
+
+    private long cutoff() {
+        return System.currentTimeMillis() - keepPastHours * 3_600_000L;
+    }
+
+    // Booking times are zone-less local times; UTC is only used as a fixed, DST-free mapping to millis
+    static long millis(LocalDateTime t) {
+        return t.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime localTime(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000), 0, ZoneOffset.UTC);
+    }
+
+    /*
+     Confirmed intervals of one vehicle, sorted by start. maxEnd[i] is the latest end among the first
+     i + 1 intervals, so [s, e) overlaps something iff the intervals starting before e reach past s.
+    */
+    static final class Intervals {
+        static final Intervals EMPTY = new Intervals(new long[0], new long[0], new long[0]);
+
+        final long[] starts;
+        final long[] ends;
+        final long[] ids;
+        final long[] maxEnd;
+
+        private Intervals(long[] starts, long[] ends, long[] ids) {
+            this.starts = starts;
+            this.ends = ends;
+            this.ids = ids;
+            this.maxEnd = new long[starts.length];
+            long max = Long.MIN_VALUE;
+            for (int i = 0; i < ends.length; i++) {
+                max = Math.max(max, ends[i]);
+                maxEnd[i] = max;
+            }
+        }
+
+        // rows of {start, end, bookingId}
+        static Intervals of(List<long[]> rows) {
+            rows.sort(Comparator.comparingLong((long[] r) -> r[0]).thenComparingLong(r -> r[2]));
+            int n = rows.size();
+            long[] starts = new long[n];
+            long[] ends = new long[n];
+            long[] ids = new long[n];
+            for (int i = 0; i < n; i++) {
+                long[] r = rows.get(i);
+                starts[i] = r[0];
+                ends[i] = r[1];
+                ids[i] = r[2];
+            }
+            return new Intervals(starts, ends, ids);
+        }
+
+        boolean overlaps(long start, long end) {
+            int before = firstStartAtOrAfter(end); // intervals [0, before) start before end
+            return before > 0 && maxEnd[before - 1] > start;
+        }
+
+        long slack(long start, long end, long cap) {
+            int before = firstStartAtOrAfter(end);
+            if (before > 0 && maxEnd[before - 1] > start) return -1;
+            // nothing overlaps, so every interval starting before `end` has ended by `start`
+            long gapBefore = before > 0 ? Math.min(cap, start - maxEnd[before - 1]) : cap;
+            long gapAfter = before < starts.length ? Math.min(cap, starts[before] - end) : cap;
+            return gapBefore + gapAfter;
+        }
+
+        Intervals with(long id, long start, long end) {
+            Intervals base = without(id);
+            if (base == null) base = EMPTY;
+            int n = base.starts.length;
+            int at = base.insertionPoint(start, id);
+            long[] starts = new long[n + 1];
+            long[] ends = new long[n + 1];
+            long[] ids = new long[n + 1];
+            copyWithGap(base.starts, starts, at, start);
+            copyWithGap(base.ends, ends, at, end);
+            copyWithGap(base.ids, ids, at, id);
+            return new Intervals(starts, ends, ids);
+        }
+
+        // Returns null when the last interval is removed (drops the map entry)
+        Intervals without(long id) {
+            int at = -1;
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    at = i;
+                    break;
+                }
+            }
+            if (at < 0) return this;
+            if (ids.length == 1) return null;
+            return new Intervals(removeAt(starts, at), removeAt(ends, at), removeAt(ids, at));
+        }
+
+        Intervals endingAfter(long since) {
+            List<long[]> kept = new ArrayList<>(ids.length);
+            for (int i = 0; i < ids.length; i++) {
+                if (ends[i] > since) kept.add(new long[]{starts[i], ends[i], ids[i]});
+            }
+            return kept.size() == ids.length ? this : of(kept);
+        }
+
+        boolean sameAs(Intervals o) {
+            return Arrays.equals(ids, o.ids) && Arrays.equals(starts, o.starts) && Arrays.equals(ends, o.ends);
+        }
+
+        private int firstStartAtOrAfter(long t) {
+            int lo = 0, hi = starts.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (starts[mid] < t) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        // position of (start, id) in the (start, id) order used by of()
+        private int insertionPoint(long start, long id) {
+            int lo = 0, hi = starts.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (starts[mid] < start || (starts[mid] == start && ids[mid] < id)) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+
+        private static void copyWithGap(long[] from, long[] to, int at, long value) {
+            System.arraycopy(from, 0, to, 0, at);
+            to[at] = value;
+            System.arraycopy(from, at, to, at + 1, from.length - at);
+        }
+
+        private static long[] removeAt(long[] from, int at) {
+            long[] to = new long[from.length - 1];
+            System.arraycopy(from, 0, to, 0, at);
+            System.arraycopy(from, at + 1, to, at, from.length - at - 1);
+            return to;
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package com.infosys.service.Booking;
 
 import com.infosys.dto.CreateBookingRequest;
+import com.infosys.dto.PendingBookingChanges;
 import com.infosys.model.Booking.Booking;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -15,9 +17,12 @@ public interface BookingService {
     List<Booking> getAllBookings();
     List<Booking> getBookingsByStatus(String status);
     Map<String, Object> getBookingStatistics();
+    Map<String, Object> getBookingStatisticsBreakdown();
+    long[] getFreeVehicles(LocalDateTime start, LocalDateTime end);
 
     // Driver operations
     List<Booking> getPendingBookingsForDriver(Long driverId);
+    PendingBookingChanges getPendingBookingChangesForDriver(Long driverId, Long since);
     List<Booking> getConfirmedBookingsForDriver(Long driverId);
     Booking driverAcceptBooking(Long bookingId, Long driverId);
     Booking driverRejectBooking(Long bookingId, Long driverId, String reason);
@@ -25,6 +30,9 @@ public interface BookingService {
     // Customer operations
     List<Booking> getBookingsByCustomer(Long customerId);
 
+    // Load test: deletes the bookings FleetLoadGenerator created, returns how many
+    int purgeLoadTestBookings();
+
     // AI recommendations
     List<Map<String, Object>> getAIRecommendations(
             Long customerId, String vehicleType, Boolean isEv,
@@ -1,21 +1,23 @@
 package com.infosys.service.Booking;
 
 import com.infosys.dto.CreateBookingRequest;
+import com.infosys.dto.PendingBookingChanges;
+import com.infosys.dto.PriceQuote;
+import com.infosys.exception.BookingConflictException;
 import com.infosys.model.Booking.Booking;
 import com.infosys.model.Booking.BookingStatus;
-import com.infosys.model.User;
 import com.infosys.model.Vehicle;
-import com.infosys.model.VehicleStatus;
 import com.infosys.repository.BookingRepository;
 import com.infosys.repository.UserRepository;
 import com.infosys.repository.VehicleRepository;
-import com.infosys.repository.VehicleStatusRepository;
+import com.infosys.service.Fleet.FleetStateStore;
+import com.infosys.service.Fleet.GeoPoint;
+import com.infosys.service.Reference.ReferenceDataRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
@@ -26,7 +28,7 @@ import java.util.stream.Collectors;
  Workflow:
  1. Customer creates booking → PENDING status → Broadcast to drivers with matching vehicle type
  2. Manager can REJECT → REJECTED status → Remove from driver queues
- 3. Driver can ACCEPT → CONFIRMED status → Assign driver and vehicle
+ 3. Driver can ACCEPT → CONFIRMED status → Assign driver and vehicle (first driver wins, see BookingAcceptanceArbiter)
  4. Driver can REJECT → Stays PENDING for other drivers
 */
 @Service
@@ -45,24 +47,25 @@ public class BookingServiceImpl implements BookingService {
     private SimpMessagingTemplate messagingTemplate;
 
     @Autowired
-    private VehicleStatusRepository vehicleStatusRepo;
+    private ReferenceDataRegistry referenceData;
 
-    // ==================== PRICE CALCULATION ====================
+    @Autowired
+    private FleetStateStore fleetState;
 
-    private double computePrice(CreateBookingRequest req) {
-        double hours = Math.max(1, Duration.between(req.getStartTime(), req.getEndTime()).toHours());
-        double base = 10.0; // default per hour
+    @Autowired
+    private BookingAvailabilityIndex availability;
 
-        if ("SUV".equalsIgnoreCase(req.getVehicleType())) base = 15.0;
-        if ("Van".equalsIgnoreCase(req.getVehicleType())) base = 12.0;
-        if ("Truck".equalsIgnoreCase(req.getVehicleType())) base = 18.0;
-        if ("Premium".equalsIgnoreCase(req.getVehicleType())) base = 25.0;
-        if ("Bike".equalsIgnoreCase(req.getVehicleType())) base = 5.0;
+    @Autowired
+    private PendingBookingQueues pendingQueues;
 
-        if (req.getIsEv() != null && req.getIsEv()) base += 2.0; // EV surcharge/discount
+    @Autowired
+    private BookingStatistics statistics;
 
-        return base * hours;
-    }
+    @Autowired
+    private BookingAcceptanceArbiter acceptanceArbiter;
+
+    @Autowired
+    private PricingEngine pricing;
 
     // ==================== CUSTOMER OPERATIONS ====================
 
@@ -74,6 +77,10 @@ public class BookingServiceImpl implements BookingService {
             throw new IllegalArgumentException("startTime must be before endTime");
         }
 
+        GeoPoint pickup = GeoPoint.of(req.getPickupLat(), req.getPickupLon(), req.getPickupLocation());
+        GeoPoint dropoff = GeoPoint.of(req.getDropoffLat(), req.getDropoffLon(), req.getDropoffLocation());
+        PriceQuote quote = pricing.priceFor(req, pickup);
+
         // 2) Create booking without assigning vehicle (PENDING status)
         Booking booking = Booking.builder()
                 .customerId(req.getCustomerId())
@@ -83,9 +90,17 @@ public class BookingServiceImpl implements BookingService {
                 .seats(req.getSeats())
                 .pickupLocation(req.getPickupLocation())
                 .dropoffLocation(req.getDropoffLocation())
+                .pickupLat(pickup != null ? pickup.lat() : null)
+                .pickupLon(pickup != null ? pickup.lon() : null)
+                .dropoffLat(dropoff != null ? dropoff.lat() : null)
+                .dropoffLon(dropoff != null ? dropoff.lon() : null)
                 .startTime(req.getStartTime())
                 .endTime(req.getEndTime())
-                .price(computePrice(req))
+                .price(quote.getPrice())
+                .baseFare(quote.getBaseFare())
+                .surgeMultiplier(quote.getSurgeMultiplier())
+                .quoteId(quote.getQuoteId())
+                .loadTest(req.isLoadTest() ? Boolean.TRUE : null)
                 .status(BookingStatus.PENDING) // Always PENDING at creation
                 .rejectedBy(null) // Not rejected
                 .rejectReason(null)
@@ -95,6 +110,10 @@ public class BookingServiceImpl implements BookingService {
                 .build();
 
         booking = bookingRepo.save(booking);
+        statistics.transition(booking, null);
+        if (req.isLoadTest()) return booking; // not offered to drivers, no demand for pricing, no broadcast
+        pendingQueues.update(booking);
+        pricing.recordDemand(booking);
 
         // 3) Broadcast to drivers subscribed to this vehicle type
         // WebSocket topic: /topic/bookings/requests/<vehicleType>
@@ -118,28 +137,50 @@ public class BookingServiceImpl implements BookingService {
             throw new RuntimeException("Unauthorized: Customer does not own this booking");
         }
 
+        BookingStatus previous = b.getStatus();
         b.setStatus(BookingStatus.CANCELLED);
         b.setUpdatedAt(LocalDateTime.now());
         Booking saved = bookingRepo.save(b);
+        availability.update(saved);
+        pendingQueues.update(saved);
+        statistics.transition(saved, previous);
+        if (previous == BookingStatus.CONFIRMED) AfterCommit.run(() -> acceptanceArbiter.release(bookingId));
 
         // Free vehicle if it was CONFIRMED
         if (saved.getVehicleId() != null) {
             vehicleRepo.findById(saved.getVehicleId()).ifPresent(v -> {
-                VehicleStatus availableStatus = vehicleStatusRepo.findByName("AVAILABLE")
-                        .orElseThrow(() -> new RuntimeException("VehicleStatus 'AVAILABLE' not found"));
-                v.setStatus(availableStatus);
-                vehicleRepo.save(v);
+                v.setStatus(referenceData.status(ReferenceDataRegistry.Status.AVAILABLE));
+                Vehicle freed = vehicleRepo.save(v);
+                AfterCommit.run(() -> fleetState.upsertMetadata(freed));
             });
         }
 
-        // Broadcast cancellation
-        messagingTemplate.convertAndSend("/topic/bookings", saved);
+        // Broadcast cancellation once it is committed
+        AfterCommit.run(() -> messagingTemplate.convertAndSend("/topic/bookings", saved));
         return saved;
     }
 
     @Override
     public List<Booking> getBookingsByCustomer(Long customerId) {
-        return bookingRepo.findByCustomerId(customerId);
+        List<Booking> bookings = bookingRepo.findByCustomerId(customerId);
+        bookings.removeIf(b -> Boolean.TRUE.equals(b.getLoadTest()));
+        return bookings;
+    }
+
+    @Override
+    @Transactional
+    public int purgeLoadTestBookings() {
+        List<Booking> generated = bookingRepo.findByLoadTestTrue();
+        for (Booking b : generated) {
+            statistics.removed(b);
+            // drop any index entry (a manager may have confirmed one meanwhile)
+            Booking gone = Booking.builder().id(b.getId()).vehicleType(b.getVehicleType())
+                    .status(BookingStatus.CANCELLED).loadTest(true).build();
+            availability.update(gone);
+            pendingQueues.update(gone);
+        }
+        bookingRepo.deleteAllInBatch(generated);
+        return generated.size();
     }
 
     // ==================== MANAGER OPERATIONS ====================
@@ -151,23 +192,30 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
 
         // Update booking to REJECTED status
+        BookingStatus previous = b.getStatus();
         b.setStatus(BookingStatus.REJECTED);
         b.setRejectedBy("MANAGER");
         b.setRejectReason(reason);
         b.setUpdatedAt(LocalDateTime.now());
 
         Booking saved = bookingRepo.save(b);
-
-        // Broadcast rejection to remove from driver dashboards immediately
-        String topic = "/topic/bookings/requests/" + saved.getVehicleType().toUpperCase();
-        messagingTemplate.convertAndSend(topic, Map.of(
-                "action", "MANAGER_REJECTED",
-                "bookingId", saved.getId(),
-                "booking", saved
-        ));
-
-        // Notify customer
-        messagingTemplate.convertAndSend("/topic/bookings/customer/" + saved.getCustomerId(), saved);
+        availability.update(saved);
+        pendingQueues.update(saved);
+        statistics.transition(saved, previous);
+        if (previous == BookingStatus.CONFIRMED) AfterCommit.run(() -> acceptanceArbiter.release(bookingId));
+
+        AfterCommit.run(() -> {
+            // Broadcast rejection to remove from driver dashboards immediately
+            String topic = "/topic/bookings/requests/" + saved.getVehicleType().toUpperCase();
+            messagingTemplate.convertAndSend(topic, Map.of(
+                    "action", "MANAGER_REJECTED",
+                    "bookingId", saved.getId(),
+                    "booking", saved
+            ));
+
+            // Notify customer
+            messagingTemplate.convertAndSend("/topic/bookings/customer/" + saved.getCustomerId(), saved);
+        });
 
         return saved;
     }
@@ -177,6 +225,12 @@ public class BookingServiceImpl implements BookingService {
         return bookingRepo.findAll();
     }
 
+    @Override
+    public long[] getFreeVehicles(LocalDateTime start, LocalDateTime end) {
+        if (!start.isBefore(end)) throw new IllegalArgumentException("start must be before end");
+        return availability.freeVehicles(start, end);
+    }
+
     @Override
     public List<Booking> getBookingsByStatus(String status) {
         BookingStatus bookingStatus = BookingStatus.valueOf(status.toUpperCase());
@@ -185,50 +239,41 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public Map<String, Object> getBookingStatistics() {
-        List<Booking> allBookings = bookingRepo.findAll();
-
-        Map<String, Object> stats = new HashMap<>();
-        stats.put("total", allBookings.size());
-        stats.put("pending", allBookings.stream().filter(b -> b.getStatus() == BookingStatus.PENDING).count());
-        stats.put("confirmed", allBookings.stream().filter(b -> b.getStatus() == BookingStatus.CONFIRMED).count());
-        stats.put("rejected", allBookings.stream().filter(b -> b.getStatus() == BookingStatus.REJECTED).count());
-        stats.put("completed", allBookings.stream().filter(b -> b.getStatus() == BookingStatus.COMPLETED).count());
-        stats.put("cancelled", allBookings.stream().filter(b -> b.getStatus() == BookingStatus.CANCELLED).count());
+        return statistics.snapshot();
+    }
 
-        return stats;
+    @Override
+    public Map<String, Object> getBookingStatisticsBreakdown() {
+        return statistics.breakdown();
     }
 
     // ==================== DRIVER OPERATIONS ====================
 
     @Override
     public List<Booking> getPendingBookingsForDriver(Long driverId) {
-        // Get driver's assigned vehicle to determine vehicle type
-        User driver = userRepo.findById(driverId)
-                .orElseThrow(() -> new RuntimeException("Driver not found"));
-
-        // Get vehicle assigned to this driver
-        Vehicle assignedVehicle = vehicleRepo.findByAssignedDriverId(driverId)
-                .orElse(null);
-
-        if (assignedVehicle == null) {
-            // Driver has no assigned vehicle, return empty list
+        // Driver's vehicle type from the live fleet state
+        String vehicleType = driverVehicleType(driverId);
+        if (vehicleType == null) {
+            // Driver has no assigned vehicle (or it has no type), return empty list
             return new ArrayList<>();
         }
 
-        String vehicleType = assignedVehicle.getType() != null ?
-                assignedVehicle.getType().getName() : null;
+        // PENDING bookings for this vehicle type, not rejected by manager, not yet taken by a driver
+        return pendingQueues.pending(vehicleType);
+    }
 
+    @Override
+    public PendingBookingChanges getPendingBookingChangesForDriver(Long driverId, Long since) {
+        String vehicleType = driverVehicleType(driverId);
         if (vehicleType == null) {
-            return new ArrayList<>();
+            return new PendingBookingChanges(null, 0, true, new ArrayList<>(), new ArrayList<>());
         }
+        return pendingQueues.changesSince(vehicleType, since);
+    }
 
-        // Return PENDING bookings for this vehicle type that are NOT rejected by manager
-        return bookingRepo.findAll().stream()
-                .filter(b -> b.getStatus() == BookingStatus.PENDING)
-                .filter(b -> vehicleType.equalsIgnoreCase(b.getVehicleType()))
-                .filter(b -> b.getRejectedBy() == null || !"MANAGER".equals(b.getRejectedBy()))
-                .filter(b -> b.getAssignedDriverId() == null) // Not yet assigned to any driver
-                .collect(Collectors.toList());
+    private String driverVehicleType(Long driverId) {
+        int slot = fleetState.slotOfDriver(driverId);
+        return slot != FleetStateStore.NO_SLOT ? fleetState.typeName(slot) : null;
     }
 
     @Override
@@ -239,9 +284,13 @@ public class BookingServiceImpl implements BookingService {
                 .collect(Collectors.toList());
     }
 
+    // Drivers race for the same booking: the arbiter lets one attempt run (in its own transaction)
     @Override
-    @Transactional
     public Booking driverAcceptBooking(Long bookingId, Long driverId) {
+        return acceptanceArbiter.accept(bookingId, driverId, () -> acceptAsDriver(bookingId, driverId));
+    }
+
+    private Booking acceptAsDriver(Long bookingId, Long driverId) {
         Booking b = bookingRepo.findById(bookingId)
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
 
@@ -255,7 +304,7 @@ public class BookingServiceImpl implements BookingService {
         }
 
         // Get driver's assigned vehicle
-        Vehicle assignedVehicle = vehicleRepo.findByAssignedDriverId(driverId)
+        Vehicle assignedVehicle = vehicleRepo.findByAssignedDriverIdForBooking(driverId)
                 .orElseThrow(() -> new RuntimeException("Driver has no assigned vehicle"));
 
         // Verify vehicle type matches
@@ -267,11 +316,8 @@ public class BookingServiceImpl implements BookingService {
         }
 
         // Check for overlapping bookings for this vehicle
-        List<Booking> overlaps = bookingRepo.findOverlappingConfirmed(
-                assignedVehicle.getId(), b.getStartTime(), b.getEndTime());
-
-        if (!overlaps.isEmpty()) {
-            throw new RuntimeException("Vehicle is already booked for this time period");
+        if (!availability.isFreeVerified(assignedVehicle.getId(), b.getStartTime(), b.getEndTime())) {
+            throw new BookingConflictException("Vehicle is already booked for this time period");
         }
 
         // Accept booking
@@ -281,26 +327,32 @@ public class BookingServiceImpl implements BookingService {
         b.setUpdatedAt(LocalDateTime.now());
 
         // Mark vehicle as IN_USE
-        VehicleStatus inUseStatus = vehicleStatusRepo.findByName("In Use")
-                .orElseThrow(() -> new RuntimeException("VehicleStatus 'In Use' not found"));
-        assignedVehicle.setStatus(inUseStatus);
-        vehicleRepo.save(assignedVehicle);
+        assignedVehicle.setStatus(referenceData.status(ReferenceDataRegistry.Status.IN_USE));
+        Vehicle inUse = vehicleRepo.save(assignedVehicle);
 
         Booking saved = bookingRepo.save(b);
-
-        // Broadcast to customer
-        messagingTemplate.convertAndSend("/topic/bookings/customer/" + saved.getCustomerId(), saved);
-
-        // Broadcast to manager dashboard
-        messagingTemplate.convertAndSend("/topic/bookings/manager", saved);
-
-        // Remove from other drivers' queues
-        String topic = "/topic/bookings/requests/" + saved.getVehicleType().toUpperCase();
-        messagingTemplate.convertAndSend(topic, Map.of(
-                "action", "DRIVER_ACCEPTED",
-                "bookingId", saved.getId(),
-                "driverId", driverId
-        ));
+        availability.update(saved);
+        pendingQueues.update(saved);
+        statistics.transition(saved, BookingStatus.PENDING);
+
+        // Version conflicts surface at flush/commit: live state and broadcasts only for the committed winner
+        AfterCommit.run(() -> {
+            fleetState.upsertMetadata(inUse);
+
+            // Broadcast to customer
+            messagingTemplate.convertAndSend("/topic/bookings/customer/" + saved.getCustomerId(), saved);
+
+            // Broadcast to manager dashboard
+            messagingTemplate.convertAndSend("/topic/bookings/manager", saved);
+
+            // Remove from other drivers' queues
+            String topic = "/topic/bookings/requests/" + saved.getVehicleType().toUpperCase();
+            messagingTemplate.convertAndSend(topic, Map.of(
+                    "action", "DRIVER_ACCEPTED",
+                    "bookingId", saved.getId(),
+                    "driverId", driverId
+            ));
+        });
 
         return saved;
     }
@@ -355,25 +407,24 @@ public class BookingServiceImpl implements BookingService {
 
         Optional<Vehicle> opt = candidates.stream()
                 .sorted(Comparator.comparing(Vehicle::getId))
-                .filter(v -> {
-                    List<Booking> overlap = bookingRepo.findOverlappingConfirmed(
-                            v.getId(), b.getStartTime(), b.getEndTime());
-                    return overlap.isEmpty();
-                })
+                .filter(v -> availability.isFreeVerified(v.getId(), b.getStartTime(), b.getEndTime()))
                 .findFirst();
 
         if (opt.isPresent()) {
             Vehicle v = opt.get();
+            BookingStatus previous = b.getStatus();
             b.setVehicleId(v.getId());
             b.setStatus(BookingStatus.CONFIRMED);
             b.setUpdatedAt(LocalDateTime.now());
 
-            VehicleStatus inUseStatus = vehicleStatusRepo.findByName("IN_USE")
-                    .orElseThrow(() -> new RuntimeException("VehicleStatus 'IN_USE' not found"));
-            v.setStatus(inUseStatus);
+            v.setStatus(referenceData.status(ReferenceDataRegistry.Status.IN_USE));
             vehicleRepo.save(v);
+            fleetState.upsertMetadata(v);
 
             Booking saved = bookingRepo.save(b);
+            availability.update(saved);
+            pendingQueues.update(saved);
+            statistics.transition(saved, previous);
             messagingTemplate.convertAndSend("/topic/bookings", saved);
             return saved;
         }
@@ -406,58 +457,55 @@ public class BookingServiceImpl implements BookingService {
         DateTimeFormatter formatter = DateTimeFormatter.ISO_DATE_TIME;
         LocalDateTime startTime = LocalDateTime.parse(start, formatter);
         LocalDateTime endTime = LocalDateTime.parse(end, formatter);
+        long startMillis = BookingAvailabilityIndex.millis(startTime);
+        long endMillis = BookingAvailabilityIndex.millis(endTime);
+
+        boolean evOnly = isEv != null && isEv;
+        boolean anyType = vehicleType == null || vehicleType.isEmpty();
+        int typeCode = anyType ? FleetStateStore.UNKNOWN_CODE : fleetState.typeCodeOf(vehicleType);
+        if (!anyType && typeCode == FleetStateStore.UNKNOWN_CODE) return new ArrayList<>();
+
+        // Filter by criteria over the live fleet state
+        int[] matching = new int[fleetState.size()];
+        int[] count = {0};
+        fleetState.forEach(slot -> {
+            if (fleetState.isSynthetic(slot)) return; // load-test vehicle
+            // Filter by vehicle type if specified
+            if (!anyType && fleetState.typeCode(slot) != typeCode) return;
+            // Filter by EV if specified
+            if (evOnly && !fleetState.isEv(slot)) return;
+            if (count[0] < matching.length) matching[count[0]++] = slot;
+        });
 
-        // Get available vehicles
-        List<Vehicle> allVehicles = vehicleRepo.findAll();
-
-        // Filter by criteria
-        List<Vehicle> filtered = allVehicles.stream()
-                .filter(v -> {
-                    // Filter by vehicle type if specified
-                    if (vehicleType != null && !vehicleType.isEmpty()) {
-                        String vType = v.getType() != null ? v.getType().getName() : null;
-                        if (vType == null || !vType.equalsIgnoreCase(vehicleType)) {
-                            return false;
-                        }
-                    }
-
-                    // Filter by EV if specified
-                    if (isEv != null && isEv) {
-                        if (v.getIsEv() == null || !v.getIsEv()) {
-                            return false;
-                        }
-                    }
-
-                    // Check availability for time slot
-                    List<Booking> overlaps = bookingRepo.findOverlappingConfirmed(
-                            v.getId(), startTime, endTime);
-                    return overlaps.isEmpty();
-                })
-                .limit(limit)
-                .collect(Collectors.toList());
+        // Check availability for time slot and convert to recommendation format
+        List<Map<String, Object>> recommendations = new ArrayList<>();
+        for (int i = 0; i < count[0] && recommendations.size() < limit; i++) {
+            int slot = matching[i];
 
-        // Convert to recommendation format
-        return filtered.stream().map(v -> {
+            if (!availability.isFree(fleetState.vehicleId(slot), startMillis, endMillis)) continue;
+
+            String typeName = fleetState.typeName(slot) != null ? fleetState.typeName(slot) : "Unknown";
             Map<String, Object> rec = new HashMap<>();
-            rec.put("id", v.getId());
-            rec.put("name", v.getName());
-            rec.put("type", v.getType() != null ? v.getType().getName() : "Unknown");
-            rec.put("vehicleType", v.getType() != null ? v.getType().getName() : "Unknown");
-            rec.put("batteryLevel", v.getBatteryLevel());
-            rec.put("fuelLevel", v.getFuelLevel());
-            rec.put("isEv", v.getIsEv());
-            rec.put("matchScore", calculateMatchScore(v, customerId)); // AI scoring
-            return rec;
-        }).collect(Collectors.toList());
+            rec.put("id", fleetState.vehicleId(slot));
+            rec.put("name", fleetState.name(slot));
+            rec.put("type", typeName);
+            rec.put("vehicleType", typeName);
+            rec.put("batteryLevel", fleetState.battery(slot));
+            rec.put("fuelLevel", fleetState.fuel(slot));
+            rec.put("isEv", fleetState.isEv(slot));
+            rec.put("matchScore", calculateMatchScore(slot, customerId)); // AI scoring
+            recommendations.add(rec);
+        }
+        return recommendations;
     }
 
-    private double calculateMatchScore(Vehicle vehicle, Long customerId) {
+    private double calculateMatchScore(int slot, Long customerId) {
         // Simple AI scoring based on vehicle condition
         double score = 0.5; // base score
 
-        if (vehicle.getBatteryLevel() > 80) score += 0.2;
-        if (vehicle.getFuelLevel() > 70) score += 0.2;
-        if (vehicle.getIsEv() != null && vehicle.getIsEv()) score += 0.1;
+        if (fleetState.battery(slot) > 80) score += 0.2;
+        if (fleetState.fuel(slot) > 70) score += 0.2;
+        if (fleetState.isEv(slot)) score += 0.1;
 
         return Math.min(1.0, score);
     }
@@ -0,0 +1,201 @@
+package com.infosys.service.Booking;
+
+import com.infosys.model.Booking.Booking;
+import com.infosys.model.Booking.BookingStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ Purpose: Booking counts per status, kept as counters instead of counting over findAll.
+ Workflow:
+ 1. Every status transition in BookingServiceImpl calls transition(booking, previousStatus); after
+    commit the old status is decremented and the new one incremented (LongAdder, no contention)
+ 2. Besides the totals, counts are broken down by vehicle type and by creation day (last retentionDays)
+ 3. On startup and every reconcileMs the counters are compared with a GROUP BY over the bookings table;
+    differences are logged as drift and corrected. A check that overlaps with transitions is skipped,
+    the next one will catch any real drift
+*/
+@Component
+public class BookingStatistics {
+
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+    private static final String UNKNOWN_TYPE = "UNKNOWN";
+
+    private static final String COUNT_SQL =
+            "SELECT status, UPPER(COALESCE(vehicle_type, '" + UNKNOWN_TYPE + "')) AS vehicle_type, " +
+            "CAST(created_at AS date) AS created_day, COUNT(*) AS n FROM bookings WHERE status IS NOT NULL GROUP BY 1, 2, 3";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${booking.stats.retentionDays:30}")
+    private int retentionDays;
+
+    private final LongAdder[] totals = adders();
+    private final ConcurrentHashMap<String, LongAdder[]> byType = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<LocalDate, LongAdder[]> byDay = new ConcurrentHashMap<>();
+
+    private final LongAdder transitions = new LongAdder();
+    private final AtomicLong driftCorrections = new AtomicLong();
+    private volatile LocalDateTime reconciledAt;
+
+    // Records a status change of a booking (previous = null for a new booking)
+    public void transition(Booking b, BookingStatus previous) {
+        BookingStatus current = b.getStatus();
+        if (previous == current) return;
+        String type = typeKey(b.getVehicleType());
+        LocalDate day = b.getCreatedAt() != null ? b.getCreatedAt().toLocalDate() : null;
+        AfterCommit.run(() -> {
+            if (previous != null) add(type, day, previous, -1);
+            if (current != null) add(type, day, current, 1);
+            transitions.increment();
+        });
+    }
+
+    // Records a booking deleted from the table (load-test purge)
+    public void removed(Booking b) {
+        BookingStatus current = b.getStatus();
+        if (current == null) return;
+        String type = typeKey(b.getVehicleType());
+        LocalDate day = b.getCreatedAt() != null ? b.getCreatedAt().toLocalDate() : null;
+        AfterCommit.run(() -> {
+            add(type, day, current, -1);
+            transitions.increment();
+        });
+    }
+
+    // Totals per status, the response of the manager dashboard (a handful of counter reads)
+    public Map<String, Object> snapshot() {
+        long[] counts = new long[STATUSES.length];
+        long total = 0;
+        for (int s = 0; s < counts.length; s++) total += counts[s] = totals[s].sum();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("total", total);
+        for (BookingStatus s : STATUSES) stats.put(s.name().toLowerCase(Locale.ROOT), counts[s.ordinal()]);
+        return stats;
+    }
+
+    public Map<String, Object> breakdown() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("totals", snapshot());
+        Map<String, Map<String, Long>> types = new TreeMap<>();
+        byType.forEach((type, counters) -> types.put(type, toMap(counters)));
+        result.put("byType", types);
+        Map<LocalDate, Map<String, Long>> days = new TreeMap<>(Comparator.reverseOrder());
+        byDay.forEach((day, counters) -> days.put(day, toMap(counters)));
+        result.put("byDay", days);
+        result.put("reconciledAt", reconciledAt);
+        result.put("driftCorrections", driftCorrections.get());
+        return result;
+    }
+
+    // ====== RECONCILE ======
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+        System.out.println("Booking statistics loaded: " + snapshot());
+    }
+
+    @Scheduled(fixedDelayString = "${booking.stats.reconcileMs:300000}", initialDelayString = "${booking.stats.reconcileMs:300000}")
+    public void reconcile() {
+        long before = transitions.sum();
+        Counts db = new Counts();
+        LocalDate oldest = LocalDate.now().minusDays(retentionDays - 1L);
+        jdbcTemplate.query(COUNT_SQL, rs -> {
+            BookingStatus status;
+            try {
+                status = BookingStatus.valueOf(rs.getString("status"));
+            } catch (IllegalArgumentException e) {
+                return;
+            }
+            long n = rs.getLong("n");
+            int s = status.ordinal();
+            db.totals[s] += n;
+            db.byType.computeIfAbsent(rs.getString("vehicle_type"), k -> new long[STATUSES.length])[s] += n;
+            Date day = rs.getDate("created_day");
+            if (day != null && !day.toLocalDate().isBefore(oldest)) {
+                db.byDay.computeIfAbsent(day.toLocalDate(), k -> new long[STATUSES.length])[s] += n;
+            }
+        });
+        byDay.keySet().removeIf(day -> day.isBefore(oldest));
+        if (transitions.sum() != before) return; // bookings changed while counting, compare next time
+
+        int corrected = correct(totals, db.totals);
+        Set<String> types = new HashSet<>(db.byType.keySet());
+        types.addAll(byType.keySet());
+        for (String type : types) {
+            corrected += correct(byType.computeIfAbsent(type, k -> adders()), db.byType.getOrDefault(type, new long[STATUSES.length]));
+        }
+        Set<LocalDate> days = new HashSet<>(db.byDay.keySet());
+        days.addAll(byDay.keySet());
+        for (LocalDate day : days) {
+            corrected += correct(byDay.computeIfAbsent(day, k -> adders()), db.byDay.getOrDefault(day, new long[STATUSES.length]));
+        }
+        if (corrected > 0 && reconciledAt != null) {
+            driftCorrections.addAndGet(corrected);
+            System.err.println("Booking statistics drifted from the database, corrected " + corrected + " counters");
+        }
+        reconciledAt = LocalDateTime.now();
+    }
+
+    // Brings the counters to the expected values; returns how many differed
+    private static int correct(LongAdder[] counters, long[] expected) {
+        int differed = 0;
+        for (int s = 0; s < counters.length; s++) {
+            long delta = expected[s] - counters[s].sum();
+            if (delta != 0) {
+                counters[s].add(delta);
+                differed++;
+            }
+        }
+        return differed;
+    }
+
+    // ====== INTERNALS ======
+
+    private void add(String type, LocalDate day, BookingStatus status, long delta) {
+        int s = status.ordinal();
+        totals[s].add(delta);
+        byType.computeIfAbsent(type, k -> adders())[s].add(delta);
+        if (day != null && !day.isBefore(LocalDate.now().minusDays(retentionDays - 1L))) {
+            byDay.computeIfAbsent(day, k -> adders())[s].add(delta);
+        }
+    }
+
+    private static Map<String, Long> toMap(LongAdder[] counters) {
+        Map<String, Long> m = new LinkedHashMap<>();
+        for (BookingStatus s : STATUSES) m.put(s.name().toLowerCase(Locale.ROOT), counters[s.ordinal()].sum());
+        return m;
+    }
+
+    private static String typeKey(String vehicleType) {
+        return vehicleType != null ? vehicleType.toUpperCase(Locale.ROOT) : UNKNOWN_TYPE;
+    }
+
+    private static LongAdder[] adders() {
+        LongAdder[] a = new LongAdder[STATUSES.length];
+        for (int i = 0; i < a.length; i++) a[i] = new LongAdder();
+        return a;
+    }
+
+    private static final class Counts {
+        final long[] totals = new long[STATUSES.length];
+        final Map<String, long[]> byType = new HashMap<>();
+        final Map<LocalDate, long[]> byDay = new HashMap<>();
+    }
+}
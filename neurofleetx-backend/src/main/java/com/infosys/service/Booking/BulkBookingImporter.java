@@ -0,0 +1,369 @@
+package com.infosys.service.Booking;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infosys.dto.BulkBookingItem;
+import com.infosys.dto.BulkBookingResult;
+import com.infosys.dto.CreateBookingRequest;
+import com.infosys.dto.PriceQuote;
+import com.infosys.exception.BookingConflictException;
+import com.infosys.model.Booking.Booking;
+import com.infosys.model.Booking.BookingStatus;
+import com.infosys.service.Fleet.GeoPoint;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/*
+ Purpose: Bulk booking creation for corporate customers and integration partners (POST /api/bookings/bulk).
+ Workflow:
+ 1. Items are read from the request stream one at a time (JSON array, NDJSON, or CSV with a header row of
+    CreateBookingRequest field names) and handled in chunks of chunkSize, so an upload is never buffered
+ 2. Every item is validated and priced like a single booking (PricingEngine); an invalid item (including a
+    JSON value that does not map to a booking) gets an error in the per-item results and does not stop the
+    upload. Only input that cannot be read on (malformed JSON / CSV) ends it with the upload-level error
+ 3. A chunk is inserted with one JDBC batch in its own transaction, generated ids read back, and fed to the
+    pending queues / statistics / demand counts after commit. A chunk whose insert fails is reported failed
+ 4. Notifications are coalesced: one message per vehicle-type topic and one for managers per upload,
+    instead of two broadcasts per booking. Drivers load the new bookings via /driver/{id}/pending/changes
+*/
+@Component
+public class BulkBookingImporter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO bookings (customer_id, vehicle_type, is_ev, seats, pickup_location, drop_location, " +
+            "pickup_lat, pickup_lon, drop_lat, drop_lon, start_time, end_time, price, base_fare, surge_multiplier, " +
+            "quote_id, status, created_at, updated_at, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private PricingEngine pricing;
+
+    @Autowired
+    private PendingBookingQueues pendingQueues;
+
+    @Autowired
+    private BookingStatistics statistics;
+
+    @Value("${booking.bulk.chunkSize:500}")
+    private int chunkSize;
+
+    @Value("${booking.bulk.maxItems:10000}")
+    private int maxItems;
+
+    // metrics
+    private final LongAdder uploads = new LongAdder();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder failedChunks = new LongAdder();
+
+    // JSON array / single object or newline-delimited JSON records
+    public BulkBookingResult importJson(InputStream body) throws IOException {
+        try (MappingIterator<CreateBookingRequest> items =
+                     objectMapper.readerFor(CreateBookingRequest.class).readValues(body)) {
+            return importItems(new Source() {
+                @Override
+                public boolean hasNext() throws IOException {
+                    return items.hasNextValue();
+                }
+
+                // a value that does not map (wrong type, bad date) fails only its item; the iterator
+                // resyncs to the next value. Malformed JSON stays an IOException for the whole upload
+                @Override
+                public CreateBookingRequest next() throws IOException {
+                    try {
+                        return items.nextValue();
+                    } catch (JsonMappingException e) {
+                        throw new IllegalArgumentException(e.getOriginalMessage());
+                    }
+                }
+            });
+        }
+    }
+
+    // CSV with a header row; columns are matched to CreateBookingRequest fields by name, missing ones stay null
+    public BulkBookingResult importCsv(InputStream body) throws IOException {
+        CSVFormat format = CSVFormat.DEFAULT.builder()
+                .setHeader()
+                .setSkipHeaderRecord(true)
+                .setIgnoreEmptyLines(true)
+                .setTrim(true)
+                .build();
+        try (CSVParser parser = format.parse(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            Iterator<CSVRecord> records = parser.iterator();
+            return importItems(new Source() {
+                @Override
+                public boolean hasNext() {
+                    return records.hasNext();
+                }
+
+                @Override
+                public CreateBookingRequest next() {
+                    return fromCsv(records.next());
+                }
+            });
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("uploads", uploads.sum());
+        m.put("created", created.sum());
+        m.put("failed", failed.sum());
+        m.put("failedChunks", failedChunks.sum());
+        m.put("chunkSize", chunkSize);
+        m.put("maxItems", maxItems);
+        return m;
+    }
+
+    // ====== IMPORT ======
+
+    private interface Source {
+        boolean hasNext() throws IOException;
+
+        // IllegalArgumentException = this item is unusable, IOException = the rest of the input is
+        // (prepare() adds BookingConflictException for a quote that is no longer honored)
+        CreateBookingRequest next() throws IOException;
+    }
+
+    private record Prepared(BulkBookingItem item, Booking booking) {
+    }
+
+    private BulkBookingResult importItems(Source source) {
+        BulkBookingResult result = new BulkBookingResult();
+        List<Prepared> chunk = new ArrayList<>(chunkSize);
+        Map<String, List<Long>> createdByType = new TreeMap<>();
+        try {
+            while (source.hasNext()) {
+                if (result.getItems().size() >= maxItems) {
+                    result.setTruncated(true);
+                    break;
+                }
+                int index = result.getItems().size();
+                BulkBookingItem item;
+                try {
+                    CreateBookingRequest req = source.next();   // an IOException ends the loop before listing the item
+                    item = new BulkBookingItem(index, null, null, null);
+                    chunk.add(new Prepared(item, prepare(req)));
+                } catch (IllegalArgumentException | BookingConflictException e) {
+                    item = new BulkBookingItem(index, null, null, e.getMessage());
+                }
+                result.getItems().add(item);
+                if (chunk.size() >= chunkSize) insert(chunk, createdByType);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            result.setError("Input unreadable after item " + result.getItems().size() + ": " + e.getMessage());
+        }
+        if (!chunk.isEmpty()) insert(chunk, createdByType);
+        notifyCreated(createdByType);
+
+        int ok = 0;
+        for (BulkBookingItem item : result.getItems()) {
+            if (item.getBookingId() != null) ok++;
+        }
+        result.setReceived(result.getItems().size());
+        result.setCreated(ok);
+        result.setFailed(result.getItems().size() - ok);
+        uploads.increment();
+        created.add(ok);
+        failed.add(result.getFailed());
+        return result;
+    }
+
+    // Same checks and pricing as BookingServiceImpl.createBooking
+    private Booking prepare(CreateBookingRequest req) {
+        if (req == null) throw new IllegalArgumentException("Empty item");
+        if (req.getCustomerId() == null) throw new IllegalArgumentException("customerId is required");
+        if (req.getVehicleType() == null || req.getVehicleType().isBlank()) {
+            throw new IllegalArgumentException("vehicleType is required");
+        }
+        if (req.getStartTime() == null || req.getEndTime() == null) {
+            throw new IllegalArgumentException("startTime and endTime are required");
+        }
+        if (req.getStartTime().isAfter(req.getEndTime())) {
+            throw new IllegalArgumentException("startTime must be before endTime");
+        }
+
+        GeoPoint pickup = GeoPoint.of(req.getPickupLat(), req.getPickupLon(), req.getPickupLocation());
+        GeoPoint dropoff = GeoPoint.of(req.getDropoffLat(), req.getDropoffLon(), req.getDropoffLocation());
+        PriceQuote quote = pricing.priceFor(req, pickup);
+        LocalDateTime now = LocalDateTime.now();
+        return Booking.builder()
+                .customerId(req.getCustomerId())
+                .vehicleType(req.getVehicleType())
+                .isEv(req.getIsEv())
+                .seats(req.getSeats())
+                .pickupLocation(req.getPickupLocation())
+                .dropoffLocation(req.getDropoffLocation())
+                .pickupLat(pickup != null ? pickup.lat() : null)
+                .pickupLon(pickup != null ? pickup.lon() : null)
+                .dropoffLat(dropoff != null ? dropoff.lat() : null)
+                .dropoffLon(dropoff != null ? dropoff.lon() : null)
+                .startTime(req.getStartTime())
+                .endTime(req.getEndTime())
+                .price(quote.getPrice())
+                .baseFare(quote.getBaseFare())
+                .surgeMultiplier(quote.getSurgeMultiplier())
+                .quoteId(quote.getQuoteId())
+                .status(BookingStatus.PENDING)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+    }
+
+    private void insert(List<Prepared> chunk, Map<String, List<Long>> createdByType) {
+        List<Booking> bookings = new ArrayList<>(chunk.size());
+        for (Prepared p : chunk) bookings.add(p.booking());
+        try {
+            transactionTemplate.executeWithoutResult(tx -> {
+                KeyHolder keys = new GeneratedKeyHolder();
+                jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                        new BatchPreparedStatementSetter() {
+                            @Override
+                            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                                bind(ps, bookings.get(i));
+                            }
+
+                            @Override
+                            public int getBatchSize() {
+                                return bookings.size();
+                            }
+                        }, keys);
+                List<Map<String, Object>> ids = keys.getKeyList();
+                for (int i = 0; i < bookings.size(); i++) {
+                    Booking b = bookings.get(i);
+                    b.setId(((Number) ids.get(i).get("id")).longValue());
+                    b.setVersion(0L);
+                    pendingQueues.update(b);
+                    statistics.transition(b, null);
+                    pricing.recordDemand(b);
+                }
+            });
+            for (Prepared p : chunk) {
+                Booking b = p.booking();
+                p.item().setBookingId(b.getId());
+                p.item().setPrice(b.getPrice());
+                createdByType.computeIfAbsent(b.getVehicleType().toUpperCase(), t -> new ArrayList<>()).add(b.getId());
+            }
+        } catch (DataAccessException | TransactionException e) {
+            failedChunks.increment();
+            String reason = "Insert failed: " + e.getMostSpecificCause().getMessage();
+            System.err.println("Bulk booking chunk of " + chunk.size() + " rolled back: " + e.getMessage());
+            for (Prepared p : chunk) p.item().setError(reason);
+        }
+        chunk.clear();
+    }
+
+    private static void bind(PreparedStatement ps, Booking b) throws SQLException {
+        ps.setLong(1, b.getCustomerId());
+        ps.setString(2, b.getVehicleType());
+        ps.setObject(3, b.getIsEv(), Types.BOOLEAN);
+        ps.setObject(4, b.getSeats(), Types.INTEGER);
+        ps.setString(5, b.getPickupLocation());
+        ps.setString(6, b.getDropoffLocation());
+        ps.setObject(7, b.getPickupLat(), Types.DOUBLE);
+        ps.setObject(8, b.getPickupLon(), Types.DOUBLE);
+        ps.setObject(9, b.getDropoffLat(), Types.DOUBLE);
+        ps.setObject(10, b.getDropoffLon(), Types.DOUBLE);
+        ps.setTimestamp(11, Timestamp.valueOf(b.getStartTime()));
+        ps.setTimestamp(12, Timestamp.valueOf(b.getEndTime()));
+        ps.setDouble(13, b.getPrice());
+        ps.setDouble(14, b.getBaseFare());
+        ps.setDouble(15, b.getSurgeMultiplier());
+        ps.setString(16, b.getQuoteId());
+        ps.setString(17, b.getStatus().name());
+        ps.setTimestamp(18, Timestamp.valueOf(b.getCreatedAt()));
+        ps.setTimestamp(19, Timestamp.valueOf(b.getUpdatedAt()));
+    }
+
+    // One message per vehicle-type topic and one for managers, whatever the upload size
+    private void notifyCreated(Map<String, List<Long>> createdByType) {
+        if (createdByType.isEmpty()) return;
+        List<Long> all = new ArrayList<>();
+        createdByType.forEach((type, ids) -> {
+            all.addAll(ids);
+            messagingTemplate.convertAndSend("/topic/bookings/requests/" + type, Map.of(
+                    "action", "BULK_CREATED",
+                    "bookingIds", ids
+            ));
+        });
+        messagingTemplate.convertAndSend("/topic/bookings/manager", Map.of(
+                "action", "BULK_CREATED",
+                "bookingIds", all
+        ));
+    }
+
+    // ====== CSV ======
+
+    private static CreateBookingRequest fromCsv(CSVRecord r) {
+        CreateBookingRequest req = new CreateBookingRequest();
+        req.setCustomerId(parse(r, "customerId", Long::valueOf));
+        req.setVehicleType(text(r, "vehicleType"));
+        req.setIsEv(parse(r, "isEv", Boolean::valueOf));
+        req.setStartTime(parse(r, "startTime", LocalDateTime::parse));
+        req.setEndTime(parse(r, "endTime", LocalDateTime::parse));
+        req.setSeats(parse(r, "seats", Integer::valueOf));
+        req.setPickupLocation(text(r, "pickupLocation"));
+        req.setDropoffLocation(text(r, "dropoffLocation"));
+        req.setPickupLat(parse(r, "pickupLat", Double::valueOf));
+        req.setPickupLon(parse(r, "pickupLon", Double::valueOf));
+        req.setDropoffLat(parse(r, "dropoffLat", Double::valueOf));
+        req.setDropoffLon(parse(r, "dropoffLon", Double::valueOf));
+        req.setQuoteId(text(r, "quoteId"));
+        return req;
+    }
+
+    private static String text(CSVRecord r, String column) {
+        if (!r.isMapped(column) || !r.isSet(column)) return null;
+        String value = r.get(column);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static <T> T parse(CSVRecord r, String column, Function<String, T> parser) {
+        String value = text(r, column);
+        if (value == null) return null;
+        try {
+            return parser.apply(value);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": '" + value + "'");
+        }
+    }
+}
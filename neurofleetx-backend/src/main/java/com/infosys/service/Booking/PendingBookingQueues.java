@@ -0,0 +1,156 @@
+package com.infosys.service.Booking;
+
+import com.infosys.dto.PendingBookingChanges;
+import com.infosys.model.Booking.Booking;
+import com.infosys.model.Booking.BookingStatus;
+import com.infosys.repository.BookingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ Purpose: Pending bookings offered to drivers, kept in memory as one queue per vehicle type.
+ Workflow:
+ 1. A booking is in its type's queue while it is PENDING, not rejected by a manager and not yet
+    taken by a driver (the same rule the driver dashboard used to apply over findAll)
+ 2. BookingServiceImpl calls update(booking) after create / manager reject / driver accept / cancel;
+    the change is applied after commit and stamped with a global, increasing version
+ 3. Each type keeps its last changeLogSize changes, so a client that polls with ?since=<version>
+    gets only the delta; a client that is too far behind (or new) gets the full queue
+ 4. On startup the queues are loaded from the PENDING bookings
+*/
+@Component
+public class PendingBookingQueues {
+
+    @Autowired
+    private BookingRepository bookingRepo;
+
+    @Value("${booking.pending.changeLogSize:1024}")
+    private int changeLogSize;
+
+    private final AtomicLong version = new AtomicLong();
+    private final ConcurrentHashMap<String, TypeQueue> queues = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        int loaded = 0;
+        for (Booking b : bookingRepo.findByStatus(BookingStatus.PENDING)) {
+            if (!isOffered(b)) continue;
+            queue(b.getVehicleType()).apply(b, true);
+            loaded++;
+        }
+        System.out.println("Pending booking queues loaded: " + loaded + " bookings in " + queues.size() + " vehicle types");
+    }
+
+    // Reflects the booking's current state once the surrounding transaction (if any) has committed
+    public void update(Booking b) {
+        if (b == null || b.getId() == null || b.getVehicleType() == null) return;
+        boolean offered = isOffered(b);
+        AfterCommit.run(() -> queue(b.getVehicleType()).apply(b, offered));
+    }
+
+    // Current queue of a vehicle type, oldest first
+    public List<Booking> pending(String vehicleType) {
+        TypeQueue q = queues.get(key(vehicleType));
+        return q != null ? q.snapshot() : new ArrayList<>();
+    }
+
+    // Every offered booking across all types (the auto-dispatch input), oldest first per type
+    public List<Booking> allPending() {
+        List<Booking> all = new ArrayList<>();
+        for (TypeQueue q : queues.values()) all.addAll(q.snapshot());
+        return all;
+    }
+
+    // Changes of a type's queue after `since` (null or too old = the full queue)
+    public PendingBookingChanges changesSince(String vehicleType, Long since) {
+        TypeQueue q = queues.get(key(vehicleType));
+        if (q == null) {
+            return new PendingBookingChanges(vehicleType, version.get(), true, new ArrayList<>(), new ArrayList<>());
+        }
+        return q.changesSince(vehicleType, since);
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("version", version.get());
+        Map<String, Integer> sizes = new TreeMap<>();
+        queues.forEach((type, q) -> sizes.put(type, q.size()));
+        m.put("pendingByType", sizes);
+        return m;
+    }
+
+    private static boolean isOffered(Booking b) {
+        return b.getStatus() == BookingStatus.PENDING
+                && !Boolean.TRUE.equals(b.getLoadTest())
+                && !"MANAGER".equals(b.getRejectedBy())
+                && b.getAssignedDriverId() == null;
+    }
+
+    private TypeQueue queue(String vehicleType) {
+        return queues.computeIfAbsent(key(vehicleType), k -> new TypeQueue());
+    }
+
+    private static String key(String vehicleType) {
+        return vehicleType == null ? "" : vehicleType.toUpperCase(Locale.ROOT);
+    }
+
+    private record Change(long version, long bookingId, Booking booking) {   // booking null = removed
+    }
+
+    // One type: pending bookings by id plus a bounded log of recent changes, guarded by its monitor
+    private final class TypeQueue {
+        private final TreeMap<Long, Booking> pending = new TreeMap<>();
+        private final ArrayDeque<Change> log = new ArrayDeque<>();
+        private long floor = version.get();   // every change after this version is still in the log
+
+        synchronized void apply(Booking b, boolean offered) {
+            long id = b.getId();
+            if (offered) {
+                pending.put(id, b);
+            } else if (pending.remove(id) == null) {
+                return; // was never offered, nothing changed for clients
+            }
+            Change c = new Change(version.incrementAndGet(), id, offered ? b : null);
+            log.addLast(c);
+            while (log.size() > changeLogSize) floor = log.removeFirst().version();
+        }
+
+        synchronized List<Booking> snapshot() {
+            return new ArrayList<>(pending.values());
+        }
+
+        synchronized PendingBookingChanges changesSince(String vehicleType, Long since) {
+            long current = version.get();
+            if (since == null || since < floor || since > current) {
+                return new PendingBookingChanges(vehicleType, current, true, snapshot(), new ArrayList<>());
+            }
+            // latest change per booking wins
+            Map<Long, Booking> latest = new LinkedHashMap<>();
+            Iterator<Change> it = log.descendingIterator();
+            while (it.hasNext()) {
+                Change c = it.next();
+                if (c.version() <= since) break;
+                latest.putIfAbsent(c.bookingId(), c.booking());
+            }
+            List<Booking> added = new ArrayList<>();
+            List<Long> removed = new ArrayList<>();
+            latest.forEach((id, booking) -> {
+                if (booking != null) added.add(booking);
+                else removed.add(id);
+            });
+            added.sort(Comparator.comparing(Booking::getId));
+            return new PendingBookingChanges(vehicleType, current, false, added, removed);
+        }
+
+        synchronized int size() {
+            return pending.size();
+        }
+    }
+}
@@ -0,0 +1,393 @@
+package com.infosys.service.Booking;
+
+import com.infosys.dto.CreateBookingRequest;
+import com.infosys.dto.PriceQuote;
+import com.infosys.exception.BookingConflictException;
+import com.infosys.model.Booking.Booking;
+import com.infosys.model.Booking.Tariff;
+import com.infosys.repository.TariffRepository;
+import com.infosys.service.Fleet.FleetStateStore;
+import com.infosys.service.Fleet.GeoPoint;
+import com.infosys.service.Reference.ReferenceDataRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ Purpose: Booking prices: the hourly tariff of the vehicle type (tariffs table) times a surge multiplier
+ per pickup zone and time slot, derived from recent demand against available supply.
+ Workflow:
+ 1. Tariffs are loaded at startup and on POST /api/pricing/admin/tariffs/refresh, compiled into arrays:
+    one map lookup per type name, rates by index. Types without a row use the DEFAULT row
+ 2. Demand: every created booking counts into its zone (zoneDegrees cells around the pickup, or the whole
+    fleet without a pickup) and time slot (hour of day of its start), in the current bucket of a sliding
+    window of windowBuckets x bucketMs
+ 3. Supply: every bucketMs the Available vehicles of the live fleet state are counted per zone into the
+    same window. Window sums move by adding the closed bucket and subtracting the one that leaves
+ 4. Each tick turns demand / average supply into multipliers and publishes them as one immutable snapshot,
+    so a quote is a few array reads and never touches the database
+ 5. Quote ids are signed (HMAC) with pricing.quote.key, shared by all instances; without one a random
+    per-process key is used and quotes do not survive a restart. The signature covers type, EV flag,
+    period, pickup zone, surge and tariff version
+ 6. A booking without a quote id is priced afresh. A booking with one is charged the quoted surge if the
+    quote is valid, unexpired and matches the booking (its pickup zone included); otherwise it is refused
+    with 409 so the client can request a new quote instead of being charged a price it never saw
+*/
+@Component
+@Order(4)
+public class PricingEngine implements CommandLineRunner {
+
+    public static final String DEFAULT_TARIFF = "DEFAULT";
+
+    private static final int SLOTS = 24;                            // hour of day of the booking start
+    private static final long WHOLE_FLEET = Long.MIN_VALUE;         // zone of bookings without a pickup position
+    private static final double FALLBACK_HOURLY_RATE = 10.0;        // used when the DEFAULT row is missing
+    private static final double FALLBACK_EV_SURCHARGE = 2.0;
+    private static final int MAC_BYTES = 16;
+
+    @Autowired
+    private TariffRepository tariffRepo;
+
+    @Autowired
+    private FleetStateStore fleetState;
+
+    @Value("${pricing.surge.zoneDegrees:0.05}")
+    private double zoneDegrees;
+
+    @Value("${pricing.surge.windowBuckets:15}")
+    private int windowBuckets;
+
+    @Value("${pricing.surge.threshold:1.0}")
+    private double surgeThreshold;
+
+    @Value("${pricing.surge.sensitivity:0.5}")
+    private double surgeSensitivity;
+
+    @Value("${pricing.surge.maxMultiplier:2.5}")
+    private double maxMultiplier;
+
+    @Value("${pricing.quote.ttlMs:300000}")
+    private long quoteTtlMs;
+
+    private volatile Tariffs tariffs = Tariffs.compile(List.of(), 0);
+    private volatile Map<Long, float[]> surge = Map.of();
+    private final ConcurrentHashMap<Long, Zone> zones = new ConcurrentHashMap<>();
+
+    private final byte[] quoteKey;
+    private final ThreadLocal<Mac> macs = ThreadLocal.withInitial(this::newMac);
+
+    private final LongAdder quotes = new LongAdder();
+    private final LongAdder quotesHonored = new LongAdder();
+    private final LongAdder quotesRejected = new LongAdder();
+    private volatile LocalDateTime lastTickAt;
+
+    public PricingEngine(@Value("${pricing.quote.key:}") String configuredKey) {
+        if (configuredKey == null || configuredKey.isBlank()) {
+            quoteKey = new byte[32];
+            new SecureRandom().nextBytes(quoteKey);
+            System.out.println("pricing.quote.key not set: quotes are signed with a per-process key");
+        } else {
+            quoteKey = configuredKey.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    @Override
+    public void run(String... args) {
+        refreshTariffs();
+        System.out.println("Tariffs loaded: " + tariffs.size() + " (version " + tariffs.version + ")");
+    }
+
+    // Reload the tariffs table; quotes issued for the previous version are no longer honored
+    public synchronized Map<String, Object> refreshTariffs() {
+        tariffs = Tariffs.compile(tariffRepo.findAll(), tariffs.version + 1);
+        return getMetrics();
+    }
+
+    // ====== QUOTES ======
+
+    public PriceQuote quote(String vehicleType, Boolean isEv, LocalDateTime start, LocalDateTime end, GeoPoint pickup) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new IllegalArgumentException("startTime must be before endTime");
+        }
+        float multiplier = 1f;
+        float[] bySlot = surge.get(zoneKey(pickup));
+        if (bySlot != null) multiplier = bySlot[start.getHour()];
+        quotes.increment();
+        return build(tariffs, vehicleType, isEv, start, end, zoneKey(pickup), multiplier, System.currentTimeMillis());
+    }
+
+    // Price of a booking being created: the quote it names (BookingConflictException when that quote is
+    // expired or does not match the booking), a fresh one when it names none
+    public PriceQuote priceFor(CreateBookingRequest req, GeoPoint pickup) {
+        if (req.getQuoteId() == null) {
+            return quote(req.getVehicleType(), req.getIsEv(), req.getStartTime(), req.getEndTime(), pickup);
+        }
+        Tariffs t = tariffs;
+        String[] parts = req.getQuoteId().split("\\.");
+        if (parts.length == 4) {
+            try {
+                long issuedAt = Long.parseLong(parts[0], 36);
+                int surgeCenti = Integer.parseInt(parts[1]);
+                long version = Long.parseLong(parts[2]);
+                long age = System.currentTimeMillis() - issuedAt;
+                // rebuilt from the booking itself, so a quote for another zone, type or period fails the signature
+                PriceQuote quoted = build(t, req.getVehicleType(), req.getIsEv(), req.getStartTime(), req.getEndTime(),
+                        zoneKey(pickup), surgeCenti / 100f, issuedAt);
+                if (version == t.version && age >= 0 && age <= quoteTtlMs
+                        && MessageDigest.isEqual(quoted.getQuoteId().getBytes(StandardCharsets.US_ASCII),
+                                                 req.getQuoteId().getBytes(StandardCharsets.US_ASCII))) {
+                    quotesHonored.increment();
+                    return quoted;
+                }
+            } catch (NumberFormatException e) {
+                // not one of ours: rejected below
+            }
+        }
+        quotesRejected.increment();
+        throw new BookingConflictException("Price quote expired or does not match this booking, request a new quote");
+    }
+
+    private PriceQuote build(Tariffs t, String vehicleType, Boolean isEv, LocalDateTime start, LocalDateTime end,
+                             long zone, float multiplier, long issuedAt) {
+        int tariff = t.indexOf(vehicleType);
+        boolean ev = Boolean.TRUE.equals(isEv);
+        double hours = Math.max(t.minHours[tariff], Duration.between(start, end).toHours());
+        double hourlyRate = t.hourlyRate[tariff] + (ev ? t.evSurcharge[tariff] : 0.0);
+        double baseFare = round2(hourlyRate * hours);
+        int surgeCenti = Math.round(multiplier * 100f);
+        String quoteId = Long.toString(issuedAt, 36) + "." + surgeCenti + "." + t.version + "."
+                + signature(Tariffs.key(vehicleType) + "|" + ev + "|" + start + "|" + end + "|" + zone + "|" + issuedAt + "|" + surgeCenti + "|" + t.version);
+        LocalDateTime validUntil = LocalDateTime.now().plus(Duration.ofMillis(quoteTtlMs - (System.currentTimeMillis() - issuedAt)));
+        return new PriceQuote(quoteId, vehicleType, ev, start, end, hours, hourlyRate, baseFare,
+                surgeCenti / 100.0, round2(baseFare * surgeCenti / 100.0), validUntil);
+    }
+
+    private String signature(String payload) {
+        byte[] mac = macs.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(mac, MAC_BYTES));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(quoteKey, "HmacSHA256"));
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+
+    // ====== DEMAND AND SUPPLY ======
+
+    // Counts a created booking as demand once its transaction commits
+    public void recordDemand(Booking b) {
+        if (b.getStartTime() == null) return;
+        int slot = b.getStartTime().getHour();
+        GeoPoint pickup = GeoPoint.of(b.getPickupLat(), b.getPickupLon(), null);
+        AfterCommit.run(() -> {
+            if (pickup != null) addDemand(zoneKey(pickup), slot);
+            addDemand(WHOLE_FLEET, slot);
+        });
+    }
+
+    // compute() so a zone dropped as idle by tick() cannot swallow the count
+    private void addDemand(long zone, int slot) {
+        zones.compute(zone, (k, z) -> {
+            if (z == null) z = new Zone(windowBuckets);
+            z.demand(slot);
+            return z;
+        });
+    }
+
+    // Closes the current bucket with a supply sample and publishes the multipliers of the window
+    @Scheduled(fixedDelayString = "${pricing.surge.bucketMs:60000}")
+    public void tick() {
+        int available = fleetState.statusCodeOf(ReferenceDataRegistry.Status.AVAILABLE.label);
+        Map<Long, int[]> supply = new HashMap<>();
+        int[] wholeFleet = new int[1];
+        fleetState.forEach(slot -> {
+            if (fleetState.statusCode(slot) != available || fleetState.isSynthetic(slot)) return;
+            wholeFleet[0]++;
+            double lat = fleetState.latitude(slot);
+            double lon = fleetState.longitude(slot);
+            if (GeoPoint.isValid(lat, lon)) supply.computeIfAbsent(zoneKey(lat, lon), k -> new int[1])[0]++;
+        });
+        supply.put(WHOLE_FLEET, wholeFleet);
+        for (Long zone : supply.keySet()) zones.computeIfAbsent(zone, k -> new Zone(windowBuckets));
+
+        Map<Long, float[]> next = new HashMap<>();
+        for (Long zone : zones.keySet()) {
+            int[] count = supply.get(zone);
+            zones.computeIfPresent(zone, (k, z) -> {
+                z.rotate(count != null ? count[0] : 0);
+                float[] multipliers = multipliers(z);
+                if (multipliers != null) next.put(k, multipliers);
+                return z.idle() ? null : z;
+            });
+        }
+        surge = Map.copyOf(next);
+        lastTickAt = LocalDateTime.now();
+    }
+
+    // Multipliers per slot of a zone, null when nothing surges
+    private float[] multipliers(Zone z) {
+        if (z.samples == 0) return null;
+        double averageSupply = (double) z.windowSupply / z.samples;
+        float[] m = null;
+        for (int s = 0; s < SLOTS; s++) {
+            float x = multiplier(z.windowDemand[s], averageSupply);
+            if (x <= 1f) continue;
+            if (m == null) {
+                m = new float[SLOTS];
+                Arrays.fill(m, 1f);
+            }
+            m[s] = x;
+        }
+        return m;
+    }
+
+    // Steps of 0.1 keep quotes stable between ticks
+    private float multiplier(int demand, double supply) {
+        double ratio = demand / Math.max(1.0, supply);
+        if (ratio <= surgeThreshold) return 1f;
+        double m = Math.min(maxMultiplier, 1.0 + surgeSensitivity * (ratio - surgeThreshold));
+        return (float) (Math.round(m * 10.0) / 10.0);
+    }
+
+    private long zoneKey(GeoPoint p) {
+        return p == null ? WHOLE_FLEET : zoneKey(p.lat(), p.lon());
+    }
+
+    private long zoneKey(double lat, double lon) {
+        long row = (long) Math.floor((lat + 90.0) / zoneDegrees);
+        long col = (long) Math.floor((lon + 180.0) / zoneDegrees);
+        return (row << 32) | (col & 0xffffffffL);
+    }
+
+    public Map<String, Object> getMetrics() {
+        Tariffs t = tariffs;
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("tariffVersion", t.version);
+        m.put("tariffs", t.size());
+        m.put("zones", zones.size());
+        m.put("surgingZones", surge.size());
+        float max = 1f;
+        for (float[] bySlot : surge.values()) {
+            for (float x : bySlot) max = Math.max(max, x);
+        }
+        m.put("maxSurge", max);
+        m.put("quotes", quotes.sum());
+        m.put("quotesHonored", quotesHonored.sum());
+        m.put("quotesRejected", quotesRejected.sum());
+        m.put("lastTickAt", lastTickAt);
+        return m;
+    }
+
+    private static double round2(double x) {
+        return Math.round(x * 100.0) / 100.0;
+    }
+
+    // ====== COMPILED TARIFFS ======
+
+    private record Tariffs(long version, Map<String, Integer> indexByType, int defaultIndex,
+                           double[] hourlyRate, double[] evSurcharge, int[] minHours) {
+
+        static Tariffs compile(List<Tariff> rows, long version) {
+            Map<String, Integer> indexByType = new HashMap<>();
+            double[] hourlyRate = new double[rows.size() + 1];
+            double[] evSurcharge = new double[rows.size() + 1];
+            int[] minHours = new int[rows.size() + 1];
+            int n = 0;
+            for (Tariff row : rows) {
+                if (row.getVehicleType() == null || row.getHourlyRate() == null) continue;
+                hourlyRate[n] = row.getHourlyRate();
+                evSurcharge[n] = row.getEvSurcharge() != null ? row.getEvSurcharge() : 0.0;
+                minHours[n] = row.getMinHours() != null ? Math.max(1, row.getMinHours()) : 1;
+                indexByType.put(key(row.getVehicleType()), n++);
+            }
+            Integer defaultIndex = indexByType.get(DEFAULT_TARIFF);
+            if (defaultIndex == null) {
+                hourlyRate[n] = FALLBACK_HOURLY_RATE;
+                evSurcharge[n] = FALLBACK_EV_SURCHARGE;
+                minHours[n] = 1;
+                defaultIndex = n;
+            }
+            return new Tariffs(version, Map.copyOf(indexByType), defaultIndex, hourlyRate, evSurcharge, minHours);
+        }
+
+        static String key(String vehicleType) {
+            return vehicleType == null ? "" : vehicleType.trim().toUpperCase(Locale.ROOT);
+        }
+
+        int indexOf(String vehicleType) {
+            Integer index = indexByType.get(key(vehicleType));
+            return index != null ? index : defaultIndex;
+        }
+
+        int size() {
+            return indexByType.size();
+        }
+    }
+
+    // ====== SLIDING WINDOW OF ONE ZONE ======
+
+    // Only touched inside zones.compute* of its key, which serializes demand counts and ticks
+    private static final class Zone {
+        final int[][] demand;                   // [bucket][slot] bookings created
+        final int[] supply;                     // [bucket] Available vehicles sampled when the bucket closed
+        final int[] windowDemand = new int[SLOTS];
+        long windowSupply;
+        int samples;                            // supply samples in the window
+        int current;
+
+        Zone(int buckets) {
+            demand = new int[Math.max(2, buckets)][SLOTS];
+            supply = new int[demand.length];
+        }
+
+        void demand(int slot) {
+            demand[current][slot]++;
+            windowDemand[slot]++;
+        }
+
+        // Stores the sample of the closing bucket and reuses the oldest one as the new current bucket
+        void rotate(int available) {
+            supply[current] = available;
+            windowSupply += available;
+            samples++;
+            current = (current + 1) % supply.length;
+            if (samples == supply.length) {           // the reused bucket held the oldest sample
+                windowSupply -= supply[current];
+                samples--;
+            }
+            supply[current] = 0;
+            for (int s = 0; s < SLOTS; s++) {
+                windowDemand[s] -= demand[current][s];
+                demand[current][s] = 0;
+            }
+        }
+
+        boolean idle() {
+            if (windowSupply > 0) return false;
+            for (int d : windowDemand) {
+                if (d > 0) return false;
+            }
+            return true;
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.infosys.service.Booking;
 
+import com.infosys.dto.NearbyVehicle;
 import com.infosys.model.Vehicle;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 public interface RecommendationService {
-    List<Vehicle> recommendVehicles(Long customerId, String vehicleType, Boolean isEv, LocalDateTime start, LocalDateTime end, int limit);
+    List<Vehicle> recommendVehicles(Long customerId, String vehicleType, Boolean isEv, LocalDateTime start, LocalDateTime end,
+                                    Double pickupLat, Double pickupLon, int limit);
+
+    List<NearbyVehicle> nearestAvailableVehicles(double lat, double lon, String vehicleType, Boolean isEv, Double radiusKm, int k);
 }
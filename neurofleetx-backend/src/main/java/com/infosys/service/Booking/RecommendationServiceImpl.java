@@ -1,20 +1,28 @@
 package com.infosys.service.Booking;
 
+import com.infosys.dto.NearbyVehicle;
 import com.infosys.model.Vehicle;
-import com.infosys.repository.BookingRepository;
 import com.infosys.repository.VehicleRepository;
+import com.infosys.service.Fleet.FleetStateStore;
+import com.infosys.service.Fleet.GeoPoint;
+import com.infosys.service.Reference.ReferenceDataRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /*
  Purpose: Lightweight recommendation engine:
   - prefer vehicles of requested type and EV flag
-  - prefer vehicles nearest to city center (or random) — placeholder for distance
-  - exclude vehicles with overlapping confirmed bookings
+  - with a pickup position: nearest vehicles first (k-nearest search on the fleet state's spatial grid,
+    within booking.nearby.radiusKm, never more than booking.nearby.maxRadiusKm); without one: lower mileage first, then higher battery. When the
+    radius holds fewer than `limit` vehicles, the rest is filled by mileage after the nearest ones
+  - at most booking.nearby.maxResults vehicles per request (also for the mileage ranking, a partial
+    selection that costs a pass over the candidates per pick)
+  - exclude vehicles with overlapping confirmed bookings (answered by BookingAvailabilityIndex, no queries)
+ Candidates are scanned from the live fleet state; only the final picks are loaded as entities.
 */
 @Service
 public class RecommendationServiceImpl implements RecommendationService {
@@ -23,37 +31,134 @@ public class RecommendationServiceImpl implements RecommendationService {
     private VehicleRepository vehicleRepo;
 
     @Autowired
-    private BookingRepository bookingRepo;
+    private BookingAvailabilityIndex availability;
+
+    @Autowired
+    private FleetStateStore fleetState;
+
+    @Value("${booking.nearby.radiusKm:25}")
+    private double nearbyRadiusKm;
+
+    @Value("${booking.nearby.maxRadiusKm:100}")
+    private double maxNearbyRadiusKm;
+
+    @Value("${booking.nearby.maxResults:100}")
+    private int maxNearbyResults;
 
     @Override
-    public List<Vehicle> recommendVehicles(Long customerId, String vehicleType, Boolean isEv, LocalDateTime start, LocalDateTime end, int limit) {
-        List<Vehicle> vehicles = vehicleRepo.findAll();
+    public List<Vehicle> recommendVehicles(Long customerId, String vehicleType, Boolean isEv, LocalDateTime start, LocalDateTime end,
+                                           Double pickupLat, Double pickupLon, int limit) {
+        limit = Math.min(limit, maxNearbyResults);
+        if (limit <= 0) return new ArrayList<>();
+        boolean evOnly = isEv != null && isEv;
+        boolean anyType = vehicleType == null || vehicleType.isEmpty();
+        int typeCode = anyType ? FleetStateStore.UNKNOWN_CODE : fleetState.typeCodeOf(vehicleType);
+        if (!anyType && typeCode == FleetStateStore.UNKNOWN_CODE) return new ArrayList<>();
 
-        // Filter by type and EV
-        List<Vehicle> filtered = vehicles.stream().filter(v -> {
-            if (isEv != null && isEv && (v.getIsEv() == null || !v.getIsEv())) return false;
-
-            if (vehicleType != null && !vehicleType.isEmpty()) {
-                if (v.getType() == null || v.getType().getName() == null ||
-                        !vehicleType.equalsIgnoreCase(v.getType().getName())) {
-                    return false;
-                }
+        long startMillis = BookingAvailabilityIndex.millis(start);
+        long endMillis = BookingAvailabilityIndex.millis(end);
+        GeoPoint pickup = GeoPoint.of(pickupLat, pickupLon, null);
+        List<Long> picked = pickup != null
+                ? nearestFree(pickup, evOnly, anyType, typeCode, startMillis, endMillis, limit)
+                : byMileage(evOnly, anyType, typeCode, startMillis, endMillis, limit);
+        if (pickup != null && picked.size() < limit) {
+            // too few within the radius: nearest first, then by mileage (byMileage overlaps at most picked.size())
+            Set<Long> merged = new LinkedHashSet<>(picked);
+            for (Long id : byMileage(evOnly, anyType, typeCode, startMillis, endMillis, limit)) {
+                if (merged.size() >= limit) break;
+                merged.add(id);
             }
+            picked = new ArrayList<>(merged);
+        }
 
-            return true;
-        }).collect(Collectors.toList());
+        // Load the picks and keep the ranking order
+        Map<Long, Vehicle> byId = new HashMap<>();
+        for (Vehicle v : vehicleRepo.findAllById(picked)) byId.put(v.getId(), v);
+        List<Vehicle> result = new ArrayList<>(picked.size());
+        for (Long id : picked) {
+            Vehicle v = byId.get(id);
+            if (v != null) result.add(v);
+        }
+        return result;
+    }
 
-        // Remove vehicles with overlapping confirmed bookings
-        filtered = filtered.stream().filter(v -> {
-            List<?> overlaps = bookingRepo.findOverlappingConfirmed(v.getId(), start, end);
-            return overlaps == null || overlaps.isEmpty();
-        }).collect(Collectors.toList());
+    @Override
+    public List<NearbyVehicle> nearestAvailableVehicles(double lat, double lon, String vehicleType, Boolean isEv, Double radiusKm, int k) {
+        if (!GeoPoint.isValid(lat, lon)) throw new RuntimeException("Invalid coordinates");
+        boolean evOnly = isEv != null && isEv;
+        boolean anyType = vehicleType == null || vehicleType.isEmpty();
+        int typeCode = anyType ? FleetStateStore.UNKNOWN_CODE : fleetState.typeCodeOf(vehicleType);
+        int available = fleetState.statusCodeOf(ReferenceDataRegistry.Status.AVAILABLE.label);
+        if ((!anyType && typeCode == FleetStateStore.UNKNOWN_CODE) || available == FleetStateStore.UNKNOWN_CODE) {
+            return new ArrayList<>();
+        }
+
+        double radius = Math.min(radiusKm != null && radiusKm > 0 ? radiusKm : nearbyRadiusKm, maxNearbyRadiusKm);
+        int[] slots = fleetState.nearest(lat, lon, Math.min(k, maxNearbyResults), radius,
+                slot -> fleetState.statusCode(slot) == available && matches(slot, evOnly, anyType, typeCode));
+        List<NearbyVehicle> result = new ArrayList<>(slots.length);
+        for (int slot : slots) {
+            double vLat = fleetState.latitude(slot);
+            double vLon = fleetState.longitude(slot);
+            long driverId = fleetState.driverId(slot);
+            result.add(new NearbyVehicle(fleetState.vehicleId(slot), fleetState.name(slot), fleetState.typeName(slot),
+                    fleetState.isEv(slot), fleetState.battery(slot), fleetState.fuel(slot), vLat, vLon,
+                    GeoPoint.distanceKm(lat, lon, vLat, vLon), driverId != 0 ? driverId : null));
+        }
+        return result;
+    }
 
-        // Sort: lower mileage preferred, then higher battery
-        filtered.sort(Comparator
-                .comparing((Vehicle v) -> v.getMileage() == null ? Double.MAX_VALUE : v.getMileage())
-                .thenComparing((Vehicle v) -> -(v.getBatteryLevel() == null ? 0.0 : v.getBatteryLevel())));
+    // Nearest vehicles to the pickup that match and are free for the slot
+    private List<Long> nearestFree(GeoPoint pickup, boolean evOnly, boolean anyType, int typeCode,
+                                   long startMillis, long endMillis, int limit) {
+        int[] slots = fleetState.nearest(pickup.lat(), pickup.lon(), limit, Math.min(nearbyRadiusKm, maxNearbyRadiusKm),
+                slot -> matches(slot, evOnly, anyType, typeCode)
+                        && availability.isFree(fleetState.vehicleId(slot), startMillis, endMillis));
+        List<Long> picked = new ArrayList<>(slots.length);
+        for (int slot : slots) picked.add(fleetState.vehicleId(slot));
+        return picked;
+    }
+
+    private List<Long> byMileage(boolean evOnly, boolean anyType, int typeCode, long startMillis, long endMillis, int limit) {
+        // Filter by type and EV
+        int[] candidates = new int[fleetState.size()];
+        int[] count = {0};
+        fleetState.forEach(slot -> {
+            if (!matches(slot, evOnly, anyType, typeCode)) return;
+            if (count[0] < candidates.length) candidates[count[0]++] = slot;
+        });
+
+        // Pick in order: lower mileage preferred, then higher battery;
+        // remove vehicles with overlapping confirmed bookings as they come up
+        List<Long> picked = new ArrayList<>(limit);
+        int remaining = count[0];
+        while (picked.size() < limit && remaining > 0) {
+            int best = 0;
+            for (int i = 1; i < remaining; i++) {
+                if (isBetter(candidates[i], candidates[best])) best = i;
+            }
+            int slot = candidates[best];
+            candidates[best] = candidates[--remaining];
+
+            long vehicleId = fleetState.vehicleId(slot);
+            if (availability.isFree(vehicleId, startMillis, endMillis)) picked.add(vehicleId);
+        }
+        return picked;
+    }
+
+    private boolean matches(int slot, boolean evOnly, boolean anyType, int typeCode) {
+        if (fleetState.isSynthetic(slot)) return false; // load-test vehicle
+        if (evOnly && !fleetState.isEv(slot)) return false;
+        return anyType || fleetState.typeCode(slot) == typeCode;
+    }
 
-        return filtered.stream().limit(limit).collect(Collectors.toList());
+    private boolean isBetter(int a, int b) {
+        // unknown mileage (NaN) ranks after every known one
+        double ma = fleetState.mileage(a);
+        double mb = fleetState.mileage(b);
+        if (Double.isNaN(ma) != Double.isNaN(mb)) return Double.isNaN(mb);
+        int byMileage = Double.compare(ma, mb);
+        if (byMileage != 0) return byMileage < 0;
+        return fleetState.battery(a) > fleetState.battery(b);
     }
 }
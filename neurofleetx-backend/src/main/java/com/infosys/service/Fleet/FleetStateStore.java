@@ -0,0 +1,539 @@
+package com.infosys.service.Fleet;
+
+import com.infosys.model.User;
+import com.infosys.model.Vehicle;
+import com.infosys.repository.UserRepository;
+import com.infosys.repository.VehicleRepository;
+import com.infosys.service.Reference.ReferenceDataRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/*
+ Purpose: Live fleet state kept in memory as primitive columns (struct-of-arrays), indexed by a dense
+ vehicle slot, so hot read paths can scan the whole fleet without touching the database or
+ materializing Vehicle entities.
+ - Loaded from the vehicles table once the application is ready
+ - Kept current by telemetry updates and vehicle CRUD / status changes
+ - Status and type names are dictionary encoded into small int codes
+ - Positions are also kept in a SpatialGrid for nearest-vehicle queries, moved in place by telemetry
+ Concurrency: structural changes (add/remove vehicle, growing the columns) take the write lock; field
+ updates and scans take the read lock. Field updates of one vehicle are not atomic as a group, a scan
+ may see a vehicle halfway through a telemetry update - acceptable for a live view.
+*/
+@Component
+public class FleetStateStore {
+
+    public static final int NO_SLOT = -1;
+    public static final int UNKNOWN_CODE = -1;
+    // Ids from here on are load-test vehicles (FleetLoadGenerator): live in this store only, never
+    // offered to customers, recommendations or dispatch
+    public static final long SYNTHETIC_ID_BASE = 1_000_000_000L;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    @Autowired
+    private VehicleRepository vehicleRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private ReferenceDataRegistry referenceData;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final Map<Long, Integer> slotByDriver = new HashMap<>();
+    private final Dictionary statuses = new Dictionary();
+    private final Dictionary types = new Dictionary();
+    private final SpatialGrid grid = new SpatialGrid();
+
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int highWater;   // slots [0, highWater) have been handed out at least once
+    private int liveCount;
+
+    // columns (id 0 marks a free slot)
+    private long[] ids;
+    private String[] names;
+    private int[] statusCodes;
+    private int[] typeCodes;
+    private boolean[] ev;
+    private double[] speed;
+    private double[] battery;
+    private double[] fuel;
+    private double[] lat;
+    private double[] lon;
+    private double[] tireWear;
+    private double[] mileage;        // NaN = unknown
+    private long[] lastUpdated;      // epoch millis
+    private long[] driverIds;        // 0 = no driver assigned
+    private String[] driverNames;
+
+    public FleetStateStore() {
+        allocate(INITIAL_CAPACITY);
+    }
+
+    // ==================== LOADING ====================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        referenceData.statuses().forEach(s -> statuses.intern(s.getId(), s.getName()));
+        referenceData.types().forEach(t -> types.intern(t.getId(), t.getName()));
+
+        List<Vehicle> vehicles = vehicleRepo.findAll();
+
+        Set<Long> driverIdSet = new HashSet<>();
+        for (Vehicle v : vehicles) {
+            if (v.getAssignedDriverId() != null) driverIdSet.add(v.getAssignedDriverId());
+        }
+        Map<Long, String> driverNameById = new HashMap<>();
+        for (User u : userRepo.findAllById(driverIdSet)) {
+            driverNameById.put(u.getId(), u.getFullName());
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Vehicle v : vehicles) {
+                int slot = slotFor(v.getId());
+                write(slot, v, v.getAssignedDriverId(), driverNameById.get(v.getAssignedDriverId()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        System.out.println("Fleet state store loaded " + vehicles.size() + " vehicles");
+    }
+
+    // ==================== UPDATES ====================
+
+    // Insert or fully overwrite a vehicle from its entity, telemetry included (vehicle creation)
+    public void upsert(Vehicle v) {
+        Long driverId = v.getAssignedDriver() != null ? v.getAssignedDriver().getId() : v.getAssignedDriverId();
+        String driverName = v.getAssignedDriver() != null ? v.getAssignedDriver().getFullName() : null;
+
+        lock.writeLock().lock();
+        try {
+            write(slotFor(v.getId()), v, driverId, driverName);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*
+     Refresh name, type, status, EV flag and driver of a vehicle from an entity read from the database
+     (updates, assignment and booking status changes). The telemetry and health columns of a known vehicle
+     are left alone: the entity carries whatever the write-behind had flushed, older than the live values.
+     An unknown vehicle is inserted with all columns.
+    */
+    public void upsertMetadata(Vehicle v) {
+        Long driverId = v.getAssignedDriver() != null ? v.getAssignedDriver().getId() : v.getAssignedDriverId();
+        String driverName = v.getAssignedDriver() != null ? v.getAssignedDriver().getFullName() : null;
+
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.get(v.getId());
+            if (slot != null) writeMetadata(slot, v, driverId, driverName);
+            else write(slotFor(v.getId()), v, driverId, driverName);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long vehicleId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.remove(vehicleId);
+            if (slot != null) free(slot);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Removes every vehicle with id >= firstId (the synthetic range) in one pass over the slots
+    public int removeFrom(long firstId) {
+        lock.writeLock().lock();
+        try {
+            int removed = 0;
+            for (int slot = 0, n = highWater; slot < n; slot++) {
+                if (ids[slot] < firstId) continue;
+                slotById.remove(ids[slot]);
+                free(slot);
+                removed++;
+            }
+            return removed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /*
+     Telemetry update in place. Null values keep the current reading.
+     Returns the vehicle's slot, or NO_SLOT when the vehicle is unknown.
+    */
+    public int updateTelemetry(Long vehicleId, Double newSpeed, Double newBattery, Double newFuel,
+                               Double newLat, Double newLon, long timestamp) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotById.get(vehicleId);
+            if (slot == null) return NO_SLOT;
+            if (newSpeed != null) speed[slot] = newSpeed;
+            if (newBattery != null) battery[slot] = newBattery;
+            if (newFuel != null) fuel[slot] = newFuel;
+            if (newLat != null) lat[slot] = newLat;
+            if (newLon != null) lon[slot] = newLon;
+            if (newLat != null || newLon != null) grid.move(slot, lat[slot], lon[slot]);
+            lastUpdated[slot] = timestamp;
+            return slot;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void updateHealth(Long vehicleId, Double newBattery, Double newFuel, Double newTireWear, Double newMileage) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotById.get(vehicleId);
+            if (slot == null) return;
+            if (newBattery != null) battery[slot] = newBattery;
+            if (newFuel != null) fuel[slot] = newFuel;
+            if (newTireWear != null) tireWear[slot] = newTireWear;
+            if (newMileage != null) mileage[slot] = newMileage;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void setStatusCode(int slot, int code) {
+        statusCodes[slot] = code;
+    }
+
+    // ==================== SCANS ====================
+
+    @FunctionalInterface
+    public interface SlotVisitor {
+        void visit(int slot);
+    }
+
+    // Visits every live slot under the read lock; column getters may be used inside the visitor
+    public void forEach(SlotVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            long[] idCol = ids;
+            for (int slot = 0, n = highWater; slot < n; slot++) {
+                if (idCol[slot] != 0) visitor.visit(slot);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Like forEach but also visits freed slots (vehicleId 0), for consumers tracking removals
+    public void forEachSlot(SlotVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            for (int slot = 0, n = highWater; slot < n; slot++) visitor.visit(slot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @FunctionalInterface
+    public interface SlotFilter {
+        boolean accept(int slot);
+    }
+
+    @FunctionalInterface
+    public interface NearbyVisitor {
+        // Called for every vehicle within the current radius; returns the radius (km) still of interest
+        double visit(int slot, double distanceKm);
+    }
+
+    /*
+     Up to k slots accepted by the filter within radiusKm of (lat, lon), nearest first. Only the grid cells
+     around the point are looked at; the filter runs under the read lock like a forEach visitor.
+    */
+    public int[] nearest(double lat, double lon, int k, double radiusKm, SlotFilter filter) {
+        if (k <= 0) return new int[0];
+        NearestHeap heap = new NearestHeap(k);
+        within(lat, lon, radiusKm, (slot, km) -> {
+            if (filter.accept(slot)) heap.offer(slot, km);
+            return heap.full() ? heap.worstKm() : radiusKm;
+        });
+        return heap.sorted();
+    }
+
+    // Visits the vehicles within radiusKm of (lat, lon), roughly nearest first; the visitor may shrink the radius
+    public void within(double lat, double lon, double radiusKm, NearbyVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            grid.search(lat, lon, radiusKm, this.lat, this.lon, visitor::visit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int slotOf(Long vehicleId) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotById.get(vehicleId);
+            return slot != null ? slot : NO_SLOT;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Slot of the vehicle assigned to a driver, NO_SLOT when the driver has none
+    public int slotOfDriver(Long driverId) {
+        lock.readLock().lock();
+        try {
+            Integer slot = slotByDriver.get(driverId);
+            return slot != null ? slot : NO_SLOT;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        return liveCount;
+    }
+
+    // ==================== COLUMN ACCESS ====================
+
+    public long vehicleId(int slot) { return ids[slot]; }
+    public String name(int slot) { return names[slot]; }
+    public int statusCode(int slot) { return statusCodes[slot]; }
+    public int typeCode(int slot) { return typeCodes[slot]; }
+    public String statusName(int slot) { return statuses.name(statusCodes[slot]); }
+    public String typeName(int slot) { return types.name(typeCodes[slot]); }
+    public boolean isEv(int slot) { return ev[slot]; }
+    public double speed(int slot) { return speed[slot]; }
+    public double battery(int slot) { return battery[slot]; }
+    public double fuel(int slot) { return fuel[slot]; }
+    public double latitude(int slot) { return lat[slot]; }
+    public double longitude(int slot) { return lon[slot]; }
+    public double tireWear(int slot) { return tireWear[slot]; }
+    public double mileage(int slot) { return mileage[slot]; } // NaN when unknown
+    public long lastUpdated(int slot) { return lastUpdated[slot]; }
+    public long driverId(int slot) { return driverIds[slot]; }
+    public String driverName(int slot) { return driverNames[slot]; }
+    public boolean isSynthetic(int slot) { return ids[slot] >= SYNTHETIC_ID_BASE; }
+
+    // ==================== DICTIONARIES ====================
+
+    // Code for a status name (case-insensitive), UNKNOWN_CODE if no vehicle ever had that status
+    public int statusCodeOf(String statusName) { return statuses.codeOf(statusName); }
+    public int typeCodeOf(String typeName) { return types.codeOf(typeName); }
+    public Long statusIdOf(int code) { return statuses.id(code); }
+    public Long typeIdOf(int code) { return types.id(code); }
+
+    public int registerStatus(Long id, String name) { return statuses.intern(id, name); }
+    public int registerType(Long id, String name) { return types.intern(id, name); }
+
+    // Status names indexed by code
+    public List<String> statusNames() { return List.of(statuses.names); }
+
+    // ==================== INTERNALS ====================
+
+    // caller holds the write lock
+    private int slotFor(Long vehicleId) {
+        Integer existing = slotById.get(vehicleId);
+        if (existing != null) return existing;
+
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (highWater == ids.length) allocate(ids.length * 2);
+            slot = highWater++;
+        }
+        slotById.put(vehicleId, slot);
+        ids[slot] = vehicleId;
+        liveCount++;
+        return slot;
+    }
+
+    // caller holds the write lock and has dropped the slot from slotById
+    private void free(int slot) {
+        if (driverIds[slot] != 0) slotByDriver.remove(driverIds[slot], slot);
+        driverIds[slot] = 0;
+        ids[slot] = 0;
+        grid.remove(slot);
+        names[slot] = null;
+        driverNames[slot] = null;
+        if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        freeSlots[freeCount++] = slot;
+        liveCount--;
+    }
+
+    // caller holds the write lock
+    private void write(int slot, Vehicle v, Long driverId, String driverName) {
+        writeMetadata(slot, v, driverId, driverName);
+        speed[slot] = orZero(v.getSpeed());
+        battery[slot] = orZero(v.getBatteryLevel());
+        fuel[slot] = orZero(v.getFuelLevel());
+        lat[slot] = orZero(v.getLatitude());
+        lon[slot] = orZero(v.getLongitude());
+        grid.move(slot, lat[slot], lon[slot]);
+        tireWear[slot] = orZero(v.getTireWear());
+        mileage[slot] = v.getMileage() != null ? v.getMileage() : Double.NaN;
+        lastUpdated[slot] = v.getLastUpdated() != null
+                ? v.getLastUpdated().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : 0L;
+    }
+
+    // caller holds the write lock
+    private void writeMetadata(int slot, Vehicle v, Long driverId, String driverName) {
+        names[slot] = v.getName();
+        statusCodes[slot] = v.getStatus() != null
+                ? statuses.intern(v.getStatus().getId(), v.getStatus().getName()) : UNKNOWN_CODE;
+        typeCodes[slot] = v.getType() != null
+                ? types.intern(v.getType().getId(), v.getType().getName()) : UNKNOWN_CODE;
+        ev[slot] = Boolean.TRUE.equals(v.getIsEv());
+        long newDriver = driverId != null ? driverId : 0L;
+        if (driverIds[slot] != newDriver) {
+            if (driverIds[slot] != 0) slotByDriver.remove(driverIds[slot], slot);
+            if (newDriver != 0) slotByDriver.put(newDriver, slot);
+        }
+        driverIds[slot] = newDriver;
+        driverNames[slot] = driverName;
+    }
+
+    private void allocate(int capacity) {
+        ids = ids == null ? new long[capacity] : Arrays.copyOf(ids, capacity);
+        names = names == null ? new String[capacity] : Arrays.copyOf(names, capacity);
+        statusCodes = statusCodes == null ? new int[capacity] : Arrays.copyOf(statusCodes, capacity);
+        typeCodes = typeCodes == null ? new int[capacity] : Arrays.copyOf(typeCodes, capacity);
+        ev = ev == null ? new boolean[capacity] : Arrays.copyOf(ev, capacity);
+        speed = speed == null ? new double[capacity] : Arrays.copyOf(speed, capacity);
+        battery = battery == null ? new double[capacity] : Arrays.copyOf(battery, capacity);
+        fuel = fuel == null ? new double[capacity] : Arrays.copyOf(fuel, capacity);
+        lat = lat == null ? new double[capacity] : Arrays.copyOf(lat, capacity);
+        lon = lon == null ? new double[capacity] : Arrays.copyOf(lon, capacity);
+        tireWear = tireWear == null ? new double[capacity] : Arrays.copyOf(tireWear, capacity);
+        mileage = mileage == null ? new double[capacity] : Arrays.copyOf(mileage, capacity);
+        lastUpdated = lastUpdated == null ? new long[capacity] : Arrays.copyOf(lastUpdated, capacity);
+        driverIds = driverIds == null ? new long[capacity] : Arrays.copyOf(driverIds, capacity);
+        driverNames = driverNames == null ? new String[capacity] : Arrays.copyOf(driverNames, capacity);
+        grid.grow(capacity);
+    }
+
+    private static double orZero(Double d) {
+        return d != null ? d : 0.0;
+    }
+
+    // The k nearest (slot, distance) pairs seen so far, as a max-heap on distance
+    private static final class NearestHeap {
+        private final int[] slots;
+        private final double[] km;
+        private int size;
+
+        NearestHeap(int k) {
+            slots = new int[k];
+            km = new double[k];
+        }
+
+        boolean full() {
+            return size == slots.length;
+        }
+
+        double worstKm() {
+            return km[0];
+        }
+
+        void offer(int slot, double distanceKm) {
+            int at;
+            if (!full()) {
+                at = size++;
+                while (at > 0 && km[(at - 1) >>> 1] < distanceKm) {
+                    int parent = (at - 1) >>> 1;
+                    slots[at] = slots[parent];
+                    km[at] = km[parent];
+                    at = parent;
+                }
+            } else {
+                if (distanceKm >= km[0]) return;
+                at = 0;
+                while (true) {
+                    int child = 2 * at + 1;
+                    if (child >= size) break;
+                    if (child + 1 < size && km[child + 1] > km[child]) child++;
+                    if (km[child] <= distanceKm) break;
+                    slots[at] = slots[child];
+                    km[at] = km[child];
+                    at = child;
+                }
+            }
+            slots[at] = slot;
+            km[at] = distanceKm;
+        }
+
+        // Slots nearest first (empties the heap)
+        int[] sorted() {
+            int[] result = new int[size];
+            for (int i = result.length - 1; i >= 0; i--) {
+                result[i] = slots[0];
+                int lastSlot = slots[--size];
+                double lastKm = km[size];
+                int at = 0;
+                while (true) {
+                    int child = 2 * at + 1;
+                    if (child >= size) break;
+                    if (child + 1 < size && km[child + 1] > km[child]) child++;
+                    if (km[child] <= lastKm) break;
+                    slots[at] = slots[child];
+                    km[at] = km[child];
+                    at = child;
+                }
+                slots[at] = lastSlot;
+                km[at] = lastKm;
+            }
+            return result;
+        }
+    }
+
+    /*
+     Small append-only dictionary mapping names to dense int codes (and back to database ids).
+     Reads go through volatile copy-on-write arrays, interning is synchronized.
+    */
+    private static final class Dictionary {
+        private volatile String[] names = new String[0];
+        private volatile Long[] ids = new Long[0];
+        private final Map<String, Integer> codeByName = new HashMap<>();
+
+        synchronized int intern(Long id, String name) {
+            String key = name.toLowerCase(Locale.ROOT);
+            Integer code = codeByName.get(key);
+            if (code != null) return code;
+
+            int next = names.length;
+            String[] n = Arrays.copyOf(names, next + 1);
+            Long[] i = Arrays.copyOf(ids, next + 1);
+            n[next] = name;
+            i[next] = id;
+            codeByName.put(key, next);
+            ids = i;
+            names = n;
+            return next;
+        }
+
+        synchronized int codeOf(String name) {
+            if (name == null) return UNKNOWN_CODE;
+            Integer code = codeByName.get(name.toLowerCase(Locale.ROOT));
+            return code != null ? code : UNKNOWN_CODE;
+        }
+
+        String name(int code) {
+            String[] n = names;
+            return code >= 0 && code < n.length ? n[code] : null;
+        }
+
+        Long id(int code) {
+            Long[] i = ids;
+            return code >= 0 && code < i.length ? i[code] : null;
+        }
+    }
+}
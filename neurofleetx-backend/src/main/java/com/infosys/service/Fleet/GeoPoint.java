@@ -0,0 +1,50 @@
+package com.infosys.service.Fleet;
+
+/*
+ Purpose: Latitude/longitude pair plus the distance math shared by the spatial index, recommendations
+ and dispatch.
+ - Locations typed as text are recognised in the form "lat,lon" (e.g. "12.9716, 77.5946"); anything
+   else (an address) has no position until a geocoder fills the coordinate columns
+ - Distances use the equirectangular approximation around the first point: well below 1% error at city
+   scale and much cheaper than haversine in scan loops
+ - (0, 0) is treated as "unknown", the value the fleet state holds for vehicles without a position
+*/
+public record GeoPoint(double lat, double lon) {
+
+    public static final double EARTH_RADIUS_KM = 6371.0;
+    public static final double KM_PER_DEGREE = EARTH_RADIUS_KM * Math.PI / 180.0;
+
+    // Explicit coordinates when both are given and valid, otherwise whatever `text` says (null = unknown)
+    public static GeoPoint of(Double lat, Double lon, String text) {
+        if (lat != null && lon != null && isValid(lat, lon)) return new GeoPoint(lat, lon);
+        return parse(text);
+    }
+
+    public static GeoPoint parse(String text) {
+        if (text == null) return null;
+        int comma = text.indexOf(',');
+        if (comma < 0) return null;
+        try {
+            double lat = Double.parseDouble(text.substring(0, comma).trim());
+            double lon = Double.parseDouble(text.substring(comma + 1).trim());
+            return isValid(lat, lon) ? new GeoPoint(lat, lon) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public static boolean isValid(double lat, double lon) {
+        return lat >= -90 && lat <= 90 && lon >= -180 && lon <= 180 && !(lat == 0.0 && lon == 0.0);
+    }
+
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        return distanceKm(lat1, lon1, Math.cos(Math.toRadians(lat1)), lat2, lon2);
+    }
+
+    // cosLat1 = cos(lat1), precomputed by callers that measure many points from one origin
+    public static double distanceKm(double lat1, double lon1, double cosLat1, double lat2, double lon2) {
+        double x = (lon2 - lon1) * cosLat1;
+        double y = lat2 - lat1;
+        return Math.sqrt(x * x + y * y) * KM_PER_DEGREE;
+    }
+}
@@ -0,0 +1,121 @@
+package com.infosys.service.Fleet;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ Purpose: Uniform latitude/longitude grid over the vehicle slots of FleetStateStore (cells of CELL_DEGREES,
+ about 1.1 km), so nearest-vehicle queries look at the cells around a point instead of the whole fleet.
+ - A slot only moves when an update carries it into another cell; most telemetry updates stay in their
+   cell and cost one cell computation
+ - Cells hold copy-on-write slot arrays: searches read them without locking, moves are serialized
+ - Vehicles without a position are not in the grid; cells do not wrap around the antimeridian
+*/
+final class SpatialGrid {
+
+    static final double CELL_DEGREES = 0.01;
+    private static final long NO_CELL = Long.MIN_VALUE;
+    private static final double MIN_COS_LAT = 0.01;   // keeps the ring count finite near the poles
+    private static final int MAX_RINGS = 200;         // hard cap on cells scanned under the store's read lock
+
+    @FunctionalInterface
+    interface Visitor {
+        // Called for every slot within the current radius; returns the radius still of interest
+        double visit(int slot, double distanceKm);
+    }
+
+    private final ConcurrentHashMap<Long, int[]> cells = new ConcurrentHashMap<>();
+    private long[] cellOfSlot = new long[0];
+
+    // caller holds the store's write lock
+    void grow(int capacity) {
+        int old = cellOfSlot.length;
+        cellOfSlot = Arrays.copyOf(cellOfSlot, capacity);
+        Arrays.fill(cellOfSlot, old, capacity, NO_CELL);
+    }
+
+    // Places the slot at (lat, lon); an unknown position takes it out of the grid
+    void move(int slot, double lat, double lon) {
+        long cell = GeoPoint.isValid(lat, lon) ? key(row(lat), col(lon)) : NO_CELL;
+        if (cellOfSlot[slot] == cell) return;
+        synchronized (this) {
+            long old = cellOfSlot[slot];
+            if (old == cell) return;
+            if (old != NO_CELL) removeFrom(old, slot);
+            if (cell != NO_CELL) addTo(cell, slot);
+            cellOfSlot[slot] = cell;
+        }
+    }
+
+    void remove(int slot) {
+        move(slot, 0.0, 0.0);
+    }
+
+    /*
+     Visits the slots within radiusKm of (lat, lon) ring by ring around the point's cell. A slot in ring r
+     is at least (r - 1) cell widths away, so the search ends once that exceeds the radius the visitor
+     still cares about. At most MAX_RINGS rings are scanned whatever the radius, so near the poles, where
+     cells are narrow, a large radius is only partly covered. lats / lons are the store's position columns.
+    */
+    void search(double lat, double lon, double radiusKm, double[] lats, double[] lons, Visitor visitor) {
+        int row0 = row(lat);
+        int col0 = col(lon);
+        double cosLat = Math.cos(Math.toRadians(lat));
+        double cellKm = CELL_DEGREES * GeoPoint.KM_PER_DEGREE * Math.max(cosLat, MIN_COS_LAT);  // narrower side
+        int maxRing = (int) Math.min(Math.ceil(radiusKm / cellKm) + 1, MAX_RINGS);
+        double limit = radiusKm;
+
+        for (int r = 0; r <= maxRing && (r - 1) * cellKm <= limit; r++) {
+            for (int dr = -r; dr <= r; dr++) {
+                int step = dr == -r || dr == r ? 1 : 2 * r;   // inner rows only have the two edge cells
+                for (int dc = -r; dc <= r; dc += step) {
+                    int[] slots = cells.get(key(row0 + dr, col0 + dc));
+                    if (slots == null) continue;
+                    for (int slot : slots) {
+                        double km = GeoPoint.distanceKm(lat, lon, cosLat, lats[slot], lons[slot]);
+                        if (km <= limit) limit = Math.min(limit, visitor.visit(slot, km));
+                    }
+                }
+            }
+        }
+    }
+
+    // ====== CELLS (moves hold the monitor) ======
+
+    private void addTo(long cell, int slot) {
+        int[] current = cells.get(cell);
+        int[] next = current == null ? new int[1] : Arrays.copyOf(current, current.length + 1);
+        next[next.length - 1] = slot;
+        cells.put(cell, next);
+    }
+
+    private void removeFrom(long cell, int slot) {
+        int[] current = cells.get(cell);
+        if (current == null) return;
+        int at = -1;
+        for (int i = 0; i < current.length && at < 0; i++) {
+            if (current[i] == slot) at = i;
+        }
+        if (at < 0) return;
+        if (current.length == 1) {
+            cells.remove(cell);
+            return;
+        }
+        int[] next = new int[current.length - 1];
+        System.arraycopy(current, 0, next, 0, at);
+        System.arraycopy(current, at + 1, next, at, current.length - at - 1);
+        cells.put(cell, next);
+    }
+
+    private static int row(double lat) {
+        return (int) Math.floor((lat + 90.0) / CELL_DEGREES);
+    }
+
+    private static int col(double lon) {
+        return (int) Math.floor((lon + 180.0) / CELL_DEGREES);
+    }
+
+    private static long key(int row, int col) {
+        return ((long) row << 32) | (col & 0xffffffffL);
+    }
+}
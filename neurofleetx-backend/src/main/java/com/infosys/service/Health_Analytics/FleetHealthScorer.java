@@ -0,0 +1,190 @@
+package com.infosys.service.Health_Analytics;
+
+import com.infosys.dto.FleetHealthScores;
+import com.infosys.dto.HealthScore;
+import com.infosys.service.Fleet.FleetStateStore;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.infosys.service.Health_Analytics.MaintenanceServiceImpl.TIRE_WEAR_THRESHOLD;
+
+/*
+ Purpose: Fleet-wide health score per vehicle (0 = needs attention now, 100 = healthy).
+ Workflow:
+ 1. The vehicles with a health window are split into shards and scored in parallel on a fork-join
+    pool; every input comes from HealthWindowStore (no database reads)
+ 2. The score combines four weighted penalties: tire wear level and trend (days until the wear
+    threshold), engine temperature mean/max over the window, battery level and drain rate,
+    and total mileage plus daily usage
+ 3. Results are sorted worst first into an immutable snapshot that is swapped in atomically;
+    the job runs on a schedule and on demand, never twice at the same time
+*/
+@Component
+public class FleetHealthScorer {
+
+    private static final int SHARD_SIZE = 2048;
+
+    private static final double TIRE_WEIGHT = 0.35;
+    private static final double ENGINE_WEIGHT = 0.25;
+    private static final double BATTERY_WEIGHT = 0.25;
+    private static final double MILEAGE_WEIGHT = 0.15;
+
+    private static final double TIRE_HORIZON_DAYS = 90.0;         // due further out than this = no trend penalty
+    private static final double ENGINE_TEMP_NORMAL = 90.0;         // deg C, mean at or below = no penalty
+    private static final double ENGINE_TEMP_HOT = 110.0;           // mean at or above = full penalty
+    private static final double ENGINE_TEMP_PEAK_LIMIT = 120.0;    // window max at or above = full penalty
+    private static final double BATTERY_LOW = 30.0;                // % level below which the level counts
+    private static final double BATTERY_DRAIN_LIMIT = 20.0;        // % per day = full penalty
+    private static final double MILEAGE_LIMIT = 300_000.0;         // km
+    private static final double DAILY_USAGE_LIMIT = 500.0;         // km per day
+
+    @Autowired
+    private HealthWindowStore healthWindows;
+
+    @Autowired
+    private FleetStateStore fleetState;
+
+    @Value("${health.score.parallelism:0}")
+    private int parallelism;
+
+    private ForkJoinPool pool;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile Snapshot snapshot = new Snapshot(new HealthScore[0], Map.of(), null, 0);
+
+    private synchronized ForkJoinPool pool() {
+        if (pool == null) {
+            pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        }
+        return pool;
+    }
+
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (pool != null) pool.shutdownNow();
+    }
+
+    @Scheduled(fixedDelayString = "${health.score.intervalMs:300000}", initialDelayString = "${health.score.initialDelayMs:60000}")
+    public void scheduledRecompute() {
+        recompute();
+    }
+
+    // Recomputes the whole fleet; returns false when a run was already in progress
+    public boolean recompute() {
+        if (!running.compareAndSet(false, true)) return false;
+        try {
+            long started = System.currentTimeMillis();
+            long[] vehicleIds = healthWindows.vehicleIds();
+            HealthScore[] scores = new HealthScore[vehicleIds.length];
+            pool().invoke(new ScoreShard(vehicleIds, scores, 0, vehicleIds.length));
+
+            HealthScore[] scored = Arrays.stream(scores).filter(Objects::nonNull).toArray(HealthScore[]::new);
+            Arrays.parallelSort(scored, Comparator.comparingDouble(HealthScore::getScore)
+                    .thenComparing(HealthScore::getVehicleId));
+            Map<Long, HealthScore> byVehicle = new HashMap<>(scored.length * 2);
+            for (HealthScore s : scored) byVehicle.put(s.getVehicleId(), s);
+
+            snapshot = new Snapshot(scored, byVehicle, LocalDateTime.now(), System.currentTimeMillis() - started);
+            return true;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    // The worst `limit` vehicles of the current snapshot
+    public FleetHealthScores worst(int limit) {
+        Snapshot s = snapshot;
+        List<HealthScore> top = Arrays.asList(s.sorted).subList(0, Math.min(limit, s.sorted.length));
+        return new FleetHealthScores(s.computedAt, s.durationMs, s.sorted.length, top);
+    }
+
+    public HealthScore score(Long vehicleId) {
+        return snapshot.byVehicle.get(vehicleId);
+    }
+
+    // ====== SCORING ======
+
+    private HealthScore scoreVehicle(long vehicleId) {
+        HealthWindowStore.HealthTrend t = healthWindows.trend(vehicleId);
+        if (t == null) return null;
+
+        // tire: wear level and how soon the threshold is reached at the current trend
+        Double daysToTireService = null;
+        double tireTrend = 0;
+        if (t.tireWearPerDay() > 0) {
+            daysToTireService = Math.max(0.0, (TIRE_WEAR_THRESHOLD - t.tireWear()) / t.tireWearPerDay());
+            tireTrend = 1 - clamp(daysToTireService / TIRE_HORIZON_DAYS);
+        }
+        double tire = 0.5 * clamp(t.tireWear() / TIRE_WEAR_THRESHOLD) + 0.5 * tireTrend;
+
+        // engine: sustained heat (window mean) or peaks (window max)
+        double engine = Math.max(
+                clamp((t.engineTempMean() - ENGINE_TEMP_NORMAL) / (ENGINE_TEMP_HOT - ENGINE_TEMP_NORMAL)),
+                clamp((t.engineTempMax() - ENGINE_TEMP_HOT) / (ENGINE_TEMP_PEAK_LIMIT - ENGINE_TEMP_HOT)));
+
+        // battery: low level or fast drain (negative slope)
+        double drain = t.batteryPerDay() < 0 ? -t.batteryPerDay() : 0; // NaN compares false -> 0
+        double battery = Math.max(clamp((BATTERY_LOW - t.battery()) / BATTERY_LOW), clamp(drain / BATTERY_DRAIN_LIMIT));
+
+        // mileage: wear from total distance and heavy daily use (unknown mileage is NaN and adds nothing)
+        double usage = t.mileagePerDay() > 0 ? t.mileagePerDay() : 0;
+        double mileage = 0.7 * clamp(t.mileage() / MILEAGE_LIMIT) + 0.3 * clamp(usage / DAILY_USAGE_LIMIT);
+
+        double penalty = TIRE_WEIGHT * tire + ENGINE_WEIGHT * engine + BATTERY_WEIGHT * battery + MILEAGE_WEIGHT * mileage;
+
+        int slot = fleetState.slotOf(vehicleId);
+        return new HealthScore(vehicleId,
+                slot != FleetStateStore.NO_SLOT ? fleetState.name(slot) : null,
+                round(100 * (1 - penalty)),
+                round(100 * (1 - tire)), round(100 * (1 - engine)),
+                round(100 * (1 - battery)), round(100 * (1 - mileage)),
+                daysToTireService);
+    }
+
+    private static double clamp(double v) {
+        if (Double.isNaN(v)) return 0;
+        return Math.max(0, Math.min(1, v));
+    }
+
+    private static double round(double v) {
+        return Math.round(v * 10) / 10.0;
+    }
+
+    // Scores vehicleIds[from, to) into the same positions of scores, splitting until a shard is small
+    private final class ScoreShard extends RecursiveAction {
+        private final long[] vehicleIds;
+        private final HealthScore[] scores;
+        private final int from;
+        private final int to;
+
+        ScoreShard(long[] vehicleIds, HealthScore[] scores, int from, int to) {
+            this.vehicleIds = vehicleIds;
+            this.scores = scores;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SHARD_SIZE) {
+                for (int i = from; i < to; i++) scores[i] = scoreVehicle(vehicleIds[i]);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ScoreShard(vehicleIds, scores, from, mid), new ScoreShard(vehicleIds, scores, mid, to));
+        }
+    }
+
+    private record Snapshot(HealthScore[] sorted, Map<Long, HealthScore> byVehicle,
+                            LocalDateTime computedAt, long durationMs) {
+    }
+}
@@ -0,0 +1,297 @@
+package com.infosys.service.Health_Analytics;
+
+import com.infosys.model.Health_Analytics.HealthReading;
+import com.infosys.model.Health_Analytics.MaintenanceTicket;
+import com.infosys.repository.Health_Analytics.MaintenanceTicketRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ Purpose: Streaming anomaly detection on engine temperature, battery and fuel level that opens
+ maintenance tickets automatically.
+ Workflow:
+ 1. Every ingested reading updates a per-vehicle EWMA mean/variance per metric (fixed-size primitive
+    state, O(1) per reading) and yields a z-score against the state before the update
+ 2. Each rule (hard threshold or z-score) is an alarm with hysteresis: it raises after raiseAfter
+    consecutive triggering readings and clears only after clearAfter consecutive readings past the
+    (looser) clear level
+ 3. A raised alarm opens a ticket (published on /topic/maintenance) unless the rule already has an
+    unresolved ticket for the vehicle or its last ticket is younger than cooldownMs
+*/
+@Component
+public class HealthAnomalyDetector {
+
+    private static final int ENGINE_TEMP = 0;
+    private static final int BATTERY = 1;
+    private static final int FUEL = 2;
+    private static final int METRICS = 3;
+
+    // smallest standard deviation used for z-scores, so a flat history does not turn noise into anomalies
+    private static final double[] MIN_STD_DEV = {1.0, 0.5, 0.5};
+
+    enum Rule {
+        ENGINE_TEMP_CRITICAL(ENGINE_TEMP, "Engine temperature critical", "HIGH"),
+        ENGINE_TEMP_SPIKE(ENGINE_TEMP, "Engine temperature spike", "MEDIUM"),
+        BATTERY_LOW(BATTERY, "Battery level low", "MEDIUM"),
+        BATTERY_DROP(BATTERY, "Sudden battery drop", "MEDIUM"),
+        FUEL_LOW(FUEL, "Fuel level low", "LOW"),
+        FUEL_DROP(FUEL, "Sudden fuel drop", "MEDIUM");
+
+        final int metric;
+        final String issue;
+        final String severity;
+
+        Rule(int metric, String issue, String severity) {
+            this.metric = metric;
+            this.issue = issue;
+            this.severity = severity;
+        }
+    }
+
+    private static final Rule[] RULES = Rule.values();
+
+    @Autowired
+    private MaintenanceService maintenanceService;
+
+    @Autowired
+    private MaintenanceTicketRepository ticketRepo;
+
+    @Value("${health.anomaly.enabled:true}")
+    private boolean enabled;
+
+    @Value("${health.anomaly.alpha:0.1}")
+    private double alpha;
+
+    @Value("${health.anomaly.zThreshold:4.0}")
+    private double zThreshold;
+
+    @Value("${health.anomaly.zClear:1.5}")
+    private double zClear;
+
+    @Value("${health.anomaly.warmupSamples:20}")
+    private int warmupSamples;
+
+    @Value("${health.anomaly.raiseAfter:2}")
+    private int raiseAfter;
+
+    @Value("${health.anomaly.clearAfter:3}")
+    private int clearAfter;
+
+    @Value("${health.anomaly.cooldownMs:1800000}")
+    private long cooldownMs;
+
+    @Value("${health.anomaly.engineTempCritical:110.0}")
+    private double engineTempCritical;
+
+    @Value("${health.anomaly.engineTempClear:105.0}")
+    private double engineTempClear;
+
+    @Value("${health.anomaly.batteryLow:15.0}")
+    private double batteryLow;
+
+    @Value("${health.anomaly.batteryClear:20.0}")
+    private double batteryClear;
+
+    @Value("${health.anomaly.fuelLow:10.0}")
+    private double fuelLow;
+
+    @Value("${health.anomaly.fuelClear:15.0}")
+    private double fuelClear;
+
+    private final ConcurrentHashMap<Long, VehicleState> states = new ConcurrentHashMap<>();
+
+    // metrics
+    private final LongAdder evaluated = new LongAdder();
+    private final LongAdder alarmsRaised = new LongAdder();
+    private final LongAdder alarmsCleared = new LongAdder();
+    private final LongAdder ticketsOpened = new LongAdder();
+    private final LongAdder ticketsSuppressed = new LongAdder();
+    private final LongAdder ticketFailures = new LongAdder();
+
+    // Unresolved automatic tickets from before a restart keep deduplicating
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOpenTickets() {
+        Map<String, Rule> byIssue = new HashMap<>();
+        for (Rule rule : RULES) byIssue.put(rule.issue, rule);
+
+        int loaded = 0;
+        for (MaintenanceTicket t : ticketRepo.findByStatusNotAndIssueIn("RESOLVED", byIssue.keySet())) {
+            if (t.getVehicle() == null) continue;
+            VehicleState state = state(t.getVehicle().getId());
+            synchronized (state) {
+                state.ticketIds[byIssue.get(t.getIssue()).ordinal()] = t.getId();
+            }
+            loaded++;
+        }
+        System.out.println("Anomaly detector: " + loaded + " open automatic tickets loaded");
+    }
+
+    public void observe(HealthReading r) {
+        if (!enabled || r.getVehicleId() == null) return;
+        double[] values = {valueOf(r.getEngineTemp()), valueOf(r.getBatteryLevel()), valueOf(r.getFuelLevel())};
+
+        VehicleState state = state(r.getVehicleId());
+        List<Rule> raised = null;
+        synchronized (state) {
+            double[] z = state.update(values);
+            for (Rule rule : RULES) {
+                double x = values[rule.metric];
+                if (Double.isNaN(x)) continue;
+                if (state.step(rule.ordinal(), triggers(rule, x, z[rule.metric]), clears(rule, x, z[rule.metric]))) {
+                    if (raised == null) raised = new ArrayList<>(2);
+                    raised.add(rule);
+                }
+            }
+        }
+        evaluated.increment();
+        if (raised != null) {
+            for (Rule rule : raised) openTicket(r, state, rule, values[rule.metric]);
+        }
+    }
+
+    public void forget(Long vehicleId) {
+        states.remove(vehicleId);
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", enabled);
+        m.put("vehicles", states.size());
+        m.put("evaluated", evaluated.sum());
+        m.put("alarmsRaised", alarmsRaised.sum());
+        m.put("alarmsCleared", alarmsCleared.sum());
+        m.put("ticketsOpened", ticketsOpened.sum());
+        m.put("ticketsSuppressed", ticketsSuppressed.sum());
+        m.put("ticketFailures", ticketFailures.sum());
+        return m;
+    }
+
+    // ====== RULES ======
+
+    private boolean triggers(Rule rule, double x, double z) {
+        return switch (rule) {
+            case ENGINE_TEMP_CRITICAL -> x >= engineTempCritical;
+            case BATTERY_LOW -> x <= batteryLow;
+            case FUEL_LOW -> x <= fuelLow;
+            case ENGINE_TEMP_SPIKE -> z >= zThreshold;
+            case BATTERY_DROP, FUEL_DROP -> z <= -zThreshold;
+        };
+    }
+
+    private boolean clears(Rule rule, double x, double z) {
+        return switch (rule) {
+            case ENGINE_TEMP_CRITICAL -> x < engineTempClear;
+            case BATTERY_LOW -> x >= batteryClear;
+            case FUEL_LOW -> x >= fuelClear;
+            case ENGINE_TEMP_SPIKE -> z < zClear;
+            case BATTERY_DROP, FUEL_DROP -> z > -zClear;
+        };
+    }
+
+    private void openTicket(HealthReading r, VehicleState state, Rule rule, double value) {
+        alarmsRaised.increment();
+        int i = rule.ordinal();
+        Long previous;
+        synchronized (state) {
+            long now = System.currentTimeMillis();
+            if (now - state.lastTicketAt[i] < cooldownMs) {
+                ticketsSuppressed.increment();
+                return;
+            }
+            previous = state.ticketIds[i];
+            state.lastTicketAt[i] = now; // claim the slot so concurrent readings do not open a second ticket
+        }
+
+        try {
+            if (previous != null && ticketRepo.findById(previous).filter(t -> !"RESOLVED".equals(t.getStatus())).isPresent()) {
+                ticketsSuppressed.increment();
+                return;
+            }
+            String description = String.format("%s: %s at %.1f (reading %s)", rule.issue,
+                    rule.metric == ENGINE_TEMP ? "engine temperature" : rule.metric == BATTERY ? "battery level" : "fuel level",
+                    value, r.getTimestamp());
+            MaintenanceTicket ticket = maintenanceService.openAutomaticTicket(r.getVehicleId(), rule.issue, description, rule.severity);
+            if (ticket == null) return; // vehicle not in the database (e.g. load-test vehicles)
+            synchronized (state) {
+                state.ticketIds[i] = ticket.getId();
+            }
+            ticketsOpened.increment();
+        } catch (RuntimeException e) {
+            ticketFailures.increment();
+            System.err.println("Automatic ticket for vehicle " + r.getVehicleId() + " failed: " + e.getMessage());
+        }
+    }
+
+    private VehicleState state(Long vehicleId) {
+        return states.computeIfAbsent(vehicleId, id -> new VehicleState(this));
+    }
+
+    private static double valueOf(Double d) {
+        return d != null ? d : Double.NaN;
+    }
+
+    // Fixed-size per-vehicle state; guarded by its own monitor
+    private static final class VehicleState {
+        private final HealthAnomalyDetector config;
+
+        private final double[] mean = new double[METRICS];
+        private final double[] variance = new double[METRICS];
+        private final int[] samples = new int[METRICS];
+
+        private final boolean[] active = new boolean[RULES.length];
+        private final int[] streak = new int[RULES.length];
+        private final long[] lastTicketAt = new long[RULES.length];
+        private final Long[] ticketIds = new Long[RULES.length];
+
+        VehicleState(HealthAnomalyDetector config) {
+            this.config = config;
+        }
+
+        // z-scores against the current EWMA, then folds the values in (NaN = metric missing)
+        double[] update(double[] values) {
+            double[] z = new double[METRICS];
+            for (int m = 0; m < METRICS; m++) {
+                double x = values[m];
+                if (Double.isNaN(x)) continue;
+                if (samples[m] == 0) {
+                    mean[m] = x;
+                } else {
+                    if (samples[m] >= config.warmupSamples) {
+                        z[m] = (x - mean[m]) / Math.max(Math.sqrt(variance[m]), MIN_STD_DEV[m]);
+                    }
+                    double diff = x - mean[m];
+                    double increment = config.alpha * diff;
+                    mean[m] += increment;
+                    variance[m] = (1 - config.alpha) * (variance[m] + diff * increment);
+                }
+                if (samples[m] < Integer.MAX_VALUE) samples[m]++;
+            }
+            return z;
+        }
+
+        // Advances one alarm; returns true when it has just been raised
+        boolean step(int rule, boolean trigger, boolean clear) {
+            if (!active[rule]) {
+                streak[rule] = trigger ? streak[rule] + 1 : 0;
+                if (streak[rule] < config.raiseAfter) return false;
+                active[rule] = true;
+                streak[rule] = 0;
+                return true;
+            }
+            streak[rule] = clear ? streak[rule] + 1 : 0;
+            if (streak[rule] >= config.clearAfter) {
+                active[rule] = false;
+                streak[rule] = 0;
+                config.alarmsCleared.increment();
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.infosys.service.Health_Analytics;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/*
+ Purpose: Daily range partitions for raw health readings (health_readings) and their minute
+ rollups (health_readings_1m), so retention drops whole partitions instead of deleting rows.
+ Workflow:
+ 1. On startup (after Hibernate's schema update) a plain health_readings table is migrated once into a
+    table partitioned by timestamp; existing readings are copied into their daily partitions
+ 2. Partitions are created ahead for the next precreateDays days; a default partition catches
+    readings outside them, and its rows move out when the partition for their day is created
+ 3. HealthRollupService drops expired partitions through dropPartitionsBefore once they are rolled up
+*/
+@Component
+@DependsOn("entityManagerFactory")
+public class HealthPartitionManager {
+
+    public static final String RAW_TABLE = "health_readings";
+    public static final String MINUTE_TABLE = "health_readings_1m";
+    public static final String HOUR_TABLE = "health_readings_1h";
+
+    // columns aggregated by the rollups (min/avg/max each)
+    static final String[] METRICS = {"engine_temp", "tire_wear", "battery_level", "fuel_level", "mileage"};
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter BOUND = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final String RAW_COLUMNS =
+            "id, vehicle_id, engine_temp, tire_wear, battery_level, fuel_level, mileage, timestamp";
+
+    private static final String PARTITIONS_SQL =
+            "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+            "JOIN pg_class p ON p.oid = i.inhparent " +
+            "WHERE p.relname = ? AND p.relnamespace = current_schema()::regnamespace";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${health.partitions.precreateDays:3}")
+    private int precreateDays;
+
+    // names of the daily partitions known to exist
+    private final Set<String> partitions = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void init() {
+        String kind = relationKind(RAW_TABLE);
+        if (!"p".equals(kind)) {
+            transactionTemplate.executeWithoutResult(tx -> migrateRawTable(kind != null));
+        }
+        createRollupTables();
+
+        partitions.addAll(listPartitions(RAW_TABLE));
+        partitions.addAll(listPartitions(MINUTE_TABLE));
+        ensurePartitions();
+    }
+
+    // ====== PARTITION MAINTENANCE ======
+
+    // Keeps yesterday, today and the next precreateDays days partitioned for raw readings and minute rollups
+    @Scheduled(fixedDelayString = "${health.partitions.maintenanceIntervalMs:3600000}",
+            initialDelayString = "${health.partitions.maintenanceIntervalMs:3600000}")
+    public void ensurePartitions() {
+        LocalDate today = LocalDate.now();
+        try {
+            for (LocalDate day = today.minusDays(1); !day.isAfter(today.plusDays(precreateDays)); day = day.plusDays(1)) {
+                ensurePartition(RAW_TABLE, day);
+                ensurePartition(MINUTE_TABLE, day);
+            }
+        } catch (DataAccessException e) {
+            System.err.println("Health partition maintenance failed: " + e.getMessage());
+        }
+    }
+
+    public void ensurePartition(String table, LocalDate day) {
+        String name = partitionName(table, day);
+        if (partitions.contains(name)) return;
+
+        String column = timeColumn(table);
+        String start = day.atStartOfDay().format(BOUND);
+        String end = day.plusDays(1).atStartOfDay().format(BOUND);
+        String range = column + " >= '" + start + "' AND " + column + " < '" + end + "'";
+        String defaultPartition = table + "_default";
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            // rows of that day that landed in the default partition would block the new partition
+            Boolean stray = jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM " + defaultPartition + " WHERE " + range + ")", Boolean.class);
+            if (Boolean.TRUE.equals(stray)) {
+                jdbcTemplate.execute("CREATE TEMP TABLE partition_move ON COMMIT DROP AS " +
+                        "SELECT * FROM " + defaultPartition + " WHERE " + range);
+                jdbcTemplate.execute("DELETE FROM " + defaultPartition + " WHERE " + range);
+            }
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + table +
+                    " FOR VALUES FROM ('" + start + "') TO ('" + end + "')");
+            if (Boolean.TRUE.equals(stray)) {
+                jdbcTemplate.execute("INSERT INTO " + table + " SELECT * FROM partition_move");
+            }
+        });
+        partitions.add(name);
+    }
+
+    // Drops the daily partitions of table for days before cutoff (and matching default-partition rows)
+    public int dropPartitionsBefore(String table, LocalDate cutoff) {
+        int dropped = 0;
+        for (String name : listPartitions(table)) {
+            LocalDate day = partitionDay(table, name);
+            if (day == null || !day.isBefore(cutoff)) continue;
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + name);
+            partitions.remove(name);
+            dropped++;
+        }
+        jdbcTemplate.execute("DELETE FROM " + table + "_default WHERE " + timeColumn(table) +
+                " < '" + cutoff.atStartOfDay().format(BOUND) + "'");
+        return dropped;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("rawPartitions", countPartitions(RAW_TABLE));
+        m.put("minutePartitions", countPartitions(MINUTE_TABLE));
+        m.put("precreateDays", precreateDays);
+        return m;
+    }
+
+    // ====== SCHEMA ======
+
+    private void migrateRawTable(boolean legacyExists) {
+        if (legacyExists) jdbcTemplate.execute("ALTER TABLE " + RAW_TABLE + " RENAME TO health_readings_legacy");
+
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS health_readings_pk_seq");
+        jdbcTemplate.execute("CREATE TABLE " + RAW_TABLE + " (" +
+                "id BIGINT NOT NULL DEFAULT nextval('health_readings_pk_seq'), " +
+                "vehicle_id BIGINT, " +
+                "engine_temp DOUBLE PRECISION, tire_wear DOUBLE PRECISION, battery_level DOUBLE PRECISION, " +
+                "fuel_level DOUBLE PRECISION, mileage DOUBLE PRECISION, " +
+                "timestamp TIMESTAMP(6) NOT NULL, " +
+                "CONSTRAINT health_readings_part_pkey PRIMARY KEY (id, timestamp)" +
+                ") PARTITION BY RANGE (timestamp)");
+        jdbcTemplate.execute("ALTER SEQUENCE health_readings_pk_seq OWNED BY " + RAW_TABLE + ".id");
+        jdbcTemplate.execute("CREATE TABLE " + RAW_TABLE + "_default PARTITION OF " + RAW_TABLE + " DEFAULT");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_health_readings_vehicle_ts ON " + RAW_TABLE +
+                " (vehicle_id, timestamp)");
+        if (!legacyExists) return;
+
+        List<LocalDate> days = jdbcTemplate.queryForList(
+                "SELECT DISTINCT CAST(timestamp AS DATE) FROM health_readings_legacy WHERE timestamp IS NOT NULL",
+                LocalDate.class);
+        for (LocalDate day : days) ensurePartition(RAW_TABLE, day);
+
+        int copied = jdbcTemplate.update("INSERT INTO " + RAW_TABLE + " (" + RAW_COLUMNS + ") " +
+                "SELECT " + RAW_COLUMNS + " FROM health_readings_legacy WHERE timestamp IS NOT NULL");
+        Integer skipped = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM health_readings_legacy WHERE timestamp IS NULL", Integer.class);
+        jdbcTemplate.execute("SELECT setval('health_readings_pk_seq', " +
+                "(SELECT COALESCE(MAX(id), 0) + 1 FROM health_readings_legacy), false)");
+        jdbcTemplate.execute("DROP TABLE health_readings_legacy");
+
+        System.out.println("health_readings migrated to daily partitions: " + copied + " readings in " +
+                days.size() + " partitions, " + skipped + " readings without timestamp skipped");
+    }
+
+    private void createRollupTables() {
+        String columns = "vehicle_id BIGINT NOT NULL, bucket TIMESTAMP(6) NOT NULL, samples BIGINT NOT NULL, " +
+                Arrays.stream(METRICS)
+                        .map(m -> m + "_min DOUBLE PRECISION, " + m + "_avg DOUBLE PRECISION, " + m + "_max DOUBLE PRECISION")
+                        .collect(Collectors.joining(", ")) +
+                ", PRIMARY KEY (vehicle_id, bucket)";
+
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + MINUTE_TABLE + " (" + columns + ") PARTITION BY RANGE (bucket)");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + MINUTE_TABLE + "_default PARTITION OF " + MINUTE_TABLE + " DEFAULT");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + HOUR_TABLE + " (" + columns + ")");
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_health_readings_1h_bucket ON " + HOUR_TABLE + " (bucket)");
+    }
+
+    // 'p' = partitioned, 'r' = plain table, null = missing
+    private String relationKind(String table) {
+        List<String> kinds = jdbcTemplate.queryForList(
+                "SELECT relkind::text FROM pg_class WHERE relname = ? AND relnamespace = current_schema()::regnamespace",
+                String.class, table);
+        return kinds.isEmpty() ? null : kinds.get(0);
+    }
+
+    private List<String> listPartitions(String table) {
+        return jdbcTemplate.queryForList(PARTITIONS_SQL, String.class, table);
+    }
+
+    private long countPartitions(String table) {
+        String prefix = table + "_p";
+        return partitions.stream().filter(p -> p.startsWith(prefix)).count();
+    }
+
+    private static String partitionName(String table, LocalDate day) {
+        return table + "_p" + day.format(PARTITION_SUFFIX);
+    }
+
+    // null for the default partition or names this class did not create
+    private static LocalDate partitionDay(String table, String name) {
+        String prefix = table + "_p";
+        if (!name.startsWith(prefix)) return null;
+        try {
+            return LocalDate.parse(name.substring(prefix.length()), PARTITION_SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static String timeColumn(String table) {
+        return RAW_TABLE.equals(table) ? "timestamp" : "bucket";
+    }
+}
@@ -0,0 +1,242 @@
+package com.infosys.service.Health_Analytics;
+
+import com.infosys.dto.HealthHistoryPoint;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import static com.infosys.service.Health_Analytics.HealthPartitionManager.*;
+
+/*
+ Purpose: Background min/max/avg rollups of health readings into 1-minute and 1-hour buckets,
+ retention of raw and rolled-up data, and resolution choice for history queries.
+ Workflow:
+ 1. Every intervalMs the closed minutes since the last run (plus lateMinutes for late readings) are
+    aggregated from raw readings into health_readings_1m (upsert, so re-rolling is harmless)
+ 2. The hours touched by that run are re-aggregated from the minute rollups into health_readings_1h
+    (averages weighted by sample count)
+ 3. Raw partitions are dropped after rawDays, but never before they are rolled up; minute partitions
+    after minuteDays; hourly rows after hourDays
+ 4. History queries use raw readings for short recent ranges, minute rollups for ranges up to
+    minuteMaxDays and hourly rollups beyond that
+*/
+@Service
+public class HealthRollupService {
+
+    public enum Resolution { RAW, MINUTE, HOUR }
+
+    private static final String ROLLUP_COLUMNS = Arrays.stream(METRICS)
+            .map(m -> m + "_min, " + m + "_avg, " + m + "_max")
+            .collect(Collectors.joining(", "));
+
+    private static final String ROLLUP_UPDATES = "samples = EXCLUDED.samples, " + Arrays.stream(METRICS)
+            .map(m -> m + "_min = EXCLUDED." + m + "_min, " + m + "_avg = EXCLUDED." + m + "_avg, " +
+                    m + "_max = EXCLUDED." + m + "_max")
+            .collect(Collectors.joining(", "));
+
+    // minute aggregates straight from raw readings (also used for the not yet rolled-up tail of a query)
+    private static final String RAW_AGGREGATES = "count(*) AS samples, " + Arrays.stream(METRICS)
+            .map(m -> "min(" + m + ") AS " + m + "_min, avg(" + m + ") AS " + m + "_avg, max(" + m + ") AS " + m + "_max")
+            .collect(Collectors.joining(", "));
+
+    private static final String MINUTE_ROLLUP_SQL =
+            "INSERT INTO " + MINUTE_TABLE + " (vehicle_id, bucket, samples, " + ROLLUP_COLUMNS + ") " +
+            "SELECT vehicle_id, date_trunc('minute', timestamp), " + RAW_AGGREGATES +
+            " FROM " + RAW_TABLE + " WHERE timestamp >= ? AND timestamp < ? AND vehicle_id IS NOT NULL" +
+            " GROUP BY vehicle_id, date_trunc('minute', timestamp)" +
+            " ON CONFLICT (vehicle_id, bucket) DO UPDATE SET " + ROLLUP_UPDATES;
+
+    private static final String HOUR_ROLLUP_SQL =
+            "INSERT INTO " + HOUR_TABLE + " (vehicle_id, bucket, samples, " + ROLLUP_COLUMNS + ") " +
+            "SELECT vehicle_id, date_trunc('hour', bucket), sum(samples), " + Arrays.stream(METRICS)
+                    .map(m -> "min(" + m + "_min), sum(" + m + "_avg * samples) / " +
+                            "NULLIF(sum(CASE WHEN " + m + "_avg IS NULL THEN 0 ELSE samples END), 0), max(" + m + "_max)")
+                    .collect(Collectors.joining(", ")) +
+            " FROM " + MINUTE_TABLE + " WHERE bucket >= ? AND bucket < ?" +
+            " GROUP BY vehicle_id, date_trunc('hour', bucket)" +
+            " ON CONFLICT (vehicle_id, bucket) DO UPDATE SET " + ROLLUP_UPDATES;
+
+    private static final String RAW_TAIL_SQL =
+            "SELECT date_trunc('minute', timestamp) AS bucket, " + RAW_AGGREGATES +
+            " FROM " + RAW_TABLE + " WHERE vehicle_id = ? AND timestamp >= ? AND timestamp < ?" +
+            " GROUP BY 1 ORDER BY 1";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private HealthPartitionManager partitions;
+
+    @Value("${health.rollup.lateMinutes:5}")
+    private int lateMinutes;
+
+    @Value("${health.rollup.maxChunkMinutes:1440}")
+    private int maxChunkMinutes;
+
+    @Value("${health.retention.rawDays:7}")
+    private int rawDays;
+
+    @Value("${health.retention.minuteDays:30}")
+    private int minuteDays;
+
+    @Value("${health.retention.hourDays:365}")
+    private int hourDays;
+
+    @Value("${health.query.rawMaxHours:6}")
+    private int rawMaxHours;
+
+    @Value("${health.query.minuteMaxDays:7}")
+    private int minuteMaxDays;
+
+    // minute rollups are complete for readings before this (except readings arriving later than lateMinutes)
+    private volatile LocalDateTime rolledUntil;
+
+    // metrics
+    private final LongAdder runs = new LongAdder();
+    private final LongAdder rolledBuckets = new LongAdder();
+    private final LongAdder failedRuns = new LongAdder();
+    private final LongAdder droppedPartitions = new LongAdder();
+    private volatile long lastRunDurationMs;
+
+    @PostConstruct
+    public void init() {
+        // the hourly table is small and indexed on bucket; its newest hour is the one the last run touched
+        Timestamp lastHour = jdbcTemplate.queryForObject("SELECT MAX(bucket) FROM " + HOUR_TABLE, Timestamp.class);
+        if (lastHour != null) {
+            rolledUntil = lastHour.toLocalDateTime();
+        } else {
+            Timestamp firstReading = jdbcTemplate.queryForObject("SELECT MIN(timestamp) FROM " + RAW_TABLE, Timestamp.class);
+            rolledUntil = firstReading != null
+                    ? firstReading.toLocalDateTime().truncatedTo(ChronoUnit.MINUTES)
+                    : LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        }
+    }
+
+    // ====== ROLLUPS ======
+
+    @Scheduled(fixedDelayString = "${health.rollup.intervalMs:60000}")
+    public void rollup() {
+        long started = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime start = rolledUntil.minusMinutes(lateMinutes);
+        LocalDateTime oldestKept = now.minusDays(minuteDays);
+        if (start.isBefore(oldestKept)) start = oldestKept;
+        LocalDateTime end = now;
+        if (end.isAfter(start.plusMinutes(maxChunkMinutes))) end = start.plusMinutes(maxChunkMinutes); // catching up
+        if (!start.isBefore(end)) return;
+
+        try {
+            for (LocalDate day = start.toLocalDate(); !day.isAfter(end.toLocalDate()); day = day.plusDays(1)) {
+                partitions.ensurePartition(MINUTE_TABLE, day);
+            }
+            rolledBuckets.add(jdbcTemplate.update(MINUTE_ROLLUP_SQL, Timestamp.valueOf(start), Timestamp.valueOf(end)));
+            jdbcTemplate.update(HOUR_ROLLUP_SQL,
+                    Timestamp.valueOf(start.truncatedTo(ChronoUnit.HOURS)), Timestamp.valueOf(end));
+            if (end.isAfter(rolledUntil)) rolledUntil = end;
+            runs.increment();
+        } catch (DataAccessException e) {
+            failedRuns.increment();
+            System.err.println("Health rollup failed: " + e.getMessage());
+        } finally {
+            lastRunDurationMs = System.currentTimeMillis() - started;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${health.partitions.maintenanceIntervalMs:3600000}")
+    public void enforceRetention() {
+        LocalDate today = LocalDate.now();
+        LocalDate rawCutoff = today.minusDays(rawDays);
+        // a day may only go once the minute rollups cover all of it
+        if (rolledUntil.toLocalDate().isBefore(rawCutoff)) rawCutoff = rolledUntil.toLocalDate();
+
+        try {
+            droppedPartitions.add(partitions.dropPartitionsBefore(RAW_TABLE, rawCutoff));
+            droppedPartitions.add(partitions.dropPartitionsBefore(MINUTE_TABLE, today.minusDays(minuteDays)));
+            jdbcTemplate.update("DELETE FROM " + HOUR_TABLE + " WHERE bucket < ?",
+                    Timestamp.valueOf(today.minusDays(hourDays).atStartOfDay()));
+        } catch (DataAccessException e) {
+            System.err.println("Health retention failed: " + e.getMessage());
+        }
+    }
+
+    // ====== QUERIES ======
+
+    // Finest resolution that is still retained for the range and keeps the result reasonably small
+    public Resolution resolutionFor(LocalDateTime from, LocalDateTime to) {
+        LocalDateTime now = LocalDateTime.now();
+        Duration span = Duration.between(from, to);
+        if (span.compareTo(Duration.ofHours(rawMaxHours)) <= 0 && !from.isBefore(now.minusDays(rawDays))) {
+            return Resolution.RAW;
+        }
+        if (span.compareTo(Duration.ofDays(minuteMaxDays)) <= 0 && !from.isBefore(now.minusDays(minuteDays))) {
+            return Resolution.MINUTE;
+        }
+        return Resolution.HOUR;
+    }
+
+    // Rolled-up series of a vehicle, oldest first; minutes not rolled up yet are aggregated from raw readings
+    public List<HealthHistoryPoint> series(Long vehicleId, Resolution resolution, LocalDateTime from, LocalDateTime to) {
+        if (resolution == Resolution.RAW) throw new RuntimeException("Raw readings are not rolled up");
+        String table = resolution == Resolution.MINUTE ? MINUTE_TABLE : HOUR_TABLE;
+        LocalDateTime start = from.truncatedTo(resolution == Resolution.MINUTE ? ChronoUnit.MINUTES : ChronoUnit.HOURS);
+
+        LocalDateTime rolled = rolledUntil;
+        LocalDateTime rollupEnd = resolution == Resolution.MINUTE && to.isAfter(rolled) ? rolled : to;
+        List<HealthHistoryPoint> points = new ArrayList<>(jdbcTemplate.query(
+                "SELECT bucket, samples, " + ROLLUP_COLUMNS + " FROM " + table +
+                " WHERE vehicle_id = ? AND bucket >= ? AND bucket < ? ORDER BY bucket",
+                POINT_MAPPER, vehicleId, Timestamp.valueOf(start), Timestamp.valueOf(rollupEnd)));
+
+        if (rollupEnd.isBefore(to)) {
+            LocalDateTime tailStart = start.isAfter(rollupEnd) ? start : rollupEnd;
+            points.addAll(jdbcTemplate.query(RAW_TAIL_SQL, POINT_MAPPER,
+                    vehicleId, Timestamp.valueOf(tailStart), Timestamp.valueOf(to)));
+        }
+        return points;
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("rolledUntil", rolledUntil);
+        m.put("runs", runs.sum());
+        m.put("failedRuns", failedRuns.sum());
+        m.put("rolledBuckets", rolledBuckets.sum());
+        m.put("lastRunDurationMs", lastRunDurationMs);
+        m.put("droppedPartitions", droppedPartitions.sum());
+        m.put("retention", Map.of("rawDays", rawDays, "minuteDays", minuteDays, "hourDays", hourDays));
+        m.put("partitions", partitions.getMetrics());
+        return m;
+    }
+
+    private static final RowMapper<HealthHistoryPoint> POINT_MAPPER = (rs, i) -> new HealthHistoryPoint(
+            rs.getTimestamp("bucket").toLocalDateTime(),
+            rs.getLong("samples"),
+            stat(rs, "engine_temp"),
+            stat(rs, "tire_wear"),
+            stat(rs, "battery_level"),
+            stat(rs, "fuel_level"),
+            stat(rs, "mileage"));
+
+    private static HealthHistoryPoint.Stat stat(ResultSet rs, String metric) throws SQLException {
+        return new HealthHistoryPoint.Stat(
+                rs.getObject(metric + "_min", Double.class),
+                rs.getObject(metric + "_avg", Double.class),
+                rs.getObject(metric + "_max", Double.class));
+    }
+}
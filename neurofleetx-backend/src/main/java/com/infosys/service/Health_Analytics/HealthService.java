@@ -1,11 +1,15 @@
 package com.infosys.service.Health_Analytics;
 
+import com.infosys.dto.HealthHistoryResponse;
 import com.infosys.model.Health_Analytics.HealthReading;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface HealthService {
     HealthReading ingest(HealthReading reading); // persist a reading
     List<HealthReading> getRecentReadings(Long vehicleId, int limit);
-    List<HealthReading> getAllReadingsForVehicle(Long vehicleId);
+    List<HealthReading> getAllReadingsForVehicle(Long vehicleId); // raw readings still within retention
+    HealthHistoryResponse getHistory(Long vehicleId, LocalDateTime from, LocalDateTime to); // raw or rolled up, by range
+    long purgeVehiclesFrom(long firstVehicleId); // load test: drop readings, rollups and windows of ids >= firstVehicleId
 }
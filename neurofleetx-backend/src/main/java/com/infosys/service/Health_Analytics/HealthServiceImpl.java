@@ -1,10 +1,14 @@
 package com.infosys.service.Health_Analytics;
 
+import com.infosys.dto.HealthHistoryPoint;
+import com.infosys.dto.HealthHistoryResponse;
 import com.infosys.model.Health_Analytics.HealthReading;
 import com.infosys.repository.Health_Analytics.HealthReadingRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -13,9 +17,40 @@ public class HealthServiceImpl implements HealthService {
     @Autowired
     private HealthReadingRepository readingRepo;
 
+    @Autowired
+    private HealthWindowStore healthWindows;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private HealthRollupService rollups;
+
+    @Autowired
+    private HealthAnomalyDetector anomalyDetector;
+
     @Override
     public HealthReading ingest(HealthReading reading) {
-        return readingRepo.save(reading);
+        if (reading.getTimestamp() == null) reading.setTimestamp(LocalDateTime.now()); // partition key
+        HealthReading saved = readingRepo.save(reading);
+        healthWindows.observe(saved); // keep the rolling trend window current
+        anomalyDetector.observe(saved);
+        return saved;
+    }
+
+    @Override
+    public long purgeVehiclesFrom(long firstVehicleId) {
+        long deleted = 0;
+        for (String table : new String[]{HealthPartitionManager.RAW_TABLE, HealthPartitionManager.MINUTE_TABLE,
+                HealthPartitionManager.HOUR_TABLE}) {
+            deleted += jdbcTemplate.update("DELETE FROM " + table + " WHERE vehicle_id >= ?", firstVehicleId);
+        }
+        for (long vehicleId : healthWindows.vehicleIds()) {
+            if (vehicleId < firstVehicleId) continue;
+            healthWindows.forget(vehicleId);
+            anomalyDetector.forget(vehicleId);
+        }
+        return deleted;
     }
 
     @Override
@@ -29,4 +64,28 @@ public class HealthServiceImpl implements HealthService {
     public List<HealthReading> getAllReadingsForVehicle(Long vehicleId) {
         return readingRepo.findByVehicleIdOrderByTimestampDesc(vehicleId);
     }
+
+    @Override
+    public HealthHistoryResponse getHistory(Long vehicleId, LocalDateTime from, LocalDateTime to) {
+        if (to == null) to = LocalDateTime.now();
+        if (from == null) from = to.minusHours(1);
+        if (from.isAfter(to)) throw new RuntimeException("'from' must not be after 'to'");
+
+        HealthRollupService.Resolution resolution = rollups.resolutionFor(from, to);
+        List<HealthHistoryPoint> points = resolution == HealthRollupService.Resolution.RAW
+                ? readingRepo.findByVehicleIdAndTimestampBetweenOrderByTimestampAsc(vehicleId, from, to)
+                        .stream().map(this::toPoint).toList()
+                : rollups.series(vehicleId, resolution, from, to);
+        return new HealthHistoryResponse(vehicleId, resolution.name(), from, to, points);
+    }
+
+    private HealthHistoryPoint toPoint(HealthReading r) {
+        return new HealthHistoryPoint(r.getTimestamp(), 1,
+                single(r.getEngineTemp()), single(r.getTireWear()), single(r.getBatteryLevel()),
+                single(r.getFuelLevel()), single(r.getMileage()));
+    }
+
+    private static HealthHistoryPoint.Stat single(Double value) {
+        return new HealthHistoryPoint.Stat(value, value, value);
+    }
 }
@@ -1,60 +1,92 @@
 package com.infosys.service.Health_Analytics;
 
 import com.infosys.model.Health_Analytics.HealthReading;
-import com.infosys.model.Vehicle;
-import com.infosys.repository.Health_Analytics.HealthReadingRepository;
-import com.infosys.repository.VehicleRepository;
+import com.infosys.service.Fleet.FleetStateStore;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
 /*
   Purpose: If no live IoT input exists, this simulator periodically generates health readings
   for each vehicle and triggers the maintenance evaluation logic.
+  The readings continue from the live fleet state (not from the database rows, which lag behind the
+  telemetry write-behind); the vehicle summary columns are written with one batched UPDATE per run.
 */
 @Component
 public class HealthSimulator {
 
+    private static final String SUMMARY_SQL =
+            "UPDATE vehicles SET battery_level = ?, fuel_level = ?, tire_wear = ?, mileage = ? WHERE id = ?";
+
     @Autowired
-    private VehicleRepository vehicleRepo;
+    private JdbcTemplate jdbcTemplate;
 
     @Autowired
-    private HealthReadingRepository readingRepo;
+    private HealthService healthService;
 
     @Autowired
     private MaintenanceService maintenanceService;
 
+    @Autowired
+    private FleetStateStore fleetState;
+
+    @Value("${simulator.enabled:true}")
+    private boolean enabled;
+
     private Random rand = new Random();
 
     // runs every 30 seconds for demo (tune for production)
     @Scheduled(fixedRate = 30000)
     public void simulate() {
-        List<Vehicle> vehicles = vehicleRepo.findAll();
-        for (Vehicle v : vehicles) {
-            HealthReading r = HealthReading.builder()
-                    .vehicleId(v.getId())
+        if (!enabled) return; // switched off for load tests (simulator.enabled=false)
+
+        // snapshot the live values; ingestion and evaluation must not run under the store's read lock
+        List<HealthReading> readings = new ArrayList<>();
+        fleetState.forEach(slot -> {
+            if (fleetState.isSynthetic(slot)) return; // load-test vehicles have no database row
+            double tireWear = fleetState.tireWear(slot);
+            double battery = fleetState.battery(slot);
+            double fuel = fleetState.fuel(slot);
+            double mileage = fleetState.mileage(slot);
+            readings.add(HealthReading.builder()
+                    .vehicleId(fleetState.vehicleId(slot))
                     .engineTemp(70 + rand.nextDouble() * 50) // 70-120C
-                    .tireWear(Math.min(100, Math.max(0, (v.getTireWear() != null ? v.getTireWear() : 10) + rand.nextDouble()*2))) // increments
-                    .batteryLevel(Math.max(0, (v.getBatteryLevel() != null ? v.getBatteryLevel() : 80) - rand.nextDouble()*1.5))
-                    .fuelLevel(Math.max(0, (v.getFuelLevel() != null ? v.getFuelLevel() : 60) - rand.nextDouble()*0.8))
-                    .mileage((v.getMileage() != null ? v.getMileage() : 0) + rand.nextDouble() * 5)
+                    .tireWear(Math.min(100, Math.max(0, tireWear + rand.nextDouble() * 2))) // increments
+                    .batteryLevel(Math.max(0, battery - rand.nextDouble() * 1.5))
+                    .fuelLevel(Math.max(0, fuel - rand.nextDouble() * 0.8))
+                    .mileage((Double.isNaN(mileage) ? 0 : mileage) + rand.nextDouble() * 5)
                     .timestamp(LocalDateTime.now())
-                    .build();
-            readingRepo.save(r);
+                    .build());
+        });
 
-            // update vehicle summary fields (optional)
-            v.setBatteryLevel(r.getBatteryLevel());
-            v.setFuelLevel(r.getFuelLevel());
-            v.setTireWear(r.getTireWear());
-            v.setMileage(r.getMileage());
-            vehicleRepo.save(v);
+        for (HealthReading r : readings) {
+            healthService.ingest(r);
+            fleetState.updateHealth(r.getVehicleId(), r.getBatteryLevel(), r.getFuelLevel(), r.getTireWear(), r.getMileage());
 
             // evaluate for maintenance
-            maintenanceService.evaluateHealthForVehicle(v.getId());
+            maintenanceService.evaluateHealthForVehicle(r.getVehicleId());
+        }
+
+        // update vehicle summary fields (optional)
+        try {
+            jdbcTemplate.batchUpdate(SUMMARY_SQL, readings, 500, (ps, r) -> {
+                ps.setDouble(1, r.getBatteryLevel());
+                ps.setDouble(2, r.getFuelLevel());
+                ps.setDouble(3, r.getTireWear());
+                ps.setDouble(4, r.getMileage());
+                ps.setLong(5, r.getVehicleId());
+            });
+        } catch (DataAccessException e) {
+            // the live state already has the values; the columns are written next run
+            System.err.println("Health summary update failed: " + e.getMessage());
         }
     }
 }
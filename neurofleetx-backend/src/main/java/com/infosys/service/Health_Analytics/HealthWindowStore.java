@@ -0,0 +1,254 @@
+package com.infosys.service.Health_Analytics;
+
+import com.infosys.model.Health_Analytics.HealthReading;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+ Purpose: Rolling window of recent health readings per vehicle, kept in memory so trend
+ predictions need no database read.
+ Workflow:
+ 1. Each vehicle has a fixed-size ring buffer of its last windowSize readings (primitive arrays)
+ 2. Running least-squares sums (n, sum t, sum t^2, sum y, sum t*y) are kept for tire wear, battery and
+    mileage against time in days; a new reading adds itself and removes the evicted one in O(1)
+ 3. Whenever the ring wraps, the sums are recomputed from the buffer around a new time origin
+    (amortized O(1)) so add/remove rounding error cannot build up
+ 4. On startup the windows are rebuilt from the latest windowSize readings of every vehicle in one query
+ 5. Mileage is an odometer: a reading without it repeats the last known value (readings before the first
+    known value take that value), and a vehicle whose mileage was never reported reports NaN
+*/
+@Component
+public class HealthWindowStore {
+
+    public static final int TIRE_WEAR = 0;
+    public static final int BATTERY = 1;
+    public static final int MILEAGE = 2;
+    private static final int SERIES = 3;
+
+    private static final double MILLIS_PER_DAY = 86_400_000.0;
+
+    // latest readings per vehicle, oldest first
+    private static final String WINDOW_SQL =
+            "SELECT vehicle_id, timestamp, engine_temp, tire_wear, battery_level, fuel_level, mileage FROM (" +
+            " SELECT hr.*, ROW_NUMBER() OVER (PARTITION BY vehicle_id ORDER BY timestamp DESC) AS rn" +
+            " FROM health_readings hr WHERE vehicle_id IS NOT NULL AND timestamp IS NOT NULL) w" +
+            " WHERE rn <= ? ORDER BY vehicle_id, timestamp";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${health.window.size:32}")
+    private int windowSize;
+
+    private final ConcurrentHashMap<Long, Window> windows = new ConcurrentHashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        windows.clear();
+        int[] rows = new int[1];
+        jdbcTemplate.query(WINDOW_SQL, rs -> {
+            Timestamp ts = rs.getTimestamp("timestamp");
+            double mileage = rs.getDouble("mileage");
+            if (rs.wasNull()) mileage = Double.NaN;
+            window(rs.getLong("vehicle_id")).add(ts.getTime(),
+                    rs.getDouble("tire_wear"), rs.getDouble("battery_level"), mileage,
+                    rs.getDouble("engine_temp"), rs.getDouble("fuel_level"));
+            rows[0]++;
+        }, windowSize);
+        System.out.println("Health windows rebuilt: " + windows.size() + " vehicles, " + rows[0] + " readings");
+    }
+
+    // O(1) update with a new (persisted) reading
+    public void observe(HealthReading r) {
+        if (r.getVehicleId() == null) return;
+        LocalDateTime at = r.getTimestamp() != null ? r.getTimestamp() : LocalDateTime.now();
+        window(r.getVehicleId()).add(at.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(),
+                orZero(r.getTireWear()), orZero(r.getBatteryLevel()), r.getMileage() != null ? r.getMileage() : Double.NaN,
+                orZero(r.getEngineTemp()), orZero(r.getFuelLevel()));
+    }
+
+    // Current trend of a vehicle, or null when it has no readings
+    public HealthTrend trend(Long vehicleId) {
+        Window w = windows.get(vehicleId);
+        return w == null ? null : w.trend();
+    }
+
+    // Writes the RulModel feature vector of a vehicle at out[offset..]; false when it has fewer than minSamples readings
+    public boolean features(long vehicleId, int minSamples, double[] out, int offset) {
+        Window w = windows.get(vehicleId);
+        return w != null && w.features(minSamples, out, offset);
+    }
+
+    // Vehicles with a window (snapshot)
+    public long[] vehicleIds() {
+        return windows.keySet().stream().mapToLong(Long::longValue).toArray();
+    }
+
+    public void forget(Long vehicleId) {
+        windows.remove(vehicleId);
+    }
+
+    public int vehicleCount() {
+        return windows.size();
+    }
+
+    private Window window(long vehicleId) {
+        return windows.computeIfAbsent(vehicleId, id -> new Window(windowSize));
+    }
+
+    private static double orZero(Double d) {
+        return d != null ? d : 0.0;
+    }
+
+    /*
+     Snapshot of a vehicle's window: latest values, engine temperature mean/max over the window and
+     least-squares slopes per day. Slopes are NaN with fewer than two readings or when all readings
+     share one timestamp; mileage is NaN when the vehicle never reported it.
+    */
+    public record HealthTrend(int samples, long latestAt, double tireWear, double battery, double mileage,
+                              double engineTemp, double fuel, double engineTempMean, double engineTempMax,
+                              double tireWearPerDay, double batteryPerDay, double mileagePerDay) {
+    }
+
+    // package-private so RulModelTrainer can replay stored readings through the same window
+    static final class Window {
+        private final long[] at;
+        private final double[][] values = new double[SERIES][];
+        private final double[] engineTemp;
+        private final double[] fuel;
+        private int head;       // next write position
+        private int size;
+        private boolean mileageKnown;
+
+        // least-squares sums over the window, t in days since origin
+        private long origin;
+        private double sumT;
+        private double sumTT;
+        private final double[] sumY = new double[SERIES];
+        private final double[] sumTY = new double[SERIES];
+
+        Window(int capacity) {
+            at = new long[capacity];
+            for (int s = 0; s < SERIES; s++) values[s] = new double[capacity];
+            engineTemp = new double[capacity];
+            fuel = new double[capacity];
+        }
+
+        // mileage NaN = not reported with this reading
+        synchronized void add(long timestamp, double tireWear, double battery, double mileage, double temp, double fuelLevel) {
+            int capacity = at.length;
+            if (size == 0) origin = timestamp;
+            if (size == capacity) remove(head); // evict the oldest, which sits at the write position
+
+            boolean backfilled = false;
+            if (Double.isNaN(mileage)) {
+                mileage = mileageKnown ? values[MILEAGE][(head - 1 + capacity) % capacity] : 0.0;
+            } else if (!mileageKnown) {
+                mileageKnown = true;
+                Arrays.fill(values[MILEAGE], mileage); // earlier readings in the window had none
+                backfilled = size > 0;
+            }
+
+            at[head] = timestamp;
+            values[TIRE_WEAR][head] = tireWear;
+            values[BATTERY][head] = battery;
+            values[MILEAGE][head] = mileage;
+            engineTemp[head] = temp;
+            fuel[head] = fuelLevel;
+            include(head);
+
+            head = (head + 1) % capacity;
+            if (size < capacity) size++;
+            if (head == 0 || backfilled) recompute();
+        }
+
+        private void include(int i) {
+            double t = (at[i] - origin) / MILLIS_PER_DAY;
+            sumT += t;
+            sumTT += t * t;
+            for (int s = 0; s < SERIES; s++) {
+                sumY[s] += values[s][i];
+                sumTY[s] += t * values[s][i];
+            }
+        }
+
+        private void remove(int i) {
+            double t = (at[i] - origin) / MILLIS_PER_DAY;
+            sumT -= t;
+            sumTT -= t * t;
+            for (int s = 0; s < SERIES; s++) {
+                sumY[s] -= values[s][i];
+                sumTY[s] -= t * values[s][i];
+            }
+        }
+
+        // fresh sums around the oldest reading in the window
+        private void recompute() {
+            int oldest = size == at.length ? head : 0;
+            origin = at[oldest];
+            sumT = 0;
+            sumTT = 0;
+            for (int s = 0; s < SERIES; s++) {
+                sumY[s] = 0;
+                sumTY[s] = 0;
+            }
+            for (int k = 0; k < size; k++) include((oldest + k) % at.length);
+        }
+
+        private double slope(int series) {
+            double denominator = size * sumTT - sumT * sumT;
+            if (size < 2 || Math.abs(denominator) < 1e-12) return Double.NaN;
+            return (size * sumTY[series] - sumT * sumY[series]) / denominator;
+        }
+
+        synchronized boolean features(int minSamples, double[] out, int o) {
+            if (size < minSamples) return false;
+            int latest = (head - 1 + at.length) % at.length;
+            double tempSum = 0;
+            double tempMax = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < size; i++) {
+                tempSum += engineTemp[i];
+                tempMax = Math.max(tempMax, engineTemp[i]);
+            }
+            out[o + RulModel.F_TIRE_WEAR] = values[TIRE_WEAR][latest];
+            out[o + RulModel.F_TIRE_WEAR_PER_DAY] = finite(slope(TIRE_WEAR));
+            out[o + RulModel.F_ENGINE_TEMP] = engineTemp[latest];
+            out[o + RulModel.F_ENGINE_TEMP_MEAN] = tempSum / size;
+            out[o + RulModel.F_ENGINE_TEMP_MAX] = tempMax;
+            out[o + RulModel.F_BATTERY] = values[BATTERY][latest];
+            out[o + RulModel.F_BATTERY_PER_DAY] = finite(slope(BATTERY));
+            out[o + RulModel.F_FUEL] = fuel[latest];
+            out[o + RulModel.F_MILEAGE_KKM] = mileageKnown ? values[MILEAGE][latest] / 1000.0 : 0.0;
+            out[o + RulModel.F_MILEAGE_PER_DAY] = finite(slope(MILEAGE));
+            return true;
+        }
+
+        private static double finite(double v) {
+            return Double.isFinite(v) ? v : 0.0;
+        }
+
+        synchronized HealthTrend trend() {
+            int latest = (head - 1 + at.length) % at.length;
+            double tempSum = 0;
+            double tempMax = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < size; i++) {
+                tempSum += engineTemp[i];
+                tempMax = Math.max(tempMax, engineTemp[i]);
+            }
+            return new HealthTrend(size, at[latest],
+                    values[TIRE_WEAR][latest], values[BATTERY][latest], mileageKnown ? values[MILEAGE][latest] : Double.NaN,
+                    engineTemp[latest], fuel[latest], tempSum / size, tempMax,
+                    slope(TIRE_WEAR), slope(BATTERY), slope(MILEAGE));
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.infosys.service.Health_Analytics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+/*
+ Purpose: Linear remaining-useful-life model, one weight vector per component:
+   rul[c] = clamp(intercept[c] + sum_k weights[c][k] * feature[k], 0, maxDays)
+ Coefficients live in a JSON file written by RulModelTrainer (or by hand); weights are copied into
+ one flat array so batch scoring is a tight loop over primitives.
+*/
+public final class LinearRulModel implements RulModel {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Coefficients coefficients;
+    private final double[] weights;      // [component * FEATURES + feature]
+    private final double[] intercepts;
+    private final double maxDays;
+
+    public LinearRulModel(Coefficients coefficients) {
+        if (coefficients.getWeights() == null || coefficients.getWeights().length != COMPONENTS
+                || coefficients.getIntercepts() == null || coefficients.getIntercepts().length != COMPONENTS) {
+            throw new IllegalArgumentException("RUL model needs " + COMPONENTS + " components");
+        }
+        if (coefficients.getFeatures() != null && !Arrays.equals(coefficients.getFeatures(), FEATURE_NAMES)) {
+            throw new IllegalArgumentException("RUL model features " + Arrays.toString(coefficients.getFeatures())
+                    + " do not match " + Arrays.toString(FEATURE_NAMES));
+        }
+        this.coefficients = coefficients;
+        this.weights = new double[COMPONENTS * FEATURES];
+        for (int c = 0; c < COMPONENTS; c++) {
+            if (coefficients.getWeights()[c].length != FEATURES) {
+                throw new IllegalArgumentException("RUL model component " + COMPONENT_NAMES[c] + " needs " + FEATURES + " weights");
+            }
+            System.arraycopy(coefficients.getWeights()[c], 0, weights, c * FEATURES, FEATURES);
+        }
+        this.intercepts = coefficients.getIntercepts().clone();
+        this.maxDays = coefficients.getMaxDays() > 0 ? coefficients.getMaxDays() : 365.0;
+    }
+
+    public static LinearRulModel load(Path file) throws IOException {
+        return new LinearRulModel(MAPPER.readValue(file.toFile(), Coefficients.class));
+    }
+
+    public void save(Path file) throws IOException {
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        MAPPER.writeValue(tmp.toFile(), coefficients);
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public Coefficients coefficients() {
+        return coefficients;
+    }
+
+    @Override
+    public String name() {
+        return "linear";
+    }
+
+    @Override
+    public void predict(double[] features, int count, double[] out) {
+        for (int row = 0; row < count; row++) {
+            int f = row * FEATURES;
+            int o = row * COMPONENTS;
+            for (int c = 0; c < COMPONENTS; c++) {
+                double y = intercepts[c];
+                int w = c * FEATURES;
+                for (int k = 0; k < FEATURES; k++) y += weights[w + k] * features[f + k];
+                out[o + c] = y < 0 ? 0 : Math.min(y, maxDays);
+            }
+        }
+    }
+
+    // Coefficient file contents
+    @Data
+    @NoArgsConstructor
+    public static class Coefficients {
+        private String type = "linear";
+        private String trainedAt;
+        private String[] features = FEATURE_NAMES;
+        private String[] components = COMPONENT_NAMES;
+        private double[] intercepts;
+        private double[][] weights;       // [component][feature]
+        private long[] trainingRows;      // per component
+        private double[] rmseDays;        // training error per component
+        private double maxDays = 365.0;
+    }
+}
@@ -0,0 +1,197 @@
+package com.infosys.service.Health_Analytics;
+
+import com.infosys.model.Health_Analytics.MaintenancePrediction;
+import com.infosys.repository.Health_Analytics.HealthPredictionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ Purpose: Latest maintenance prediction per vehicle and reason, with change-only persistence.
+ Workflow:
+ 1. Every new prediction replaces the cached one (readers always see the latest value)
+ 2. A row is written to maintenance_predictions only when daysToService moved more than the tolerance
+    since the last written row, or that row is older than maxAgeMs
+ 3. A skip list ordered by daysToService answers "due within N days" in O(log n + k)
+ 4. On startup the cache is loaded with the latest persisted row per vehicle and reason
+*/
+@Component
+public class MaintenancePredictionCache {
+
+    private static final String LATEST_SQL =
+            "SELECT DISTINCT ON (vehicle_id, reason) id, vehicle_id, predicted_at, days_to_service, reason " +
+            "FROM maintenance_predictions WHERE vehicle_id IS NOT NULL AND days_to_service IS NOT NULL " +
+            "ORDER BY vehicle_id, reason, predicted_at DESC";
+
+    @Autowired
+    private HealthPredictionRepository predictionRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${maintenance.prediction.toleranceDays:0.5}")
+    private double toleranceDays;
+
+    @Value("${maintenance.prediction.toleranceRatio:0.05}")
+    private double toleranceRatio;
+
+    @Value("${maintenance.prediction.maxAgeMs:3600000}")
+    private long maxAgeMs;
+
+    private final ConcurrentHashMap<Long, Map<String, Entry>> byVehicle = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<IndexKey> byDaysToService = new ConcurrentSkipListSet<>();
+
+    // metrics
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder written = new LongAdder();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        jdbcTemplate.query(LATEST_SQL, rs -> {
+            MaintenancePrediction p = MaintenancePrediction.builder()
+                    .id(rs.getLong("id"))
+                    .vehicleId(rs.getLong("vehicle_id"))
+                    .predictedAt(rs.getTimestamp("predicted_at") != null ? rs.getTimestamp("predicted_at").toLocalDateTime() : null)
+                    .daysToService(rs.getDouble("days_to_service"))
+                    .reason(rs.getString("reason"))
+                    .build();
+            put(p, p.getPredictedAt() != null ? toMillis(p.getPredictedAt()) : 0L);
+        });
+        System.out.println("Maintenance prediction cache loaded: " + byDaysToService.size() + " predictions");
+    }
+
+    // Caches the prediction and persists it only if it changed meaningfully or the last row is too old
+    public MaintenancePrediction record(Long vehicleId, String reason, double daysToService) {
+        recorded.increment();
+        LocalDateTime now = LocalDateTime.now();
+        Map<String, Entry> reasons = byVehicle.computeIfAbsent(vehicleId, id -> new HashMap<>());
+
+        synchronized (reasons) {
+            Entry previous = reasons.get(reason);
+            MaintenancePrediction p = MaintenancePrediction.builder()
+                    .vehicleId(vehicleId)
+                    .predictedAt(now)
+                    .daysToService(daysToService)
+                    .reason(reason)
+                    .build();
+
+            long writtenAt = previous != null ? previous.writtenAt : 0L;
+            double writtenDays = previous != null ? previous.writtenDays : Double.NaN;
+            if (previous == null || changed(writtenDays, daysToService)
+                    || System.currentTimeMillis() - writtenAt >= maxAgeMs) {
+                p = predictionRepo.save(p);
+                writtenAt = System.currentTimeMillis();
+                writtenDays = daysToService;
+                written.increment();
+            } else {
+                p.setId(previous.prediction.getId()); // id of the row that still represents this prediction
+            }
+
+            if (previous != null) byDaysToService.remove(previous.key);
+            Entry entry = new Entry(p, writtenDays, writtenAt, new IndexKey(daysToService, vehicleId, reason));
+            reasons.put(reason, entry);
+            byDaysToService.add(entry.key);
+            return p;
+        }
+    }
+
+    // Latest prediction per reason for a vehicle, soonest due first
+    public List<MaintenancePrediction> latest(Long vehicleId) {
+        Map<String, Entry> reasons = byVehicle.get(vehicleId);
+        if (reasons == null) return List.of();
+        synchronized (reasons) {
+            return reasons.values().stream()
+                    .map(e -> e.prediction)
+                    .sorted(Comparator.comparingDouble(MaintenancePrediction::getDaysToService))
+                    .toList();
+        }
+    }
+
+    public MaintenancePrediction latest(Long vehicleId, String reason) {
+        Map<String, Entry> reasons = byVehicle.get(vehicleId);
+        if (reasons == null) return null;
+        synchronized (reasons) {
+            Entry e = reasons.get(reason);
+            return e != null ? e.prediction : null;
+        }
+    }
+
+    // Predictions due within the given number of days, soonest first
+    public List<MaintenancePrediction> dueWithin(double days, int limit) {
+        List<MaintenancePrediction> result = new ArrayList<>();
+        for (IndexKey key : byDaysToService.headSet(new IndexKey(days, Long.MAX_VALUE, null), true)) {
+            if (result.size() >= limit) break;
+            MaintenancePrediction p = latest(key.vehicleId, key.reason);
+            // skip keys replaced while iterating
+            if (p != null && p.getDaysToService() == key.daysToService) result.add(p);
+        }
+        return result;
+    }
+
+    public void forget(Long vehicleId) {
+        Map<String, Entry> reasons = byVehicle.remove(vehicleId);
+        if (reasons == null) return;
+        synchronized (reasons) {
+            for (Entry e : reasons.values()) byDaysToService.remove(e.key);
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        long r = recorded.sum();
+        long w = written.sum();
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("vehicles", byVehicle.size());
+        m.put("predictions", byDaysToService.size());
+        m.put("recorded", r);
+        m.put("written", w);
+        m.put("writeRatio", r == 0 ? 0.0 : (double) w / r);
+        return m;
+    }
+
+    private boolean changed(double writtenDays, double daysToService) {
+        if (Double.isNaN(writtenDays)) return true;
+        double tolerance = Math.max(toleranceDays, Math.abs(writtenDays) * toleranceRatio);
+        return Math.abs(daysToService - writtenDays) > tolerance;
+    }
+
+    private void put(MaintenancePrediction p, long writtenAt) {
+        Map<String, Entry> reasons = byVehicle.computeIfAbsent(p.getVehicleId(), id -> new HashMap<>());
+        synchronized (reasons) {
+            Entry previous = reasons.get(p.getReason());
+            if (previous != null) byDaysToService.remove(previous.key);
+            Entry entry = new Entry(p, p.getDaysToService(), writtenAt,
+                    new IndexKey(p.getDaysToService(), p.getVehicleId(), p.getReason()));
+            reasons.put(p.getReason(), entry);
+            byDaysToService.add(entry.key);
+        }
+    }
+
+    private static long toMillis(LocalDateTime t) {
+        return t.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private record Entry(MaintenancePrediction prediction, double writtenDays, long writtenAt, IndexKey key) {
+    }
+
+    // Skip list key: daysToService, then vehicle and reason to keep keys unique (null reason sorts last)
+    private record IndexKey(double daysToService, long vehicleId, String reason) implements Comparable<IndexKey> {
+        @Override
+        public int compareTo(IndexKey o) {
+            int c = Double.compare(daysToService, o.daysToService);
+            if (c != 0) return c;
+            c = Long.compare(vehicleId, o.vehicleId);
+            if (c != 0) return c;
+            return Comparator.nullsLast(Comparator.<String>naturalOrder()).compare(reason, o.reason);
+        }
+    }
+}
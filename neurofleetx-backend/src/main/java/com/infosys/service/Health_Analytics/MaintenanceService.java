@@ -1,6 +1,10 @@
 package com.infosys.service.Health_Analytics;
 
 
+import com.infosys.dto.FleetHealthScores;
+import com.infosys.dto.HealthScore;
+import com.infosys.dto.MaintenanceTicketPage;
+import com.infosys.model.Health_Analytics.MaintenancePrediction;
 import com.infosys.model.Health_Analytics.MaintenanceTicket;
 
 import java.util.List;
@@ -15,4 +19,12 @@ public interface MaintenanceService {
     MaintenanceTicket resolveTicket(Long ticketId);
     void evaluateHealthForVehicle(Long vehicleId);
     MaintenanceTicket createTicket(MaintenanceTicket ticket);
+    List<MaintenancePrediction> getLatestPredictions(Long vehicleId); // from the prediction cache
+    List<MaintenancePrediction> getPredictionsDueWithin(double days, int limit); // soonest first
+    MaintenanceTicketPage getWorkQueue(String cursor, int limit); // unresolved tickets by priority
+    MaintenanceTicketPage getTicketHistory(String cursor, int limit); // all tickets, newest first
+    FleetHealthScores getWorstHealthScores(int limit); // latest fleet scoring snapshot, worst first
+    HealthScore getHealthScore(Long vehicleId);
+    FleetHealthScores recomputeHealthScores();
+    MaintenanceTicket openAutomaticTicket(Long vehicleId, String issue, String description, String severity); // null if the vehicle is unknown
 }
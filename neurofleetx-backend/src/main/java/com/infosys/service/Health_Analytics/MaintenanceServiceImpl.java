@@ -1,16 +1,18 @@
 package com.infosys.service.Health_Analytics;
 
-import com.infosys.model.Health_Analytics.HealthReading;
+import com.infosys.dto.FleetHealthScores;
+import com.infosys.dto.HealthScore;
+import com.infosys.dto.MaintenanceTicketPage;
+import com.infosys.dto.MaintenanceTicketSummary;
 import com.infosys.model.Health_Analytics.MaintenancePrediction;
 import com.infosys.model.Health_Analytics.MaintenanceTicket;
 import com.infosys.model.User;
 import com.infosys.model.Vehicle;
-import com.infosys.repository.Health_Analytics.HealthPredictionRepository;
-import com.infosys.repository.Health_Analytics.HealthReadingRepository;
 import com.infosys.repository.Health_Analytics.MaintenanceTicketRepository;
 import com.infosys.repository.UserRepository;
 import com.infosys.repository.VehicleRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
@@ -31,14 +33,19 @@ public class MaintenanceServiceImpl implements MaintenanceService {
     private SimpMessagingTemplate messagingTemplate;
 
     @Autowired
-    private HealthReadingRepository readingRepo;
+    private HealthWindowStore healthWindows;
 
     @Autowired
-    private HealthPredictionRepository predictionRepo;
+    private MaintenancePredictionCache predictionCache;
+
+    @Autowired
+    private MaintenanceWorkQueue workQueue;
+
+    @Autowired
+    private FleetHealthScorer healthScorer;
 
     // thresholds (tunable)
-    private static final double TIRE_WEAR_THRESHOLD = 80.0; // % wear -> needs service
-    private static final double ENGINE_TEMP_CRITICAL = 110.0; // deg C
+    static final double TIRE_WEAR_THRESHOLD = 80.0; // % wear -> needs service
 
     @Override
     public MaintenanceTicket createTicket(Long vehicleId, Long reporterId, String desc, String severity) {
@@ -52,7 +59,9 @@ public class MaintenanceServiceImpl implements MaintenanceService {
         t.setSeverity(severity);
         t.setStatus("OPEN");
         t.setCreatedAt(LocalDateTime.now());
-        return ticketRepo.save(t);
+        t = ticketRepo.save(t);
+        workQueue.upsert(t);
+        return t;
     }
 
     @Override
@@ -69,7 +78,9 @@ public class MaintenanceServiceImpl implements MaintenanceService {
     public MaintenanceTicket updateStatus(Long ticketId, String status) {
         MaintenanceTicket t = ticketRepo.findById(ticketId).orElseThrow(() -> new RuntimeException("Ticket not found"));
         t.setStatus(status);
-        return ticketRepo.save(t);
+        t = ticketRepo.save(t);
+        workQueue.upsert(t);
+        return t;
     }
 
     @Override
@@ -88,44 +99,25 @@ public class MaintenanceServiceImpl implements MaintenanceService {
         t.setStatus("RESOLVED");
         t.setResolvedAt(LocalDateTime.now());
         t = ticketRepo.save(t);
+        workQueue.remove(t.getId());
         messagingTemplate.convertAndSend("/topic/maintenance", t);
         return t;
     }
 
 //     Only perform analytics & prediction — no ticket creation.
+    // The trend comes from the in-memory rolling window (least-squares slope), no reading query.
     @Override
     public void evaluateHealthForVehicle(Long vehicleId) {
-        List<HealthReading> readings =
-                readingRepo.findTop100ByVehicleIdOrderByTimestampDesc(vehicleId);
-
-        if (readings.isEmpty()) return;
-
-        List<HealthReading> sample =
-                readings.size() > 10 ? readings.subList(0, 10) : readings;
-
-        if (sample.size() >= 3) {
-            HealthReading newest = sample.get(0);
-            HealthReading oldest = sample.get(sample.size() - 1);
-
-            double wearDelta = newest.getTireWear() - oldest.getTireWear();
-            long days = Math.max(1,
-                    java.time.Duration.between(oldest.getTimestamp(), newest.getTimestamp()).toDays());
-            double dailyIncrease = wearDelta / (double) days;
-
-            double currentWear = newest.getTireWear();
-            if (dailyIncrease > 0) {
-                double daysToThreshold = (TIRE_WEAR_THRESHOLD - currentWear) / dailyIncrease;
-                daysToThreshold = Math.max(0.0, daysToThreshold);
-
-                // ✅ Only save prediction, no ticket creation
-                MaintenancePrediction pred = MaintenancePrediction.builder()
-                        .vehicleId(vehicleId)
-                        .predictedAt(LocalDateTime.now())
-                        .daysToService(daysToThreshold)
-                        .reason("tire_wear_trend")
-                        .build();
-                predictionRepo.save(pred);
-            }
+        HealthWindowStore.HealthTrend trend = healthWindows.trend(vehicleId);
+        if (trend == null || trend.samples() < 3) return;
+
+        double dailyIncrease = trend.tireWearPerDay();
+        if (dailyIncrease > 0) {
+            double daysToThreshold = (TIRE_WEAR_THRESHOLD - trend.tireWear()) / dailyIncrease;
+            daysToThreshold = Math.max(0.0, daysToThreshold);
+
+            // ✅ Only record prediction, no ticket creation (persisted only when it changed meaningfully)
+            predictionCache.record(vehicleId, "tire_wear_trend", daysToThreshold);
         }
     }
 
@@ -138,8 +130,74 @@ public class MaintenanceServiceImpl implements MaintenanceService {
         }
         ticket.setStatus(ticket.getStatus() != null ? ticket.getStatus() : "OPEN");
         ticket.setCreatedAt(ticket.getCreatedAt() != null ? ticket.getCreatedAt() : LocalDateTime.now());
-        return ticketRepo.save(ticket);
+        MaintenanceTicket saved = ticketRepo.save(ticket);
+        workQueue.upsert(saved);
+        return saved;
+    }
+
+    // Ticket raised by HealthAnomalyDetector: no reporter, published like resolved tickets
+    @Override
+    public MaintenanceTicket openAutomaticTicket(Long vehicleId, String issue, String description, String severity) {
+        Vehicle v = vehicleRepo.findById(vehicleId).orElse(null);
+        if (v == null) return null;
+
+        MaintenanceTicket t = new MaintenanceTicket();
+        t.setVehicle(v);
+        t.setIssue(issue);
+        t.setDescription(description);
+        t.setSeverity(severity);
+        t.setStatus("OPEN");
+        t.setCreatedAt(LocalDateTime.now());
+        t = ticketRepo.save(t);
+        workQueue.upsert(t);
+        messagingTemplate.convertAndSend("/topic/maintenance", t);
+        return t;
+    }
+
+    @Override
+    public List<MaintenancePrediction> getLatestPredictions(Long vehicleId) {
+        return predictionCache.latest(vehicleId);
     }
 
+    @Override
+    public List<MaintenancePrediction> getPredictionsDueWithin(double days, int limit) {
+        return predictionCache.dueWithin(days, limit);
+    }
 
+    @Override
+    public MaintenanceTicketPage getWorkQueue(String cursor, int limit) {
+        return workQueue.page(cursor, limit);
+    }
+
+    // All tickets, newest first, keyset-paged on id
+    @Override
+    public MaintenanceTicketPage getTicketHistory(String cursor, int limit) {
+        long beforeId;
+        try {
+            beforeId = cursor == null || cursor.isBlank() ? Long.MAX_VALUE : Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+        List<MaintenanceTicketSummary> items = ticketRepo.findSummariesBefore(beforeId, PageRequest.of(0, limit));
+        String next = items.size() == limit ? String.valueOf(items.get(items.size() - 1).getId()) : null;
+        return new MaintenanceTicketPage(items, next, -1);
+    }
+
+    @Override
+    public FleetHealthScores getWorstHealthScores(int limit) {
+        return healthScorer.worst(limit);
+    }
+
+    @Override
+    public HealthScore getHealthScore(Long vehicleId) {
+        HealthScore score = healthScorer.score(vehicleId);
+        if (score == null) throw new RuntimeException("No health score for vehicle " + vehicleId);
+        return score;
+    }
+
+    @Override
+    public FleetHealthScores recomputeHealthScores() {
+        if (!healthScorer.recompute()) throw new RuntimeException("Health scoring already running, try again shortly");
+        return healthScorer.worst(100);
+    }
 }
@@ -0,0 +1,165 @@
+package com.infosys.service.Health_Analytics;
+
+import com.infosys.dto.MaintenanceTicketPage;
+import com.infosys.dto.MaintenanceTicketSummary;
+import com.infosys.model.Health_Analytics.MaintenanceTicket;
+import com.infosys.repository.Health_Analytics.MaintenanceTicketRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/*
+ Purpose: In-memory priority index of unresolved maintenance tickets (the work queue).
+ Workflow:
+ 1. Tickets are ordered by severity (HIGH first), then predictedDaysToService (soonest first,
+    unknown last), then age (oldest first), then id
+ 2. MaintenanceServiceImpl calls upsert on every ticket create / status change; resolved tickets
+    leave the index
+ 3. Pages are read with a keyset cursor (the position of the last ticket returned), so any page
+    costs O(log n + page size) however long the backlog is
+ 4. On startup the index is loaded with one projection query (no Vehicle / User entities)
+*/
+@Component
+public class MaintenanceWorkQueue {
+
+    @Autowired
+    private MaintenanceTicketRepository ticketRepo;
+
+    private final ConcurrentSkipListMap<QueueKey, MaintenanceTicketSummary> queue = new ConcurrentSkipListMap<>();
+    private final ConcurrentHashMap<Long, QueueKey> keys = new ConcurrentHashMap<>();
+
+    // lock stripes keep the key map and the index consistent per ticket
+    private final Object[] locks = new Object[64];
+
+    public MaintenanceWorkQueue() {
+        for (int i = 0; i < locks.length; i++) locks[i] = new Object();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        queue.clear();
+        keys.clear();
+        List<MaintenanceTicketSummary> open = ticketRepo.findUnresolvedSummaries();
+        for (MaintenanceTicketSummary s : open) put(s);
+        System.out.println("Maintenance work queue loaded: " + open.size() + " tickets");
+    }
+
+    // Reflects the current state of a ticket; resolved tickets are removed
+    public void upsert(MaintenanceTicket t) {
+        if (t == null || t.getId() == null) return;
+        MaintenanceTicketSummary s = new MaintenanceTicketSummary(
+                t.getId(),
+                t.getVehicle() != null ? t.getVehicle().getId() : null,
+                t.getVehicle() != null ? t.getVehicle().getName() : null,
+                t.getIssue(),
+                t.getSeverity(),
+                t.getStatus(),
+                t.getPredictedDaysToService(),
+                t.getCreatedAt(),
+                t.getReportedBy() != null ? t.getReportedBy().getId() : null,
+                t.getReportedBy() != null ? t.getReportedBy().getFullName() : null);
+        if ("RESOLVED".equalsIgnoreCase(s.getStatus())) {
+            remove(s.getId());
+        } else {
+            put(s);
+        }
+    }
+
+    public void remove(Long ticketId) {
+        synchronized (lockFor(ticketId)) {
+            QueueKey key = keys.remove(ticketId);
+            if (key != null) queue.remove(key);
+        }
+    }
+
+    // Next page after the cursor (null = first page)
+    public MaintenanceTicketPage page(String cursor, int limit) {
+        SortedMap<QueueKey, MaintenanceTicketSummary> view = cursor == null || cursor.isBlank()
+                ? queue
+                : queue.tailMap(QueueKey.decode(cursor), false);
+
+        List<MaintenanceTicketSummary> items = new ArrayList<>(Math.min(limit, 256));
+        QueueKey last = null;
+        for (Map.Entry<QueueKey, MaintenanceTicketSummary> e : view.entrySet()) {
+            if (items.size() >= limit) break;
+            items.add(e.getValue());
+            last = e.getKey();
+        }
+        boolean more = last != null && queue.higherKey(last) != null;
+        return new MaintenanceTicketPage(items, more ? last.encode() : null, keys.size());
+    }
+
+    public int size() {
+        return keys.size();
+    }
+
+    private void put(MaintenanceTicketSummary s) {
+        QueueKey key = QueueKey.of(s);
+        synchronized (lockFor(s.getId())) {
+            QueueKey previous = keys.put(s.getId(), key);
+            if (previous != null && !previous.equals(key)) queue.remove(previous);
+            queue.put(key, s);
+        }
+    }
+
+    private Object lockFor(Long ticketId) {
+        return locks[(int) (ticketId & (locks.length - 1))];
+    }
+
+    static int severityRank(String severity) {
+        if (severity == null) return 3;
+        return switch (severity.toUpperCase()) {
+            case "CRITICAL", "HIGH" -> 0;
+            case "MEDIUM" -> 1;
+            case "LOW" -> 2;
+            default -> 3;
+        };
+    }
+
+    /*
+     Queue position. Cursors are the URL-safe Base64 of "rank:days:createdAt:id"
+     (days = Double.MAX_VALUE when unknown, createdAt in epoch millis).
+    */
+    record QueueKey(int severity, double days, long createdAt, long id) implements Comparable<QueueKey> {
+
+        static QueueKey of(MaintenanceTicketSummary s) {
+            LocalDateTime created = s.getCreatedAt();
+            return new QueueKey(severityRank(s.getSeverity()),
+                    s.getPredictedDaysToService() != null ? s.getPredictedDaysToService() : Double.MAX_VALUE,
+                    created != null ? created.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : Long.MAX_VALUE,
+                    s.getId());
+        }
+
+        String encode() {
+            String raw = severity + ":" + days + ":" + createdAt + ":" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static QueueKey decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+                return new QueueKey(Integer.parseInt(parts[0]), Double.parseDouble(parts[1]),
+                        Long.parseLong(parts[2]), Long.parseLong(parts[3]));
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid cursor");
+            }
+        }
+
+        @Override
+        public int compareTo(QueueKey o) {
+            int c = Integer.compare(severity, o.severity);
+            if (c == 0) c = Double.compare(days, o.days);
+            if (c == 0) c = Long.compare(createdAt, o.createdAt);
+            if (c == 0) c = Long.compare(id, o.id);
+            return c;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.infosys.service.Health_Analytics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.infosys.service.Health_Analytics.RulModel.*;
+
+/*
+ Purpose: Scores the remaining useful life of every vehicle with the current RulModel each tick.
+ Workflow:
+ 1. On startup the model is loaded from modelFile; without one (and with trainOnStartup) a model is
+    trained in the background from stored readings and saved there
+ 2. Every intervalMs the feature vectors of all vehicles are written into one reusable primitive array
+    and scored in a single batch call
+ 3. Each component's result is recorded as a MaintenancePrediction with reason "rul_<component>"
+    (persisted by MaintenancePredictionCache only when it changed)
+ The model is swappable at runtime (setModel), e.g. after retraining or for another implementation.
+*/
+@Component
+public class RulEvaluator {
+
+    private static final String[] REASONS = new String[COMPONENTS];
+
+    static {
+        for (int c = 0; c < COMPONENTS; c++) REASONS[c] = "rul_" + COMPONENT_NAMES[c];
+    }
+
+    @Autowired
+    private HealthWindowStore healthWindows;
+
+    @Autowired
+    private MaintenancePredictionCache predictionCache;
+
+    @Autowired
+    private RulModelTrainer trainer;
+
+    @Value("${health.rul.enabled:true}")
+    private boolean enabled;
+
+    @Value("${health.rul.modelFile:data/models/rul-linear.json}")
+    private String modelFile;
+
+    @Value("${health.rul.trainOnStartup:true}")
+    private boolean trainOnStartup;
+
+    @Value("${health.rul.minSamples:3}")
+    private int minSamples;
+
+    private volatile RulModel model;
+    private final AtomicBoolean training = new AtomicBoolean();
+
+    // batch buffers, reused between ticks (scheduler thread only)
+    private long[] batchIds = new long[0];
+    private double[] batchFeatures = new double[0];
+    private double[] batchOut = new double[0];
+
+    // status
+    private volatile LocalDateTime lastTrainedAt;
+    private volatile String lastTrainingError;
+    private volatile long lastScored;
+    private volatile long lastScoreMicros;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void init() {
+        if (!enabled) return;
+        Path file = Paths.get(modelFile);
+        if (Files.exists(file)) {
+            try {
+                model = LinearRulModel.load(file);
+                System.out.println("RUL model loaded from " + file.toAbsolutePath());
+                return;
+            } catch (Exception e) {
+                System.err.println("RUL model " + file + " could not be loaded: " + e.getMessage());
+            }
+        }
+        if (trainOnStartup) train();
+    }
+
+    // Trains a new linear model from stored readings on a background thread; false if already training
+    public boolean train() {
+        if (!training.compareAndSet(false, true)) return false;
+        Thread.ofVirtual().name("rul-model-trainer").start(() -> {
+            try {
+                LinearRulModel trained = trainer.train();
+                trained.save(Paths.get(modelFile));
+                model = trained;
+                lastTrainedAt = LocalDateTime.now();
+                lastTrainingError = null;
+            } catch (Exception e) {
+                lastTrainingError = e.getMessage();
+                System.err.println("RUL model training failed: " + e.getMessage());
+            } finally {
+                training.set(false);
+            }
+        });
+        return true;
+    }
+
+    public void setModel(RulModel model) {
+        this.model = model;
+    }
+
+    @Scheduled(fixedDelayString = "${health.rul.intervalMs:30000}", initialDelayString = "${health.rul.intervalMs:30000}")
+    public void evaluate() {
+        RulModel m = model;
+        if (!enabled || m == null) return;
+        long started = System.nanoTime();
+
+        long[] ids = healthWindows.vehicleIds();
+        ensureCapacity(ids.length);
+        int count = 0;
+        for (long id : ids) {
+            if (healthWindows.features(id, minSamples, batchFeatures, count * FEATURES)) batchIds[count++] = id;
+        }
+        m.predict(batchFeatures, count, batchOut);
+        lastScoreMicros = (System.nanoTime() - started) / 1000;
+
+        for (int i = 0; i < count; i++) {
+            for (int c = 0; c < COMPONENTS; c++) {
+                predictionCache.record(batchIds[i], REASONS[c], batchOut[i * COMPONENTS + c]);
+            }
+        }
+        lastScored = count;
+    }
+
+    public Map<String, Object> getStatus() {
+        RulModel m = model;
+        Map<String, Object> s = new LinkedHashMap<>();
+        s.put("enabled", enabled);
+        s.put("model", m != null ? m.name() : null);
+        s.put("modelFile", modelFile);
+        s.put("training", training.get());
+        s.put("lastTrainedAt", lastTrainedAt);
+        s.put("lastTrainingError", lastTrainingError);
+        s.put("lastScoredVehicles", lastScored);
+        s.put("lastScoreMicros", lastScoreMicros);
+        if (m instanceof LinearRulModel linear) s.put("coefficients", linear.coefficients());
+        return s;
+    }
+
+    private void ensureCapacity(int vehicles) {
+        if (batchIds.length >= vehicles) return;
+        int capacity = Math.max(vehicles, batchIds.length + (batchIds.length >> 1));
+        batchIds = new long[capacity];
+        batchFeatures = new double[capacity * FEATURES];
+        batchOut = new double[capacity * COMPONENTS];
+    }
+}
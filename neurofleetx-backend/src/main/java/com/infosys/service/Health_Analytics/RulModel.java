@@ -0,0 +1,41 @@
+package com.infosys.service.Health_Analytics;
+
+/*
+ Purpose: Remaining-useful-life estimator: days until a component needs service, per vehicle.
+ Feature vectors are built by HealthWindowStore from the vehicle's reading window (F_* order below).
+ Implementations score whole batches over flat primitive arrays and must not allocate per call.
+*/
+public interface RulModel {
+
+    // feature vector layout
+    int F_TIRE_WEAR = 0;
+    int F_TIRE_WEAR_PER_DAY = 1;
+    int F_ENGINE_TEMP = 2;
+    int F_ENGINE_TEMP_MEAN = 3;
+    int F_ENGINE_TEMP_MAX = 4;
+    int F_BATTERY = 5;
+    int F_BATTERY_PER_DAY = 6;
+    int F_FUEL = 7;
+    int F_MILEAGE_KKM = 8;          // thousands of km
+    int F_MILEAGE_PER_DAY = 9;
+    int FEATURES = 10;
+
+    String[] FEATURE_NAMES = {"tire_wear", "tire_wear_per_day", "engine_temp", "engine_temp_mean", "engine_temp_max",
+            "battery", "battery_per_day", "fuel", "mileage_kkm", "mileage_per_day"};
+
+    // components with their own remaining-useful-life output (prediction reason = "rul_" + name)
+    int C_TIRE_WEAR = 0;
+    int C_ENGINE_TEMP = 1;
+    int C_BATTERY = 2;
+    int COMPONENTS = 3;
+
+    String[] COMPONENT_NAMES = {"tire_wear", "engine_temp", "battery"};
+
+    String name();
+
+    /*
+     Scores rows [0, count) of features (row-major, FEATURES values per row) into
+     out (row-major, COMPONENTS values per row): days of remaining useful life, never negative.
+    */
+    void predict(double[] features, int count, double[] out);
+}
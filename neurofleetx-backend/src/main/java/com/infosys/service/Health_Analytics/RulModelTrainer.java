@@ -0,0 +1,264 @@
+package com.infosys.service.Health_Analytics;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static com.infosys.service.Health_Analytics.RulModel.*;
+
+/*
+ Purpose: Offline training of the linear RUL model from stored health readings.
+ Workflow:
+ 1. Readings are streamed per vehicle in time order (server-side cursor, nothing else held in memory
+    but the current vehicle)
+ 2. Each vehicle's readings are replayed through a HealthWindowStore window, so training features
+    are exactly the ones scored live; the label of a reading is the time until the component next
+    crosses its service threshold (readings with no later crossing are censored and skipped)
+ 3. Per component, the regression sums (X'X, X'y, y'y) are accumulated incrementally and a ridge
+    regression on standardized features is solved at the end (10 features, so a tiny system)
+*/
+@Component
+public class RulModelTrainer {
+
+    private static final double MILLIS_PER_DAY = 86_400_000.0;
+
+    private static final String READINGS_SQL =
+            "SELECT vehicle_id, timestamp, engine_temp, tire_wear, battery_level, fuel_level, mileage " +
+            "FROM health_readings WHERE vehicle_id IS NOT NULL ORDER BY vehicle_id, timestamp";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${health.window.size:32}")
+    private int windowSize;
+
+    @Value("${health.rul.minSamples:3}")
+    private int minSamples;
+
+    @Value("${health.rul.trainStride:1}")
+    private int stride;
+
+    @Value("${health.rul.ridge:0.01}")
+    private double ridge;
+
+    @Value("${health.rul.minTrainingRows:100}")
+    private int minTrainingRows;
+
+    @Value("${health.rul.maxDays:365.0}")
+    private double maxDays;
+
+    @Value("${health.anomaly.engineTempCritical:110.0}")
+    private double engineTempCritical;
+
+    @Value("${health.anomaly.batteryLow:15.0}")
+    private double batteryLow;
+
+    public LinearRulModel train() {
+        Accumulator[] acc = new Accumulator[COMPONENTS];
+        for (int c = 0; c < COMPONENTS; c++) acc[c] = new Accumulator();
+        VehicleReadings vehicle = new VehicleReadings();
+        double[] features = new double[FEATURES];
+
+        JdbcTemplate streaming = new JdbcTemplate(dataSource);
+        streaming.setFetchSize(5000);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true); // PostgreSQL only streams with a cursor inside a transaction
+
+        long[] rows = new long[1];
+        readOnly.executeWithoutResult(tx -> streaming.query(READINGS_SQL, rs -> {
+            long vehicleId = rs.getLong("vehicle_id");
+            if (vehicleId != vehicle.vehicleId && vehicle.size > 0) {
+                replay(vehicle, acc, features);
+                vehicle.size = 0;
+            }
+            vehicle.vehicleId = vehicleId;
+            double mileage = rs.getDouble("mileage");
+            if (rs.wasNull()) mileage = Double.NaN; // the window fills it from the last known value
+            vehicle.add(rs.getTimestamp("timestamp").getTime(), rs.getDouble("tire_wear"), rs.getDouble("battery_level"),
+                    mileage, rs.getDouble("engine_temp"), rs.getDouble("fuel_level"));
+            rows[0]++;
+        }));
+        if (vehicle.size > 0) replay(vehicle, acc, features);
+
+        LinearRulModel.Coefficients coefficients = new LinearRulModel.Coefficients();
+        coefficients.setTrainedAt(LocalDateTime.now().toString());
+        coefficients.setMaxDays(maxDays);
+        coefficients.setIntercepts(new double[COMPONENTS]);
+        coefficients.setWeights(new double[COMPONENTS][]);
+        coefficients.setTrainingRows(new long[COMPONENTS]);
+        coefficients.setRmseDays(new double[COMPONENTS]);
+        for (int c = 0; c < COMPONENTS; c++) solve(acc[c], c, coefficients);
+
+        System.out.println("RUL model trained on " + rows[0] + " readings, rows per component "
+                + Arrays.toString(coefficients.getTrainingRows()));
+        return new LinearRulModel(coefficients);
+    }
+
+    // ====== TRAINING SET ======
+
+    private void replay(VehicleReadings v, Accumulator[] acc, double[] features) {
+        // labels: days until the component next crosses its threshold (NaN = no crossing observed)
+        for (int c = 0; c < COMPONENTS; c++) {
+            long nextCrossing = Long.MIN_VALUE;
+            for (int i = v.size - 1; i >= 0; i--) {
+                if (crosses(c, v, i)) nextCrossing = v.at[i];
+                v.labels[c][i] = nextCrossing == Long.MIN_VALUE ? Double.NaN : (nextCrossing - v.at[i]) / MILLIS_PER_DAY;
+            }
+        }
+
+        HealthWindowStore.Window window = new HealthWindowStore.Window(windowSize);
+        for (int i = 0; i < v.size; i++) {
+            window.add(v.at[i], v.tireWear[i], v.battery[i], v.mileage[i], v.engineTemp[i], v.fuel[i]);
+            if (i % stride != 0 || !window.features(minSamples, features, 0)) continue;
+            for (int c = 0; c < COMPONENTS; c++) {
+                double label = v.labels[c][i];
+                if (!Double.isNaN(label)) acc[c].add(features, Math.min(label, maxDays));
+            }
+        }
+    }
+
+    private boolean crosses(int component, VehicleReadings v, int i) {
+        return switch (component) {
+            case C_TIRE_WEAR -> v.tireWear[i] >= MaintenanceServiceImpl.TIRE_WEAR_THRESHOLD;
+            case C_ENGINE_TEMP -> v.engineTemp[i] >= engineTempCritical;
+            case C_BATTERY -> v.battery[i] <= batteryLow;
+            default -> false;
+        };
+    }
+
+    // ====== REGRESSION ======
+
+    /*
+     Ridge regression on centered data: (C + ridge * diag(C)) w = c_xy, where C is the feature
+     covariance; scaling the penalty by each feature's variance equals ridge on standardized features.
+    */
+    private void solve(Accumulator a, int component, LinearRulModel.Coefficients out) {
+        double[] weights = new double[FEATURES];
+        out.getWeights()[component] = weights;
+        out.getTrainingRows()[component] = a.n;
+        if (a.n < minTrainingRows) {
+            // too few observed crossings: predict the mean (or no wear-out at all)
+            out.getIntercepts()[component] = a.n > 0 ? a.xy[0] / a.n : maxDays;
+            out.getRmseDays()[component] = Double.NaN;
+            return;
+        }
+
+        double n = a.n;
+        double[] mean = new double[FEATURES];
+        for (int k = 0; k < FEATURES; k++) mean[k] = a.xx[0][k + 1] / n;
+        double yMean = a.xy[0] / n;
+
+        double[][] cov = new double[FEATURES][FEATURES + 1]; // augmented with the right-hand side
+        for (int j = 0; j < FEATURES; j++) {
+            for (int k = 0; k < FEATURES; k++) cov[j][k] = a.xx[j + 1][k + 1] / n - mean[j] * mean[k];
+            cov[j][j] += ridge * cov[j][j] + 1e-9;
+            cov[j][FEATURES] = a.xy[j + 1] / n - mean[j] * yMean;
+        }
+        gaussianElimination(cov, weights);
+
+        double intercept = yMean;
+        for (int k = 0; k < FEATURES; k++) intercept -= weights[k] * mean[k];
+        out.getIntercepts()[component] = intercept;
+
+        // training RMSE from the sums: sse = y'y - 2 b'X'y + b'X'X b, with b = [intercept, weights]
+        double[] b = new double[FEATURES + 1];
+        b[0] = intercept;
+        System.arraycopy(weights, 0, b, 1, FEATURES);
+        double sse = a.yy;
+        for (int i = 0; i <= FEATURES; i++) {
+            sse -= 2 * b[i] * a.xy[i];
+            for (int j = 0; j <= FEATURES; j++) sse += b[i] * b[j] * a.xx[i][j];
+        }
+        out.getRmseDays()[component] = Math.sqrt(Math.max(0, sse) / n);
+    }
+
+    // Solves the augmented system m = [A | y] in place with partial pivoting
+    private static void gaussianElimination(double[][] m, double[] x) {
+        int n = x.length;
+        for (int col = 0; col < n; col++) {
+            int pivot = col;
+            for (int r = col + 1; r < n; r++) if (Math.abs(m[r][col]) > Math.abs(m[pivot][col])) pivot = r;
+            double[] tmp = m[col];
+            m[col] = m[pivot];
+            m[pivot] = tmp;
+            if (Math.abs(m[col][col]) < 1e-12) continue; // degenerate feature, weight stays 0
+
+            for (int r = col + 1; r < n; r++) {
+                double factor = m[r][col] / m[col][col];
+                for (int k = col; k <= n; k++) m[r][k] -= factor * m[col][k];
+            }
+        }
+        for (int r = n - 1; r >= 0; r--) {
+            if (Math.abs(m[r][r]) < 1e-12) {
+                x[r] = 0;
+                continue;
+            }
+            double sum = m[r][n];
+            for (int k = r + 1; k < n; k++) sum -= m[r][k] * x[k];
+            x[r] = sum / m[r][r];
+        }
+    }
+
+    // Running sums over z = [1, features]: X'X, X'y and y'y
+    private static final class Accumulator {
+        final double[][] xx = new double[FEATURES + 1][FEATURES + 1];
+        final double[] xy = new double[FEATURES + 1];
+        double yy;
+        long n;
+
+        void add(double[] features, double y) {
+            for (int i = 0; i <= FEATURES; i++) {
+                double zi = i == 0 ? 1.0 : features[i - 1];
+                xy[i] += zi * y;
+                for (int j = 0; j <= FEATURES; j++) xx[i][j] += zi * (j == 0 ? 1.0 : features[j - 1]);
+            }
+            yy += y * y;
+            n++;
+        }
+    }
+
+    // Readings of the vehicle being streamed, in growable primitive columns
+    private static final class VehicleReadings {
+        long vehicleId = Long.MIN_VALUE;
+        int size;
+        long[] at = new long[256];
+        double[] tireWear = new double[256];
+        double[] battery = new double[256];
+        double[] mileage = new double[256];
+        double[] engineTemp = new double[256];
+        double[] fuel = new double[256];
+        double[][] labels = new double[COMPONENTS][256];
+
+        void add(long timestamp, double tire, double batt, double miles, double temp, double fuelLevel) {
+            if (size == at.length) grow();
+            at[size] = timestamp;
+            tireWear[size] = tire;
+            battery[size] = batt;
+            mileage[size] = miles;
+            engineTemp[size] = temp;
+            fuel[size] = fuelLevel;
+            size++;
+        }
+
+        private void grow() {
+            int capacity = at.length * 2;
+            at = Arrays.copyOf(at, capacity);
+            tireWear = Arrays.copyOf(tireWear, capacity);
+            battery = Arrays.copyOf(battery, capacity);
+            mileage = Arrays.copyOf(mileage, capacity);
+            engineTemp = Arrays.copyOf(engineTemp, capacity);
+            fuel = Arrays.copyOf(fuel, capacity);
+            for (int c = 0; c < COMPONENTS; c++) labels[c] = Arrays.copyOf(labels[c], capacity);
+        }
+    }
+}
@@ -0,0 +1,481 @@
+package com.infosys.service.LoadTest;
+
+import com.infosys.dto.CreateBookingRequest;
+import com.infosys.dto.LoadTestRequest;
+import com.infosys.model.Health_Analytics.HealthReading;
+import com.infosys.model.Vehicle;
+import com.infosys.model.VehicleTelemetry;
+import com.infosys.model.VehicleType;
+import com.infosys.service.Booking.BookingService;
+import com.infosys.service.Fleet.FleetStateStore;
+import com.infosys.service.Health_Analytics.HealthService;
+import com.infosys.service.Reference.ReferenceDataRegistry;
+import com.infosys.service.Telemetry.LatencyHistogram;
+import com.infosys.service.Telemetry.TelemetryDeadBand;
+import com.infosys.service.Telemetry.TelemetryHistoryStore;
+import com.infosys.service.Telemetry.TelemetryIngestionService;
+import com.infosys.service.WebSocketService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ Purpose: In-process synthetic fleet load generator for capacity tests.
+ Workflow:
+ 1. Registers N virtual vehicles (ids from VIRTUAL_ID_BASE = FleetStateStore.SYNTHETIC_ID_BASE) in the
+    live fleet state only, so the ingestion validation accepts them. Customer, recommendation, dispatch
+    and pricing reads skip that id range
+ 2. The vehicles are split into partitions, each driven by its own virtual thread. Every tick a
+    partition earns a budget of readings (vehicles x Hz x tick x burst multiplier) and emits them
+    round-robin over its vehicles, moving each one with its motion model (stationary, circuit
+    around its home point, random walk)
+ 3. Readings go through the real paths: telemetry into TelemetryIngestionService.submit (a full
+    buffer counts as rejected, it is not retried), health readings into HealthService.ingest and
+    bookings into BookingService.createBooking. Bookings are tagged loadTest: stored and counted, but
+    not offered to drivers or dispatch, not shown to the customer and not counted as pricing demand
+ 4. When the run ends everything it left is purged on a background thread (state STOPPING until done):
+    the virtual vehicles and their telemetry state (ingestion order, dead-band, history index, map tiles,
+    health windows) by id range in one pass each, their health readings and rollups, and the load-test
+    bookings. Their telemetry never reaches the write-behind stage, there is no row to update
+ 5. Status reports achieved rates and latency percentiles for each path plus the ingestion lag
+*/
+@Service
+public class FleetLoadGenerator {
+
+    public static final long VIRTUAL_ID_BASE = FleetStateStore.SYNTHETIC_ID_BASE;
+
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final double KM_PER_DEGREE = 111.0;
+
+    private static final byte STATIONARY = 0;
+    private static final byte CIRCUIT = 1;
+    private static final byte RANDOM_WALK = 2;
+
+    @Autowired
+    private TelemetryIngestionService ingestionService;
+
+    @Autowired
+    private HealthService healthService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private FleetStateStore fleetState;
+
+    @Autowired
+    private ReferenceDataRegistry referenceData;
+
+    @Autowired
+    private TelemetryDeadBand deadBand;
+
+    @Autowired
+    private TelemetryHistoryStore historyStore;
+
+    @Autowired
+    private WebSocketService webSocketService;
+
+    private volatile Run current;
+
+    public synchronized Map<String, Object> start(LoadTestRequest req) {
+        if (current != null && current.running) throw new RuntimeException("A load test is already running");
+        if (current != null && current.purging) throw new RuntimeException("The previous load test is still being cleaned up");
+        if (req.getVehicles() < 1 || req.getVehicles() > 500_000) throw new RuntimeException("vehicles must be between 1 and 500000");
+        if (req.getStationaryPct() + req.getCircuitPct() > 100) throw new RuntimeException("stationaryPct + circuitPct must not exceed 100");
+        if (req.getBookingsPerMinute() > 0 && req.getBookingCustomerId() == null) {
+            throw new RuntimeException("bookingCustomerId is required when bookingsPerMinute > 0");
+        }
+
+        Run run = new Run(req);
+        run.registerVehicles();
+        current = run;
+        run.start();
+        return run.status();
+    }
+
+    public synchronized Map<String, Object> stop() {
+        Run run = current;
+        if (run == null) throw new RuntimeException("No load test has been started");
+        run.stop();
+        return run.status();
+    }
+
+    public Map<String, Object> status() {
+        Run run = current;
+        if (run == null) return Map.of("state", "IDLE");
+        return run.status();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Run run = current;
+        if (run != null) {
+            run.stop();
+            run.awaitPurge();
+        }
+    }
+
+    private final class Run {
+        private final LoadTestRequest req;
+        private final int vehicles;
+        private final String[] typeNames;
+
+        // per virtual vehicle state
+        private final double[] lat;
+        private final double[] lon;
+        private final double[] homeLat;
+        private final double[] homeLon;
+        private final double[] heading;   // radians
+        private final double[] speed;     // km/h
+        private final double[] battery;
+        private final double[] fuel;
+        private final double[] mileage;
+        private final long[] movedAt;     // nanoTime of the last move
+        private final byte[] motion;
+
+        private final List<Thread> threads = new ArrayList<>();
+        private volatile boolean running;
+        private volatile boolean purging;
+        private Thread purger;
+        private long startedAt;
+        private volatile long stoppedAt;
+
+        private final LongAdder telemetrySent = new LongAdder();
+        private final LongAdder telemetryRejected = new LongAdder();
+        private final LongAdder healthSent = new LongAdder();
+        private final LongAdder bookingsSent = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private volatile long purgedVehicles;
+        private volatile long purgedBookings;
+        private volatile long purgedHealthRows;
+        private final LatencyHistogram submitNanos = new LatencyHistogram();
+        private final LatencyHistogram healthNanos = new LatencyHistogram();
+        private final LatencyHistogram bookingNanos = new LatencyHistogram();
+        private final long processedAtStart;
+
+        Run(LoadTestRequest req) {
+            this.req = req;
+            this.vehicles = req.getVehicles();
+            lat = new double[vehicles];
+            lon = new double[vehicles];
+            homeLat = new double[vehicles];
+            homeLon = new double[vehicles];
+            heading = new double[vehicles];
+            speed = new double[vehicles];
+            battery = new double[vehicles];
+            fuel = new double[vehicles];
+            mileage = new double[vehicles];
+            movedAt = new long[vehicles];
+            motion = new byte[vehicles];
+            typeNames = referenceData.types().stream().map(VehicleType::getName).toArray(String[]::new);
+            processedAtStart = ((Number) ingestionService.getMetrics().get("processed")).longValue();
+        }
+
+        void registerVehicles() {
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            List<VehicleType> types = new ArrayList<>(referenceData.types());
+            double radiusDeg = req.getRadiusKm() / KM_PER_DEGREE;
+
+            for (int i = 0; i < vehicles; i++) {
+                double r = radiusDeg * Math.sqrt(rnd.nextDouble());
+                double angle = rnd.nextDouble() * 2 * Math.PI;
+                homeLat[i] = lat[i] = req.getCenterLatitude() + r * Math.sin(angle);
+                homeLon[i] = lon[i] = req.getCenterLongitude() + r * Math.cos(angle);
+                heading[i] = rnd.nextDouble() * 2 * Math.PI;
+                battery[i] = 40 + rnd.nextDouble() * 60;
+                fuel[i] = 30 + rnd.nextDouble() * 70;
+
+                int pick = rnd.nextInt(100);
+                motion[i] = pick < req.getStationaryPct() ? STATIONARY
+                        : pick < req.getStationaryPct() + req.getCircuitPct() ? CIRCUIT : RANDOM_WALK;
+                speed[i] = motion[i] == STATIONARY ? 0 : 20 + rnd.nextDouble() * 60;
+
+                Vehicle v = new Vehicle();
+                v.setId(VIRTUAL_ID_BASE + i);
+                v.setName("LOAD-" + i);
+                if (!types.isEmpty()) v.setType(types.get(i % types.size()));
+                v.setStatus(referenceData.status(ReferenceDataRegistry.Status.AVAILABLE));
+                v.setSpeed(speed[i]);
+                v.setBatteryLevel(battery[i]);
+                v.setFuelLevel(fuel[i]);
+                v.setLatitude(lat[i]);
+                v.setLongitude(lon[i]);
+                v.setLastUpdated(LocalDateTime.now());
+                fleetState.upsert(v);
+            }
+        }
+
+        void start() {
+            running = true;
+            startedAt = System.currentTimeMillis();
+            int partitions = req.getPartitions() > 0 ? req.getPartitions() : Runtime.getRuntime().availableProcessors() * 4;
+            partitions = Math.max(1, Math.min(partitions, vehicles));
+            int chunk = (vehicles + partitions - 1) / partitions;
+            for (int p = 0; p < partitions; p++) {
+                int from = p * chunk;
+                int to = Math.min(vehicles, from + chunk);
+                if (from >= to) break;
+                double share = (double) (to - from) / vehicles;
+                threads.add(Thread.ofVirtual().name("loadgen-" + p).start(() -> drive(from, to, share)));
+            }
+            Thread.ofVirtual().name("loadgen-timer").start(() -> {
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(Math.max(1, req.getDurationSeconds())));
+                } catch (InterruptedException ignored) {
+                    return;
+                }
+                stop();
+            });
+        }
+
+        // Stops the partitions and hands the cleanup to a background thread; the caller does not wait for it
+        synchronized void stop() {
+            if (!running) return;
+            running = false;
+            stoppedAt = System.currentTimeMillis();
+            purging = true;
+            purger = Thread.ofVirtual().name("loadgen-purge").start(() -> {
+                try {
+                    for (Thread t : threads) t.join(TimeUnit.SECONDS.toMillis(5));
+                    purge();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    purging = false;
+                }
+            });
+        }
+
+        void awaitPurge() {
+            Thread t;
+            synchronized (this) {
+                t = purger;
+            }
+            if (t == null) return;
+            try {
+                t.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // Removes what the run left behind so no virtual vehicle or load-test booking outlives it
+        private void purge() {
+            // let the ingestion consumers finish the queued readings, later ones fail validation
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (ingestionService.buffered() > 0 && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+            }
+            // whole synthetic id range at once: one pass per structure instead of one call per vehicle
+            purgedVehicles = fleetState.removeFrom(VIRTUAL_ID_BASE);
+            deadBand.forgetFrom(VIRTUAL_ID_BASE);
+            ingestionService.forgetFrom(VIRTUAL_ID_BASE);
+            historyStore.forgetFrom(VIRTUAL_ID_BASE);
+            webSocketService.sendVehiclesRemovedFrom(VIRTUAL_ID_BASE);
+            try {
+                purgedHealthRows = healthService.purgeVehiclesFrom(VIRTUAL_ID_BASE);
+                purgedBookings = bookingService.purgeLoadTestBookings();
+            } catch (RuntimeException e) {
+                errors.increment();
+                System.err.println("Load test cleanup failed: " + e.getMessage());
+            }
+        }
+
+        // One partition: vehicles [from, to), share = fraction of the fleet (for the fleet-wide rates)
+        private void drive(int from, int to, double share) {
+            int cursor = from;
+            double telemetryBudget = 0;
+            double healthBudget = 0;
+            double bookingBudget = 0;
+            long last = System.nanoTime();
+
+            while (running) {
+                long now = System.nanoTime();
+                double dt = (now - last) / 1e9;
+                last = now;
+                double multiplier = burstMultiplier((System.currentTimeMillis() - startedAt) / 1000.0);
+
+                telemetryBudget += (to - from) * req.getTelemetryHzPerVehicle() * dt * multiplier;
+                healthBudget += req.getHealthReadingsPerSecond() * share * dt * multiplier;
+                bookingBudget += req.getBookingsPerMinute() / 60.0 * share * dt * multiplier;
+
+                while (telemetryBudget >= 1 && running) {
+                    telemetryBudget--;
+                    sendTelemetry(cursor);
+                    if (++cursor >= to) cursor = from;
+                }
+                while (healthBudget >= 1 && running) {
+                    healthBudget--;
+                    sendHealth(ThreadLocalRandom.current().nextInt(from, to));
+                }
+                while (bookingBudget >= 1 && running) {
+                    bookingBudget--;
+                    sendBooking(ThreadLocalRandom.current().nextInt(from, to));
+                }
+
+                long sleep = TICK_NANOS - (System.nanoTime() - now);
+                if (sleep > 0) {
+                    try {
+                        TimeUnit.NANOSECONDS.sleep(sleep);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        private void sendTelemetry(int i) {
+            long now = System.nanoTime();
+            move(i, movedAt[i] == 0 ? 0 : Math.min(10.0, (now - movedAt[i]) / 1e9));
+            movedAt[i] = now;
+            VehicleTelemetry t = VehicleTelemetry.builder()
+                    .vehicleId(VIRTUAL_ID_BASE + i)
+                    .speed(speed[i])
+                    .batteryLevel(battery[i])
+                    .fuelLevel(fuel[i])
+                    .latitude(lat[i])
+                    .longitude(lon[i])
+                    .timestamp(System.currentTimeMillis())
+                    .build();
+
+            long started = System.nanoTime();
+            boolean accepted = ingestionService.submit(t);
+            submitNanos.record(System.nanoTime() - started);
+            telemetrySent.increment();
+            if (!accepted) telemetryRejected.increment();
+        }
+
+        private void sendHealth(int i) {
+            HealthReading r = HealthReading.builder()
+                    .vehicleId(VIRTUAL_ID_BASE + i)
+                    .engineTemp(70 + ThreadLocalRandom.current().nextDouble() * 50)
+                    .tireWear(ThreadLocalRandom.current().nextDouble() * 100)
+                    .batteryLevel(battery[i])
+                    .fuelLevel(fuel[i])
+                    .mileage(mileage[i])
+                    .timestamp(LocalDateTime.now())
+                    .build();
+            long started = System.nanoTime();
+            try {
+                healthService.ingest(r);
+                healthSent.increment();
+            } catch (RuntimeException e) {
+                errors.increment();
+            }
+            healthNanos.record(System.nanoTime() - started);
+        }
+
+        private void sendBooking(int i) {
+            CreateBookingRequest b = new CreateBookingRequest();
+            b.setCustomerId(req.getBookingCustomerId());
+            b.setVehicleType(typeNames.length > 0 ? typeNames[i % typeNames.length] : "Car");
+            b.setIsEv(false);
+            b.setSeats(4);
+            b.setStartTime(LocalDateTime.now().plusHours(1));
+            b.setEndTime(LocalDateTime.now().plusHours(3));
+            b.setPickupLocation(String.format("%.5f,%.5f", lat[i], lon[i]));
+            b.setDropoffLocation(String.format("%.5f,%.5f", homeLat[i], homeLon[i]));
+            b.setLoadTest(true);
+            long started = System.nanoTime();
+            try {
+                bookingService.createBooking(b);
+                bookingsSent.increment();
+            } catch (RuntimeException e) {
+                errors.increment();
+            }
+            bookingNanos.record(System.nanoTime() - started);
+        }
+
+        // Advance vehicle i by dt seconds with its motion model
+        private void move(int i, double dt) {
+            ThreadLocalRandom rnd = ThreadLocalRandom.current();
+            switch (motion[i]) {
+                case STATIONARY -> {
+                    speed[i] = 0;
+                    battery[i] = Math.max(0, battery[i] - 0.0001 * dt);
+                    return;
+                }
+                case CIRCUIT -> heading[i] += dt * speed[i] / 3600.0 / 2.0; // ~2 km radius loop around home
+                default -> {
+                    heading[i] += (rnd.nextDouble() - 0.5) * 0.3;
+                    speed[i] = Math.max(5, Math.min(110, speed[i] + (rnd.nextDouble() - 0.5) * 6));
+                }
+            }
+
+            double km = speed[i] * dt / 3600.0;
+            lat[i] += km / KM_PER_DEGREE * Math.cos(heading[i]);
+            lon[i] += km / (KM_PER_DEGREE * Math.cos(Math.toRadians(lat[i]))) * Math.sin(heading[i]);
+            if (Math.abs(lat[i] - homeLat[i]) + Math.abs(lon[i] - homeLon[i]) > req.getRadiusKm() / KM_PER_DEGREE) {
+                heading[i] += Math.PI; // turn back towards the area
+            }
+            mileage[i] += km;
+            battery[i] = Math.max(0, battery[i] - km * 0.05);
+            fuel[i] = Math.max(0, fuel[i] - km * 0.03);
+            if (battery[i] < 5) battery[i] = 100; // recharged
+            if (fuel[i] < 5) fuel[i] = 100;       // refuelled
+        }
+
+        private double burstMultiplier(double elapsedSeconds) {
+            double factor = Math.max(1.0, req.getBurstFactor());
+            int period = Math.max(1, req.getBurstPeriodSeconds());
+            return switch (req.getBurstPattern() == null ? "NONE" : req.getBurstPattern().toUpperCase()) {
+                case "SPIKE" -> elapsedSeconds % period < req.getBurstSeconds() ? factor : 1.0;
+                case "RAMP" -> 1.0 + (factor - 1.0) * Math.min(1.0, elapsedSeconds / Math.max(1, req.getDurationSeconds()));
+                case "SINE" -> 1.0 + (factor - 1.0) * (1 - Math.cos(2 * Math.PI * elapsedSeconds / period)) / 2;
+                default -> 1.0;
+            };
+        }
+
+        Map<String, Object> status() {
+            long end = running ? System.currentTimeMillis() : stoppedAt;
+            double seconds = Math.max(0.001, (end - startedAt) / 1000.0);
+            Map<String, Object> ingestion = ingestionService.getMetrics();
+            long processed = ((Number) ingestion.get("processed")).longValue() - processedAtStart;
+
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("state", running ? "RUNNING" : purging ? "STOPPING" : "FINISHED");
+            m.put("vehicles", vehicles);
+            m.put("partitions", threads.size());
+            m.put("elapsedSeconds", seconds);
+            m.put("burstPattern", req.getBurstPattern());
+
+            Map<String, Object> telemetry = new LinkedHashMap<>();
+            telemetry.put("sent", telemetrySent.sum());
+            telemetry.put("rejected", telemetryRejected.sum());
+            telemetry.put("sentPerSecond", telemetrySent.sum() / seconds);
+            telemetry.put("processedPerSecond", processed / seconds);
+            telemetry.put("submitLatencyMs", submitNanos.summary(1e6));
+            telemetry.put("ingestionLagMs", ingestion.get("lagMs"));
+            m.put("telemetry", telemetry);
+
+            Map<String, Object> health = new LinkedHashMap<>();
+            health.put("sent", healthSent.sum());
+            health.put("perSecond", healthSent.sum() / seconds);
+            health.put("latencyMs", healthNanos.summary(1e6));
+            m.put("health", health);
+
+            Map<String, Object> bookings = new LinkedHashMap<>();
+            bookings.put("sent", bookingsSent.sum());
+            bookings.put("perMinute", bookingsSent.sum() / seconds * 60);
+            bookings.put("latencyMs", bookingNanos.summary(1e6));
+            m.put("bookings", bookings);
+
+            m.put("errors", errors.sum());
+            if (!running && !purging) {
+                Map<String, Object> purged = new LinkedHashMap<>();
+                purged.put("vehicles", purgedVehicles);
+                purged.put("bookings", purgedBookings);
+                purged.put("healthRows", purgedHealthRows);
+                m.put("purged", purged);
+            }
+            return m;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.infosys.service.Reference;
+
+import com.infosys.model.Role;
+import com.infosys.model.VehicleStatus;
+import com.infosys.model.VehicleType;
+import com.infosys.repository.RoleRepository;
+import com.infosys.repository.VehicleStatusRepository;
+import com.infosys.repository.VehicleTypeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/*
+ Purpose: In-memory registry of the reference tables (vehicle statuses, vehicle types, roles) so hot
+ paths resolve them by id or name without a query.
+ Workflow:
+ 1. Loaded as a startup runner ordered after VehicleDataInitializer / RoleDataInitializer have seeded the tables
+ 2. Each load builds an immutable snapshot that replaces the previous one in a single volatile write
+ 3. Reloaded by an admin (POST /api/admin/reference-data/refresh), or on a lookup miss at most once per
+    reference.refreshOnMissIntervalMs so rows added directly to the tables are still picked up
+ Name lookups are normalized: case-insensitive, '_' and '-' read as spaces ("IN_USE" finds "In Use").
+ Returned entities are shared by all callers and must be treated as read-only.
+*/
+@Component
+@Order(3)
+public class ReferenceDataRegistry implements CommandLineRunner {
+
+    // ====== WELL-KNOWN NAMES (seeded by the data initializers) ======
+
+    public enum Status {
+        AVAILABLE("Available"), IN_USE("In Use"), NEEDS_MAINTENANCE("Needs Maintenance"), OFFLINE("Offline");
+
+        public final String label;
+
+        Status(String label) { this.label = label; }
+    }
+
+    public enum Type {
+        CAR("Car"), VAN("Van"), TRUCK("Truck"), EV("EV"), BIKE("Bike");
+
+        public final String label;
+
+        Type(String label) { this.label = label; }
+    }
+
+    public enum RoleName { ADMIN, MANAGER, DRIVER, CUSTOMER, DEVICE }
+
+    @Autowired
+    private VehicleStatusRepository statusRepo;
+
+    @Autowired
+    private VehicleTypeRepository typeRepo;
+
+    @Autowired
+    private RoleRepository roleRepo;
+
+    @Value("${reference.refreshOnMissIntervalMs:10000}")
+    private long refreshOnMissIntervalMs;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+    private volatile long lastRefreshAt;
+
+    @Override
+    public void run(String... args) {
+        refresh();
+        System.out.println("Reference data loaded: " + snapshot.statusById.size() + " statuses, "
+                + snapshot.typeById.size() + " types, " + snapshot.roleById.size() + " roles");
+    }
+
+    // Reload all reference tables and swap in the new snapshot
+    public synchronized void refresh() {
+        Map<Long, VehicleStatus> statusById = new HashMap<>();
+        Map<String, VehicleStatus> statusByName = new HashMap<>();
+        for (VehicleStatus s : statusRepo.findAll()) {
+            VehicleStatus copy = new VehicleStatus(s.getId(), s.getName());
+            statusById.put(copy.getId(), copy);
+            statusByName.put(normalize(copy.getName()), copy);
+        }
+
+        Map<Long, VehicleType> typeById = new HashMap<>();
+        Map<String, VehicleType> typeByName = new HashMap<>();
+        for (VehicleType t : typeRepo.findAll()) {
+            VehicleType copy = new VehicleType(t.getId(), t.getName());
+            copy.setIsEvType(t.getIsEvType());
+            typeById.put(copy.getId(), copy);
+            typeByName.put(normalize(copy.getName()), copy);
+        }
+
+        Map<Long, Role> roleById = new HashMap<>();
+        Map<String, Role> roleByName = new HashMap<>();
+        for (Role r : roleRepo.findAll()) {
+            Role copy = new Role(r.getId(), r.getName());
+            roleById.put(copy.getId(), copy);
+            roleByName.put(normalize(copy.getName()), copy);
+        }
+
+        snapshot = new Snapshot(Map.copyOf(statusById), Map.copyOf(statusByName), Map.copyOf(typeById),
+                Map.copyOf(typeByName), Map.copyOf(roleById), Map.copyOf(roleByName));
+        lastRefreshAt = System.currentTimeMillis();
+    }
+
+    // ====== VEHICLE STATUSES ======
+
+    public VehicleStatus status(Status status) {
+        return statusByName(status.label)
+                .orElseThrow(() -> new RuntimeException("VehicleStatus '" + status.label + "' not found"));
+    }
+
+    public Optional<VehicleStatus> statusById(Long id) {
+        if (id == null) return Optional.empty();
+        VehicleStatus s = snapshot.statusById.get(id);
+        if (s == null && refreshOnMiss()) s = snapshot.statusById.get(id);
+        return Optional.ofNullable(s);
+    }
+
+    public Optional<VehicleStatus> statusByName(String name) {
+        if (name == null) return Optional.empty();
+        String key = normalize(name);
+        VehicleStatus s = snapshot.statusByName.get(key);
+        if (s == null && refreshOnMiss()) s = snapshot.statusByName.get(key);
+        return Optional.ofNullable(s);
+    }
+
+    public Collection<VehicleStatus> statuses() {
+        return snapshot.statusById.values();
+    }
+
+    // ====== VEHICLE TYPES ======
+
+    public VehicleType type(Type type) {
+        return typeByName(type.label)
+                .orElseThrow(() -> new RuntimeException("VehicleType '" + type.label + "' not found"));
+    }
+
+    public Optional<VehicleType> typeById(Long id) {
+        if (id == null) return Optional.empty();
+        VehicleType t = snapshot.typeById.get(id);
+        if (t == null && refreshOnMiss()) t = snapshot.typeById.get(id);
+        return Optional.ofNullable(t);
+    }
+
+    public Optional<VehicleType> typeByName(String name) {
+        if (name == null) return Optional.empty();
+        String key = normalize(name);
+        VehicleType t = snapshot.typeByName.get(key);
+        if (t == null && refreshOnMiss()) t = snapshot.typeByName.get(key);
+        return Optional.ofNullable(t);
+    }
+
+    public Collection<VehicleType> types() {
+        return snapshot.typeById.values();
+    }
+
+    // ====== ROLES ======
+
+    public Role role(RoleName role) {
+        return roleByName(role.name())
+                .orElseThrow(() -> new RuntimeException("Role not found: " + role.name()));
+    }
+
+    public Optional<Role> roleByName(String name) {
+        if (name == null) return Optional.empty();
+        String key = normalize(name);
+        Role r = snapshot.roleByName.get(key);
+        if (r == null && refreshOnMiss()) r = snapshot.roleByName.get(key);
+        return Optional.ofNullable(r);
+    }
+
+    public Collection<Role> roles() {
+        return snapshot.roleById.values();
+    }
+
+    public Map<String, Object> summary() {
+        Snapshot s = snapshot;
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("statuses", s.statusById.size());
+        m.put("types", s.typeById.size());
+        m.put("roles", s.roleById.size());
+        m.put("lastRefreshAt", lastRefreshAt);
+        return m;
+    }
+
+    // ====== HELPERS ======
+
+    // Returns true when the snapshot was reloaded
+    private boolean refreshOnMiss() {
+        if (System.currentTimeMillis() - lastRefreshAt < refreshOnMissIntervalMs) return false;
+        synchronized (this) {
+            if (System.currentTimeMillis() - lastRefreshAt < refreshOnMissIntervalMs) return false;
+            refresh();
+            return true;
+        }
+    }
+
+    static String normalize(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        boolean space = false;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c == '_' || c == '-' || Character.isWhitespace(c)) {
+                space = sb.length() > 0;
+            } else {
+                if (space) sb.append(' ');
+                space = false;
+                sb.append(Character.toLowerCase(c));
+            }
+        }
+        return sb.toString();
+    }
+
+    private record Snapshot(Map<Long, VehicleStatus> statusById, Map<String, VehicleStatus> statusByName,
+                            Map<Long, VehicleType> typeById, Map<String, VehicleType> typeByName,
+                            Map<Long, Role> roleById, Map<String, Role> roleByName) {
+
+        static final Snapshot EMPTY = new Snapshot(Map.of(), Map.of(), Map.of(), Map.of(), Map.of(), Map.of());
+    }
+}
@@ -0,0 +1,83 @@
+package com.infosys.service.Telemetry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/*
+ Purpose: Lock-free latency histogram with log-linear buckets (16 sub-buckets per power of two,
+ so percentiles are within ~6% of the recorded value). Recording is a couple of atomic
+ increments, cheap enough for every reading on the hot path.
+*/
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts.incrementAndGet(bucketOf(value));
+        total.incrementAndGet();
+        long m = max.get();
+        while (value > m && !max.compareAndSet(m, value)) m = max.get();
+    }
+
+    public long count() {
+        return total.get();
+    }
+
+    public long max() {
+        return max.get();
+    }
+
+    // Upper bound of the bucket holding the given percentile (0-100)
+    public long percentile(double percentile) {
+        long n = total.get();
+        if (n == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(n * percentile / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) return Math.min(upperBound(i), max.get());
+        }
+        return max.get();
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) counts.set(i, 0);
+        total.set(0);
+        max.set(0);
+    }
+
+    // p50 / p95 / p99 / max divided by divisor (e.g. 1e6 to report values recorded in nanos as millis)
+    public Map<String, Object> summary(double divisor) {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("count", count());
+        m.put("p50", percentile(50) / divisor);
+        m.put("p95", percentile(95) / divisor);
+        m.put("p99", percentile(99) / divisor);
+        m.put("max", max() / divisor);
+        return m;
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int magnitude = 63 - Long.numberOfLeadingZeros(value);       // >= SUB_BUCKET_BITS
+        int shift = magnitude - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int shift = bucket / SUB_BUCKETS - 1;
+        long sub = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + sub + 1) << shift) - 1;
+    }
+}
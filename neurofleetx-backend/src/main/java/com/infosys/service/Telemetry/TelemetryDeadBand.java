@@ -0,0 +1,159 @@
+package com.infosys.service.Telemetry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ Purpose: Dead-band filter in front of telemetry persistence and broadcast.
+ A reading goes out when, compared to the last reading that went out for the same vehicle:
+ - the status changed, or the vehicle was not seen before
+ - the vehicle moves at or above fastSpeedKmh (full rate for moving vehicles)
+ - any field moved past its threshold (position, speed, battery, fuel)
+ - maxIntervalMs elapsed (heartbeat for stable vehicles)
+ Readings arriving less than minIntervalMs after the last one that went out are suppressed unless
+ the status changed. Suppressed readings still update the live fleet state.
+ State is kept per fleet-state slot in primitive arrays; concurrent updates of the same vehicle
+ may at worst let an extra reading through.
+*/
+@Component
+public class TelemetryDeadBand {
+
+    @Value("${telemetry.deadband.enabled:true}")
+    private boolean enabled;
+
+    @Value("${telemetry.deadband.minIntervalMs:250}")
+    private long minIntervalMs;
+
+    @Value("${telemetry.deadband.maxIntervalMs:30000}")
+    private long maxIntervalMs;
+
+    @Value("${telemetry.deadband.positionDeg:0.0005}")
+    private double positionDeg;
+
+    @Value("${telemetry.deadband.speedKmh:2.0}")
+    private double speedKmh;
+
+    @Value("${telemetry.deadband.batteryPct:1.0}")
+    private double batteryPct;
+
+    @Value("${telemetry.deadband.fuelPct:1.0}")
+    private double fuelPct;
+
+    @Value("${telemetry.deadband.fastSpeedKmh:60.0}")
+    private double fastSpeedKmh;
+
+    private volatile Columns last = new Columns(1024);
+
+    private final LongAdder emitted = new LongAdder();
+    private final LongAdder suppressed = new LongAdder();
+    private final LongAdder heartbeats = new LongAdder();
+
+    // Returns true when the reading should be persisted and broadcast, and records it as the last one sent
+    public boolean shouldEmit(int slot, long vehicleId, double speed, double battery, double fuel,
+                              double latitude, double longitude, boolean statusChanged, long now) {
+        Columns c = columnsFor(slot);
+        boolean emit;
+        if (!enabled || statusChanged || c.ids[slot] != vehicleId) {
+            emit = true;
+        } else {
+            long elapsed = now - c.sentAt[slot];
+            if (elapsed < minIntervalMs) {
+                emit = false;
+            } else if (elapsed >= maxIntervalMs) {
+                emit = true;
+                heartbeats.increment();
+            } else {
+                emit = speed >= fastSpeedKmh
+                        || Math.abs(latitude - c.lat[slot]) >= positionDeg
+                        || Math.abs(longitude - c.lon[slot]) >= positionDeg
+                        || Math.abs(speed - c.speed[slot]) >= speedKmh
+                        || Math.abs(battery - c.battery[slot]) >= batteryPct
+                        || Math.abs(fuel - c.fuel[slot]) >= fuelPct;
+            }
+        }
+
+        if (!emit) {
+            suppressed.increment();
+            return false;
+        }
+        c.ids[slot] = vehicleId;
+        c.sentAt[slot] = now;
+        c.speed[slot] = speed;
+        c.battery[slot] = battery;
+        c.fuel[slot] = fuel;
+        c.lat[slot] = latitude;
+        c.lon[slot] = longitude;
+        emitted.increment();
+        return true;
+    }
+
+    // Vehicles with id >= firstId left the fleet; the next vehicle in their slots starts as not seen before
+    public void forgetFrom(long firstId) {
+        long[] ids = last.ids;
+        for (int slot = 0; slot < ids.length; slot++) {
+            if (ids[slot] >= firstId) ids[slot] = 0;
+        }
+    }
+
+    private Columns columnsFor(int slot) {
+        Columns c = last;
+        if (slot < c.ids.length) return c;
+        synchronized (this) {
+            c = last;
+            if (slot >= c.ids.length) {
+                c = c.grow(Math.max(slot + 1, c.ids.length * 2));
+                last = c;
+            }
+            return c;
+        }
+    }
+
+    public Map<String, Object> getMetrics() {
+        long e = emitted.sum();
+        long s = suppressed.sum();
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", enabled);
+        m.put("emitted", e);
+        m.put("suppressed", s);
+        m.put("heartbeats", heartbeats.sum());
+        m.put("suppressionRatio", e + s == 0 ? 0.0 : (double) s / (e + s));
+        return m;
+    }
+
+    private static final class Columns {
+        final long[] ids;
+        final long[] sentAt;
+        final double[] speed;
+        final double[] battery;
+        final double[] fuel;
+        final double[] lat;
+        final double[] lon;
+
+        Columns(int capacity) {
+            this(new long[capacity], new long[capacity], new double[capacity], new double[capacity],
+                    new double[capacity], new double[capacity], new double[capacity]);
+        }
+
+        private Columns(long[] ids, long[] sentAt, double[] speed, double[] battery, double[] fuel,
+                        double[] lat, double[] lon) {
+            this.ids = ids;
+            this.sentAt = sentAt;
+            this.speed = speed;
+            this.battery = battery;
+            this.fuel = fuel;
+            this.lat = lat;
+            this.lon = lon;
+        }
+
+        Columns grow(int capacity) {
+            return new Columns(Arrays.copyOf(ids, capacity), Arrays.copyOf(sentAt, capacity),
+                    Arrays.copyOf(speed, capacity), Arrays.copyOf(battery, capacity), Arrays.copyOf(fuel, capacity),
+                    Arrays.copyOf(lat, capacity), Arrays.copyOf(lon, capacity));
+        }
+    }
+}
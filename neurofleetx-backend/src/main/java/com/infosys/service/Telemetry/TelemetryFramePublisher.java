@@ -0,0 +1,211 @@
+package com.infosys.service.Telemetry;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.infosys.dto.TelemetryFrame;
+import com.infosys.service.Fleet.FleetStateStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ Purpose: Telemetry frame mode. Once per tick the live fleet state is diffed against what was last
+ sent and a single delta-encoded TelemetryFrame is published to /topic/telemetry/frames, instead of
+ one VehicleResponse per vehicle. Coordinates are quantized to 1e-5 degrees (~1 m) and the other
+ readings to tenths, so jitter below that resolution does not produce traffic.
+ Every keyframeEvery frames a full keyframe is sent so late joiners and clients that missed a frame
+ can resync; GET /api/telemetry/frames/keyframe serves one on demand.
+*/
+@Component
+public class TelemetryFramePublisher {
+
+    public static final String FRAMES_TOPIC = "/topic/telemetry/frames";
+
+    private static final double COORD_SCALE = 1e5;
+    private static final double VALUE_SCALE = 10.0;
+
+    @Autowired
+    private FleetStateStore fleetState;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${telemetry.frames.enabled:true}")
+    private boolean enabled;
+
+    @Value("${telemetry.frames.keyframeEvery:30}")
+    private int keyframeEvery;
+
+    // last values sent per slot, guarded by this (publish and currentKeyframe)
+    private long[] sentIds = new long[0];
+    private int[] sentLat = new int[0];
+    private int[] sentLon = new int[0];
+    private int[] sentSpeed = new int[0];
+    private int[] sentBattery = new int[0];
+    private int[] sentFuel = new int[0];
+    private int[] sentStatus = new int[0];
+
+    private long seq;
+    private int framesSinceKeyframe;
+
+    private final LongAdder framesSent = new LongAdder();
+    private final LongAdder keyframesSent = new LongAdder();
+    private final LongAdder rowsSent = new LongAdder();
+    private final LongAdder bytesSent = new LongAdder();
+
+    @Scheduled(fixedRateString = "${telemetry.frames.intervalMs:1000}")
+    public synchronized void publish() {
+        if (!enabled) return;
+
+        boolean keyframe = framesSinceKeyframe == 0;
+        LongArrayBuilder rows = new LongArrayBuilder(keyframe ? fleetState.size() * 8 : 256);
+
+        fleetState.forEachSlot(slot -> {
+            ensureCapacity(slot + 1);
+            long id = fleetState.vehicleId(slot);
+
+            if (id == 0) {
+                if (sentIds[slot] != 0 && !keyframe) rows.add(sentIds[slot]).add(TelemetryFrame.REMOVED);
+                sentIds[slot] = 0;
+                return;
+            }
+
+            int lat = quantize(fleetState.latitude(slot), COORD_SCALE);
+            int lon = quantize(fleetState.longitude(slot), COORD_SCALE);
+            int speed = quantize(fleetState.speed(slot), VALUE_SCALE);
+            int battery = quantize(fleetState.battery(slot), VALUE_SCALE);
+            int fuel = quantize(fleetState.fuel(slot), VALUE_SCALE);
+            int status = fleetState.statusCode(slot);
+
+            // a keyframe replaces the client's whole state, so removals only matter in delta frames
+            if (!keyframe && sentIds[slot] != 0 && sentIds[slot] != id) {
+                rows.add(sentIds[slot]).add(TelemetryFrame.REMOVED); // slot reused by another vehicle
+            }
+            // keyframes and vehicles new to the stream are sent with absolute values
+            boolean full = keyframe || sentIds[slot] != id;
+
+            int mask = 0;
+            if (full || lat != sentLat[slot]) mask |= TelemetryFrame.LAT;
+            if (full || lon != sentLon[slot]) mask |= TelemetryFrame.LON;
+            if (full || speed != sentSpeed[slot]) mask |= TelemetryFrame.SPEED;
+            if (full || battery != sentBattery[slot]) mask |= TelemetryFrame.BATTERY;
+            if (full || fuel != sentFuel[slot]) mask |= TelemetryFrame.FUEL;
+            if (full || status != sentStatus[slot]) mask |= TelemetryFrame.STATUS;
+            if (mask == 0) return;
+
+            rows.add(id).add(mask);
+            if ((mask & TelemetryFrame.LAT) != 0) rows.add(full ? lat : lat - sentLat[slot]);
+            if ((mask & TelemetryFrame.LON) != 0) rows.add(full ? lon : lon - sentLon[slot]);
+            if ((mask & TelemetryFrame.SPEED) != 0) rows.add(speed);
+            if ((mask & TelemetryFrame.BATTERY) != 0) rows.add(battery);
+            if ((mask & TelemetryFrame.FUEL) != 0) rows.add(fuel);
+            if ((mask & TelemetryFrame.STATUS) != 0) rows.add(status);
+
+            sentIds[slot] = id;
+            sentLat[slot] = lat;
+            sentLon[slot] = lon;
+            sentSpeed[slot] = speed;
+            sentBattery[slot] = battery;
+            sentFuel[slot] = fuel;
+            sentStatus[slot] = status;
+            rowsSent.increment();
+        });
+
+        framesSinceKeyframe = (framesSinceKeyframe + 1) % Math.max(1, keyframeEvery);
+        if (!keyframe && rows.size() == 0) return; // nothing changed, don't burn a seq number
+
+        TelemetryFrame frame = new TelemetryFrame(++seq, keyframe, System.currentTimeMillis(),
+                keyframe ? fleetState.statusNames() : null, rows.toArray());
+        send(frame);
+        framesSent.increment();
+        if (keyframe) keyframesSent.increment();
+    }
+
+    // Full snapshot for clients joining between keyframes: the values the stream has delivered up to seq,
+    // so the next delta frame (seq + 1) applies on top of it. Does not touch the delta state
+    public synchronized TelemetryFrame currentKeyframe() {
+        LongArrayBuilder rows = new LongArrayBuilder(sentIds.length * 8);
+        int fullMask = TelemetryFrame.LAT | TelemetryFrame.LON | TelemetryFrame.SPEED
+                | TelemetryFrame.BATTERY | TelemetryFrame.FUEL | TelemetryFrame.STATUS;
+        for (int slot = 0; slot < sentIds.length; slot++) {
+            if (sentIds[slot] == 0) continue;
+            rows.add(sentIds[slot]).add(fullMask)
+                    .add(sentLat[slot]).add(sentLon[slot])
+                    .add(sentSpeed[slot]).add(sentBattery[slot]).add(sentFuel[slot])
+                    .add(sentStatus[slot]);
+        }
+        return new TelemetryFrame(seq, true, System.currentTimeMillis(), fleetState.statusNames(), rows.toArray());
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", enabled);
+        m.put("seq", seq);
+        m.put("framesSent", framesSent.sum());
+        m.put("keyframesSent", keyframesSent.sum());
+        m.put("rowsSent", rowsSent.sum());
+        m.put("bytesSent", bytesSent.sum());
+        return m;
+    }
+
+    private void send(TelemetryFrame frame) {
+        try {
+            // serialize once ourselves so the payload size is known
+            String json = objectMapper.writeValueAsString(frame);
+            bytesSent.add(json.length());
+            messagingTemplate.convertAndSend(FRAMES_TOPIC, json);
+        } catch (JsonProcessingException e) {
+            System.err.println("Telemetry frame serialization failed: " + e.getMessage());
+        }
+    }
+
+    private void ensureCapacity(int size) {
+        if (size <= sentIds.length) return;
+        int capacity = Math.max(size, sentIds.length * 2);
+        sentIds = Arrays.copyOf(sentIds, capacity);
+        sentLat = Arrays.copyOf(sentLat, capacity);
+        sentLon = Arrays.copyOf(sentLon, capacity);
+        sentSpeed = Arrays.copyOf(sentSpeed, capacity);
+        sentBattery = Arrays.copyOf(sentBattery, capacity);
+        sentFuel = Arrays.copyOf(sentFuel, capacity);
+        sentStatus = Arrays.copyOf(sentStatus, capacity);
+    }
+
+    private static int quantize(double value, double scale) {
+        return (int) Math.round(value * scale);
+    }
+
+    // Growable long[] without boxing
+    private static final class LongArrayBuilder {
+        private long[] values;
+        private int size;
+
+        LongArrayBuilder(int initialCapacity) {
+            values = new long[Math.max(16, initialCapacity)];
+        }
+
+        LongArrayBuilder add(long v) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = v;
+            return this;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.infosys.service.Telemetry;
+
+import java.util.Arrays;
+
+/*
+ Purpose: Block compression for telemetry history (Gorilla style).
+ A block holds the points of one vehicle in time order. Each point is written as
+ - the timestamp as a delta-of-delta in a variable-width bucket ('0' when the sampling interval did not change)
+ - latitude, longitude, speed, battery and fuel, each XORed with the previous value of the same column:
+   '0' when unchanged, otherwise the meaningful bits of the XOR, reusing the previous leading/trailing
+   zero window when it still fits
+ The first point stores the raw timestamp and raw double bits.
+*/
+public final class TelemetryHistoryCodec {
+
+    public static final int COLUMNS = 5; // latitude, longitude, speed, battery, fuel
+
+    private TelemetryHistoryCodec() {
+    }
+
+    // ====== ENCODER ======
+
+    public static final class Encoder {
+        private final BitWriter out = new BitWriter(64);
+        private int count;
+        private long firstTimestamp;
+        private long prevTimestamp;
+        private long prevDelta;
+        private final long[] prevBits = new long[COLUMNS];
+        private final int[] prevLeading = new int[COLUMNS];
+        private final int[] prevTrailing = new int[COLUMNS];
+
+        public void append(long timestamp, double latitude, double longitude, double speed, double battery, double fuel) {
+            if (count == 0) {
+                out.write(timestamp, 64);
+                firstTimestamp = timestamp;
+            } else {
+                long delta = timestamp - prevTimestamp;
+                writeDeltaOfDelta(delta - prevDelta);
+                prevDelta = delta;
+            }
+            prevTimestamp = timestamp;
+
+            writeValue(0, latitude);
+            writeValue(1, longitude);
+            writeValue(2, speed);
+            writeValue(3, battery);
+            writeValue(4, fuel);
+            count++;
+        }
+
+        private void writeDeltaOfDelta(long dod) {
+            if (dod == 0) {
+                out.write(0, 1);
+            } else if (fits(dod, 7)) {
+                out.write(0b10, 2);
+                out.write(dod, 7);
+            } else if (fits(dod, 9)) {
+                out.write(0b110, 3);
+                out.write(dod, 9);
+            } else if (fits(dod, 12)) {
+                out.write(0b1110, 4);
+                out.write(dod, 12);
+            } else if (fits(dod, 32)) {
+                out.write(0b11110, 5);
+                out.write(dod, 32);
+            } else {
+                out.write(0b11111, 5);
+                out.write(dod, 64);
+            }
+        }
+
+        private void writeValue(int column, double value) {
+            long bits = Double.doubleToRawLongBits(value);
+            if (count == 0) {
+                out.write(bits, 64);
+                prevBits[column] = bits;
+                prevLeading[column] = Integer.MAX_VALUE; // no window yet
+                return;
+            }
+
+            long xor = bits ^ prevBits[column];
+            prevBits[column] = bits;
+            if (xor == 0) {
+                out.write(0, 1);
+                return;
+            }
+
+            int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (prevLeading[column] != Integer.MAX_VALUE
+                    && leading >= prevLeading[column] && trailing >= prevTrailing[column]) {
+                // reuse the previous window
+                out.write(0b10, 2);
+                out.write(xor >>> prevTrailing[column], 64 - prevLeading[column] - prevTrailing[column]);
+            } else {
+                int meaningful = 64 - leading - trailing;
+                out.write(0b11, 2);
+                out.write(leading, 5);
+                out.write(meaningful - 1, 6);
+                out.write(xor >>> trailing, meaningful);
+                prevLeading[column] = leading;
+                prevTrailing[column] = trailing;
+            }
+        }
+
+        public int count() { return count; }
+        public long firstTimestamp() { return firstTimestamp; }
+        public long lastTimestamp() { return prevTimestamp; }
+        public int sizeInBytes() { return out.sizeInBytes(); }
+        public byte[] toByteArray() { return out.toByteArray(); }
+    }
+
+    // ====== DECODER ======
+
+    public static final class Decoder {
+        private final BitReader in;
+        private final int count;
+        private int index;
+        private long timestamp;
+        private long delta;
+        private final long[] bits = new long[COLUMNS];
+        private final int[] leading = new int[COLUMNS];
+        private final int[] trailing = new int[COLUMNS];
+
+        public Decoder(byte[] payload, int count) {
+            this.in = new BitReader(payload);
+            this.count = count;
+        }
+
+        // Advances to the next point; false when the block is exhausted
+        public boolean next() {
+            if (index >= count) return false;
+            if (index == 0) {
+                timestamp = in.read(64);
+                for (int c = 0; c < COLUMNS; c++) bits[c] = in.read(64);
+            } else {
+                delta += readDeltaOfDelta();
+                timestamp += delta;
+                for (int c = 0; c < COLUMNS; c++) readValue(c);
+            }
+            index++;
+            return true;
+        }
+
+        private long readDeltaOfDelta() {
+            if (in.readBit() == 0) return 0;
+            if (in.readBit() == 0) return in.readSigned(7);
+            if (in.readBit() == 0) return in.readSigned(9);
+            if (in.readBit() == 0) return in.readSigned(12);
+            if (in.readBit() == 0) return in.readSigned(32);
+            return in.read(64);
+        }
+
+        private void readValue(int column) {
+            if (in.readBit() == 0) return; // unchanged
+            if (in.readBit() == 1) {
+                leading[column] = (int) in.read(5);
+                trailing[column] = 64 - leading[column] - ((int) in.read(6) + 1);
+            }
+            int meaningful = 64 - leading[column] - trailing[column];
+            bits[column] ^= in.read(meaningful) << trailing[column];
+        }
+
+        public long timestamp() { return timestamp; }
+        public double latitude() { return Double.longBitsToDouble(bits[0]); }
+        public double longitude() { return Double.longBitsToDouble(bits[1]); }
+        public double speed() { return Double.longBitsToDouble(bits[2]); }
+        public double battery() { return Double.longBitsToDouble(bits[3]); }
+        public double fuel() { return Double.longBitsToDouble(bits[4]); }
+    }
+
+    // ====== BITS ======
+
+    private static boolean fits(long value, int bits) {
+        long min = -(1L << (bits - 1));
+        long max = (1L << (bits - 1)) - 1;
+        return value >= min && value <= max;
+    }
+
+    static final class BitWriter {
+        private long[] words;
+        private long bitCount;
+
+        BitWriter(int initialWords) {
+            words = new long[initialWords];
+        }
+
+        // Writes the low n bits of value, most significant first (1 <= n <= 64)
+        void write(long value, int n) {
+            if (n < 64) value &= (1L << n) - 1;
+            int word = (int) (bitCount >>> 6);
+            int used = (int) (bitCount & 63);
+            if (word + 1 >= words.length) words = Arrays.copyOf(words, words.length * 2);
+
+            int free = 64 - used;
+            if (n <= free) {
+                words[word] |= value << (free - n);
+            } else {
+                words[word] |= value >>> (n - free);
+                words[word + 1] |= value << (64 - (n - free));
+            }
+            bitCount += n;
+        }
+
+        int sizeInBytes() {
+            return (int) ((bitCount + 7) >>> 3);
+        }
+
+        byte[] toByteArray() {
+            byte[] bytes = new byte[sizeInBytes()];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = (byte) (words[i >>> 3] >>> (56 - ((i & 7) << 3)));
+            }
+            return bytes;
+        }
+    }
+
+    static final class BitReader {
+        private final byte[] bytes;
+        private long position;
+
+        BitReader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int readBit() {
+            int b = bytes[(int) (position >>> 3)] >>> (7 - (position & 7)) & 1;
+            position++;
+            return b;
+        }
+
+        // Reads n bits (1 <= n <= 64) as an unsigned value
+        long read(int n) {
+            long value = 0;
+            while (n > 0) {
+                int byteIndex = (int) (position >>> 3);
+                int bitInByte = (int) (position & 7);
+                int take = Math.min(n, 8 - bitInByte);
+                int chunk = (bytes[byteIndex] >>> (8 - bitInByte - take)) & ((1 << take) - 1);
+                value = (value << take) | chunk;
+                position += take;
+                n -= take;
+            }
+            return value;
+        }
+
+        long readSigned(int n) {
+            long value = read(n);
+            return (value << (64 - n)) >> (64 - n);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.infosys.service.Telemetry;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+
+/*
+ Purpose: One append-only segment file of the telemetry history, memory mapped at a fixed size.
+ Record layout: [magic int][vehicleId long][minTs long][maxTs long][count int][length int][payload bytes]
+ The magic is written last, so a record torn by a crash ends the scan on the next start instead
+ of being read back half written. Unused space at the end of the file stays zero (sparse on disk).
+*/
+final class TelemetryHistorySegment {
+
+    static final int HEADER_BYTES = 36;
+    private static final int MAGIC = 0x544C4D31; // "TLM1"
+
+    interface RecordVisitor {
+        void visit(int offset, long vehicleId, long minTs, long maxTs, int count);
+    }
+
+    final int id;      // process-local, referenced by the store's block index
+    final int shard;
+    final long seq;
+    final Path file;
+    private final MappedByteBuffer buffer;
+    private final int capacity;
+    private int position;
+    private volatile boolean writable;
+    private volatile boolean deleted;
+    private volatile long minTs = Long.MAX_VALUE;
+    private volatile long maxTs = Long.MIN_VALUE;
+
+    private TelemetryHistorySegment(int id, int shard, long seq, Path file, MappedByteBuffer buffer, boolean writable) {
+        this.id = id;
+        this.shard = shard;
+        this.seq = seq;
+        this.file = file;
+        this.buffer = buffer;
+        this.capacity = buffer.capacity();
+        this.writable = writable;
+    }
+
+    static TelemetryHistorySegment create(Path file, int id, int shard, long seq, int capacity) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(capacity);
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+            return new TelemetryHistorySegment(id, shard, seq, file, buffer, true);
+        }
+    }
+
+    // Maps an existing segment read-only and reports every complete record to the visitor
+    static TelemetryHistorySegment open(Path file, int id, int shard, long seq, RecordVisitor visitor) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r")) {
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+            TelemetryHistorySegment segment = new TelemetryHistorySegment(id, shard, seq, file, buffer, false);
+            segment.scan(visitor);
+            return segment;
+        }
+    }
+
+    private void scan(RecordVisitor visitor) {
+        int offset = 0;
+        while (offset + HEADER_BYTES <= capacity && buffer.getInt(offset) == MAGIC) {
+            long vehicleId = buffer.getLong(offset + 4);
+            long recordMin = buffer.getLong(offset + 12);
+            long recordMax = buffer.getLong(offset + 20);
+            int count = buffer.getInt(offset + 28);
+            int length = buffer.getInt(offset + 32);
+            if (length < 0 || offset + HEADER_BYTES + length > capacity) break;
+
+            visitor.visit(offset, vehicleId, recordMin, recordMax, count);
+            minTs = Math.min(minTs, recordMin);
+            maxTs = Math.max(maxTs, recordMax);
+            offset += HEADER_BYTES + length;
+        }
+        position = offset;
+    }
+
+    // Returns the record offset, or -1 when the segment has no room left for it
+    synchronized int append(long vehicleId, long recordMin, long recordMax, int count, byte[] payload) {
+        if (!writable) return -1;
+        int offset = position;
+        if (offset + HEADER_BYTES + payload.length > capacity) return -1;
+
+        buffer.putLong(offset + 4, vehicleId);
+        buffer.putLong(offset + 12, recordMin);
+        buffer.putLong(offset + 20, recordMax);
+        buffer.putInt(offset + 28, count);
+        buffer.putInt(offset + 32, payload.length);
+        buffer.put(offset + HEADER_BYTES, payload);
+        buffer.putInt(offset, MAGIC);
+
+        position = offset + HEADER_BYTES + payload.length;
+        minTs = Math.min(minTs, recordMin);
+        maxTs = Math.max(maxTs, recordMax);
+        return offset;
+    }
+
+    byte[] payload(int offset) {
+        byte[] payload = new byte[buffer.getInt(offset + 32)];
+        buffer.get(offset + HEADER_BYTES, payload);
+        return payload;
+    }
+
+    // Stop writing to this segment and flush it to disk
+    synchronized void seal() {
+        if (writable) {
+            buffer.force();
+            writable = false;
+        }
+    }
+
+    synchronized void force() {
+        if (writable) buffer.force();
+    }
+
+    synchronized int usedBytes() { return position; }
+
+    boolean isWritable() { return writable; }
+
+    boolean isDeleted() { return deleted; }
+
+    void markDeleted() { deleted = true; }
+
+    long minTs() { return minTs; }
+
+    long maxTs() { return maxTs; }
+}
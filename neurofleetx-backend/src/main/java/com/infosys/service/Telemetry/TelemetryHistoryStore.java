@@ -0,0 +1,561 @@
+package com.infosys.service.Telemetry;
+
+import com.infosys.model.VehicleTelemetry;
+import com.infosys.service.Fleet.FleetStateStore;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/*
+ Purpose: Append-only telemetry history (position, speed, battery, fuel per vehicle over time).
+ Workflow:
+ 1. Every telemetry reading is appended, keyed by its device timestamp, to the open in-memory block of
+    its vehicle, compressed on the fly with TelemetryHistoryCodec (delta-of-delta timestamps, XOR doubles)
+ 2. A block is sealed when it reaches blockPoints points or blockBytes encoded bytes, or has been open
+    for maxBlockAgeMs, and is appended to the current memory-mapped segment of the vehicle's shard
+    (vehicleId mod shards). A point older than the last one of the open block seals it first, so every
+    block is in time order
+ 3. Each sealed block is added to the vehicle's time index (primitive columns, one row per block)
+    before the open block is cleared, so a reader always finds the points in one of the two; range
+    queries decode only the blocks overlapping [from, to] plus the still-open block. Blocks may
+    overlap in time (device clock resets): the index search accounts for the longest block span and
+    the cursor merges overlapping blocks, so points always come back in time order
+ 4. A full segment is sealed and a new one started; segments entirely older than retentionHours
+    are deleted. On startup existing segments are scanned to rebuild the index.
+*/
+@Component
+public class TelemetryHistoryStore {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("shard-(\\d+)-(\\d+)\\.seg");
+    private static final int RAW_POINT_BYTES = 8 + TelemetryHistoryCodec.COLUMNS * 8;
+
+    @Value("${telemetry.history.enabled:true}")
+    private boolean enabled;
+
+    @Value("${telemetry.history.dir:data/telemetry-history}")
+    private String dir;
+
+    @Value("${telemetry.history.shards:8}")
+    private int shardCount;
+
+    @Value("${telemetry.history.segmentBytes:67108864}")
+    private int segmentBytes;
+
+    @Value("${telemetry.history.blockPoints:1024}")
+    private int blockPoints;
+
+    @Value("${telemetry.history.blockBytes:4096}")
+    private int blockBytes;
+
+    @Value("${telemetry.history.maxBlockAgeMs:3600000}")
+    private long maxBlockAgeMs;
+
+    @Value("${telemetry.history.retentionHours:72}")
+    private long retentionHours;
+
+    private Path root;
+    private Object[] shardLocks;
+    private TelemetryHistorySegment[] current;   // segment being written per shard, guarded by its shard lock
+    private long[] nextSeq;
+    private final ConcurrentHashMap<Integer, TelemetryHistorySegment> segments = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSegmentId = new AtomicInteger();
+    private final ConcurrentHashMap<Long, OpenBlock> openBlocks = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, BlockList> index = new ConcurrentHashMap<>();
+
+    // metrics
+    private final LongAdder pointsAppended = new LongAdder();
+    private final LongAdder blocksWritten = new LongAdder();
+    private final LongAdder pointsWritten = new LongAdder();
+    private final LongAdder compressedBytes = new LongAdder();
+    private final LongAdder droppedBlocks = new LongAdder();
+    private final LongAdder segmentsDeleted = new LongAdder();
+
+    @PostConstruct
+    public void init() throws IOException {
+        shardLocks = new Object[shardCount];
+        for (int i = 0; i < shardCount; i++) shardLocks[i] = new Object();
+        current = new TelemetryHistorySegment[shardCount];
+        nextSeq = new long[shardCount];
+        if (!enabled) return;
+
+        root = Paths.get(dir);
+        Files.createDirectories(root);
+
+        List<Path> files;
+        try (Stream<Path> list = Files.list(root)) {
+            files = list.sorted().toList();
+        }
+        for (Path file : files) {
+            Matcher m = SEGMENT_NAME.matcher(file.getFileName().toString());
+            if (!m.matches()) continue;
+            int shard = Integer.parseInt(m.group(1));
+            long seq = Long.parseLong(m.group(2));
+            if (shard < shardCount) nextSeq[shard] = Math.max(nextSeq[shard], seq + 1);
+
+            List<long[]> records = new ArrayList<>();
+            TelemetryHistorySegment segment = TelemetryHistorySegment.open(file, nextSegmentId.getAndIncrement(), shard, seq,
+                    (offset, vehicleId, minTs, maxTs, count) -> records.add(new long[]{offset, vehicleId, minTs, maxTs, count}));
+            for (long[] r : records) {
+                if (r[1] >= FleetStateStore.SYNTHETIC_ID_BASE) continue; // left by a load test
+                addToIndex(r[1], segment, (int) r[0], r[2], r[3], (int) r[4]);
+            }
+            segments.put(segment.id, segment);
+        }
+        System.out.println("Telemetry history: " + segments.size() + " segments, " + index.size() + " vehicles indexed");
+    }
+
+    // ==================== WRITE PATH ====================
+
+    public void append(long vehicleId, long timestamp, double latitude, double longitude,
+                       double speed, double battery, double fuel) {
+        if (!enabled) return;
+        OpenBlock block = openBlocks.computeIfAbsent(vehicleId, id -> new OpenBlock());
+        synchronized (block) {
+            if (block.encoder.count() > 0 && timestamp < block.maxTs) seal(vehicleId, block); // clock went back
+            block.append(timestamp, latitude, longitude, speed, battery, fuel);
+            if (block.encoder.count() >= blockPoints || block.encoder.sizeInBytes() >= blockBytes) seal(vehicleId, block);
+        }
+        pointsAppended.increment();
+    }
+
+    // Seals blocks that have been open for longer than maxBlockAgeMs so history reaches disk
+    @Scheduled(fixedDelayString = "${telemetry.history.sealIntervalMs:10000}")
+    public void sealIdleBlocks() {
+        if (!enabled) return;
+        long cutoff = System.currentTimeMillis() - maxBlockAgeMs;
+        openBlocks.forEach((vehicleId, block) -> {
+            synchronized (block) {
+                if (block.encoder.count() > 0 && block.openedAt <= cutoff) seal(vehicleId, block);
+            }
+        });
+    }
+
+    // Writes and indexes the open block, then clears it; the caller holds the block's lock, so a cursor
+    // holding it too sees the points either in the open block or in the index
+    private void seal(long vehicleId, OpenBlock block) {
+        write(vehicleId, block.snapshot());
+        block.reset();
+    }
+
+    private void write(long vehicleId, SealedBlock block) {
+        int shard = (int) Math.floorMod(vehicleId, (long) shardCount);
+        TelemetryHistorySegment segment;
+        int offset;
+        synchronized (shardLocks[shard]) {
+            try {
+                segment = current[shard];
+                offset = segment != null ? segment.append(vehicleId, block.minTs, block.maxTs, block.count, block.payload) : -1;
+                if (offset < 0) {
+                    // roll over to a new segment
+                    if (segment != null) segment.seal();
+                    segment = TelemetryHistorySegment.create(
+                            root.resolve(String.format("shard-%03d-%012d.seg", shard, nextSeq[shard])),
+                            nextSegmentId.getAndIncrement(), shard, nextSeq[shard]++, segmentBytes);
+                    current[shard] = segment;
+                    segments.put(segment.id, segment);
+                    offset = segment.append(vehicleId, block.minTs, block.maxTs, block.count, block.payload);
+                }
+            } catch (IOException e) {
+                System.err.println("Telemetry history: cannot create segment for shard " + shard + ": " + e.getMessage());
+                droppedBlocks.increment();
+                return;
+            }
+        }
+        if (offset < 0) { // larger than a whole segment
+            droppedBlocks.increment();
+            return;
+        }
+
+        addToIndex(vehicleId, segment, offset, block.minTs, block.maxTs, block.count);
+        blocksWritten.increment();
+        pointsWritten.add(block.count);
+        compressedBytes.add(block.payload.length);
+    }
+
+    private void addToIndex(long vehicleId, TelemetryHistorySegment segment, int offset, long minTs, long maxTs, int count) {
+        BlockList blocks = index.computeIfAbsent(vehicleId, id -> new BlockList());
+        synchronized (blocks) {
+            blocks.add(BlockList.location(segment.id, offset), minTs, maxTs, count);
+        }
+    }
+
+    // Drops the open blocks and index entries of the vehicles with id >= firstId (load-test vehicles when
+    // the run ends); their sealed blocks stay in the segments until retention deletes them
+    public void forgetFrom(long firstId) {
+        openBlocks.keySet().removeIf(id -> id >= firstId);
+        index.keySet().removeIf(id -> id >= firstId);
+    }
+
+    // ==================== RANGE QUERIES ====================
+
+    /*
+     Points of one vehicle with from <= timestamp <= to, in time order. The cursor walks the vehicle's
+     block index lazily and decodes one group of overlapping blocks at a time (usually a single block),
+     so its memory does not depend on the window.
+    */
+    public HistoryCursor cursor(long vehicleId, long from, long to) {
+        return new HistoryCursor(vehicleId, from, to, index, openBlocks, segments);
+    }
+
+    // Vehicles that have history (sealed or still open blocks)
+    public Set<Long> vehicleIds() {
+        Set<Long> ids = new TreeSet<>(index.keySet());
+        ids.addAll(openBlocks.keySet());
+        return ids;
+    }
+
+    public List<VehicleTelemetry> query(long vehicleId, long from, long to, int limit) {
+        List<VehicleTelemetry> points = new ArrayList<>();
+        HistoryCursor cursor = cursor(vehicleId, from, to);
+        while (points.size() < limit && cursor.next()) {
+            points.add(cursor.toTelemetry());
+        }
+        return points;
+    }
+
+    // ==================== RETENTION & SHUTDOWN ====================
+
+    @Scheduled(fixedDelayString = "${telemetry.history.retentionCheckMs:600000}")
+    public void applyRetention() {
+        if (!enabled) return;
+        long cutoff = System.currentTimeMillis() - retentionHours * 3_600_000L;
+        boolean removed = false;
+        for (TelemetryHistorySegment segment : segments.values()) {
+            if (segment.isWritable() || segment.maxTs() >= cutoff) continue;
+            segment.markDeleted();
+            segments.remove(segment.id);
+            removed = true;
+            try {
+                Files.deleteIfExists(segment.file);
+                segmentsDeleted.increment();
+            } catch (IOException e) {
+                System.err.println("Telemetry history: cannot delete " + segment.file + ": " + e.getMessage());
+            }
+        }
+        if (!removed) return;
+
+        for (Map.Entry<Long, BlockList> e : index.entrySet()) {
+            BlockList blocks = e.getValue();
+            synchronized (blocks) {
+                blocks.retain(segments);
+                if (blocks.size == 0) index.remove(e.getKey(), blocks);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled) return;
+        sealAll();
+        for (int shard = 0; shard < shardCount; shard++) {
+            synchronized (shardLocks[shard]) {
+                if (current[shard] != null) current[shard].force();
+            }
+        }
+    }
+
+    private void sealAll() {
+        openBlocks.forEach((vehicleId, block) -> {
+            synchronized (block) {
+                if (block.encoder.count() > 0) seal(vehicleId, block);
+            }
+        });
+    }
+
+    public Map<String, Object> getMetrics() {
+        long points = pointsWritten.sum();
+        long bytes = compressedBytes.sum();
+        long diskBytes = 0;
+        for (TelemetryHistorySegment segment : segments.values()) diskBytes += segment.usedBytes();
+
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("enabled", enabled);
+        m.put("pointsAppended", pointsAppended.sum());
+        m.put("pointsWritten", points);
+        m.put("blocksWritten", blocksWritten.sum());
+        m.put("droppedBlocks", droppedBlocks.sum());
+        m.put("bytesPerPoint", points == 0 ? 0.0 : (double) bytes / points);
+        m.put("compressionRatio", bytes == 0 ? 0.0 : (double) points * RAW_POINT_BYTES / bytes);
+        m.put("segments", segments.size());
+        m.put("segmentsDeleted", segmentsDeleted.sum());
+        m.put("diskBytesUsed", diskBytes);
+        m.put("vehiclesIndexed", index.size());
+        return m;
+    }
+
+    // ==================== INTERNALS ====================
+
+    private record SealedBlock(byte[] payload, int count, long minTs, long maxTs) {
+    }
+
+    /*
+     Sealed blocks of one vehicle as parallel columns ordered by minTs (no object per block); location packs
+     the segment id and the record offset. maxSpan = longest maxTs - minTs ever indexed, so a search for
+     blocks covering t only has to look at those starting at t - maxSpan or later.
+    */
+    private static final class BlockList {
+        long[] location = new long[4];
+        long[] minTs = new long[4];
+        long[] maxTs = new long[4];
+        int[] count = new int[4];
+        int size;
+        long maxSpan;
+
+        static long location(int segmentId, int offset) {
+            return ((long) segmentId << 32) | (offset & 0xFFFFFFFFL);
+        }
+
+        static int segmentId(long location) { return (int) (location >>> 32); }
+
+        static int offset(long location) { return (int) location; }
+
+        // keeps the blocks ordered by start time (blocks may be written out of time order)
+        void add(long loc, long min, long max, int n) {
+            if (size == minTs.length) {
+                int capacity = size * 2;
+                location = Arrays.copyOf(location, capacity);
+                minTs = Arrays.copyOf(minTs, capacity);
+                maxTs = Arrays.copyOf(maxTs, capacity);
+                count = Arrays.copyOf(count, capacity);
+            }
+            int i = size;
+            while (i > 0 && minTs[i - 1] > min) i--;
+            int tail = size - i;
+            System.arraycopy(location, i, location, i + 1, tail);
+            System.arraycopy(minTs, i, minTs, i + 1, tail);
+            System.arraycopy(maxTs, i, maxTs, i + 1, tail);
+            System.arraycopy(count, i, count, i + 1, tail);
+            location[i] = loc;
+            minTs[i] = min;
+            maxTs[i] = max;
+            count[i] = n;
+            size++;
+            maxSpan = Math.max(maxSpan, max - min);
+        }
+
+        // Drops the blocks whose segment is gone (retention)
+        void retain(Map<Integer, TelemetryHistorySegment> segments) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (!segments.containsKey(segmentId(location[i]))) continue;
+                location[kept] = location[i];
+                minTs[kept] = minTs[i];
+                maxTs[kept] = maxTs[i];
+                count[kept] = count[i];
+                kept++;
+            }
+            size = kept;
+        }
+
+        // First block that can cover t: no block is longer than maxSpan, so none starting before t - maxSpan reaches it
+        int firstCovering(long t) {
+            long earliestStart = t - maxSpan;
+            if (earliestStart > t) earliestStart = Long.MIN_VALUE; // underflow
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (minTs[mid] < earliestStart) lo = mid + 1;
+                else hi = mid;
+            }
+            return lo;
+        }
+    }
+
+    private static final class OpenBlock {
+        TelemetryHistoryCodec.Encoder encoder = new TelemetryHistoryCodec.Encoder();
+        long openedAt;
+        long minTs = Long.MAX_VALUE;
+        long maxTs = Long.MIN_VALUE;
+
+        void append(long timestamp, double latitude, double longitude, double speed, double battery, double fuel) {
+            if (encoder.count() == 0) openedAt = System.currentTimeMillis();
+            encoder.append(timestamp, latitude, longitude, speed, battery, fuel);
+            minTs = Math.min(minTs, timestamp);
+            maxTs = Math.max(maxTs, timestamp);
+        }
+
+        SealedBlock snapshot() {
+            return new SealedBlock(encoder.toByteArray(), encoder.count(), minTs, maxTs);
+        }
+
+        void reset() {
+            encoder = new TelemetryHistoryCodec.Encoder();
+            minTs = Long.MAX_VALUE;
+            maxTs = Long.MIN_VALUE;
+        }
+    }
+
+    /*
+     Lazy iterator over the points of one vehicle in a time range, in time order. It advances one group at a
+     time: the earliest block (sealed or open) reaching past what was already returned, plus every block
+     overlapping it, directly or through another block of the group. Each block is in time order, so the
+     group is a k-way merge of its decoders (k = 1 unless the device clock went back). The group is picked
+     from the live index holding the open block's lock, so blocks sealed meanwhile are seen exactly once;
+     blocks whose segment was deleted by retention are skipped.
+    */
+    public static final class HistoryCursor {
+        private final long vehicleId;
+        private final long from;
+        private final long to;
+        private final Map<Long, BlockList> index;
+        private final Map<Long, OpenBlock> openBlocks;
+        private final Map<Integer, TelemetryHistorySegment> segments;
+
+        private boolean started;
+        private boolean finished;
+        private long groupEnd;                 // points up to here were returned (or skipped)
+        private long lower;                    // current group window [lower, upper]
+        private long upper;
+        private static final BlockList EMPTY = new BlockList();
+
+        private TelemetryHistoryCodec.Decoder[] group = new TelemetryHistoryCodec.Decoder[1];
+        private int groupSize;
+        private int current = -1;              // decoder holding the point returned last
+
+        private HistoryCursor(long vehicleId, long from, long to, Map<Long, BlockList> index,
+                              Map<Long, OpenBlock> openBlocks, Map<Integer, TelemetryHistorySegment> segments) {
+            this.vehicleId = vehicleId;
+            this.from = from;
+            this.to = to;
+            this.index = index;
+            this.openBlocks = openBlocks;
+            this.segments = segments;
+        }
+
+        public boolean next() {
+            while (true) {
+                if (current >= 0) advance(current);
+                current = earliest();
+                if (current >= 0) return true;
+                if (!nextGroup()) return false;
+            }
+        }
+
+        // Moves decoder i to its next point inside the group window, or drops it
+        private void advance(int i) {
+            TelemetryHistoryCodec.Decoder d = group[i];
+            while (d.next()) {
+                long ts = d.timestamp();
+                if (ts < lower) continue;
+                if (ts <= upper) return;
+                break; // the block is in time order: nothing further falls inside
+            }
+            group[i] = null;
+        }
+
+        private int earliest() {
+            int best = -1;
+            for (int i = 0; i < groupSize; i++) {
+                if (group[i] != null && (best < 0 || group[i].timestamp() < group[best].timestamp())) best = i;
+            }
+            return best;
+        }
+
+        private boolean nextGroup() {
+            while (!finished) {
+                if (started && groupEnd >= to) break;
+                long low = started ? groupEnd + 1 : from;
+                if (low > to) break;
+
+                OpenBlock open = openBlocks.get(vehicleId);
+                boolean found;
+                if (open == null) {
+                    found = pickGroup(null, low);
+                } else {
+                    synchronized (open) { // no append or seal while the group is picked
+                        found = pickGroup(open, low);
+                    }
+                }
+                if (!found) break;
+                started = true;
+                for (int i = 0; i < groupSize; i++) advance(i);
+                if (earliest() >= 0) return true;
+            }
+            finished = true;
+            return false;
+        }
+
+        // Walks the sealed blocks and the open block in start order; the caller holds the open block's lock
+        private boolean pickGroup(OpenBlock open, long low) {
+            groupSize = 0;
+            current = -1;
+            boolean openLeft = open != null && open.encoder.count() > 0 && open.maxTs >= low && open.minTs <= to;
+            boolean any = false;
+            long end = Long.MIN_VALUE;
+
+            BlockList blocks = index.getOrDefault(vehicleId, EMPTY);
+            synchronized (blocks) {
+                int i = blocks.firstCovering(low);
+                while (true) {
+                    boolean takeOpen = openLeft && (i >= blocks.size || open.minTs <= blocks.minTs[i]);
+                    if (!takeOpen && (i >= blocks.size || blocks.minTs[i] > to)) break;
+                    long min = takeOpen ? open.minTs : blocks.minTs[i];
+                    long max = takeOpen ? open.maxTs : blocks.maxTs[i];
+                    if (any && min > end) break; // the group ends where the overlap chain does
+                    if (max >= low) {
+                        if (takeOpen) {
+                            SealedBlock snapshot = open.snapshot();
+                            add(new TelemetryHistoryCodec.Decoder(snapshot.payload(), snapshot.count()));
+                        } else {
+                            TelemetryHistorySegment segment = segments.get(BlockList.segmentId(blocks.location[i]));
+                            if (segment != null && !segment.isDeleted()) {
+                                add(new TelemetryHistoryCodec.Decoder(
+                                        segment.payload(BlockList.offset(blocks.location[i])), blocks.count[i]));
+                            }
+                        }
+                        end = any ? Math.max(end, max) : max;
+                        any = true;
+                    }
+                    if (takeOpen) openLeft = false;
+                    else i++;
+                }
+            }
+            if (!any) return false;
+            lower = low;
+            upper = Math.min(end, to);
+            groupEnd = end;
+            return true;
+        }
+
+        private void add(TelemetryHistoryCodec.Decoder decoder) {
+            if (groupSize == group.length) group = Arrays.copyOf(group, groupSize * 2);
+            group[groupSize++] = decoder;
+        }
+
+        public long vehicleId() { return vehicleId; }
+        public long timestamp() { return group[current].timestamp(); }
+        public double latitude() { return group[current].latitude(); }
+        public double longitude() { return group[current].longitude(); }
+        public double speed() { return group[current].speed(); }
+        public double battery() { return group[current].battery(); }
+        public double fuel() { return group[current].fuel(); }
+
+        public VehicleTelemetry toTelemetry() {
+            TelemetryHistoryCodec.Decoder d = group[current];
+            return VehicleTelemetry.builder()
+                    .vehicleId(vehicleId)
+                    .timestamp(d.timestamp())
+                    .latitude(d.latitude())
+                    .longitude(d.longitude())
+                    .speed(d.speed())
+                    .batteryLevel(d.battery())
+                    .fuelLevel(d.fuel())
+                    .build();
+        }
+    }
+}
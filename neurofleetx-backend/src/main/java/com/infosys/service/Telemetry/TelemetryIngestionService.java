@@ -0,0 +1,233 @@
+package com.infosys.service.Telemetry;
+
+import com.infosys.dto.VehicleResponse;
+import com.infosys.model.VehicleTelemetry;
+import com.infosys.service.Fleet.FleetStateStore;
+import com.infosys.service.VehicleService;
+import com.infosys.service.WebSocketService;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ Purpose: Device telemetry ingestion.
+ Workflow:
+ 1. Inputs (STOMP /app/telemetry and POST /api/telemetry/ingest) submit readings into a bounded
+    lock-free ring buffer; submit never blocks and returns false when the buffer is full, which the
+    inputs turn into a backpressure signal for the client
+ 2. There is one buffer per consumer thread and a vehicle always maps to the same one
+    (vehicleId mod consumers), so the readings of a vehicle are applied in the order they were queued
+ 3. Each consumer drains its buffer: validate the reading, drop it when its device timestamp is
+    older than the last one applied for the vehicle (inputs racing each other), update the live
+    fleet state, hand persistence to the write-behind stage and broadcast the update
+ 4. A device timestamp more than maxFutureSkewMs ahead of the server clock (bad device clock,
+    seconds/millis mixup) is capped at now + maxFutureSkewMs and counted, so one such reading cannot
+    make every later reading of the vehicle look stale
+*/
+@Service
+public class TelemetryIngestionService {
+
+    private static final long FAILURE_LOG_INTERVAL_MS = 10_000;
+
+    @Autowired
+    private VehicleService vehicleService;
+
+    @Autowired
+    private FleetStateStore fleetState;
+
+    @Autowired
+    private WebSocketService webSocketService;
+
+    @Value("${telemetry.ingest.maxFutureSkewMs:60000}")
+    private long maxFutureSkewMs = 60_000;
+
+    private final int consumerCount;
+    private final TelemetryRingBuffer<VehicleTelemetry>[] shards;
+    private final ConcurrentHashMap<Long, Long> lastApplied = new ConcurrentHashMap<>(); // vehicleId -> device timestamp
+    private final List<Thread> consumers = new ArrayList<>();
+    private volatile boolean running;
+
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder invalid = new LongAdder();
+    private final LongAdder stale = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder future = new LongAdder();
+    private volatile long lastFailureLoggedAt;
+    private final LatencyHistogram lagMs = new LatencyHistogram(); // device timestamp -> processed
+
+    @SuppressWarnings("unchecked")
+    public TelemetryIngestionService(@Value("${telemetry.ingest.bufferSize:65536}") int bufferSize,
+                                     @Value("${telemetry.ingest.consumers:4}") int consumers) {
+        this.consumerCount = Math.max(1, consumers);
+        this.shards = new TelemetryRingBuffer[consumerCount];
+        for (int i = 0; i < consumerCount; i++) {
+            shards[i] = new TelemetryRingBuffer<>(Math.max(2, bufferSize / consumerCount)); // bufferSize is the total
+        }
+    }
+
+    // consumers start once the fleet state has been loaded
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        for (int i = 0; i < consumerCount; i++) {
+            TelemetryRingBuffer<VehicleTelemetry> shard = shards[i];
+            Thread t = new Thread(() -> consume(shard), "telemetry-ingest-" + i);
+            t.setDaemon(true);
+            t.start();
+            consumers.add(t);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        for (Thread t : consumers) {
+            try {
+                t.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        consumers.clear();
+    }
+
+    // Returns false when the buffer is full (backpressure); the reading is not queued
+    public boolean submit(VehicleTelemetry telemetry) {
+        if (telemetry == null) return true;
+        if (shardOf(telemetry).offer(telemetry)) {
+            accepted.increment();
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    // Drops the ordering state of the vehicles with id >= firstId (load-test vehicles when the run ends)
+    public void forgetFrom(long firstId) {
+        lastApplied.keySet().removeIf(id -> id >= firstId);
+    }
+
+    public int remainingCapacity() {
+        return capacity() - buffered();
+    }
+
+    // Same vehicle -> same shard -> same consumer; readings without a vehicle id go to shard 0 and fail validation
+    private TelemetryRingBuffer<VehicleTelemetry> shardOf(VehicleTelemetry t) {
+        Long vehicleId = t.getVehicleId();
+        return shards[vehicleId == null ? 0 : (int) Math.floorMod(vehicleId, (long) consumerCount)];
+    }
+
+    private int capacity() {
+        int total = 0;
+        for (TelemetryRingBuffer<VehicleTelemetry> shard : shards) total += shard.capacity();
+        return total;
+    }
+
+    // Readings queued but not yet applied
+    public int buffered() {
+        int total = 0;
+        for (TelemetryRingBuffer<VehicleTelemetry> shard : shards) total += shard.size();
+        return total;
+    }
+
+    private void consume(TelemetryRingBuffer<VehicleTelemetry> buffer) {
+        int idle = 0;
+        while (running || buffer.size() > 0) {
+            VehicleTelemetry t = buffer.poll();
+            if (t == null) {
+                // back off progressively while idle: spin, yield, then park
+                if (++idle < 100) Thread.onSpinWait();
+                else if (idle < 200) Thread.yield();
+                else LockSupport.parkNanos(200_000);
+                continue;
+            }
+            idle = 0;
+            try {
+                process(t);
+            } catch (RuntimeException e) {
+                failed.increment();
+                logFailure(t, e);
+            }
+        }
+    }
+
+    private void process(VehicleTelemetry t) {
+        if (!isValid(t)) {
+            invalid.increment();
+            return;
+        }
+        if (t.getTimestamp() != null) {
+            long latest = System.currentTimeMillis() + maxFutureSkewMs;
+            if (t.getTimestamp() > latest) {
+                future.increment();
+                t.setTimestamp(latest);
+            }
+            // only this shard's consumer writes the vehicle's entry, so get/put does not race
+            Long last = lastApplied.get(t.getVehicleId());
+            if (last != null && t.getTimestamp() < last) {
+                stale.increment();
+                return;
+            }
+            lastApplied.put(t.getVehicleId(), t.getTimestamp());
+        }
+
+        VehicleResponse updated = vehicleService.updateTelemetry(t.getVehicleId(),
+                t.getSpeed(), t.getBatteryLevel(), t.getFuelLevel(), t.getLatitude(), t.getLongitude(), t.getTimestamp());
+        if (t.getTireWear() != null || t.getMileage() != null) {
+            fleetState.updateHealth(t.getVehicleId(), null, null, t.getTireWear(),
+                    t.getMileage() != null ? t.getMileage().doubleValue() : null);
+        }
+        if (updated != null) webSocketService.sendTelemetryUpdate(updated); // null: within the dead-band
+        processed.increment();
+        if (t.getTimestamp() != null && t.getTimestamp() > 0) lagMs.record(System.currentTimeMillis() - t.getTimestamp());
+    }
+
+    // First failure per FAILURE_LOG_INTERVAL_MS, the rest are only counted
+    private void logFailure(VehicleTelemetry t, RuntimeException e) {
+        long now = System.currentTimeMillis();
+        if (now - lastFailureLoggedAt < FAILURE_LOG_INTERVAL_MS) return;
+        lastFailureLoggedAt = now;
+        System.err.println("Telemetry ingestion failed for vehicle " + t.getVehicleId() + " (" + failed.sum()
+                + " failures so far): " + e);
+    }
+
+    private boolean isValid(VehicleTelemetry t) {
+        if (t.getVehicleId() == null || fleetState.slotOf(t.getVehicleId()) == FleetStateStore.NO_SLOT) return false;
+        if (t.getLatitude() != null && (t.getLatitude() < -90 || t.getLatitude() > 90)) return false;
+        if (t.getLongitude() != null && (t.getLongitude() < -180 || t.getLongitude() > 180)) return false;
+        if (t.getSpeed() != null && (t.getSpeed() < 0 || t.getSpeed().isNaN())) return false;
+        if (t.getBatteryLevel() != null && (t.getBatteryLevel() < 0 || t.getBatteryLevel() > 100)) return false;
+        return t.getFuelLevel() == null || (t.getFuelLevel() >= 0 && t.getFuelLevel() <= 100);
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("bufferCapacity", capacity());
+        m.put("buffered", buffered());
+        m.put("consumers", consumerCount);
+        m.put("accepted", accepted.sum());
+        m.put("rejected", rejected.sum());
+        m.put("processed", processed.sum());
+        m.put("invalid", invalid.sum());
+        m.put("stale", stale.sum());
+        m.put("future", future.sum());
+        m.put("failed", failed.sum());
+        m.put("lagMs", lagMs.summary(1));
+        return m;
+    }
+}
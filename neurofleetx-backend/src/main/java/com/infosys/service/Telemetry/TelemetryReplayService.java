@@ -0,0 +1,281 @@
+package com.infosys.service.Telemetry;
+
+import com.infosys.dto.ReplayControl;
+import com.infosys.dto.ReplayRequest;
+import com.infosys.dto.ReplayStatus;
+import com.infosys.dto.VehicleResponse;
+import com.infosys.service.Fleet.FleetStateStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/*
+ Purpose: Replay of telemetry history at 1x - 100x.
+ Workflow:
+ 1. A replay opens one TelemetryHistoryStore cursor per vehicle and merges them by timestamp
+    (k-way merge on a priority queue holding the current point of each cursor), so memory depends
+    on the number of vehicles, not on the length of the window
+ 2. Points are paced against the wall clock: a point at replay time t is emitted once
+    (t - anchor) / speed has elapsed since the anchor was set
+ 3. Pause, seek and speed changes move the anchor; a seek reopens the cursors at the new position
+ 4. Frames use the VehicleResponse shape of /topic/telemetry; the sink (SSE or STOMP) carries the
+    replay timestamp next to it
+ 5. A replay ends after maxDurationMs even when paused, and STOMP replays end when their session
+    disconnects, so abandoned replays give back their maxSessions slot
+*/
+@Service
+public class TelemetryReplayService {
+
+    public static final double MIN_SPEED = 1.0;
+    public static final double MAX_SPEED = 100.0;
+
+    private static final long MAX_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(50); // keeps controls responsive
+
+    public interface ReplaySink {
+        // Returns false when the receiver is gone and the replay should stop
+        boolean emit(long timestamp, VehicleResponse frame);
+
+        default void finished(ReplayStatus status) {
+        }
+    }
+
+    @Autowired
+    private TelemetryHistoryStore historyStore;
+
+    @Autowired
+    private FleetStateStore fleetState;
+
+    @Value("${telemetry.replay.maxSessions:20}")
+    private int maxSessions;
+
+    @Value("${telemetry.replay.maxDurationMs:3600000}")
+    private long maxDurationMs;
+
+    private final ConcurrentHashMap<String, ReplaySession> sessions = new ConcurrentHashMap<>();
+
+    // Registers a replay; it starts emitting once started with a sink
+    public ReplaySession create(ReplayRequest req) {
+        return create(req, null);
+    }
+
+    // owner: STOMP session id the replay belongs to (stopped when that session disconnects), null for SSE
+    public ReplaySession create(ReplayRequest req, String owner) {
+        long to = req.getTo() != null ? req.getTo() : System.currentTimeMillis();
+        long from = req.getFrom() != null ? req.getFrom() : to - 3_600_000L;
+        if (from > to) throw new RuntimeException("'from' must not be after 'to'");
+
+        long[] vehicleIds = req.getVehicleIds() == null || req.getVehicleIds().isEmpty()
+                ? historyStore.vehicleIds().stream().mapToLong(Long::longValue).toArray()
+                : req.getVehicleIds().stream().filter(Objects::nonNull).mapToLong(Long::longValue).distinct().toArray();
+
+        ReplaySession session = new ReplaySession(UUID.randomUUID().toString(), vehicleIds, from, to,
+                clampSpeed(req.getSpeed() != null ? req.getSpeed() : MIN_SPEED), owner);
+        synchronized (sessions) {
+            if (sessions.size() >= maxSessions) throw new RuntimeException("Too many replays running, try again later");
+            sessions.put(session.id, session);
+        }
+        return session;
+    }
+
+    // Runs the replay on a virtual thread; a paused start waits for RESUME (lets STOMP clients subscribe first)
+    public void start(ReplaySession session, ReplaySink sink, boolean paused) {
+        session.paused = paused;
+        Thread.ofVirtual().name("telemetry-replay-" + session.id).start(() -> session.run(sink));
+    }
+
+    public ReplayStatus control(String replayId, ReplayControl control) {
+        ReplaySession session = sessions.get(replayId);
+        if (session == null) throw new RuntimeException("Replay not found");
+        if (control.getAction() == null) throw new RuntimeException("Replay action is required");
+
+        switch (control.getAction().toUpperCase()) {
+            case "PAUSE" -> session.paused = true;
+            case "RESUME" -> session.paused = false;
+            case "STOP" -> session.stopped = true;
+            case "SEEK" -> {
+                if (control.getTimestamp() == null) throw new RuntimeException("SEEK requires a timestamp");
+                session.seekTo = Math.max(session.from, Math.min(session.to, control.getTimestamp()));
+            }
+            case "SPEED" -> {
+                if (control.getSpeed() == null) throw new RuntimeException("SPEED requires a speed");
+                session.requestedSpeed = clampSpeed(control.getSpeed());
+            }
+            default -> throw new RuntimeException("Unknown replay action: " + control.getAction());
+        }
+        return session.status();
+    }
+
+    public ReplayStatus status(String replayId) {
+        ReplaySession session = sessions.get(replayId);
+        if (session == null) throw new RuntimeException("Replay not found");
+        return session.status();
+    }
+
+    public void stop(String replayId) {
+        ReplaySession session = sessions.get(replayId);
+        if (session != null) session.stopped = true;
+    }
+
+    // Stops the replays of a STOMP session that went away
+    public void stopOwnedBy(String owner) {
+        if (owner == null) return;
+        for (ReplaySession session : sessions.values()) {
+            if (owner.equals(session.owner)) session.stopped = true;
+        }
+    }
+
+    private static double clampSpeed(double speed) {
+        return Math.max(MIN_SPEED, Math.min(MAX_SPEED, speed));
+    }
+
+    // Frame in the /topic/telemetry shape: readings from history, identity from the live fleet state
+    private VehicleResponse toFrame(TelemetryHistoryStore.HistoryCursor point) {
+        VehicleResponse resp = new VehicleResponse();
+        resp.setId(point.vehicleId());
+        resp.setBatteryLevel(point.battery());
+        resp.setFuelLevel(point.fuel());
+        resp.setSpeed(point.speed());
+        resp.setLatitude(point.latitude());
+        resp.setLongitude(point.longitude());
+
+        int slot = fleetState.slotOf(point.vehicleId());
+        if (slot != FleetStateStore.NO_SLOT) {
+            resp.setName(fleetState.name(slot));
+            resp.setType(fleetState.typeName(slot));
+            resp.setStatus(fleetState.statusName(slot));
+            if (fleetState.driverId(slot) != 0) {
+                resp.setAssignedDriverId(fleetState.driverId(slot));
+                resp.setAssignedDriverName(fleetState.driverName(slot));
+            }
+        }
+        return resp;
+    }
+
+    public final class ReplaySession {
+        private final String id;
+        private final long[] vehicleIds;
+        private final long from;
+        private final long to;
+        private final String owner;
+        private final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDurationMs);
+
+        // written by control requests, read by the replay thread
+        private volatile boolean paused;
+        private volatile boolean stopped;
+        private volatile Long seekTo;
+        private volatile double requestedSpeed;
+
+        // replay thread state
+        private volatile double speed;
+        private volatile long position;
+        private volatile String state = "CREATED";
+
+        private ReplaySession(String id, long[] vehicleIds, long from, long to, double speed, String owner) {
+            this.id = id;
+            this.owner = owner;
+            this.vehicleIds = vehicleIds;
+            this.from = from;
+            this.to = to;
+            this.speed = speed;
+            this.requestedSpeed = speed;
+            this.position = from;
+        }
+
+        public String id() {
+            return id;
+        }
+
+        public ReplayStatus status() {
+            boolean active = "RUNNING".equals(state) || "CREATED".equals(state);
+            return new ReplayStatus(id, paused && active ? "PAUSED" : state,
+                    position, from, to, requestedSpeed, null);
+        }
+
+        // Emits the window in time order until it ends, the session is stopped or the sink goes away
+        public void run(ReplaySink sink) {
+            state = "RUNNING";
+            try {
+                PriorityQueue<TelemetryHistoryStore.HistoryCursor> merge = open(from);
+                long anchorWall = System.nanoTime();
+                long anchorReplay = from;
+                boolean wasPaused = false;
+
+                while (!stopped) {
+                    if (System.nanoTime() - deadline > 0) {
+                        stopped = true; // maxDurationMs, also while paused: an abandoned replay frees its slot
+                        break;
+                    }
+                    Long seek = seekTo;
+                    if (seek != null) {
+                        seekTo = null;
+                        merge = open(seek);
+                        position = seek;
+                        anchorWall = System.nanoTime();
+                        anchorReplay = seek;
+                    }
+                    if (requestedSpeed != speed) {
+                        // re-anchor at the current replay time so the change applies from here on
+                        anchorReplay = replayClock(anchorWall, anchorReplay);
+                        anchorWall = System.nanoTime();
+                        speed = requestedSpeed;
+                    }
+                    if (paused) {
+                        if (!wasPaused) position = Math.max(position, replayClock(anchorWall, anchorReplay));
+                        wasPaused = true;
+                        LockSupport.parkNanos(MAX_WAIT_NANOS);
+                        continue;
+                    }
+                    if (wasPaused) {
+                        wasPaused = false;
+                        anchorWall = System.nanoTime();
+                        anchorReplay = position;
+                    }
+
+                    TelemetryHistoryStore.HistoryCursor head = merge.peek();
+                    if (head == null) break; // end of the window
+
+                    long dueIn = (long) ((head.timestamp() - anchorReplay) * 1_000_000L / speed)
+                            - (System.nanoTime() - anchorWall);
+                    if (dueIn > 0) {
+                        LockSupport.parkNanos(Math.min(dueIn, MAX_WAIT_NANOS));
+                        continue;
+                    }
+
+                    merge.poll();
+                    position = head.timestamp();
+                    if (!sink.emit(head.timestamp(), toFrame(head))) {
+                        stopped = true;
+                        break;
+                    }
+                    if (head.next()) merge.add(head);
+                }
+                state = stopped ? "STOPPED" : "FINISHED";
+            } catch (RuntimeException e) {
+                state = "FAILED";
+                System.err.println("Telemetry replay " + id + " failed: " + e.getMessage());
+            } finally {
+                sessions.remove(id);
+                sink.finished(status());
+            }
+        }
+
+        private long replayClock(long anchorWall, long anchorReplay) {
+            return anchorReplay + (long) ((System.nanoTime() - anchorWall) / 1_000_000L * speed);
+        }
+
+        private PriorityQueue<TelemetryHistoryStore.HistoryCursor> open(long start) {
+            PriorityQueue<TelemetryHistoryStore.HistoryCursor> merge = new PriorityQueue<>(
+                    Math.max(1, vehicleIds.length), Comparator.comparingLong(TelemetryHistoryStore.HistoryCursor::timestamp));
+            for (long vehicleId : vehicleIds) {
+                TelemetryHistoryStore.HistoryCursor cursor = historyStore.cursor(vehicleId, start, to);
+                if (cursor.next()) merge.add(cursor);
+            }
+            return merge;
+        }
+    }
+}
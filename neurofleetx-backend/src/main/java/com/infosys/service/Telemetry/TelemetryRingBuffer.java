@@ -0,0 +1,82 @@
+package com.infosys.service.Telemetry;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/*
+ Purpose: Bounded lock-free multi-producer / multi-consumer ring buffer used by telemetry ingestion.
+ Each cell carries a sequence number: producers claim a position by CAS on the tail, write the
+ element and publish it by advancing the cell sequence; consumers do the same on the head.
+ offer() never blocks - it returns false when the buffer is full, which is the backpressure signal
+ handed back to clients.
+*/
+public final class TelemetryRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    public TelemetryRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 2) throw new IllegalArgumentException("capacity must be at least 2");
+        int capacity = Integer.highestOneBit(requestedCapacity - 1) << 1; // round up to a power of two
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) sequences.set(i, i);
+    }
+
+    public boolean offer(E element) {
+        if (element == null) throw new NullPointerException();
+        long pos = tail.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    elements.lazySet(index, element);
+                    sequences.set(index, pos + 1);
+                    return true;
+                }
+                pos = tail.get();
+            } else if (diff < 0) {
+                return false; // full: the cell still holds an element from the previous lap
+            } else {
+                pos = tail.get();
+            }
+        }
+    }
+
+    public E poll() {
+        long pos = head.get();
+        while (true) {
+            int index = (int) (pos & mask);
+            long diff = sequences.get(index) - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    E element = elements.get(index);
+                    elements.lazySet(index, null);
+                    sequences.set(index, pos + mask + 1);
+                    return element;
+                }
+                pos = head.get();
+            } else if (diff < 0) {
+                return null; // empty
+            } else {
+                pos = head.get();
+            }
+        }
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    // Approximate under concurrent use
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+}
@@ -0,0 +1,254 @@
+package com.infosys.service.Telemetry;
+
+import com.infosys.dto.TileAggregate;
+import com.infosys.dto.TileRemoval;
+import com.infosys.dto.VehicleResponse;
+import com.infosys.service.Fleet.FleetStateStore;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/*
+ Purpose: Tile-scoped telemetry destinations /topic/telemetry/tile/{z}/{x}/{y} (slippy map tiles),
+ so a dashboard only receives the vehicles inside its viewport.
+ - Subscriptions are tracked from STOMP session events; nothing is sent to tiles nobody watches
+ - Above aggregateMaxZoom each vehicle update is routed to the tile containing its position at
+   every zoom level that currently has subscribers
+ - The last routed position of each vehicle is kept: when an update lands in another tile, or the
+   vehicle is deleted, the tile it was shown in gets a TileRemoval so the client drops the marker
+ - At aggregateMaxZoom and below, individual vehicles are not sent; subscribed tiles periodically
+   get a TileAggregate with vehicle counts instead
+*/
+@Component
+public class TelemetryTileRouter {
+
+    public static final String TILE_PREFIX = "/topic/telemetry/tile/";
+
+    private static final int MAX_ZOOM = 22;
+    private static final double MAX_LATITUDE = 85.05112878;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private FleetStateStore fleetState;
+
+    @Value("${telemetry.tiles.aggregateMaxZoom:8}")
+    private int aggregateMaxZoom;
+
+    // tile key -> number of subscriptions; zoom -> number of subscribed tiles at that zoom
+    private final ConcurrentHashMap<Long, AtomicInteger> tileSubscribers = new ConcurrentHashMap<>();
+    private final AtomicIntegerArray zoomSubscribers = new AtomicIntegerArray(MAX_ZOOM + 1);
+    // sessionId -> (subscriptionId -> tile key)
+    private final ConcurrentHashMap<String, Map<String, Long>> sessions = new ConcurrentHashMap<>();
+    // vehicleId -> {lat, lon} of its last routed update
+    private final ConcurrentHashMap<Long, double[]> lastPositions = new ConcurrentHashMap<>();
+
+    // ==================== ROUTING ====================
+
+    public void route(VehicleResponse vehicle) {
+        double lat = vehicle.getLatitude();
+        double lon = vehicle.getLongitude();
+        double[] previous = lastPositions.put(vehicle.getId(), new double[]{lat, lon});
+
+        for (int z = aggregateMaxZoom + 1; z <= MAX_ZOOM; z++) {
+            if (zoomSubscribers.get(z) == 0) continue;
+
+            int x = tileX(lon, z);
+            int y = tileY(lat, z);
+            if (previous != null) {
+                int px = tileX(previous[1], z);
+                int py = tileY(previous[0], z);
+                if (px != x || py != y) sendRemoval(z, px, py, vehicle.getId(), TileRemoval.LEFT_TILE);
+            }
+            if (tileSubscribers.containsKey(tileKey(z, x, y))) {
+                messagingTemplate.convertAndSend(destination(z, x, y), vehicle);
+            }
+        }
+    }
+
+    // The vehicle left the fleet: the tiles it was last shown in drop it
+    public void remove(long vehicleId) {
+        double[] previous = lastPositions.remove(vehicleId);
+        if (previous == null) return;
+        for (int z = aggregateMaxZoom + 1; z <= MAX_ZOOM; z++) {
+            if (zoomSubscribers.get(z) == 0) continue;
+            sendRemoval(z, tileX(previous[1], z), tileY(previous[0], z), vehicleId, TileRemoval.DELETED);
+        }
+    }
+
+    // Forgets every vehicle with id >= firstId with one PURGED message per subscribed tile
+    public void removeFrom(long firstId) {
+        lastPositions.keySet().removeIf(id -> id >= firstId);
+        TileRemoval purged = new TileRemoval(firstId, TileRemoval.PURGED, System.currentTimeMillis());
+        for (long key : tileSubscribers.keySet()) {
+            int z = zoomOf(key);
+            // aggregate tiles are rebuilt from the fleet state on their next refresh
+            if (z > aggregateMaxZoom) messagingTemplate.convertAndSend(destination(z, xOf(key), yOf(key)), purged);
+        }
+    }
+
+    private void sendRemoval(int z, int x, int y, long vehicleId, String reason) {
+        if (!tileSubscribers.containsKey(tileKey(z, x, y))) return;
+        messagingTemplate.convertAndSend(destination(z, x, y),
+                new TileRemoval(vehicleId, reason, System.currentTimeMillis()));
+    }
+
+    @Scheduled(fixedRateString = "${telemetry.tiles.aggregateIntervalMs:5000}")
+    public void publishAggregates() {
+        int maxZoom = Math.min(aggregateMaxZoom, MAX_ZOOM);
+        boolean any = false;
+        for (int z = 0; z <= maxZoom && !any; z++) any = zoomSubscribers.get(z) > 0;
+        if (!any) return;
+
+        // one pass over the fleet, counting only into subscribed tiles
+        Map<Long, int[]> counts = new HashMap<>();
+        int statusCount = fleetState.statusNames().size();
+        fleetState.forEach(slot -> {
+            double lat = fleetState.latitude(slot);
+            double lon = fleetState.longitude(slot);
+            for (int z = 0; z <= maxZoom; z++) {
+                if (zoomSubscribers.get(z) == 0) continue;
+                long key = tileKey(z, tileX(lon, z), tileY(lat, z));
+                if (!tileSubscribers.containsKey(key)) continue;
+
+                // [0] = total, [1 + code] = per status
+                int[] c = counts.computeIfAbsent(key, k -> new int[statusCount + 2]);
+                c[0]++;
+                int code = fleetState.statusCode(slot);
+                if (code >= 0 && code + 1 < c.length) c[code + 1]++;
+            }
+        });
+
+        long now = System.currentTimeMillis();
+        List<String> statusNames = fleetState.statusNames();
+        for (Long key : tileSubscribers.keySet()) {
+            int z = zoomOf(key);
+            if (z > maxZoom) continue;
+
+            int[] c = counts.get(key);
+            Map<String, Integer> byStatus = new HashMap<>();
+            if (c != null) {
+                for (int code = 0; code < statusNames.size() && code + 1 < c.length; code++) {
+                    if (c[code + 1] > 0) byStatus.put(statusNames.get(code), c[code + 1]);
+                }
+            }
+            int x = xOf(key), y = yOf(key);
+            messagingTemplate.convertAndSend(destination(z, x, y),
+                    new TileAggregate(z, x, y, c != null ? c[0] : 0, byStatus, now));
+        }
+    }
+
+    // ==================== SUBSCRIPTION TRACKING ====================
+
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Long key = parseTile(accessor.getDestination());
+        if (key == null || accessor.getSessionId() == null || accessor.getSubscriptionId() == null) return;
+
+        Map<String, Long> subs = sessions.computeIfAbsent(accessor.getSessionId(), s -> new ConcurrentHashMap<>());
+        if (subs.putIfAbsent(accessor.getSubscriptionId(), key) == null) addSubscriber(key);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(event.getMessage());
+        Map<String, Long> subs = accessor.getSessionId() != null ? sessions.get(accessor.getSessionId()) : null;
+        if (subs == null || accessor.getSubscriptionId() == null) return;
+
+        Long key = subs.remove(accessor.getSubscriptionId());
+        if (key != null) removeSubscriber(key);
+    }
+
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        Map<String, Long> subs = sessions.remove(event.getSessionId());
+        if (subs == null) return;
+        subs.values().forEach(this::removeSubscriber);
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("subscribedTiles", tileSubscribers.size());
+        m.put("sessions", sessions.size());
+        m.put("trackedVehicles", lastPositions.size());
+        m.put("aggregateMaxZoom", aggregateMaxZoom);
+        return m;
+    }
+
+    private void addSubscriber(long key) {
+        tileSubscribers.compute(key, (k, count) -> {
+            if (count == null) {
+                zoomSubscribers.incrementAndGet(zoomOf(k));
+                return new AtomicInteger(1);
+            }
+            count.incrementAndGet();
+            return count;
+        });
+    }
+
+    private void removeSubscriber(long key) {
+        tileSubscribers.computeIfPresent(key, (k, count) -> {
+            if (count.decrementAndGet() > 0) return count;
+            zoomSubscribers.decrementAndGet(zoomOf(k));
+            return null;
+        });
+    }
+
+    // ==================== TILE MATH ====================
+
+    // Parses /topic/telemetry/tile/{z}/{x}/{y}; null for any other destination
+    static Long parseTile(String destination) {
+        if (destination == null || !destination.startsWith(TILE_PREFIX)) return null;
+        String[] parts = destination.substring(TILE_PREFIX.length()).split("/");
+        if (parts.length != 3) return null;
+        try {
+            int z = Integer.parseInt(parts[0]);
+            int x = Integer.parseInt(parts[1]);
+            int y = Integer.parseInt(parts[2]);
+            int n = 1 << Math.max(0, Math.min(z, MAX_ZOOM));
+            if (z < 0 || z > MAX_ZOOM || x < 0 || x >= n || y < 0 || y >= n) return null;
+            return tileKey(z, x, y);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static int tileX(double lon, int z) {
+        int n = 1 << z;
+        int x = (int) Math.floor((lon + 180.0) / 360.0 * n);
+        return Math.max(0, Math.min(n - 1, x));
+    }
+
+    static int tileY(double lat, int z) {
+        int n = 1 << z;
+        double latRad = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, lat)));
+        int y = (int) Math.floor((1.0 - Math.log(Math.tan(latRad) + 1.0 / Math.cos(latRad)) / Math.PI) / 2.0 * n);
+        return Math.max(0, Math.min(n - 1, y));
+    }
+
+    static long tileKey(int z, int x, int y) {
+        return ((long) z << 48) | ((long) x << 24) | y;
+    }
+
+    private static int zoomOf(long key) { return (int) (key >>> 48); }
+    private static int xOf(long key) { return (int) ((key >>> 24) & 0xFFFFFF); }
+    private static int yOf(long key) { return (int) (key & 0xFFFFFF); }
+
+    private static String destination(int z, int x, int y) {
+        return TILE_PREFIX + z + "/" + x + "/" + y;
+    }
+}
@@ -0,0 +1,166 @@
+package com.infosys.service.Telemetry;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/*
+ Purpose: Write-behind stage for vehicle telemetry.
+ Workflow:
+ 1. Telemetry updates are merged into an in-memory latest-state map (one entry per vehicle,
+    newer values overwrite older ones that have not been flushed yet)
+ 2. A background flusher drains the map and writes batched JDBC updates that touch only the
+    telemetry columns of the vehicles table (no entity load, no full-row save)
+ 3. When the map holds maxPending vehicles, updates for vehicles not already queued are dropped
+    and counted - the next update for that vehicle will carry the latest state anyway
+*/
+@Component
+public class TelemetryWriteBehind {
+
+    private static final String UPDATE_SQL =
+            "UPDATE vehicles SET speed = ?, battery_level = ?, fuel_level = ?, latitude = ?, longitude = ?, " +
+            "status_id = COALESCE(?, status_id), last_updated = ? WHERE id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${telemetry.writebehind.maxBatchSize:500}")
+    private int maxBatchSize;
+
+    @Value("${telemetry.writebehind.maxPending:100000}")
+    private int maxPending;
+
+    private final ConcurrentHashMap<Long, PendingTelemetry> pending = new ConcurrentHashMap<>();
+
+    // metrics
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder flushedRows = new LongAdder();
+    private final LongAdder failedFlushes = new LongAdder();
+    private volatile long lastFlushAt;
+    private volatile long lastFlushDurationMs;
+    private volatile long lastFlushLagMs;
+    private volatile long maxFlushLagMs;
+
+    /*
+     Queue the latest telemetry of a vehicle for persistence.
+     statusId may be null when the status did not change.
+     Returns false when the update was dropped because the queue is full.
+    */
+    public boolean enqueue(Long vehicleId, double speed, double battery, double fuel,
+                           double latitude, double longitude, Long statusId, LocalDateTime updatedAt) {
+        if (!pending.containsKey(vehicleId) && pending.size() >= maxPending) {
+            dropped.increment();
+            return false;
+        }
+
+        PendingTelemetry update = new PendingTelemetry(speed, battery, fuel, latitude, longitude,
+                statusId, updatedAt, System.currentTimeMillis());
+        pending.merge(vehicleId, update, (queued, latest) -> {
+            coalesced.increment();
+            return latest.coalesce(queued);
+        });
+        enqueued.increment();
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${telemetry.writebehind.flushIntervalMs:1000}")
+    public void flush() {
+        if (pending.isEmpty()) return;
+
+        long started = System.currentTimeMillis();
+        long oldest = started;
+        List<Map.Entry<Long, PendingTelemetry>> batch = new ArrayList<>(Math.min(maxBatchSize, pending.size()));
+
+        for (Long vehicleId : pending.keySet()) {
+            PendingTelemetry t = pending.remove(vehicleId);
+            if (t == null) continue;
+
+            oldest = Math.min(oldest, t.firstEnqueuedAt());
+            batch.add(Map.entry(vehicleId, t));
+            if (batch.size() >= maxBatchSize) {
+                writeBatch(batch);
+                batch = new ArrayList<>(maxBatchSize);
+            }
+        }
+        if (!batch.isEmpty()) writeBatch(batch);
+
+        long now = System.currentTimeMillis();
+        lastFlushAt = now;
+        lastFlushDurationMs = now - started;
+        lastFlushLagMs = now - oldest;
+        maxFlushLagMs = Math.max(maxFlushLagMs, lastFlushLagMs);
+    }
+
+    private void writeBatch(List<Map.Entry<Long, PendingTelemetry>> batch) {
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch, batch.size(), (ps, e) -> {
+                PendingTelemetry t = e.getValue();
+                ps.setDouble(1, t.speed());
+                ps.setDouble(2, t.battery());
+                ps.setDouble(3, t.fuel());
+                ps.setDouble(4, t.latitude());
+                ps.setDouble(5, t.longitude());
+                if (t.statusId() != null) ps.setLong(6, t.statusId());
+                else ps.setNull(6, Types.BIGINT);
+                ps.setTimestamp(7, Timestamp.valueOf(t.updatedAt()));
+                ps.setLong(8, e.getKey());
+            });
+            flushedRows.add(batch.size());
+        } catch (DataAccessException ex) {
+            failedFlushes.increment();
+            System.err.println("Telemetry flush failed (" + batch.size() + " rows re-queued): " + ex.getMessage());
+            // put the rows back without overwriting anything newer that arrived meanwhile
+            for (Map.Entry<Long, PendingTelemetry> e : batch) {
+                pending.merge(e.getKey(), e.getValue(), (newer, failed) -> newer.coalesce(failed));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("pending", pending.size());
+        m.put("maxPending", maxPending);
+        m.put("enqueued", enqueued.sum());
+        m.put("coalesced", coalesced.sum());
+        m.put("dropped", dropped.sum());
+        m.put("flushedRows", flushedRows.sum());
+        m.put("failedFlushes", failedFlushes.sum());
+        m.put("lastFlushAt", lastFlushAt);
+        m.put("lastFlushDurationMs", lastFlushDurationMs);
+        m.put("lastFlushLagMs", lastFlushLagMs);
+        m.put("maxFlushLagMs", maxFlushLagMs);
+        return m;
+    }
+
+    /*
+     Latest unflushed telemetry of one vehicle. firstEnqueuedAt is kept from the oldest
+     unflushed update so the flush lag reflects how stale the database row really was.
+    */
+    record PendingTelemetry(double speed, double battery, double fuel, double latitude, double longitude,
+                            Long statusId, LocalDateTime updatedAt, long firstEnqueuedAt) {
+
+        PendingTelemetry coalesce(PendingTelemetry older) {
+            return new PendingTelemetry(speed, battery, fuel, latitude, longitude,
+                    statusId != null ? statusId : older.statusId,
+                    updatedAt, Math.min(firstEnqueuedAt, older.firstEnqueuedAt));
+        }
+    }
+}
@@ -4,8 +4,8 @@ package com.infosys.service;
 import com.infosys.dto.RegisterRequest;
 import com.infosys.model.Role;
 import com.infosys.model.User;
-import com.infosys.repository.RoleRepository;
 import com.infosys.repository.UserRepository;
+import com.infosys.service.Reference.ReferenceDataRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -21,7 +21,7 @@ public class UserService {
     @Autowired
     private UserRepository userRepository;
     @Autowired
-    private RoleRepository roleRepository;
+    private ReferenceDataRegistry referenceData;
     @Autowired
     private PasswordEncoder encoder;
 
@@ -37,7 +37,7 @@ public class UserService {
 
         // assign role (if missing, default to CUSTOMER)
         String roleName = Optional.ofNullable(req.getRole()).orElse("CUSTOMER");
-        Role role = roleRepository.findByName(roleName)
+        Role role = referenceData.roleByName(roleName)
                 .orElseThrow(() -> new RuntimeException("Role not found: " + roleName));
 
         user.setRoles(new HashSet<>(Collections.singletonList(role)));
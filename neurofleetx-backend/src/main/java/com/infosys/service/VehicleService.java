@@ -23,8 +23,13 @@ public interface VehicleService {
     // Advanced APIs
     List<VehicleResponse> filterVehicles(Long typeId, Long statusId);
 
+    // Returns null when the reading was absorbed by the telemetry dead-band (live state updated, nothing to persist or broadcast).
+    // recordedAt: device timestamp the history is keyed by (null = now)
     VehicleResponse updateTelemetry(Long vehicleId, Double speed, Double battery, Double fuel,
-                                    Double latitude, Double longitude);
+                                    Double latitude, Double longitude, Long recordedAt);
+
+    // Vehicles currently in "Available" status, served from the live fleet state
+    List<VehicleResponse> listAvailableVehicles();
 
     // Assignment APIs
     VehicleResponse assignDriver(Long vehicleId, Long driverId);
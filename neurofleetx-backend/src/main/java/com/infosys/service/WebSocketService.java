@@ -1,8 +1,11 @@
 package com.infosys.service;
 
+import com.infosys.dto.VehicleResponse;
 import com.infosys.model.Health_Analytics.MaintenanceTicket;
 import com.infosys.model.VehicleTelemetry;
+import com.infosys.service.Telemetry.TelemetryTileRouter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
@@ -12,10 +15,34 @@ public class WebSocketService {
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
 
+    @Autowired
+    private TelemetryTileRouter tileRouter;
+
+    // Per-vehicle VehicleResponse stream on /topic/telemetry, kept for clients not using frames
+    @Value("${telemetry.legacyStream.enabled:true}")
+    private boolean legacyStreamEnabled;
+
     public void sendTelemetryUpdate(VehicleTelemetry telemetry) {
         messagingTemplate.convertAndSend("/topic/telemetry", telemetry);
     }
 
+    public void sendTelemetryUpdate(VehicleResponse vehicle) {
+        if (legacyStreamEnabled) {
+            messagingTemplate.convertAndSend("/topic/telemetry", vehicle);
+        }
+        // viewport subscribers only get vehicles inside their tile
+        tileRouter.route(vehicle);
+    }
+
+    // Vehicle deleted from the fleet: tile subscribers that were shown it drop it
+    public void sendVehicleRemoved(long vehicleId) {
+        tileRouter.remove(vehicleId);
+    }
+
+    public void sendVehiclesRemovedFrom(long firstId) {
+        tileRouter.removeFrom(firstId);
+    }
+
     public void sendMaintenanceUpdate(MaintenanceTicket ticket) {
         messagingTemplate.convertAndSend("/topic/maintenance", ticket);
     }
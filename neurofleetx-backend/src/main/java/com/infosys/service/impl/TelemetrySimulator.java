@@ -1,14 +1,15 @@
 package com.infosys.service.impl;
 
-import com.infosys.model.Vehicle;
 import com.infosys.dto.VehicleResponse;
-import com.infosys.repository.VehicleRepository;
+import com.infosys.service.Fleet.FleetStateStore;
 import com.infosys.service.VehicleService;
+import com.infosys.service.WebSocketService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
@@ -16,31 +17,43 @@ import java.util.Random;
 public class TelemetrySimulator {
 
     @Autowired
-    private VehicleRepository vehicleRepo;
+    private FleetStateStore fleetState;
 
     @Autowired
     private VehicleService vehicleService;
 
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private WebSocketService webSocketService;
+
+    @Value("${simulator.enabled:true}")
+    private boolean enabled;
 
     private Random random = new Random();
 
-    // Runs every 10 seconds
+    // Runs every 10 seconds over the live fleet state (no database read)
     @Scheduled(fixedRate = 10000)
     public void simulateTelemetry() {
-        List<Vehicle> vehicles = vehicleRepo.findAll();
-        for (Vehicle v : vehicles) {
+        if (!enabled) return; // switched off for load tests (simulator.enabled=false)
+        List<Long> vehicleIds = new ArrayList<>(fleetState.size());
+        fleetState.forEach(slot -> {
+            if (!fleetState.isSynthetic(slot)) vehicleIds.add(fleetState.vehicleId(slot));
+        });
+
+        for (Long id : vehicleIds) {
+            int slot = fleetState.slotOf(id);
+            if (slot == FleetStateStore.NO_SLOT) continue; // removed meanwhile
+
             double newSpeed = random.nextDouble() * 120; // km/h
-            double newBattery = Math.max(0, v.getBatteryLevel() - random.nextDouble() * 5);
-            double newFuel = Math.max(0, v.getFuelLevel() - random.nextDouble() * 3);
-            double newLat = v.getLatitude() + (random.nextDouble() - 0.5) * 0.001;
-            double newLon = v.getLongitude() + (random.nextDouble() - 0.5) * 0.001;
+            double newBattery = Math.max(0, fleetState.battery(slot) - random.nextDouble() * 5);
+            double newFuel = Math.max(0, fleetState.fuel(slot) - random.nextDouble() * 3);
+            double newLat = fleetState.latitude(slot) + (random.nextDouble() - 0.5) * 0.001;
+            double newLon = fleetState.longitude(slot) + (random.nextDouble() - 0.5) * 0.001;
 
-            VehicleResponse updated = vehicleService.updateTelemetry(v.getId(), newSpeed, newBattery, newFuel, newLat, newLon);
+            VehicleResponse updated = vehicleService.updateTelemetry(id, newSpeed, newBattery, newFuel, newLat, newLon, null);
+            if (updated == null) continue; // within the dead-band
 
-            // Broadcast to clients
-            messagingTemplate.convertAndSend("/topic/telemetry", updated);
+            // Broadcast to clients on the per-vehicle stream; frame mode picks the change up from the store
+            webSocketService.sendTelemetryUpdate(updated);
         }
     }
 }
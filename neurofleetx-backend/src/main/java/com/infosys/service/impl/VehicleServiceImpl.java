@@ -8,14 +8,20 @@ import com.infosys.model.VehicleStatus;
 import com.infosys.model.VehicleType;
 import com.infosys.repository.UserRepository;
 import com.infosys.repository.VehicleRepository;
-import com.infosys.repository.VehicleStatusRepository;
-import com.infosys.repository.VehicleTypeRepository;
+import com.infosys.service.Fleet.FleetStateStore;
+import com.infosys.service.Reference.ReferenceDataRegistry;
+import com.infosys.service.Telemetry.TelemetryDeadBand;
+import com.infosys.service.Telemetry.TelemetryHistoryStore;
+import com.infosys.service.Telemetry.TelemetryWriteBehind;
 import com.infosys.service.VehicleService;
+import com.infosys.service.WebSocketService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,22 +31,30 @@ public class VehicleServiceImpl implements VehicleService {
     @Autowired
     private VehicleRepository vehicleRepo;
     @Autowired
-    private VehicleTypeRepository typeRepo;
-    @Autowired
-    private VehicleStatusRepository statusRepo;
+    private ReferenceDataRegistry referenceData;
     @Autowired
     private UserRepository userRepo;
+    @Autowired
+    private TelemetryWriteBehind telemetryWriteBehind;
+    @Autowired
+    private FleetStateStore fleetState;
+    @Autowired
+    private TelemetryDeadBand deadBand;
+    @Autowired
+    private TelemetryHistoryStore historyStore;
+    @Autowired
+    private WebSocketService webSocketService;
 
     @Override
     public VehicleResponse createVehicle(VehicleRequest req) {
         Vehicle vehicle = new Vehicle();
         vehicle.setName(req.getName());
 
-        VehicleType type = typeRepo.findById(req.getTypeId())
+        VehicleType type = referenceData.typeById(req.getTypeId())
                 .orElseThrow(() -> new RuntimeException("Vehicle type not found"));
         vehicle.setType(type);
 
-        VehicleStatus status = statusRepo.findById(req.getStatusId())
+        VehicleStatus status = referenceData.statusById(req.getStatusId())
                 .orElseThrow(() -> new RuntimeException("Vehicle status not found"));
         vehicle.setStatus(status);
 
@@ -58,6 +72,7 @@ public class VehicleServiceImpl implements VehicleService {
         vehicle.setLastUpdated(LocalDateTime.now());
 
         vehicleRepo.save(vehicle);
+        fleetState.upsert(vehicle);
         return mapToResponse(vehicle);
     }
 
@@ -68,10 +83,10 @@ public class VehicleServiceImpl implements VehicleService {
 
         if (req.getName() != null) vehicle.setName(req.getName());
         if (req.getTypeId() != null)
-            vehicle.setType(typeRepo.findById(req.getTypeId())
+            vehicle.setType(referenceData.typeById(req.getTypeId())
                     .orElseThrow(() -> new RuntimeException("Vehicle type not found")));
         if (req.getStatusId() != null)
-            vehicle.setStatus(statusRepo.findById(req.getStatusId())
+            vehicle.setStatus(referenceData.statusById(req.getStatusId())
                     .orElseThrow(() -> new RuntimeException("Vehicle status not found")));
 
         if (req.getAssignedDriverId() != null) {
@@ -88,12 +103,21 @@ public class VehicleServiceImpl implements VehicleService {
 
         vehicle.setLastUpdated(LocalDateTime.now());
         vehicleRepo.save(vehicle);
+        fleetState.upsertMetadata(vehicle);
+        // only the readings the request set explicitly replace the live ones
+        if (req.getBatteryLevel() != null || req.getFuelLevel() != null || req.getSpeed() != null
+                || req.getLatitude() != null || req.getLongitude() != null) {
+            fleetState.updateTelemetry(id, req.getSpeed(), req.getBatteryLevel(), req.getFuelLevel(),
+                    req.getLatitude(), req.getLongitude(), System.currentTimeMillis());
+        }
         return mapToResponse(vehicle);
     }
 
     @Override
     public void deleteVehicle(Long id) {
         vehicleRepo.deleteById(id);
+        fleetState.remove(id);
+        webSocketService.sendVehicleRemoved(id);
     }
 
     @Override
@@ -111,14 +135,14 @@ public class VehicleServiceImpl implements VehicleService {
     @Override
     public List<VehicleResponse> filterVehicles(Long typeId, Long statusId) {
         if (typeId != null && statusId != null) {
-            VehicleType type = typeRepo.findById(typeId).orElseThrow(() -> new RuntimeException("Type not found"));
-            VehicleStatus status = statusRepo.findById(statusId).orElseThrow(() -> new RuntimeException("Status not found"));
+            VehicleType type = referenceData.typeById(typeId).orElseThrow(() -> new RuntimeException("Type not found"));
+            VehicleStatus status = referenceData.statusById(statusId).orElseThrow(() -> new RuntimeException("Status not found"));
             return vehicleRepo.findByTypeAndStatus(type, status).stream().map(this::mapToResponse).collect(Collectors.toList());
         } else if (typeId != null) {
-            VehicleType type = typeRepo.findById(typeId).orElseThrow(() -> new RuntimeException("Type not found"));
+            VehicleType type = referenceData.typeById(typeId).orElseThrow(() -> new RuntimeException("Type not found"));
             return vehicleRepo.findByType(type).stream().map(this::mapToResponse).collect(Collectors.toList());
         } else if (statusId != null) {
-            VehicleStatus status = statusRepo.findById(statusId).orElseThrow(() -> new RuntimeException("Status not found"));
+            VehicleStatus status = referenceData.statusById(statusId).orElseThrow(() -> new RuntimeException("Status not found"));
             return vehicleRepo.findByStatus(status).stream().map(this::mapToResponse).collect(Collectors.toList());
         } else {
             return listVehicles();
@@ -126,28 +150,49 @@ public class VehicleServiceImpl implements VehicleService {
     }
 
     @Override
-    @Transactional(readOnly = true)
-    public VehicleResponse updateTelemetry(Long vehicleId, Double speed, Double battery, Double fuel, Double latitude, Double longitude) {
-        Vehicle vehicle = vehicleRepo.findById(vehicleId)
-                .orElseThrow(() -> new RuntimeException("Vehicle not found"));
-
-        if (speed != null) vehicle.setSpeed(speed);
-        if (battery != null) vehicle.setBatteryLevel(battery);
-        if (fuel != null) vehicle.setFuelLevel(fuel);
-        if (latitude != null) vehicle.setLatitude(latitude);
-        if (longitude != null) vehicle.setLongitude(longitude);
-
-        vehicle.setLastUpdated(LocalDateTime.now());
+    public VehicleResponse updateTelemetry(Long vehicleId, Double speed, Double battery, Double fuel, Double latitude, Double longitude,
+                                           Long recordedAt) {
+        long now = System.currentTimeMillis();
+        int slot = fleetState.updateTelemetry(vehicleId, speed, battery, fuel, latitude, longitude, now);
+        if (slot == FleetStateStore.NO_SLOT) throw new RuntimeException("Vehicle not found");
+
+        Long changedStatusId = null;
+        if (fleetState.battery(slot) < 20 || fleetState.fuel(slot) < 10) {
+            int needsService = fleetState.statusCodeOf(ReferenceDataRegistry.Status.NEEDS_MAINTENANCE.label);
+            if (needsService == FleetStateStore.UNKNOWN_CODE) throw new RuntimeException("Status not found");
+            if (fleetState.statusCode(slot) != needsService) {
+                fleetState.setStatusCode(slot, needsService);
+                changedStatusId = fleetState.statusIdOf(needsService);
+            }
+        }
 
+        // every reading goes to the history, independent of the dead-band, at the time the device took it
+        // (a device clock ahead of ours is capped at now so retention still applies)
+        long historyTs = recordedAt != null && recordedAt > 0 ? Math.min(recordedAt, now) : now;
+        historyStore.append(vehicleId, historyTs, fleetState.latitude(slot), fleetState.longitude(slot),
+                fleetState.speed(slot), fleetState.battery(slot), fleetState.fuel(slot));
 
-        if (vehicle.getBatteryLevel() < 20 || vehicle.getFuelLevel() < 10) {
-            VehicleStatus needsService = statusRepo.findByName("Needs Maintenance")
-                    .orElseThrow(() -> new RuntimeException("Status not found"));
-            vehicle.setStatus(needsService);
+        // the live state above is always current; persistence and broadcast only when the dead-band lets it through
+        if (!deadBand.shouldEmit(slot, vehicleId, fleetState.speed(slot), fleetState.battery(slot), fleetState.fuel(slot),
+                fleetState.latitude(slot), fleetState.longitude(slot), changedStatusId != null, now)) {
+            return null;
         }
 
-        vehicleRepo.save(vehicle);
-        return mapToResponse(vehicle);
+        // persistence goes through the write-behind stage; load-test vehicles have no row to update
+        if (!fleetState.isSynthetic(slot)) telemetryWriteBehind.enqueue(vehicleId, fleetState.speed(slot), fleetState.battery(slot), fleetState.fuel(slot),
+                fleetState.latitude(slot), fleetState.longitude(slot), changedStatusId,
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(now), ZoneId.systemDefault()));
+        return mapToResponse(slot);
+    }
+
+    @Override
+    public List<VehicleResponse> listAvailableVehicles() {
+        int available = fleetState.statusCodeOf(ReferenceDataRegistry.Status.AVAILABLE.label);
+        List<VehicleResponse> result = new ArrayList<>();
+        fleetState.forEach(slot -> {
+            if (fleetState.statusCode(slot) == available && !fleetState.isSynthetic(slot)) result.add(mapToResponse(slot));
+        });
+        return result;
     }
 
     @Override
@@ -156,18 +201,17 @@ public class VehicleServiceImpl implements VehicleService {
         User driver = userRepo.findById(driverId).orElseThrow(() -> new RuntimeException("Driver not found"));
 
         // ensure user has DRIVER role
-        boolean isDriver = driver.getRoles().stream().anyMatch(r -> "DRIVER".equalsIgnoreCase(r.getName()));
+        boolean isDriver = driver.getRoles().stream().anyMatch(r -> ReferenceDataRegistry.RoleName.DRIVER.name().equalsIgnoreCase(r.getName()));
         if (!isDriver) throw new RuntimeException("User is not a DRIVER");
 
         vehicle.setAssignedDriver(driver);
 
         // Update status to "In Use" when driver assigned
-        VehicleStatus inUseStatus = statusRepo.findByName("In Use")
-                .orElseThrow(() -> new RuntimeException("Status not found"));
-        vehicle.setStatus(inUseStatus);
+        vehicle.setStatus(referenceData.status(ReferenceDataRegistry.Status.IN_USE));
 
         vehicle.setLastUpdated(LocalDateTime.now());
         vehicleRepo.save(vehicle);
+        fleetState.upsertMetadata(vehicle);
 
         return mapToResponse(vehicle);
     }
@@ -178,12 +222,11 @@ public class VehicleServiceImpl implements VehicleService {
         vehicle.setAssignedDriver(null);
 
         // Update status back to "Available" when driver unassigned
-        VehicleStatus availableStatus = statusRepo.findByName("Available")
-                .orElseThrow(() -> new RuntimeException("Status not found"));
-        vehicle.setStatus(availableStatus);
+        vehicle.setStatus(referenceData.status(ReferenceDataRegistry.Status.AVAILABLE));
 
         vehicle.setLastUpdated(LocalDateTime.now());
         vehicleRepo.save(vehicle);
+        fleetState.upsertMetadata(vehicle);
         return mapToResponse(vehicle);
     }
 
@@ -207,6 +250,26 @@ public class VehicleServiceImpl implements VehicleService {
         return resp;
     }
 
+    private VehicleResponse mapToResponse(int slot) {
+        VehicleResponse resp = new VehicleResponse();
+        resp.setId(fleetState.vehicleId(slot));
+        resp.setName(fleetState.name(slot));
+        resp.setType(fleetState.typeName(slot));
+        resp.setStatus(fleetState.statusName(slot));
+        resp.setBatteryLevel(fleetState.battery(slot));
+        resp.setFuelLevel(fleetState.fuel(slot));
+        resp.setSpeed(fleetState.speed(slot));
+        resp.setLatitude(fleetState.latitude(slot));
+        resp.setLongitude(fleetState.longitude(slot));
+
+        if (fleetState.driverId(slot) != 0) {
+            resp.setAssignedDriverId(fleetState.driverId(slot));
+            resp.setAssignedDriverName(fleetState.driverName(slot));
+        }
+
+        return resp;
+    }
+
     @Override
     public Vehicle getVehicleByDriverId(Long driverId) {
         return vehicleRepo.findByAssignedDriverId(driverId)
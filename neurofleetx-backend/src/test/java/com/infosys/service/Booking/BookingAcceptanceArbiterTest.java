@@ -0,0 +1,205 @@
+package com.infosys.service.Booking;
+
+import com.infosys.exception.BookingConflictException;
+import com.infosys.model.Vehicle;
+import com.infosys.service.Fleet.FleetStateStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntToLongFunction;
+import java.util.function.IntUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ Purpose: Concurrency test of the booking acceptance arbiter. 1,000 accept attempts are released at once;
+ the "database" part is simulated with a round-trip delay and a version check like the @Version columns.
+ Checks that exactly one driver wins a booking, no vehicle is booked twice for one time window, losers
+ never reach the database, and a released claim lets the booking be accepted again.
+ The real service path is covered by BookingServiceAcceptanceTest.
+*/
+class BookingAcceptanceArbiterTest {
+
+    private static final int ATTEMPTS = 1_000;
+    private static final long DB_ROUND_TRIP_MILLIS = 2;
+
+    @Test
+    void oneBookingHasExactlyOneWinner() throws InterruptedException {
+        FakeDatabase db = new FakeDatabase(1, ATTEMPTS);
+        BookingAcceptanceArbiter arbiter = arbiter(db.fleet);
+
+        Result r = race(arbiter, db, i -> 0, i -> i + 1L);
+
+        assertEquals(1, r.accepted.get(), "exactly one driver may accept the booking");
+        assertEquals(ATTEMPTS - 1, r.conflicts.sum(), "every other driver gets a conflict");
+        assertEquals(1, db.calls.get(), "losers must not reach the database");
+        assertEquals(1, db.bookingVersion[0].get());
+    }
+
+    @Test
+    void overlappingBookingsNeverDoubleBookAVehicle() throws InterruptedException {
+        // 50 drivers each try all 20 bookings of the same time window at once: 1,000 attempts
+        int bookings = 20;
+        int drivers = ATTEMPTS / bookings;
+        FakeDatabase db = new FakeDatabase(bookings, drivers);
+        BookingAcceptanceArbiter arbiter = arbiter(db.fleet);
+
+        Result r = race(arbiter, db, i -> i % bookings, i -> (long) (i / bookings) + 1);
+
+        int winners = 0;
+        for (int b = 0; b < bookings; b++) {
+            assertTrue(db.bookingVersion[b].get() <= 1, "booking " + b + " accepted more than once");
+            if (db.acceptedBy[b].get() != 0) winners++;
+        }
+        for (int d = 1; d <= drivers; d++) {
+            assertTrue(db.vehicleBookings[d].get() <= 1, "vehicle of driver " + d + " double-booked");
+        }
+        assertEquals(winners, r.accepted.get());
+        assertTrue(winners >= 1);
+        assertEquals(ATTEMPTS, r.accepted.get() + r.conflicts.sum(), "every attempt resolves to win or conflict");
+    }
+
+    @Test
+    void releasedClaimLetsTheBookingBeAcceptedAgain() {
+        FakeDatabase db = new FakeDatabase(1, 2);
+        BookingAcceptanceArbiter arbiter = arbiter(db.fleet);
+
+        assertEquals(1L, arbiter.accept(0L, 1L, () -> 1L));
+        assertThrows(BookingConflictException.class, () -> arbiter.accept(0L, 2L, () -> 2L));
+
+        arbiter.release(0L); // the booking left CONFIRMED
+        assertEquals(2L, arbiter.accept(0L, 2L, () -> 2L));
+    }
+
+    // ====== HARNESS ======
+
+    private Result race(BookingAcceptanceArbiter arbiter, FakeDatabase db,
+                        IntUnaryOperator bookingOf, IntToLongFunction driverOf) throws InterruptedException {
+        Result r = new Result();
+        CountDownLatch ready = new CountDownLatch(ATTEMPTS);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(ATTEMPTS);
+        List<Thread> threads = new ArrayList<>(ATTEMPTS);
+        for (int i = 0; i < ATTEMPTS; i++) {
+            int booking = bookingOf.applyAsInt(i);
+            long driver = driverOf.applyAsLong(i);
+            Thread t = new Thread(() -> {
+                ready.countDown();
+                try {
+                    start.await();
+                    arbiter.accept((long) booking, driver, () -> db.accept(booking, driver));
+                    r.accepted.incrementAndGet();
+                } catch (BookingConflictException e) {
+                    r.conflicts.increment();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+
+        ready.await();
+        start.countDown();
+        done.await();
+        for (Thread t : threads) t.join();
+        return r;
+    }
+
+    private static BookingAcceptanceArbiter arbiter(FleetStateStore fleet) {
+        BookingAcceptanceArbiter arbiter = new BookingAcceptanceArbiter();
+        ReflectionTestUtils.setField(arbiter, "transactionManager", new NoOpTransactionManager());
+        ReflectionTestUtils.setField(arbiter, "fleetState", fleet);
+        ReflectionTestUtils.setField(arbiter, "claimRetentionMs", 600_000L);
+        ReflectionTestUtils.setField(arbiter, "vehicleLockTimeoutMs", 2_000L);
+        arbiter.init();
+        return arbiter;
+    }
+
+    // Bookings all share one time window; driver d drives vehicle d
+    private static final class FakeDatabase {
+        final FleetStateStore fleet = new FleetStateStore();
+        final AtomicLong[] bookingVersion;
+        final AtomicLong[] acceptedBy;
+        final AtomicInteger[] vehicleBookings;
+        final AtomicInteger calls = new AtomicInteger();
+
+        FakeDatabase(int bookings, int drivers) {
+            bookingVersion = new AtomicLong[bookings];
+            acceptedBy = new AtomicLong[bookings];
+            for (int b = 0; b < bookings; b++) {
+                bookingVersion[b] = new AtomicLong();
+                acceptedBy[b] = new AtomicLong();
+            }
+            vehicleBookings = new AtomicInteger[drivers + 1];
+            for (int d = 1; d <= drivers; d++) {
+                vehicleBookings[d] = new AtomicInteger();
+                Vehicle v = new Vehicle();
+                v.setId((long) d);
+                v.setName("Test-" + d);
+                v.setAssignedDriverId((long) d);
+                fleet.upsert(v);
+            }
+        }
+
+        // what BookingServiceImpl does inside the transaction: read, check availability, write with version check
+        Long accept(int booking, long driver) {
+            calls.incrementAndGet();
+            long version = bookingVersion[booking].get();
+            if (acceptedBy[booking].get() != 0) throw new RuntimeException("Booking is not in PENDING status");
+            if (vehicleBookings[(int) driver].get() > 0) {
+                throw new BookingConflictException("Vehicle is already booked for this time period");
+            }
+            sleep(DB_ROUND_TRIP_MILLIS);
+            if (!bookingVersion[booking].compareAndSet(version, version + 1)) {
+                throw new ObjectOptimisticLockingFailureException("Booking", booking);
+            }
+            acceptedBy[booking].set(driver);
+            vehicleBookings[(int) driver].incrementAndGet();
+            return driver;
+        }
+
+        private static void sleep(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static final class NoOpTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+
+    private static final class Result {
+        final AtomicInteger accepted = new AtomicInteger();
+        final LongAdder conflicts = new LongAdder();
+    }
+}
@@ -0,0 +1,309 @@
+package com.infosys.service.Booking;
+
+import com.infosys.exception.BookingConflictException;
+import com.infosys.model.Booking.Booking;
+import com.infosys.model.Booking.BookingStatus;
+import com.infosys.model.Vehicle;
+import com.infosys.model.VehicleStatus;
+import com.infosys.model.VehicleType;
+import com.infosys.repository.BookingRepository;
+import com.infosys.repository.VehicleRepository;
+import com.infosys.service.Fleet.FleetStateStore;
+import com.infosys.service.Reference.ReferenceDataRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/*
+ Purpose: Driver acceptance through BookingServiceImpl.driverAcceptBooking -> arbiter -> acceptAsDriver.
+ The repositories are in-memory fakes that enforce @Version like Hibernate does at flush: saving an entity
+ read at an older version fails with ObjectOptimisticLockingFailureException. The vehicle read for a
+ booking bumps the vehicle version on save like OPTIMISTIC_FORCE_INCREMENT.
+ Checks one winner under concurrent accepts, that a stale booking or vehicle version (a writer bypassing
+ the arbiter) is reported as a conflict and frees the booking, that a failed commit neither broadcasts
+ nor touches the live fleet state, and that cancelling releases the claim.
+*/
+class BookingServiceAcceptanceTest {
+
+    private static final int DRIVERS = 50;
+    private static final long BOOKING_ID = 1L;
+    private static final long CUSTOMER_ID = 500L;
+
+    private final Map<Long, Booking> bookings = new ConcurrentHashMap<>();
+    private final Map<Long, Vehicle> vehicles = new ConcurrentHashMap<>();
+    private final AtomicInteger bookingWrites = new AtomicInteger();
+    private final AtomicLong bumpBookingAfterRead = new AtomicLong();   // concurrent writers to simulate
+    private final AtomicLong bumpVehicleAfterRead = new AtomicLong();
+
+    private BookingServiceImpl service;
+    private BookingAcceptanceArbiter arbiter;
+    private FleetStateStore fleet;
+    private SimpMessagingTemplate messagingTemplate;
+    private final FakeTransactionManager transactionManager = new FakeTransactionManager();
+
+    @BeforeEach
+    void setUp() {
+        fleet = new FleetStateStore();
+        VehicleType sedan = new VehicleType(1L, "SEDAN");
+        for (long d = 1; d <= DRIVERS; d++) {
+            Vehicle v = new Vehicle();
+            v.setId(d);
+            v.setName("Test-" + d);
+            v.setType(sedan);
+            v.setAssignedDriverId(d);
+            v.setVersion(0L);
+            vehicles.put(d, v);
+            fleet.upsert(v);
+        }
+        bookings.put(BOOKING_ID, Booking.builder()
+                .id(BOOKING_ID)
+                .customerId(CUSTOMER_ID)
+                .vehicleType("SEDAN")
+                .startTime(LocalDateTime.of(2030, 1, 1, 10, 0))
+                .endTime(LocalDateTime.of(2030, 1, 1, 12, 0))
+                .status(BookingStatus.PENDING)
+                .version(0L)
+                .build());
+
+        BookingRepository bookingRepo = mock(BookingRepository.class);
+        when(bookingRepo.findById(anyLong())).thenAnswer(inv -> {
+            Booking stored = bookings.get((Long) inv.getArgument(0));
+            if (stored == null) return Optional.empty();
+            Booking read = copy(stored);
+            if (bumpBookingAfterRead.getAndSet(0) != 0) stored.setVersion(stored.getVersion() + 1);
+            return Optional.of(read);
+        });
+        when(bookingRepo.save(any(Booking.class))).thenAnswer(inv -> {
+            Booking b = inv.getArgument(0);
+            synchronized (bookings) {
+                Booking stored = bookings.get(b.getId());
+                if (!stored.getVersion().equals(b.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Booking.class, b.getId());
+                }
+                Booking written = copy(b);
+                written.setVersion(b.getVersion() + 1);
+                bookings.put(b.getId(), written);
+                bookingWrites.incrementAndGet();
+                return copy(written);
+            }
+        });
+
+        VehicleRepository vehicleRepo = mock(VehicleRepository.class);
+        when(vehicleRepo.findByAssignedDriverIdForBooking(anyLong())).thenAnswer(inv -> {
+            Vehicle stored = vehicles.get((Long) inv.getArgument(0));
+            if (stored == null) return Optional.empty();
+            Vehicle read = copy(stored);
+            if (bumpVehicleAfterRead.getAndSet(0) != 0) stored.setVersion(stored.getVersion() + 1);
+            return Optional.of(read);
+        });
+        when(vehicleRepo.findById(anyLong())).thenAnswer(inv ->
+                Optional.ofNullable(vehicles.get((Long) inv.getArgument(0))).map(BookingServiceAcceptanceTest::copy));
+        when(vehicleRepo.save(any(Vehicle.class))).thenAnswer(inv -> {
+            Vehicle v = inv.getArgument(0);
+            synchronized (vehicles) {
+                if (!vehicles.get(v.getId()).getVersion().equals(v.getVersion())) {
+                    throw new ObjectOptimisticLockingFailureException(Vehicle.class, v.getId());
+                }
+                Vehicle written = copy(v);
+                written.setVersion(v.getVersion() + 1);
+                vehicles.put(v.getId(), written);
+                return copy(written);
+            }
+        });
+
+        BookingAvailabilityIndex availability = mock(BookingAvailabilityIndex.class);
+        when(availability.isFreeVerified(anyLong(), any(), any())).thenReturn(true);
+
+        arbiter = new BookingAcceptanceArbiter();
+        ReflectionTestUtils.setField(arbiter, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(arbiter, "fleetState", fleet);
+        ReflectionTestUtils.setField(arbiter, "claimRetentionMs", 600_000L);
+        ReflectionTestUtils.setField(arbiter, "vehicleLockTimeoutMs", 2_000L);
+        arbiter.init();
+
+        service = new BookingServiceImpl();
+        ReflectionTestUtils.setField(service, "bookingRepo", bookingRepo);
+        ReflectionTestUtils.setField(service, "vehicleRepo", vehicleRepo);
+        messagingTemplate = mock(SimpMessagingTemplate.class);
+        ReferenceDataRegistry referenceData = mock(ReferenceDataRegistry.class);
+        when(referenceData.status(ReferenceDataRegistry.Status.IN_USE)).thenReturn(new VehicleStatus(2L, "In Use"));
+        ReflectionTestUtils.setField(service, "messagingTemplate", messagingTemplate);
+        ReflectionTestUtils.setField(service, "referenceData", referenceData);
+        ReflectionTestUtils.setField(service, "fleetState", fleet);
+        ReflectionTestUtils.setField(service, "availability", availability);
+        ReflectionTestUtils.setField(service, "pendingQueues", mock(PendingBookingQueues.class));
+        ReflectionTestUtils.setField(service, "statistics", mock(BookingStatistics.class));
+        ReflectionTestUtils.setField(service, "acceptanceArbiter", arbiter);
+    }
+
+    @Test
+    void concurrentAcceptsConfirmTheBookingOnce() throws InterruptedException {
+        AtomicLong winner = new AtomicLong();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (long d = 1; d <= DRIVERS; d++) {
+            long driver = d;
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                    service.driverAcceptBooking(BOOKING_ID, driver);
+                    winner.set(driver);
+                } catch (BookingConflictException e) {
+                    conflicts.incrementAndGet();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+        start.countDown();
+        for (Thread t : threads) t.join();
+
+        Booking stored = bookings.get(BOOKING_ID);
+        assertEquals(DRIVERS - 1, conflicts.get(), "every other driver gets a conflict");
+        assertEquals(1, bookingWrites.get(), "losers must not reach the database");
+        assertEquals(BookingStatus.CONFIRMED, stored.getStatus());
+        assertEquals(winner.get(), stored.getAssignedDriverId());
+        assertEquals(winner.get(), stored.getVehicleId()); // driver d drives vehicle d
+        assertEquals(1L, vehicles.get(winner.get()).getVersion());
+        assertEquals("In Use", fleet.statusName(fleet.slotOf(winner.get())));
+    }
+
+    @Test
+    void failedCommitSendsNothingAndLeavesTheLiveStateAlone() {
+        transactionManager.failNextCommit = true; // the version check fails at flush/commit
+
+        assertThrows(BookingConflictException.class, () -> service.driverAcceptBooking(BOOKING_ID, 1L));
+
+        verifyNoInteractions(messagingTemplate);
+        assertEquals(FleetStateStore.UNKNOWN_CODE, fleet.statusCode(fleet.slotOf(1L)), "vehicle must not be IN_USE");
+        assertEquals(0, arbiter.getMetrics().get("claims"));
+    }
+
+    @Test
+    void staleBookingVersionIsAConflictAndFreesTheBooking() {
+        bumpBookingAfterRead.set(1); // another instance writes the booking between our read and our save
+
+        assertThrows(BookingConflictException.class, () -> service.driverAcceptBooking(BOOKING_ID, 1L));
+        assertEquals(1L, arbiter.getMetrics().get("versionConflicts"));
+        assertEquals(0, bookingWrites.get());
+
+        Booking accepted = service.driverAcceptBooking(BOOKING_ID, 2L); // the failed claim was released
+        assertEquals(BookingStatus.CONFIRMED, accepted.getStatus());
+        assertEquals(2L, accepted.getAssignedDriverId());
+    }
+
+    @Test
+    void staleVehicleVersionIsAConflict() {
+        bumpVehicleAfterRead.set(1); // the vehicle was booked elsewhere after our forced-increment read
+
+        assertThrows(BookingConflictException.class, () -> service.driverAcceptBooking(BOOKING_ID, 1L));
+        assertEquals(1L, arbiter.getMetrics().get("versionConflicts"));
+        assertEquals(BookingStatus.PENDING, bookings.get(BOOKING_ID).getStatus());
+    }
+
+    @Test
+    void cancellingAConfirmedBookingReleasesItsClaim() {
+        service.driverAcceptBooking(BOOKING_ID, 1L);
+        assertEquals(1, arbiter.getMetrics().get("claims"));
+
+        service.cancelBooking(BOOKING_ID, CUSTOMER_ID);
+
+        assertEquals(BookingStatus.CANCELLED, bookings.get(BOOKING_ID).getStatus());
+        assertEquals(0, arbiter.getMetrics().get("claims"));
+    }
+
+    @Test
+    void statusChangesKeepTheLiveTelemetry() {
+        fleet.updateTelemetry(1L, 30.0, 42.0, 55.0, 12.97, 77.59, 1_000L); // newer than the vehicle row
+        int slot = fleet.slotOf(1L);
+
+        service.driverAcceptBooking(BOOKING_ID, 1L);
+        assertEquals("In Use", fleet.statusName(slot));
+        assertEquals(42.0, fleet.battery(slot));
+        assertEquals(12.97, fleet.latitude(slot));
+
+        service.cancelBooking(BOOKING_ID, CUSTOMER_ID);
+        assertEquals(42.0, fleet.battery(slot));
+        assertEquals(55.0, fleet.fuel(slot));
+        assertEquals(1_000L, fleet.lastUpdated(slot));
+    }
+
+    private static Booking copy(Booking b) {
+        return Booking.builder()
+                .id(b.getId())
+                .customerId(b.getCustomerId())
+                .vehicleType(b.getVehicleType())
+                .startTime(b.getStartTime())
+                .endTime(b.getEndTime())
+                .status(b.getStatus())
+                .rejectedBy(b.getRejectedBy())
+                .vehicleId(b.getVehicleId())
+                .assignedDriverId(b.getAssignedDriverId())
+                .updatedAt(b.getUpdatedAt())
+                .version(b.getVersion())
+                .build();
+    }
+
+    private static Vehicle copy(Vehicle v) {
+        Vehicle c = new Vehicle();
+        c.setId(v.getId());
+        c.setName(v.getName());
+        c.setType(v.getType());
+        c.setStatus(v.getStatus());
+        c.setAssignedDriverId(v.getAssignedDriverId());
+        c.setVersion(v.getVersion());
+        return c;
+    }
+
+    // Runs transaction synchronizations like a real manager (afterCommit only after a successful commit)
+    private static final class FakeTransactionManager extends AbstractPlatformTransactionManager {
+        volatile boolean failNextCommit;
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            if (failNextCommit) {
+                failNextCommit = false;
+                throw new ObjectOptimisticLockingFailureException(Vehicle.class, 1L);
+            }
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
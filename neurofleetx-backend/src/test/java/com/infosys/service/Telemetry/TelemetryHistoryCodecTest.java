@@ -0,0 +1,102 @@
+package com.infosys.service.Telemetry;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ Purpose: Round trip of TelemetryHistoryCodec. Every point written by the Encoder must come back from the
+ Decoder with the same timestamp and the same double bits, across all delta-of-delta buckets (including
+ jumps that need the 64-bit escape and time going backwards) and for repeated, tiny and extreme values.
+*/
+class TelemetryHistoryCodecTest {
+
+    @Test
+    void roundTripsIrregularSeries() {
+        Random random = new Random(42);
+        int count = 2_000;
+        long[] ts = new long[count];
+        double[][] values = new double[count][TelemetryHistoryCodec.COLUMNS];
+
+        long t = 1_700_000_000_000L;
+        for (int i = 0; i < count; i++) {
+            switch (i % 7) {
+                case 0 -> t += 1_000;                              // steady interval: '0' bucket
+                case 1 -> t += 1_000 + random.nextInt(100);        // 7-bit jitter
+                case 2 -> t += random.nextInt(3_000);              // 9 / 12-bit
+                case 3 -> t += random.nextInt(10_000_000);         // 32-bit
+                case 4 -> t -= random.nextInt(5_000);              // device clock stepped back
+                case 5 -> t += (i % 14 == 5) ? 1L << 40 : 1_000;   // 64-bit escape
+                default -> t += 1_000;
+            }
+            ts[i] = t;
+            double[] v = values[i];
+            v[0] = 12.97 + random.nextGaussian() * 1e-3;
+            v[1] = i % 3 == 0 && i > 0 ? values[i - 1][1] : 77.59 + random.nextGaussian() * 1e-3; // repeats
+            v[2] = i % 5 == 0 ? 0.0 : random.nextDouble() * 120;
+            v[3] = i % 11 == 0 ? Double.MIN_VALUE : 100 - i * 0.01;
+            v[4] = i % 13 == 0 ? -Double.MAX_VALUE : random.nextDouble() * 100;
+        }
+
+        TelemetryHistoryCodec.Encoder encoder = new TelemetryHistoryCodec.Encoder();
+        for (int i = 0; i < count; i++) {
+            encoder.append(ts[i], values[i][0], values[i][1], values[i][2], values[i][3], values[i][4]);
+        }
+        assertEquals(count, encoder.count());
+        assertEquals(ts[0], encoder.firstTimestamp());
+        assertEquals(ts[count - 1], encoder.lastTimestamp());
+
+        TelemetryHistoryCodec.Decoder decoder = new TelemetryHistoryCodec.Decoder(encoder.toByteArray(), encoder.count());
+        for (int i = 0; i < count; i++) {
+            assertTrue(decoder.next(), "point " + i + " missing");
+            assertEquals(ts[i], decoder.timestamp(), "timestamp of point " + i);
+            assertBits(values[i][0], decoder.latitude(), i);
+            assertBits(values[i][1], decoder.longitude(), i);
+            assertBits(values[i][2], decoder.speed(), i);
+            assertBits(values[i][3], decoder.battery(), i);
+            assertBits(values[i][4], decoder.fuel(), i);
+        }
+        assertFalse(decoder.next(), "decoder must stop after count points");
+    }
+
+    @Test
+    void constantSeriesCostsSixBitsPerPoint() {
+        TelemetryHistoryCodec.Encoder encoder = new TelemetryHistoryCodec.Encoder();
+        for (int i = 0; i < 1_000; i++) encoder.append(1_000L * i, 12.97, 77.59, 0.0, 80.0, 60.0);
+
+        // first point raw (48 bytes), the first interval once, then 6 bits per point: unchanged interval
+        // and five unchanged columns
+        assertTrue(encoder.sizeInBytes() <= 48 + 4 + 1_000 * 6 / 8, "size " + encoder.sizeInBytes());
+
+        TelemetryHistoryCodec.Decoder decoder = new TelemetryHistoryCodec.Decoder(encoder.toByteArray(), encoder.count());
+        int n = 0;
+        while (decoder.next()) {
+            assertEquals(1_000L * n, decoder.timestamp());
+            assertEquals(80.0, decoder.battery());
+            n++;
+        }
+        assertEquals(1_000, n);
+    }
+
+    @Test
+    void singlePointBlock() {
+        TelemetryHistoryCodec.Encoder encoder = new TelemetryHistoryCodec.Encoder();
+        encoder.append(-5L, Double.NaN, -0.0, Double.POSITIVE_INFINITY, 1.5, 2.5);
+
+        TelemetryHistoryCodec.Decoder decoder = new TelemetryHistoryCodec.Decoder(encoder.toByteArray(), 1);
+        assertTrue(decoder.next());
+        assertEquals(-5L, decoder.timestamp());
+        assertBits(Double.NaN, decoder.latitude(), 0);
+        assertBits(-0.0, decoder.longitude(), 0);
+        assertBits(Double.POSITIVE_INFINITY, decoder.speed(), 0);
+        assertFalse(decoder.next());
+    }
+
+    private static void assertBits(double expected, double actual, int point) {
+        assertEquals(Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(actual), "value of point " + point);
+    }
+}
@@ -0,0 +1,130 @@
+package com.infosys.service.Telemetry;
+
+import com.infosys.model.VehicleTelemetry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/*
+ Purpose: Range queries of TelemetryHistoryStore over real segment files. Small blocks and segments make a
+ window span several sealed blocks, a segment rollover and the open block; the query must return exactly
+ the points inside the window, in order, also after a restart rebuilt the index from the segments.
+ Blocks that overlap in time (device clock reset) must not lose points and must come back merged in time order;
+ a block sealed while a cursor is open must not lose points either.
+*/
+class TelemetryHistoryStoreTest {
+
+    private static final long VEHICLE = 7L;
+    private static final long T0 = 1_700_000_000_000L;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void rangeQueryReturnsThePointsInsideTheWindow() throws IOException {
+        TelemetryHistoryStore store = store(50);
+        for (int i = 0; i < 1_010; i++) append(store, VEHICLE, T0 + i * 1_000L, i); // last 10 stay open
+        append(store, VEHICLE + 1, T0 + 5_000L, -1); // another vehicle, other shard
+
+        assertTrue((int) store.getMetrics().get("segments") > 1, "the window should span a segment rollover");
+        assertWindow(store, 123, 1_005); // starts inside a sealed block, ends in the open block
+        assertWindow(store, 0, 999);
+        assertWindow(store, 500, 500);
+        assertEquals(0, store.query(VEHICLE, T0 - 10_000L, T0 - 1L, Integer.MAX_VALUE).size());
+
+        // the index is rebuilt from the segments on the next start
+        store.shutdown();
+        TelemetryHistoryStore restarted = store(50);
+        assertWindow(restarted, 123, 1_005);
+        assertEquals(List.of(VEHICLE, VEHICLE + 1), List.copyOf(restarted.vehicleIds()));
+    }
+
+    @Test
+    void findsPointsInBlocksThatOverlapInTime() throws IOException {
+        TelemetryHistoryStore store = store(3);
+        // one long block, then the device clock was reset and two short blocks start inside its span
+        append(store, VEHICLE, T0, 0);
+        append(store, VEHICLE, T0 + 550, 1);
+        append(store, VEHICLE, T0 + 1_000_000, 2);
+        for (int i = 0; i < 6; i++) append(store, VEHICLE, T0 + 100 + i * 50, 10 + i);
+
+        List<VehicleTelemetry> points = store.query(VEHICLE, T0 + 500, T0 + 600, Integer.MAX_VALUE);
+        assertEquals(1, points.size());
+        assertEquals(T0 + 550, points.get(0).getTimestamp());
+        assertEquals(1.0, points.get(0).getSpeed());
+
+        // the whole span: the three blocks and the open one are merged by timestamp
+        append(store, VEHICLE, T0 + 400, 20); // open block, also inside the long block's span
+        List<VehicleTelemetry> all = store.query(VEHICLE, T0, T0 + 2_000_000, Integer.MAX_VALUE);
+        assertEquals(List.of(T0, T0 + 100, T0 + 150, T0 + 200, T0 + 250, T0 + 300, T0 + 350, T0 + 400,
+                T0 + 550, T0 + 1_000_000), all.stream().map(VehicleTelemetry::getTimestamp).toList());
+        assertEquals(20.0, all.get(7).getSpeed());
+    }
+
+    @Test
+    void clockResetInsideABlockKeepsTimeOrder() throws IOException {
+        TelemetryHistoryStore store = store(100);
+        for (int i = 0; i < 5; i++) append(store, VEHICLE, T0 + 10_000 + i * 1_000L, i);
+        for (int i = 0; i < 5; i++) append(store, VEHICLE, T0 + 10_500 + i * 1_000L, 10 + i); // clock went back 4.5 s
+
+        List<VehicleTelemetry> all = store.query(VEHICLE, T0, T0 + 100_000, Integer.MAX_VALUE);
+        assertEquals(10, all.size());
+        for (int k = 1; k < all.size(); k++) {
+            assertTrue(all.get(k - 1).getTimestamp() <= all.get(k).getTimestamp(), "out of order at " + k);
+        }
+        assertEquals(List.of(0.0, 10.0, 1.0, 11.0), all.subList(0, 4).stream().map(VehicleTelemetry::getSpeed).toList());
+    }
+
+    @Test
+    void cursorSeesPointsOfABlockSealedAfterItOpened() throws IOException {
+        TelemetryHistoryStore store = store(5);
+        for (int i = 0; i < 3; i++) append(store, VEHICLE, T0 + i, i);
+        TelemetryHistoryStore.HistoryCursor cursor = store.cursor(VEHICLE, T0, T0 + 100);
+        for (int i = 3; i < 5; i++) append(store, VEHICLE, T0 + i, i); // seals the block the cursor would read as open
+
+        int n = 0;
+        while (cursor.next()) {
+            assertEquals(T0 + n, cursor.timestamp());
+            n++;
+        }
+        assertEquals(5, n);
+    }
+
+    private TelemetryHistoryStore store(int blockPoints) throws IOException {
+        TelemetryHistoryStore store = new TelemetryHistoryStore();
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "dir", dir.toString());
+        ReflectionTestUtils.setField(store, "shardCount", 2);
+        ReflectionTestUtils.setField(store, "segmentBytes", 4096);
+        ReflectionTestUtils.setField(store, "blockPoints", blockPoints);
+        ReflectionTestUtils.setField(store, "blockBytes", 1 << 20);
+        ReflectionTestUtils.setField(store, "maxBlockAgeMs", 3_600_000L);
+        ReflectionTestUtils.setField(store, "retentionHours", 72L);
+        store.init();
+        return store;
+    }
+
+    // point i carries i in every reading so it can be told apart after the round trip
+    private static void append(TelemetryHistoryStore store, long vehicleId, long timestamp, int i) {
+        store.append(vehicleId, timestamp, 12.97 + i * 1e-5, 77.59 - i * 1e-5, i, 100 - i * 0.01, 50);
+    }
+
+    private static void assertWindow(TelemetryHistoryStore store, int first, int last) {
+        List<VehicleTelemetry> points = store.query(VEHICLE, T0 + first * 1_000L, T0 + last * 1_000L, Integer.MAX_VALUE);
+        assertEquals(last - first + 1, points.size(), "points in [" + first + ", " + last + "]");
+        for (int k = 0; k < points.size(); k++) {
+            int i = first + k;
+            VehicleTelemetry p = points.get(k);
+            assertEquals(T0 + i * 1_000L, p.getTimestamp());
+            assertEquals(12.97 + i * 1e-5, p.getLatitude());
+            assertEquals((double) i, p.getSpeed());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.infosys.service.Telemetry;
+
+import com.infosys.model.Vehicle;
+import com.infosys.model.VehicleTelemetry;
+import com.infosys.service.Fleet.FleetStateStore;
+import com.infosys.service.VehicleService;
+import com.infosys.service.WebSocketService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/*
+ Purpose: Throughput benchmark of the sharded TelemetryIngestionService (target: 50k readings/s on one node).
+ Producers submit through the real service, backing off on a full shard like a client would on 429, while
+ its consumers validate, order-check and apply the readings to the live fleet state. Persistence is not
+ included - it is batched by the write-behind stage. Reports readings/s and backpressure rejections.
+ Tagged "benchmark": excluded from the default test run, run it with mvn test -Pbenchmark.
+*/
+@Tag("benchmark")
+class TelemetryIngestionBenchmarkTest {
+
+    private static final int VEHICLES = 5_000;
+    private static final int PRODUCERS = 4;
+    private static final int CONSUMERS = 4;
+    private static final int READINGS_PER_PRODUCER = 250_000;
+    private static final double REQUIRED_PER_SECOND = 50_000;
+
+    @Test
+    void sustainsRequiredIngestionRate() throws InterruptedException {
+        FleetStateStore store = new FleetStateStore();
+        for (long id = 1; id <= VEHICLES; id++) {
+            Vehicle v = new Vehicle();
+            v.setId(id);
+            v.setName("Bench-" + id);
+            store.upsert(v);
+        }
+
+        VehicleService vehicleService = mock(VehicleService.class);
+        doAnswer(inv -> {
+            store.updateTelemetry(inv.getArgument(0), inv.getArgument(1), inv.getArgument(2), inv.getArgument(3),
+                    inv.getArgument(4), inv.getArgument(5), System.currentTimeMillis());
+            return null; // within the dead-band: nothing to broadcast
+        }).when(vehicleService).updateTelemetry(anyLong(), any(), any(), any(), any(), any(), any());
+
+        TelemetryIngestionService service = new TelemetryIngestionService(65536, CONSUMERS);
+        ReflectionTestUtils.setField(service, "vehicleService", vehicleService);
+        ReflectionTestUtils.setField(service, "fleetState", store);
+        ReflectionTestUtils.setField(service, "webSocketService", mock(WebSocketService.class));
+
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            final int producer = p;
+            producers.add(new Thread(() -> {
+                // each producer owns every PRODUCERS-th vehicle, so per-vehicle timestamps only grow
+                int owned = VEHICLES / PRODUCERS;
+                for (int i = 0; i < READINGS_PER_PRODUCER; i++) {
+                    VehicleTelemetry r = VehicleTelemetry.builder()
+                            .vehicleId((long) (i % owned) * PRODUCERS + producer + 1)
+                            .speed(40.0 + i % 60).batteryLevel(80.0).fuelLevel(60.0)
+                            .latitude(12.97 + i * 1e-6).longitude(77.59)
+                            .timestamp(System.currentTimeMillis())
+                            .build();
+                    while (!service.submit(r)) Thread.yield();
+                }
+            }));
+        }
+
+        long started = System.nanoTime();
+        service.start();
+        producers.forEach(Thread::start);
+        for (Thread t : producers) t.join();
+        service.stop(); // consumers drain their shards before exiting
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        Map<String, Object> metrics = service.getMetrics();
+        long total = (long) PRODUCERS * READINGS_PER_PRODUCER;
+        double perSecond = total / seconds;
+        System.out.printf("Ingested %d readings in %.2fs: %.0f readings/s, %d submits rejected by backpressure, lag %s%n",
+                total, seconds, perSecond, (long) metrics.get("rejected"), metrics.get("lagMs"));
+
+        assertEquals(total, metrics.get("processed"), "every accepted reading must be processed");
+        assertEquals(0L, metrics.get("stale"));
+        assertEquals(0L, metrics.get("failed"));
+        assertTrue(perSecond >= REQUIRED_PER_SECOND,
+                "expected at least " + REQUIRED_PER_SECOND + " readings/s but got " + perSecond);
+    }
+}
@@ -0,0 +1,142 @@
+package com.infosys.service.Telemetry;
+
+import com.infosys.model.Vehicle;
+import com.infosys.model.VehicleTelemetry;
+import com.infosys.service.Fleet.FleetStateStore;
+import com.infosys.service.VehicleService;
+import com.infosys.service.WebSocketService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/*
+ Purpose: Order and completeness of TelemetryIngestionService. Several producers push interleaved readings
+ for many vehicles through the real service (small buffers, so submit has to be retried on backpressure);
+ every accepted reading must be applied exactly once and the readings of a vehicle in the order they were
+ sent. Readings older than the last applied device timestamp must be dropped; a timestamp far in the
+ future must not make the following readings look stale.
+*/
+class TelemetryIngestionServiceTest {
+
+    private static final int VEHICLES = 200;
+    private static final int PRODUCERS = 4;
+    private static final int READINGS_PER_VEHICLE = 500;
+
+    private FleetStateStore store;
+    private final Map<Long, List<Long>> applied = new ConcurrentHashMap<>(); // vehicleId -> device timestamps
+    private TelemetryIngestionService service;
+
+    @BeforeEach
+    void setUp() {
+        store = new FleetStateStore();
+        for (long id = 1; id <= VEHICLES; id++) {
+            Vehicle v = new Vehicle();
+            v.setId(id);
+            v.setName("Test-" + id);
+            store.upsert(v);
+        }
+
+        // the sequence number travels in the latitude; the vehicle service records it and updates the live state
+        VehicleService vehicleService = mock(VehicleService.class);
+        doAnswer(inv -> {
+            Long vehicleId = inv.getArgument(0);
+            Double lat = inv.getArgument(4);
+            applied.computeIfAbsent(vehicleId, k -> new CopyOnWriteArrayList<>()).add(Math.round(lat * 1e4));
+            store.updateTelemetry(vehicleId, inv.getArgument(1), inv.getArgument(2), inv.getArgument(3),
+                    lat, inv.getArgument(5), System.currentTimeMillis());
+            return null; // within the dead-band: nothing to broadcast
+        }).when(vehicleService).updateTelemetry(anyLong(), any(), any(), any(), any(), any(), any());
+
+        service = new TelemetryIngestionService(1024, 4);
+        ReflectionTestUtils.setField(service, "vehicleService", vehicleService);
+        ReflectionTestUtils.setField(service, "fleetState", store);
+        ReflectionTestUtils.setField(service, "webSocketService", mock(WebSocketService.class));
+        service.start();
+    }
+
+    @Test
+    void appliesEveryReadingOncePerVehicleInOrder() throws InterruptedException {
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            final int producer = p;
+            producers.add(new Thread(() -> {
+                // each producer owns every PRODUCERS-th vehicle and interleaves their readings
+                for (int seq = 1; seq <= READINGS_PER_VEHICLE; seq++) {
+                    for (long id = producer + 1; id <= VEHICLES; id += PRODUCERS) {
+                        VehicleTelemetry r = reading(id, seq);
+                        while (!service.submit(r)) Thread.yield(); // backpressure: retry like a client on 429
+                    }
+                }
+            }));
+        }
+        producers.forEach(Thread::start);
+        for (Thread t : producers) t.join();
+        service.stop(); // consumers drain their buffers before exiting
+
+        assertEquals((long) VEHICLES * READINGS_PER_VEHICLE, service.getMetrics().get("processed"));
+        assertEquals(0L, service.getMetrics().get("stale"));
+        assertEquals(0L, service.getMetrics().get("failed"));
+        for (long id = 1; id <= VEHICLES; id++) {
+            List<Long> seqs = applied.get(id);
+            assertEquals(READINGS_PER_VEHICLE, seqs.size(), "readings applied for vehicle " + id);
+            for (int i = 0; i < seqs.size(); i++) {
+                assertEquals(i + 1, seqs.get(i), "vehicle " + id + " applied out of order");
+            }
+            assertEquals(READINGS_PER_VEHICLE * 1e-4, store.latitude(store.slotOf(id)), 1e-9,
+                    "live state of vehicle " + id + " must hold its last reading");
+        }
+    }
+
+    @Test
+    void dropsReadingsOlderThanTheLastApplied() {
+        assertTrue(service.submit(reading(1L, 2)));
+        assertTrue(service.submit(reading(1L, 1))); // arrived late through another input
+        assertTrue(service.submit(reading(1L, 3)));
+        service.stop();
+
+        assertEquals(List.of(2L, 3L), applied.get(1L));
+        assertEquals(1L, service.getMetrics().get("stale"));
+        assertEquals(2L, service.getMetrics().get("processed"));
+    }
+
+    @Test
+    void futureTimestampIsCappedAndDoesNotBlockLaterReadings() throws InterruptedException {
+        ReflectionTestUtils.setField(service, "maxFutureSkewMs", 0L);
+        VehicleTelemetry broken = reading(1L, 1);
+        broken.setTimestamp(System.currentTimeMillis() * 1000); // micros sent as millis
+        assertTrue(service.submit(broken));
+        while ((long) service.getMetrics().get("processed") < 1) Thread.sleep(1);
+        Thread.sleep(2);
+
+        VehicleTelemetry next = reading(1L, 2);
+        next.setTimestamp(System.currentTimeMillis()); // a correct clock right after it
+        assertTrue(service.submit(next));
+        service.stop();
+
+        assertEquals(List.of(1L, 2L), applied.get(1L));
+        assertEquals(1L, service.getMetrics().get("future"));
+        assertEquals(0L, service.getMetrics().get("stale"));
+    }
+
+    private static VehicleTelemetry reading(long vehicleId, int seq) {
+        return VehicleTelemetry.builder()
+                .vehicleId(vehicleId)
+                .speed(40.0).batteryLevel(80.0).fuelLevel(60.0)
+                .latitude(seq * 1e-4).longitude(77.59)
+                .timestamp(1_700_000_000_000L + seq)
+                .build();
+    }
+}